@@ -0,0 +1,346 @@
+package io.gearsetup;
+
+import io.gearsetup.util.SolverWorkspace;
+import lombok.NonNull;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * An asynchronous facade over {@link OptimalGearSetup} that solves gear setups on an {@link Executor}.
+ * <p>
+ * {@link AsyncOptimalGearSetup} has the following characteristics:
+ * <ul>
+ * <li>Solves run on a configurable {@link Executor}, which defaults to a virtual thread per solve when the JVM supports
+ * virtual threads and a fixed pool of daemon threads otherwise.</li>
+ * <li>Concurrent requests for the same candidates, weighting function, and constraints are coalesced into a single solve.
+ * Weighting functions are compared by identity, so requests must share the same weighting function instance to be coalesced.</li>
+ * <li>Each returned {@link CompletableFuture} can be cancelled or given a deadline. The underlying solve is interrupted
+ * once every coalesced request for it has been cancelled or has timed out, which stops long recursive searches.</li>
+ * </ul>
+ * Virtual threads are detected at runtime, so {@link AsyncOptimalGearSetup} remains compatible with Java 8.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code CompletableFuture<Set<Equipment>> setup = AsyncOptimalGearSetup.create().findAsync(candidates, equipment -> equipment.getCombatBonuses().getPrayerBonus());}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class AsyncOptimalGearSetup {
+    private static final GearSetupConstraints UNCONSTRAINED = GearSetupConstraints.none();
+    private final Executor executor;
+    private final ConcurrentMap<Request, Solve> solves = new ConcurrentHashMap<>();
+    //workspaces are pooled rather than thread-local, as virtual threads are never reused between solves
+    //the pool is bounded so workspaces created during a burst of solves are dropped rather than retained forever
+    private final Queue<SolverWorkspace> workspaces = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Constructs a new {@link AsyncOptimalGearSetup} that solves gear setups on the specified {@link Executor}.
+     *
+     * @param executor the executor to run each solve on
+     */
+    private AsyncOptimalGearSetup(@NonNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Constructs a new {@link AsyncOptimalGearSetup} that solves each gear setup on a new virtual thread when the JVM
+     * supports virtual threads, otherwise on a fixed pool of daemon threads sized to the available processors.
+     *
+     * @return a new {@link AsyncOptimalGearSetup} using the default executor
+     */
+    public static AsyncOptimalGearSetup create() {
+        return new AsyncOptimalGearSetup(DefaultExecutor.INSTANCE);
+    }
+
+    /**
+     * Constructs a new {@link AsyncOptimalGearSetup} that solves gear setups on the specified {@link Executor}.
+     * <p>
+     * Cancelling a solve interrupts the thread running the solve, so the executor should run each solve on a thread that
+     * can be safely interrupted.
+     *
+     * @param executor the executor to run each solve on
+     * @return a new {@link AsyncOptimalGearSetup} using the specified executor
+     */
+    public static AsyncOptimalGearSetup create(@NonNull Executor executor) {
+        return new AsyncOptimalGearSetup(executor);
+    }
+
+    /**
+     * Asynchronously finds the optimal gear setup given the specified candidate {@link Equipment} and the weighting function to maximize.
+     *
+     * @param candidates the candidates to consider when finding optimal gear setup
+     * @param weight     the weight function to apply to each candidate when maximizing
+     * @return a future of the set of candidates that maximize the weight function while occupying unique equipment slot
+     * @see OptimalGearSetup#find(Set, ToDoubleFunction)
+     */
+    public CompletableFuture<Set<Equipment>> findAsync(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight) {
+        return subscribe(new Request(candidates, weight, UNCONSTRAINED));
+    }
+
+    /**
+     * Asynchronously finds the optimal gear setup given the specified candidate {@link Equipment}, the weighting function
+     * to maximize, and the {@link GearSetupConstraints} the gear setup must satisfy.
+     *
+     * @param candidates  the candidates to consider when finding optimal gear setup
+     * @param weight      the weight function to apply to each candidate when maximizing
+     * @param constraints the constraints the gear setup must satisfy
+     * @return a future of the set of candidates and forced equipment that maximize the weight function while satisfying the constraints
+     * @see OptimalGearSetup#find(Set, ToDoubleFunction, GearSetupConstraints)
+     */
+    public CompletableFuture<Set<Equipment>> findAsync(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                                                       @NonNull GearSetupConstraints constraints) {
+        return subscribe(new Request(candidates, weight, constraints));
+    }
+
+    /**
+     * Asynchronously finds the optimal gear setup given the specified candidate {@link Equipment}, the weighting function
+     * to maximize, and the {@link GearSetupConstraints} the gear setup must satisfy within the specified deadline.
+     * <p>
+     * The returned {@link CompletableFuture} completes exceptionally with a {@link TimeoutException} if the gear setup
+     * is not found before the deadline.
+     *
+     * @param candidates  the candidates to consider when finding optimal gear setup
+     * @param weight      the weight function to apply to each candidate when maximizing
+     * @param constraints the constraints the gear setup must satisfy
+     * @param deadline    the maximum duration to wait for the gear setup
+     * @return a future of the set of candidates and forced equipment that maximize the weight function while satisfying the constraints
+     * @see OptimalGearSetup#find(Set, ToDoubleFunction, GearSetupConstraints)
+     */
+    public CompletableFuture<Set<Equipment>> findAsync(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                                                       @NonNull GearSetupConstraints constraints, @NonNull Duration deadline) {
+        CompletableFuture<Set<Equipment>> future = subscribe(new Request(candidates, weight, constraints));
+        ScheduledFuture<?> timeout = DeadlineScheduler.INSTANCE.schedule(
+                () -> future.completeExceptionally(new TimeoutException("Gear setup was not found within " + deadline + ".")),
+                deadline.toNanos(), TimeUnit.NANOSECONDS);
+        future.whenComplete((setup, throwable) -> timeout.cancel(false));
+        return future;
+    }
+
+    /**
+     * Subscribes to the in-flight {@link Solve} of the specified {@link Request}, starting a new solve if there is not
+     * already one in-flight.
+     *
+     * @param request the request to solve
+     * @return a future of the solved gear setup which is independent of the futures of other subscribers
+     */
+    private CompletableFuture<Set<Equipment>> subscribe(Request request) {
+        while (true) {
+            Solve solve = solves.get(request);
+            boolean started = false;
+            if (solve == null) {
+                Solve created = new Solve(request);
+                solve = solves.putIfAbsent(request, created);
+                if (solve == null) {
+                    solve = created;
+                    started = true;
+                }
+            }
+            //a solve that was cancelled by its last subscriber cannot accept new subscribers
+            if (!solve.subscribe()) {
+                solves.remove(request, solve);
+                continue;
+            }
+            CompletableFuture<Set<Equipment>> future = new CompletableFuture<>();
+            Solve subscribed = solve;
+            solve.result.whenComplete((setup, throwable) -> {
+                if (throwable == null) {
+                    future.complete(setup);
+                } else {
+                    future.completeExceptionally(throwable);
+                }
+            });
+            future.whenComplete((setup, throwable) -> subscribed.unsubscribe());
+            if (started) {
+                try {
+                    executor.execute(solve::run);
+                } catch (RejectedExecutionException e) {
+                    solves.remove(request, solve);
+                    solve.result.completeExceptionally(e);
+                }
+            }
+            return future;
+        }
+    }
+
+    /**
+     * Borrows a {@link SolverWorkspace} from the pool of workspaces, creating a new workspace if the pool is empty.
+     *
+     * @return a workspace that is not in use by another solve
+     */
+    private SolverWorkspace borrowWorkspace() {
+        SolverWorkspace workspace = workspaces.poll();
+        return workspace == null ? new SolverWorkspace() : workspace;
+    }
+
+    /**
+     * A representation of the inputs of a solve, used to coalesce identical concurrent requests.
+     */
+    private static final class Request {
+        private final Set<Equipment> candidates;
+        private final ToDoubleFunction<Equipment> weight;
+        private final GearSetupConstraints constraints;
+        private final int hashCode;
+
+        private Request(Set<Equipment> candidates, ToDoubleFunction<Equipment> weight, GearSetupConstraints constraints) {
+            this.candidates = candidates;
+            this.weight = weight;
+            this.constraints = constraints;
+            this.hashCode = Objects.hash(candidates, System.identityHashCode(weight), constraints);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof Request)) {
+                return false;
+            }
+            Request other = (Request) object;
+            return hashCode == other.hashCode
+                    && weight == other.weight
+                    && constraints.equals(other.constraints)
+                    && candidates.equals(other.candidates);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A representation of a single in-flight solve shared by every coalesced subscriber.
+     */
+    private final class Solve {
+        private final Request request;
+        private final CompletableFuture<Set<Equipment>> result = new CompletableFuture<>();
+        private int subscribers;
+        private boolean cancelled;
+        private Thread runner;
+
+        private Solve(Request request) {
+            this.request = request;
+        }
+
+        /**
+         * Adds a subscriber to the solve.
+         *
+         * @return {@code true} if the subscriber was added or {@code false} if the solve has already been cancelled
+         */
+        private synchronized boolean subscribe() {
+            if (cancelled) {
+                return false;
+            }
+            subscribers++;
+            return true;
+        }
+
+        /**
+         * Removes a subscriber from the solve, cancelling the solve once no subscriber is waiting on the result.
+         */
+        private void unsubscribe() {
+            synchronized (this) {
+                if (--subscribers > 0 || result.isDone()) {
+                    return;
+                }
+                cancelled = true;
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+            solves.remove(request, this);
+            result.cancel(false);
+        }
+
+        /**
+         * Runs the solve on the current thread, completing the shared result.
+         */
+        private void run() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            //only the unconstrained search reuses a workspace, so constrained solves never hold one from the pool
+            SolverWorkspace workspace = request.constraints.equals(UNCONSTRAINED) ? borrowWorkspace() : null;
+            try {
+                Set<Equipment> setup = workspace != null
+                        ? OptimalGearSetup.find(request.candidates, request.weight, workspace)
+                        : OptimalGearSetup.find(request.candidates, request.weight, request.constraints);
+                solves.remove(request, this);
+                result.complete(setup);
+            } catch (Throwable throwable) {
+                solves.remove(request, this);
+                result.completeExceptionally(throwable);
+            } finally {
+                if (workspace != null) {
+                    //a full pool drops the workspace, along with its buffers
+                    workspaces.offer(workspace);
+                }
+                synchronized (this) {
+                    runner = null;
+                    //clear an interrupt from a cancellation that raced with completion, so pooled threads are not left interrupted
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    /**
+     * A lazily initialized holder of the default {@link Executor}.
+     */
+    private static final class DefaultExecutor {
+        private static final Executor INSTANCE = create();
+
+        /**
+         * Creates a virtual thread per task executor if the JVM supports virtual threads, otherwise a fixed pool of
+         * daemon threads sized to the available processors.
+         *
+         * @return the default executor
+         */
+        private static Executor create() {
+            try {
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (Executor) method.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), daemonThreads("gearsetup-solver"));
+            }
+        }
+    }
+
+    /**
+     * A lazily initialized holder of the {@link ScheduledExecutorService} that enforces deadlines.
+     */
+    private static final class DeadlineScheduler {
+        private static final ScheduledExecutorService INSTANCE = createScheduler();
+
+        private static ScheduledExecutorService createScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("gearsetup-deadline"));
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} of daemon threads, so idle solver threads never prevent the JVM from exiting.
+     *
+     * @param name the name of the threads
+     * @return a thread factory of daemon threads
+     */
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A representation of the precomputed {@link SlotRanking} of every {@link CombatBonus} and every set of
+ * {@link EquipmentSlot} occupied by some piece of {@link Equipment}, which answers the standard objectives of
+ * {@link OptimalGearSetup} without sorting or weighing the {@link Equipment} of each request.
+ * <p>
+ * The table is computed once for each {@link Equipment} snapshot by the snapshot pipeline and shipped alongside it, where
+ * {@link OptimalGearSetup#find(EquipmentCatalog, BestInSlotTable, CombatBonus, PlayerUnlocks)} walks the rankings of a
+ * {@link CombatBonus} with the {@link PlayerUnlocks} of a character.
+ * <p>
+ * {@link BestInSlotTable} is immutable and thread-safe.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code BestInSlotTable table = BestInSlotTable.compute(repository.load());}
+ * <p>
+ * {@code Set<Equipment> highestSlashAttack = OptimalGearSetup.find(catalog, table, CombatBonus.SLASH_ATTACK, unlocks);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class BestInSlotTable {
+    private static final Comparator<Ranked> RANKED_ORDER = Comparator.comparingInt((Ranked ranked) -> -ranked.score)
+            .thenComparingInt(ranked -> ranked.equipment.getId());
+    private final Set<SlotRanking> rankings;
+    private final Map<CombatBonus, List<SlotRanking>> rankingsByBonus;
+
+    private BestInSlotTable(Set<SlotRanking> rankings, Map<CombatBonus, List<SlotRanking>> rankingsByBonus) {
+        this.rankings = rankings;
+        this.rankingsByBonus = rankingsByBonus;
+    }
+
+    /**
+     * Constructs a new {@link BestInSlotTable} of the specified {@link SlotRanking}, typically loaded from a snapshot.
+     *
+     * @param rankings the rankings of the table
+     * @return a new table of the rankings
+     * @throws IllegalArgumentException indicating two rankings share the same bonus and occupied slots
+     */
+    public static BestInSlotTable of(@NonNull Collection<SlotRanking> rankings) {
+        Map<CombatBonus, List<SlotRanking>> rankingsByBonus = new EnumMap<>(CombatBonus.class);
+        Map<CombatBonus, Set<Integer>> masks = new EnumMap<>(CombatBonus.class);
+        for (CombatBonus bonus : CombatBonus.values()) {
+            rankingsByBonus.put(bonus, new ArrayList<>());
+            masks.put(bonus, new HashSet<>());
+        }
+        for (SlotRanking ranking : rankings) {
+            if (!masks.get(ranking.getBonus()).add(ranking.getSlotMask())) {
+                throw new IllegalArgumentException("Duplicate ranking of " + ranking.getBonus() + " for " + ranking.getOccupiedSlots() + ".");
+            }
+            rankingsByBonus.get(ranking.getBonus()).add(ranking);
+        }
+        for (CombatBonus bonus : CombatBonus.values()) {
+            rankingsByBonus.put(bonus, ImmutableList.copyOf(rankingsByBonus.get(bonus)));
+        }
+        return new BestInSlotTable(ImmutableSet.copyOf(rankings), rankingsByBonus);
+    }
+
+    /**
+     * Computes the {@link BestInSlotTable} of the specified {@link Equipment}.
+     * <p>
+     * For each {@link CombatBonus} and set of occupied {@link EquipmentSlot}, the {@link Equipment} with a positive value
+     * of the bonus is sorted in descending order of the bonus, breaking ties by id. Each piece of {@link Equipment} is
+     * then dropped when it is dominated by an earlier piece of {@link Equipment}, which every character that unlocks it
+     * has also unlocked.
+     *
+     * @param equipment the equipment to rank
+     * @return the table of the equipment
+     */
+    public static BestInSlotTable compute(@NonNull Collection<Equipment> equipment) {
+        //the character with exactly the requirements of each piece of equipment, used to test if a requirement is implied
+        Map<Equipment, PlayerUnlocks> minimums = new HashMap<>();
+        for (Equipment value : equipment) {
+            minimums.put(value, minimum(value));
+        }
+        List<SlotRanking> rankings = new ArrayList<>();
+        for (CombatBonus bonus : CombatBonus.values()) {
+            Map<Integer, List<Ranked>> groups = new HashMap<>();
+            for (Equipment value : equipment) {
+                int score = bonus.get(value.getCombatBonuses());
+                if (score > 0 && value.getSlotMask() != 0) {
+                    groups.computeIfAbsent(value.getSlotMask(), mask -> new ArrayList<>()).add(new Ranked(value, score));
+                }
+            }
+            for (Map.Entry<Integer, List<Ranked>> group : groups.entrySet()) {
+                List<Ranked> ranked = group.getValue();
+                ranked.sort(RANKED_ORDER);
+                SlotRanking.Builder builder = SlotRanking.builder()
+                        .setBonus(bonus)
+                        .setOccupiedSlots(EquipmentSlot.slots(group.getKey()));
+                List<Equipment> skyline = new ArrayList<>();
+                for (Ranked candidate : ranked) {
+                    PlayerUnlocks minimum = minimums.get(candidate.equipment);
+                    boolean dominated = false;
+                    for (int i = 0; i < skyline.size() && !dominated; i++) {
+                        dominated = minimum.canEquip(skyline.get(i));
+                    }
+                    if (!dominated) {
+                        skyline.add(candidate.equipment);
+                        builder.addEquipmentId(candidate.equipment.getId()).addScore(candidate.score);
+                    }
+                }
+                rankings.add(builder.build());
+            }
+        }
+        return of(rankings);
+    }
+
+    /**
+     * Represents every {@link SlotRanking} of the table.
+     *
+     * @return the rankings of the table
+     */
+    public Set<SlotRanking> getRankings() {
+        return rankings;
+    }
+
+    /**
+     * Represents the {@link SlotRanking} of the specified {@link CombatBonus}, one for each set of occupied
+     * {@link EquipmentSlot}.
+     *
+     * @param bonus the bonus of the rankings
+     * @return the rankings of the bonus
+     */
+    public List<SlotRanking> getRankings(@NonNull CombatBonus bonus) {
+        return rankingsByBonus.get(bonus);
+    }
+
+    /**
+     * Creates the {@link PlayerUnlocks} of a character that meets exactly the requirements of the specified {@link Equipment}.
+     *
+     * @param equipment the equipment to create the unlocks for
+     * @return the minimum unlocks to equip the equipment
+     */
+    private static PlayerUnlocks minimum(Equipment equipment) {
+        PlayerUnlocks.Builder builder = PlayerUnlocks.builder();
+        Map<Skill, Integer> levels = new EnumMap<>(Skill.class);
+        for (EquipmentRequirement requirement : equipment.getRequirements()) {
+            requirement.accept(new EquipmentRequirementVisitor<Void>() {
+                @Override
+                public Void visit(QuestRequirement requirement) {
+                    builder.addCompletedQuest(requirement.getQuestName());
+                    return null;
+                }
+
+                @Override
+                public Void visit(SkillRequirement requirement) {
+                    levels.merge(requirement.getSkill(), requirement.getLevel(), Math::max);
+                    return null;
+                }
+            });
+        }
+        return builder.setSkillLevels(levels).build();
+    }
+
+    /**
+     * A representation of a piece of {@link Equipment} with the value of the bonus it is ranked by.
+     */
+    private static final class Ranked {
+        private final Equipment equipment;
+        private final int score;
+
+        private Ranked(Equipment equipment, int score) {
+            this.equipment = equipment;
+            this.score = score;
+        }
+    }
+}
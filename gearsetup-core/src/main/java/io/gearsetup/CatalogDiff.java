@@ -0,0 +1,255 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableList;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A representation of the differences between two versions of a catalog of {@link Equipment}, matched by
+ * {@link Equipment#getId()}.
+ * <p>
+ * The diff is computed in a single sort-merge pass over both versions in ascending order of id, where every id is
+ * either added, removed, changed or unchanged. Versions of the same id are changed when their {@link EquipmentChange}
+ * has a non-zero field mask, so versions of different {@link Equipment} implementations with the same values (e.g.
+ * the cursors of two {@link EquipmentStore}) are unchanged. {@link CatalogDiff#stream(Iterator, Iterator, CatalogDiffListener)}
+ * merges versions that are already sorted by id (e.g. read in manifest order) and reports each difference to a
+ * {@link CatalogDiffListener} without holding either version in memory, while {@link CatalogDiff#compute(Collection, Collection)}
+ * sorts two unordered versions and collects the differences.
+ * <p>
+ * The affected slot mask and bonus mask of the diff summarize which {@link EquipmentSlot} and {@link CombatBonus} could
+ * rank differently in the newer catalog, so caches keyed by slots or objectives only need to rebuild the affected keys.
+ * <p>
+ * {@link CatalogDiff} is immutable and thread-safe.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code CatalogDiff diff = CatalogDiff.compute(previous, repository.load());}
+ * <p>
+ * {@code boolean rebuildPrayer = (diff.getAffectedBonusMask() & 1 << CombatBonus.PRAYER.ordinal()) != 0;}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class CatalogDiff {
+    private static final Comparator<Equipment> ID_ORDER = Comparator.comparingInt(Equipment::getId);
+    private static final CombatBonus[] BONUSES = CombatBonus.values();
+    private final List<Equipment> added;
+    private final List<Equipment> removed;
+    private final List<EquipmentChange> changed;
+    private final int affectedSlotMask;
+    private final int affectedBonusMask;
+
+    private CatalogDiff(List<Equipment> added, List<Equipment> removed, List<EquipmentChange> changed,
+                        int affectedSlotMask, int affectedBonusMask) {
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+        this.affectedSlotMask = affectedSlotMask;
+        this.affectedBonusMask = affectedBonusMask;
+    }
+
+    /**
+     * Computes the {@link CatalogDiff} between the specified versions of a catalog.
+     *
+     * @param older the equipment of the older catalog
+     * @param newer the equipment of the newer catalog
+     * @return the diff between the catalogs
+     * @throws IllegalArgumentException indicating two pieces of equipment of a catalog share the same id
+     */
+    public static CatalogDiff compute(@NonNull Collection<Equipment> older, @NonNull Collection<Equipment> newer) {
+        Collector collector = new Collector();
+        stream(sorted(older), sorted(newer), collector);
+        return new CatalogDiff(ImmutableList.copyOf(collector.added), ImmutableList.copyOf(collector.removed),
+                ImmutableList.copyOf(collector.changed), collector.affectedSlotMask, collector.affectedBonusMask);
+    }
+
+    /**
+     * Merges the specified versions of a catalog, reporting each difference to the {@link CatalogDiffListener}.
+     * <p>
+     * Both versions must be in strictly ascending order of {@link Equipment#getId()}. Each version is consumed once,
+     * so the versions may be streamed from storage.
+     *
+     * @param older    the equipment of the older catalog in ascending order of id
+     * @param newer    the equipment of the newer catalog in ascending order of id
+     * @param listener the listener of the differences
+     * @throws IllegalArgumentException indicating a catalog is not in strictly ascending order of id
+     */
+    public static void stream(@NonNull Iterator<Equipment> older, @NonNull Iterator<Equipment> newer,
+                              @NonNull CatalogDiffListener listener) {
+        Equipment left = next(older, null);
+        Equipment right = next(newer, null);
+        while (left != null || right != null) {
+            if (right == null || (left != null && left.getId() < right.getId())) {
+                listener.onRemoved(left);
+                left = next(older, left);
+            } else if (left == null || right.getId() < left.getId()) {
+                listener.onAdded(right);
+                right = next(newer, right);
+            } else {
+                //equal versions are unchanged, while unequal versions may still have the same values (e.g. cursors of
+                //two stores), so the versions are only changed if their field mask is non-zero
+                if (!left.equals(right)) {
+                    EquipmentChange change = EquipmentChange.of(left, right);
+                    if (change.getFieldMask() != 0) {
+                        listener.onChanged(change);
+                    }
+                }
+                left = next(older, left);
+                right = next(newer, right);
+            }
+        }
+    }
+
+    /**
+     * Represents the {@link Equipment} present only in the newer catalog in ascending order of id.
+     *
+     * @return the added equipment
+     */
+    public List<Equipment> getAdded() {
+        return added;
+    }
+
+    /**
+     * Represents the {@link Equipment} present only in the older catalog in ascending order of id.
+     *
+     * @return the removed equipment
+     */
+    public List<Equipment> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Represents the {@link EquipmentChange} of the {@link Equipment} present in both catalogs with different versions
+     * in ascending order of id.
+     *
+     * @return the changed equipment
+     */
+    public List<EquipmentChange> getChanged() {
+        return changed;
+    }
+
+    /**
+     * Represents the mask of every {@link EquipmentSlot} occupied by added, removed or changed {@link Equipment} in
+     * either catalog.
+     *
+     * @return the mask of the affected slots
+     * @see EquipmentSlot#slots(int)
+     */
+    public int getAffectedSlotMask() {
+        return affectedSlotMask;
+    }
+
+    /**
+     * Represents the mask of every {@link CombatBonus} whose ranking of {@link Equipment} may differ between the two
+     * catalogs, where each bonus is the bit {@code 1 << bonus.ordinal()}.
+     * <p>
+     * A bonus is affected by added or removed {@link Equipment} with a non-zero value of the bonus, by changed
+     * {@link Equipment} whose value of the bonus changed, and by changed {@link Equipment} with a non-zero value of the
+     * bonus in either version whose slots or requirements changed.
+     *
+     * @return the mask of the affected combat bonuses
+     */
+    public int getAffectedBonusMask() {
+        return affectedBonusMask;
+    }
+
+    /**
+     * Determines whether the two catalogs are equal.
+     *
+     * @return {@code true} if no equipment was added, removed or changed
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * Sorts the specified {@link Equipment} in ascending order of id.
+     *
+     * @param equipment the equipment to sort
+     * @return an iterator of the sorted equipment
+     */
+    private static Iterator<Equipment> sorted(Collection<Equipment> equipment) {
+        List<Equipment> sorted = new ArrayList<>(equipment);
+        sorted.sort(ID_ORDER);
+        return sorted.iterator();
+    }
+
+    /**
+     * Advances the specified version of a catalog, validating it is in strictly ascending order of id.
+     *
+     * @param equipment the equipment of the catalog
+     * @param previous  the previous equipment of the catalog or {@code null} if there is no previous equipment
+     * @return the next equipment of the catalog or {@code null} if the catalog is exhausted
+     * @throws IllegalArgumentException indicating the next equipment does not have a greater id than the previous equipment
+     */
+    private static Equipment next(Iterator<Equipment> equipment, Equipment previous) {
+        if (!equipment.hasNext()) {
+            return null;
+        }
+        Equipment next = equipment.next();
+        if (previous != null && next.getId() <= previous.getId()) {
+            throw new IllegalArgumentException(next.getId() == previous.getId()
+                    ? "Duplicate equipment id " + next.getId() + "."
+                    : "Equipment id " + next.getId() + " is not in ascending order.");
+        }
+        return next;
+    }
+
+    /**
+     * Calculates the mask of every {@link CombatBonus} with a non-zero value for the specified {@link Equipment}.
+     *
+     * @param equipment the equipment
+     * @return the mask of the non-zero combat bonuses
+     */
+    private static int nonZeroBonusMask(Equipment equipment) {
+        CombatBonuses bonuses = equipment.getCombatBonuses();
+        int mask = 0;
+        for (CombatBonus bonus : BONUSES) {
+            if (bonus.get(bonuses) != 0) {
+                mask |= 1 << bonus.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * A {@link CatalogDiffListener} collecting every difference and the affected masks of a {@link CatalogDiff}.
+     */
+    private static final class Collector implements CatalogDiffListener {
+        private static final int RANKING_FIELDS = EquipmentField.SLOTS.getMask() | EquipmentField.REQUIREMENTS.getMask();
+        private final List<Equipment> added = new ArrayList<>();
+        private final List<Equipment> removed = new ArrayList<>();
+        private final List<EquipmentChange> changed = new ArrayList<>();
+        private int affectedSlotMask;
+        private int affectedBonusMask;
+
+        @Override
+        public void onAdded(Equipment equipment) {
+            added.add(equipment);
+            affectedSlotMask |= equipment.getSlotMask();
+            affectedBonusMask |= nonZeroBonusMask(equipment);
+        }
+
+        @Override
+        public void onRemoved(Equipment equipment) {
+            removed.add(equipment);
+            affectedSlotMask |= equipment.getSlotMask();
+            affectedBonusMask |= nonZeroBonusMask(equipment);
+        }
+
+        @Override
+        public void onChanged(EquipmentChange change) {
+            changed.add(change);
+            affectedSlotMask |= change.getOlder().getSlotMask() | change.getNewer().getSlotMask();
+            affectedBonusMask |= change.getBonusMask();
+            if ((change.getFieldMask() & RANKING_FIELDS) != 0) {
+                affectedBonusMask |= nonZeroBonusMask(change.getOlder()) | nonZeroBonusMask(change.getNewer());
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.gearsetup;
+
+import java.util.Iterator;
+
+/**
+ * A listener of the differences found by {@link CatalogDiff} while merging two versions of a catalog.
+ * <p>
+ * Differences are reported in ascending order of {@link Equipment#getId()} as soon as they are found, so a listener
+ * can invalidate or rebuild the affected parts of its caches without waiting for the whole diff. Pieces of
+ * {@link Equipment} that are equal in both versions are not reported.
+ * <p>
+ * Examples:
+ * <p>
+ * Invalidating the cached rankings of each changed slot:
+ * <p>
+ * {@code CatalogDiff.stream(older, newer, new CatalogDiffListener() { public void onChanged(EquipmentChange change) { cache.invalidate(change.getOlder().getSlotMask() | change.getNewer().getSlotMask()); } });}
+ *
+ * @author Ian Caffey
+ * @see CatalogDiff#stream(Iterator, Iterator, CatalogDiffListener)
+ * @since 1.0
+ */
+public interface CatalogDiffListener {
+    /**
+     * Invoked for each piece of {@link Equipment} present only in the newer catalog.
+     *
+     * @param equipment the added equipment
+     */
+    default void onAdded(Equipment equipment) {
+    }
+
+    /**
+     * Invoked for each piece of {@link Equipment} present only in the older catalog.
+     *
+     * @param equipment the removed equipment
+     */
+    default void onRemoved(Equipment equipment) {
+    }
+
+    /**
+     * Invoked for each piece of {@link Equipment} present in both catalogs with different versions.
+     *
+     * @param change the change of the equipment
+     */
+    default void onChanged(EquipmentChange change) {
+    }
+}
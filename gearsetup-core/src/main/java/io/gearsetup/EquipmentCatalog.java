@@ -0,0 +1,262 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableSet;
+import io.gearsetup.util.IntIntMap;
+import io.gearsetup.util.IntSet;
+import io.gearsetup.util.ParetoSkyline;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A representation of a fixed set of {@link Equipment} where each piece of {@link Equipment} is assigned a dense index
+ * {@code [0, size)} and is looked up by {@link Equipment#getId()}.
+ * <p>
+ * Lookups by id use an {@link IntIntMap}, so they never hash or compare the {@link Equipment} itself, and the
+ * {@link Equipment#getSlotMask()} of each piece of {@link Equipment} is copied into a primitive array when the catalog is created.
+ * Weighting functions can be applied once to create a primitive weight table indexed by catalog index using
+ * {@link EquipmentCatalog#weigh(ToDoubleFunction)}, which can be reused by every solve using the same weights.
+ * <p>
+ * The Pareto skyline of the catalog over every {@link CombatBonus} is computed on first use of
+ * {@link EquipmentCatalog#getSkyline()} and cached, so every objective that only increases with the bonuses reuses the
+ * same reduced catalog.
+ * <p>
+ * {@link EquipmentCatalog} is immutable and thread-safe.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code EquipmentCatalog catalog = EquipmentCatalog.of(repository.load());}
+ * <p>
+ * {@code Set<Equipment> highestPrayerBonus = OptimalGearSetup.find(catalog, catalog.weigh(equipment -> equipment.getCombatBonuses().getPrayerBonus()));}
+ * <p>
+ * {@code Set<Equipment> highestMeleeBonuses = OptimalGearSetup.find(catalog.getSkyline(), equipment -> CombatBonus.SLASH_ATTACK.applyAsDouble(equipment) + 4 * CombatBonus.MELEE_STRENGTH.applyAsDouble(equipment));}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class EquipmentCatalog {
+    private final Equipment[] equipment;
+    private final int[] slotMasks;
+    private final IntIntMap indices;
+    private final Set<Equipment> set;
+    //lazily computed, racing threads compute equal skylines
+    private volatile EquipmentCatalog skyline;
+
+    private EquipmentCatalog(Equipment[] equipment, int[] slotMasks, IntIntMap indices, Set<Equipment> set) {
+        this.equipment = equipment;
+        this.slotMasks = slotMasks;
+        this.indices = indices;
+        this.set = set;
+    }
+
+    /**
+     * Constructs a new {@link EquipmentCatalog} of the specified {@link Equipment}, indexed in iteration order.
+     *
+     * @param equipment the equipment of the catalog
+     * @return a new catalog of the equipment
+     * @throws IllegalArgumentException indicating two pieces of equipment share the same id
+     */
+    public static EquipmentCatalog of(@NonNull Collection<Equipment> equipment) {
+        Equipment[] values = new Equipment[equipment.size()];
+        int[] slotMasks = new int[values.length];
+        IntIntMap indices = new IntIntMap(values.length);
+        int index = 0;
+        for (Equipment value : equipment) {
+            if (indices.containsKey(value.getId())) {
+                throw new IllegalArgumentException("Duplicate equipment id " + value.getId() + ".");
+            }
+            indices.put(value.getId(), index);
+            values[index] = value;
+            slotMasks[index++] = value.getSlotMask();
+        }
+        return new EquipmentCatalog(values, slotMasks, indices, ImmutableSet.copyOf(values));
+    }
+
+    /**
+     * Creates the set of ids of the specified {@link Equipment}.
+     *
+     * @param equipment the equipment to collect the ids of
+     * @return the set of equipment ids
+     */
+    public static IntSet ids(@NonNull Collection<Equipment> equipment) {
+        IntSet ids = new IntSet(equipment.size());
+        for (Equipment value : equipment) {
+            ids.add(value.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Represents the number of {@link Equipment} in the catalog.
+     *
+     * @return the equipment count
+     */
+    public int size() {
+        return equipment.length;
+    }
+
+    /**
+     * Represents every {@link Equipment} in the catalog, in index order.
+     *
+     * @return the equipment of the catalog
+     */
+    public Set<Equipment> getEquipment() {
+        return set;
+    }
+
+    /**
+     * Finds the {@link Equipment} at the specified index.
+     *
+     * @param index the index of the equipment
+     * @return the equipment at the index
+     * @throws ArrayIndexOutOfBoundsException indicating the index is not in {@code [0, size)}
+     */
+    public Equipment get(int index) {
+        return equipment[index];
+    }
+
+    /**
+     * Finds the index of the {@link Equipment} with the specified id.
+     *
+     * @param id the id of the equipment
+     * @return the index of the equipment or {@code -1} if the catalog does not contain the id
+     */
+    public int indexOf(int id) {
+        return indices.get(id, -1);
+    }
+
+    /**
+     * Finds the {@link Equipment} with the specified id.
+     *
+     * @param id the id of the equipment
+     * @return the equipment with the id or {@link Optional#empty()} if the catalog does not contain the id
+     */
+    public Optional<Equipment> find(int id) {
+        int index = indices.get(id, -1);
+        return index < 0 ? Optional.empty() : Optional.of(equipment[index]);
+    }
+
+    /**
+     * Determines if the catalog contains {@link Equipment} with the same id as the specified {@link Equipment}.
+     *
+     * @param equipment the equipment to check
+     * @return {@code true} if the catalog contains the id of the equipment
+     */
+    public boolean contains(@NonNull Equipment equipment) {
+        return indices.containsKey(equipment.getId());
+    }
+
+    /**
+     * Represents the {@link EquipmentSlot} mask of the {@link Equipment} at the specified index, where each slot is
+     * represented as the bit {@code 1 << slot.ordinal()}.
+     *
+     * @param index the index of the equipment
+     * @return the mask of the occupied slots of the equipment
+     * @throws ArrayIndexOutOfBoundsException indicating the index is not in {@code [0, size)}
+     */
+    public int getSlotMask(int index) {
+        return slotMasks[index];
+    }
+
+    /**
+     * Represents the Pareto skyline of the catalog, which is the catalog of the {@link Equipment} that is not dominated
+     * by another piece of {@link Equipment} occupying the same {@link EquipmentSlot}.
+     * <p>
+     * A piece of {@link Equipment} is dominated when another piece of {@link Equipment} with the same slot mask has at
+     * least the same value of every {@link CombatBonus}, so the optimal gear setup of any weighting function that never
+     * decreases when a bonus increases (e.g. a non-negative linear combination of bonuses) can be found in the skyline.
+     * Weighting functions of anything else, such as {@link Equipment#getWeight()} or requirements, must use the full catalog.
+     * <p>
+     * The skyline is computed by {@link ParetoSkyline} on first use and cached, and the skyline is its own skyline.
+     *
+     * @return the catalog of the undominated equipment, in index order
+     */
+    public EquipmentCatalog getSkyline() {
+        EquipmentCatalog result = skyline;
+        if (result == null) {
+            result = computeSkyline();
+            skyline = result;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the Pareto skyline of the {@link Equipment} of each slot mask of the catalog.
+     *
+     * @return the catalog of the undominated equipment
+     */
+    private EquipmentCatalog computeSkyline() {
+        CombatBonus[] bonuses = CombatBonus.values();
+        IntIntMap groups = new IntIntMap(16);
+        List<int[]> members = new ArrayList<>();
+        int[] sizes = new int[equipment.length];
+        //group the catalog indices by slot mask
+        for (int i = 0; i < equipment.length; i++) {
+            int group = groups.get(slotMasks[i], -1);
+            if (group < 0) {
+                group = members.size();
+                groups.put(slotMasks[i], group);
+                members.add(new int[4]);
+            }
+            int[] indices = members.get(group);
+            if (sizes[group] == indices.length) {
+                indices = Arrays.copyOf(indices, indices.length << 1);
+                members.set(group, indices);
+            }
+            indices[sizes[group]++] = i;
+        }
+        boolean[] kept = new boolean[equipment.length];
+        int[] vectors = new int[0];
+        int[] result = new int[0];
+        for (int group = 0; group < members.size(); group++) {
+            int[] indices = members.get(group);
+            int count = sizes[group];
+            if (vectors.length < count * bonuses.length) {
+                vectors = new int[count * bonuses.length];
+                result = new int[count];
+            }
+            for (int i = 0; i < count; i++) {
+                CombatBonuses values = equipment[indices[i]].getCombatBonuses();
+                for (int d = 0; d < bonuses.length; d++) {
+                    vectors[i * bonuses.length + d] = bonuses[d].get(values);
+                }
+            }
+            int size = ParetoSkyline.find(vectors, bonuses.length, count, result);
+            for (int i = 0; i < size; i++) {
+                kept[indices[result[i]]] = true;
+            }
+        }
+        List<Equipment> undominated = new ArrayList<>();
+        for (int i = 0; i < equipment.length; i++) {
+            if (kept[i]) {
+                undominated.add(equipment[i]);
+            }
+        }
+        if (undominated.size() == equipment.length) {
+            return this;
+        }
+        EquipmentCatalog catalog = of(undominated);
+        catalog.skyline = catalog;
+        return catalog;
+    }
+
+    /**
+     * Applies the specified weighting function to every {@link Equipment} in the catalog.
+     *
+     * @param weight the weighting function for each piece of equipment
+     * @return the weight table, where the weight of the equipment at index {@code i} is at {@code i}
+     */
+    public double[] weigh(@NonNull ToDoubleFunction<Equipment> weight) {
+        double[] weights = new double[equipment.length];
+        for (int i = 0; i < equipment.length; i++) {
+            weights[i] = weight.applyAsDouble(equipment[i]);
+        }
+        return weights;
+    }
+}
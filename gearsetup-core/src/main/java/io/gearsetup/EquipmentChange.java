@@ -0,0 +1,127 @@
+package io.gearsetup;
+
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Check;
+import org.immutables.value.Value.Derived;
+import org.immutables.value.Value.Immutable;
+
+/**
+ * A representation of a change of a piece of {@link Equipment} between two versions of a catalog, as found by
+ * {@link CatalogDiff}.
+ * <p>
+ * The change records which {@link EquipmentField} differ between the older and newer version as a field mask, and
+ * which {@link CombatBonus} differ as a bonus mask where each bonus is the bit {@code 1 << bonus.ordinal()}. Both masks
+ * are calculated once when the change is created.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code boolean prayerChanged = change.isChanged(CombatBonus.PRAYER);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface EquipmentChange {
+    //Immutables factory stub to hide immutable class dependency
+    static EquipmentChange of(Equipment older, Equipment newer) {
+        return ImmutableEquipmentChange.of(older, newer);
+    }
+
+    /**
+     * Represents the version of the {@link Equipment} in the older catalog.
+     *
+     * @return the older version
+     */
+    Equipment getOlder();
+
+    /**
+     * Represents the version of the {@link Equipment} in the newer catalog.
+     *
+     * @return the newer version
+     */
+    Equipment getNewer();
+
+    /**
+     * Represents the mask of every {@link EquipmentField} that differs between the two versions.
+     *
+     * @return the mask of the changed fields
+     * @see EquipmentField#fields(int)
+     */
+    @Derived
+    default int getFieldMask() {
+        Equipment older = getOlder();
+        Equipment newer = getNewer();
+        int mask = 0;
+        if (!older.getName().equals(newer.getName())) {
+            mask |= EquipmentField.NAME.getMask();
+        }
+        if (older.getSlotMask() != newer.getSlotMask()) {
+            mask |= EquipmentField.SLOTS.getMask();
+        }
+        if (getBonusMask() != 0) {
+            mask |= EquipmentField.COMBAT_BONUSES.getMask();
+        }
+        if (!older.getAttackSpeed().equals(newer.getAttackSpeed())) {
+            mask |= EquipmentField.ATTACK_SPEED.getMask();
+        }
+        if (!older.getRequirements().equals(newer.getRequirements())) {
+            mask |= EquipmentField.REQUIREMENTS.getMask();
+        }
+        if (Double.compare(older.getWeight(), newer.getWeight()) != 0) {
+            mask |= EquipmentField.WEIGHT.getMask();
+        }
+        return mask;
+    }
+
+    /**
+     * Represents the mask of every {@link CombatBonus} that differs between the two versions, where each bonus is the
+     * bit {@code 1 << bonus.ordinal()}.
+     *
+     * @return the mask of the changed combat bonuses
+     */
+    @Derived
+    default int getBonusMask() {
+        CombatBonuses older = getOlder().getCombatBonuses();
+        CombatBonuses newer = getNewer().getCombatBonuses();
+        int mask = 0;
+        for (CombatBonus bonus : CombatBonus.values()) {
+            if (bonus.get(older) != bonus.get(newer)) {
+                mask |= 1 << bonus.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Determines whether the specified {@link EquipmentField} differs between the two versions.
+     *
+     * @param field the field
+     * @return {@code true} if the field changed
+     */
+    default boolean isChanged(EquipmentField field) {
+        return (getFieldMask() & field.getMask()) != 0;
+    }
+
+    /**
+     * Determines whether the specified {@link CombatBonus} differs between the two versions.
+     *
+     * @param bonus the combat bonus
+     * @return {@code true} if the combat bonus changed
+     */
+    default boolean isChanged(CombatBonus bonus) {
+        return (getBonusMask() & 1 << bonus.ordinal()) != 0;
+    }
+
+    /**
+     * Validates both versions are the same piece of {@link Equipment}.
+     *
+     * @throws IllegalStateException indicating the versions have different ids
+     */
+    @Check
+    default void validate() {
+        if (getOlder().getId() != getNewer().getId()) {
+            throw new IllegalStateException("Equipment change versions must share the same id.");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.gearsetup;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * An enumeration of the fields of {@link Equipment} that can change between two versions of the same piece of
+ * {@link Equipment}, as reported by an {@link EquipmentChange}.
+ * <p>
+ * Each field is represented as the bit {@code 1 << field.ordinal()} of an {@code int} mask, so the set of changed
+ * fields fits into a single {@code int} like the slot mask of {@link EquipmentSlot}.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code boolean statsChanged = (change.getFieldMask() & (EquipmentField.COMBAT_BONUSES.getMask() | EquipmentField.SLOTS.getMask())) != 0;}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public enum EquipmentField {
+    NAME,
+    SLOTS,
+    COMBAT_BONUSES,
+    ATTACK_SPEED,
+    REQUIREMENTS,
+    WEIGHT;
+
+    /**
+     * Represents the number of fields, which is the number of bits used by a field mask.
+     */
+    public static final int COUNT = values().length;
+    //cached as values() creates a new array each call
+    private static final EquipmentField[] FIELDS = values();
+
+    /**
+     * Represents the bit of the field in a field mask.
+     *
+     * @return {@code 1 << ordinal()}
+     */
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Creates the set of fields represented by the specified mask.
+     *
+     * @param mask the mask of the fields
+     * @return the fields of the mask
+     * @throws IllegalArgumentException indicating the mask has bits that do not represent a field
+     */
+    public static Set<EquipmentField> fields(int mask) {
+        if ((mask >>> COUNT) != 0) {
+            throw new IllegalArgumentException("Field mask " + Integer.toBinaryString(mask) + " has bits that do not represent a field.");
+        }
+        Set<EquipmentField> fields = EnumSet.noneOf(EquipmentField.class);
+        for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            fields.add(FIELDS[Integer.numberOfTrailingZeros(remaining)]);
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,442 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableList;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A representation of the secondary indexes of an {@link EquipmentCatalog} used to answer an {@link EquipmentQuery}
+ * without scanning every piece of {@link Equipment} of the catalog.
+ * <p>
+ * The index holds the following secondary indexes, built once when the index is created.
+ * <ul>
+ * <li>The catalog indices of the {@link Equipment} occupying each {@link EquipmentSlot}, in catalog index order.</li>
+ * <li>The catalog indices of the {@link Equipment} without a {@link QuestRequirement}, in catalog index order.</li>
+ * <li>The catalog indices of every {@link Equipment} sorted in descending order of each {@link CombatBonus}, so the
+ * {@link Equipment} within a range of a bonus is a contiguous run found by binary search.</li>
+ * </ul>
+ * Each query is planned by counting the candidates of every index the query can use, and reading the candidates of the
+ * most selective index while checking the remaining filters against primitive tables. Queries ordered by a
+ * {@link CombatBonus} either rank the candidates with a heap holding the best {@link EquipmentQuery#getLimit()}
+ * candidates, or walk the sorted index of the ordering bonus and stop at the limit when the expected number of
+ * candidates walked before reaching the limit is smaller than the most selective index.
+ * <p>
+ * {@link EquipmentIndex} is immutable and thread-safe.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code EquipmentIndex index = EquipmentIndex.of(EquipmentCatalog.of(repository.load()));}
+ * <p>
+ * {@code List<Equipment> helmets = index.query(EquipmentQuery.builder().addSlot(EquipmentSlot.HEAD).putMinimum(CombatBonus.MAGIC_ATTACK, 10).setQuestFree(true).setOrderBy(CombatBonus.PRAYER).build());}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class EquipmentIndex {
+    private static final CombatBonus[] BONUSES = CombatBonus.values();
+    private static final int[] EMPTY = new int[0];
+    private final EquipmentCatalog catalog;
+    //bonus values of each piece of equipment, indexed by catalog index * bonus count + bonus ordinal
+    private final int[] bonuses;
+    private final boolean[] questRequired;
+    private final int[][] slotIndices;
+    private final int[] questFreeIndices;
+    //per bonus, the catalog indices sorted by descending value and the values in the same order
+    private final int[][] sortedIndices;
+    private final int[][] sortedValues;
+
+    private EquipmentIndex(EquipmentCatalog catalog, int[] bonuses, boolean[] questRequired, int[][] slotIndices,
+                           int[] questFreeIndices, int[][] sortedIndices, int[][] sortedValues) {
+        this.catalog = catalog;
+        this.bonuses = bonuses;
+        this.questRequired = questRequired;
+        this.slotIndices = slotIndices;
+        this.questFreeIndices = questFreeIndices;
+        this.sortedIndices = sortedIndices;
+        this.sortedValues = sortedValues;
+    }
+
+    /**
+     * Constructs a new {@link EquipmentIndex} of the specified {@link EquipmentCatalog}.
+     *
+     * @param catalog the catalog to index
+     * @return a new index of the catalog
+     */
+    public static EquipmentIndex of(@NonNull EquipmentCatalog catalog) {
+        int size = catalog.size();
+        int[] bonuses = new int[size * BONUSES.length];
+        boolean[] questRequired = new boolean[size];
+        int[] slotCounts = new int[EquipmentSlot.COUNT];
+        int questFreeCount = 0;
+        for (int i = 0; i < size; i++) {
+            Equipment equipment = catalog.get(i);
+            for (CombatBonus bonus : BONUSES) {
+                bonuses[i * BONUSES.length + bonus.ordinal()] = bonus.get(equipment.getCombatBonuses());
+            }
+            for (EquipmentRequirement requirement : equipment.getRequirements()) {
+                questRequired[i] |= requirement instanceof QuestRequirement;
+            }
+            questFreeCount += questRequired[i] ? 0 : 1;
+            for (int mask = catalog.getSlotMask(i); mask != 0; mask &= mask - 1) {
+                slotCounts[Integer.numberOfTrailingZeros(mask)]++;
+            }
+        }
+        int[][] slotIndices = new int[EquipmentSlot.COUNT][];
+        for (int slot = 0; slot < EquipmentSlot.COUNT; slot++) {
+            slotIndices[slot] = new int[slotCounts[slot]];
+        }
+        int[] questFreeIndices = new int[questFreeCount];
+        Arrays.fill(slotCounts, 0);
+        questFreeCount = 0;
+        for (int i = 0; i < size; i++) {
+            for (int mask = catalog.getSlotMask(i); mask != 0; mask &= mask - 1) {
+                int slot = Integer.numberOfTrailingZeros(mask);
+                slotIndices[slot][slotCounts[slot]++] = i;
+            }
+            if (!questRequired[i]) {
+                questFreeIndices[questFreeCount++] = i;
+            }
+        }
+        int[][] sortedIndices = new int[BONUSES.length][size];
+        int[][] sortedValues = new int[BONUSES.length][size];
+        long[] keys = new long[size];
+        for (CombatBonus bonus : BONUSES) {
+            //ascending by value then descending by index, so reading backwards is descending by value then ascending by index
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) bonuses[i * BONUSES.length + bonus.ordinal()] << 32) | (~i & 0xFFFFFFFFL);
+            }
+            Arrays.sort(keys);
+            for (int k = 0; k < size; k++) {
+                int index = ~(int) keys[size - 1 - k];
+                sortedIndices[bonus.ordinal()][k] = index;
+                sortedValues[bonus.ordinal()][k] = bonuses[index * BONUSES.length + bonus.ordinal()];
+            }
+        }
+        return new EquipmentIndex(catalog, bonuses, questRequired, slotIndices, questFreeIndices, sortedIndices, sortedValues);
+    }
+
+    /**
+     * Represents the {@link EquipmentCatalog} of the index.
+     *
+     * @return the catalog of the index
+     */
+    public EquipmentCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Finds the {@link Equipment} of the catalog matching the specified {@link EquipmentQuery}, ordered as described
+     * by {@link EquipmentQuery}.
+     *
+     * @param query the query to answer
+     * @return the matching equipment, ordered and limited by the query
+     */
+    public List<Equipment> query(@NonNull EquipmentQuery query) {
+        int limit = query.getLimit();
+        if (limit == 0 || catalog.size() == 0) {
+            return ImmutableList.of();
+        }
+        Filter filter = new Filter(query);
+        //plan: the full catalog in index order unless an index has fewer candidates
+        int[] candidates = null;
+        int from = 0;
+        int to = catalog.size();
+        boolean indexOrdered = true;
+        for (EquipmentSlot slot : query.getSlots()) {
+            if (slotIndices[slot.ordinal()].length < to - from) {
+                candidates = slotIndices[slot.ordinal()];
+                from = 0;
+                to = candidates.length;
+                indexOrdered = true;
+            }
+        }
+        if (filter.questFree && questFreeIndices.length < to - from) {
+            candidates = questFreeIndices;
+            from = 0;
+            to = candidates.length;
+            indexOrdered = true;
+        }
+        for (CombatBonus bonus : BONUSES) {
+            if (filter.minimums[bonus.ordinal()] != Integer.MIN_VALUE || filter.maximums[bonus.ordinal()] != Integer.MAX_VALUE) {
+                int lower = lowerBound(bonus, filter.maximums[bonus.ordinal()]);
+                int upper = upperBound(bonus, filter.minimums[bonus.ordinal()]);
+                if (upper - lower < to - from) {
+                    candidates = sortedIndices[bonus.ordinal()];
+                    from = lower;
+                    to = upper;
+                    indexOrdered = false;
+                }
+            }
+        }
+        if (to <= from) {
+            return ImmutableList.of();
+        }
+        if (query.getOrderBy().isPresent()) {
+            CombatBonus orderBy = query.getOrderBy().get();
+            int lower = lowerBound(orderBy, filter.maximums[orderBy.ordinal()]);
+            int upper = upperBound(orderBy, filter.minimums[orderBy.ordinal()]);
+            //assuming the filters are independent of the ordering, the walk reaches the limit after limit / selectivity candidates
+            double walked = Math.min(upper - lower, (double) limit * catalog.size() / (to - from));
+            if (walked < to - from) {
+                return walk(filter, orderBy, lower, upper, limit);
+            }
+            return rank(filter, orderBy, candidates, from, to, limit);
+        }
+        return collect(filter, candidates, from, to, indexOrdered, limit);
+    }
+
+    /**
+     * Finds the first position of the sorted index of the specified {@link CombatBonus} with a value at most the
+     * specified maximum.
+     *
+     * @param bonus   the combat bonus of the sorted index
+     * @param maximum the maximum value
+     * @return the first position with a value at most the maximum
+     */
+    private int lowerBound(CombatBonus bonus, int maximum) {
+        int[] values = sortedValues[bonus.ordinal()];
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] > maximum) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first position of the sorted index of the specified {@link CombatBonus} with a value less than the
+     * specified minimum.
+     *
+     * @param bonus   the combat bonus of the sorted index
+     * @param minimum the minimum value
+     * @return the first position with a value less than the minimum
+     */
+    private int upperBound(CombatBonus bonus, int minimum) {
+        int[] values = sortedValues[bonus.ordinal()];
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] >= minimum) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Walks the range {@code [from, to)} of the sorted index of the specified {@link CombatBonus} until the limit is reached.
+     *
+     * @param filter  the filter of the query
+     * @param orderBy the combat bonus to order by
+     * @param from    the first position of the sorted index
+     * @param to      the position after the last position of the sorted index
+     * @param limit   the maximum number of results
+     * @return the matching equipment in descending order of the combat bonus
+     */
+    private List<Equipment> walk(Filter filter, CombatBonus orderBy, int from, int to, int limit) {
+        int[] indices = sortedIndices[orderBy.ordinal()];
+        ImmutableList.Builder<Equipment> results = ImmutableList.builder();
+        for (int k = from, count = 0; k < to && count < limit; k++) {
+            if (filter.matches(indices[k])) {
+                results.add(catalog.get(indices[k]));
+                count++;
+            }
+        }
+        return results.build();
+    }
+
+    /**
+     * Ranks the matching candidates in the range {@code [from, to)} of the specified candidates with a min-heap of the
+     * best {@code limit} candidates, where the root of the heap is the worst of the best candidates.
+     *
+     * @param filter     the filter of the query
+     * @param orderBy    the combat bonus to order by
+     * @param candidates the candidate catalog indices or {@code null} if every catalog index is a candidate
+     * @param from       the first position of the candidates
+     * @param to         the position after the last position of the candidates
+     * @param limit      the maximum number of results
+     * @return the best matching equipment in descending order of the combat bonus
+     */
+    private List<Equipment> rank(Filter filter, CombatBonus orderBy, int[] candidates, int from, int to, int limit) {
+        int capacity = Math.min(limit, to - from);
+        int[] heap = new int[capacity];
+        int size = 0;
+        for (int k = from; k < to; k++) {
+            int index = candidates == null ? k : candidates[k];
+            if (!filter.matches(index)) {
+                continue;
+            }
+            if (size < capacity) {
+                heap[size] = index;
+                siftUp(heap, size++, orderBy);
+            } else if (worse(heap[0], index, orderBy)) {
+                heap[0] = index;
+                siftDown(heap, size, orderBy);
+            }
+        }
+        Equipment[] results = new Equipment[size];
+        while (size > 0) {
+            results[--size] = catalog.get(heap[0]);
+            heap[0] = heap[size];
+            siftDown(heap, size, orderBy);
+        }
+        return ImmutableList.copyOf(results);
+    }
+
+    /**
+     * Collects the matching candidates in the range {@code [from, to)} of the specified candidates in catalog index order.
+     *
+     * @param filter       the filter of the query
+     * @param candidates   the candidate catalog indices or {@code null} if every catalog index is a candidate
+     * @param from         the first position of the candidates
+     * @param to           the position after the last position of the candidates
+     * @param indexOrdered whether the candidates are in catalog index order, so the limit ends the scan
+     * @param limit        the maximum number of results
+     * @return the matching equipment in catalog index order
+     */
+    private List<Equipment> collect(Filter filter, int[] candidates, int from, int to, boolean indexOrdered, int limit) {
+        int[] matches = new int[indexOrdered ? Math.min(limit, to - from) : to - from];
+        int count = 0;
+        for (int k = from; k < to && count < matches.length; k++) {
+            int index = candidates == null ? k : candidates[k];
+            if (filter.matches(index)) {
+                matches[count++] = index;
+            }
+        }
+        if (!indexOrdered) {
+            Arrays.sort(matches, 0, count);
+            count = Math.min(count, limit);
+        }
+        Equipment[] results = new Equipment[count];
+        for (int i = 0; i < count; i++) {
+            results[i] = catalog.get(matches[i]);
+        }
+        return ImmutableList.copyOf(results);
+    }
+
+    /**
+     * Determines if the first piece of {@link Equipment} ranks below the second piece of {@link Equipment}, where
+     * higher bonuses rank higher and ties rank the lower catalog index higher.
+     *
+     * @param first   the catalog index of the first equipment
+     * @param second  the catalog index of the second equipment
+     * @param orderBy the combat bonus to order by
+     * @return {@code true} if the first equipment ranks below the second equipment
+     */
+    private boolean worse(int first, int second, CombatBonus orderBy) {
+        int a = bonuses[first * BONUSES.length + orderBy.ordinal()];
+        int b = bonuses[second * BONUSES.length + orderBy.ordinal()];
+        return a < b || (a == b && first > second);
+    }
+
+    /**
+     * Moves the catalog index at the specified position of the heap towards the root until its parent ranks below it.
+     *
+     * @param heap     the heap of catalog indices
+     * @param position the position to move
+     * @param orderBy  the combat bonus to order by
+     */
+    private void siftUp(int[] heap, int position, CombatBonus orderBy) {
+        int value = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!worse(value, heap[parent], orderBy)) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = value;
+    }
+
+    /**
+     * Moves the catalog index at the root of the heap away from the root until no child ranks below it.
+     *
+     * @param heap    the heap of catalog indices
+     * @param size    the number of catalog indices in the heap
+     * @param orderBy the combat bonus to order by
+     */
+    private void siftDown(int[] heap, int size, CombatBonus orderBy) {
+        if (size == 0) {
+            return;
+        }
+        int value = heap[0];
+        int position = 0;
+        for (int child = 1; child < size; child = 2 * position + 1) {
+            if (child + 1 < size && worse(heap[child + 1], heap[child], orderBy)) {
+                child++;
+            }
+            if (!worse(heap[child], value, orderBy)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = value;
+    }
+
+    /**
+     * A representation of the filters of an {@link EquipmentQuery} compiled against the primitive tables of the index.
+     */
+    private final class Filter {
+        private final int slotMask;
+        private final int[] minimums = new int[BONUSES.length];
+        private final int[] maximums = new int[BONUSES.length];
+        private final int[] bounded;
+        private final boolean questFree;
+        private final PlayerUnlocks unlocks;
+
+        private Filter(EquipmentQuery query) {
+            slotMask = EquipmentSlot.mask(query.getSlots());
+            Arrays.fill(minimums, Integer.MIN_VALUE);
+            Arrays.fill(maximums, Integer.MAX_VALUE);
+            for (Map.Entry<CombatBonus, Integer> entry : query.getMinimums().entrySet()) {
+                minimums[entry.getKey().ordinal()] = entry.getValue();
+            }
+            for (Map.Entry<CombatBonus, Integer> entry : query.getMaximums().entrySet()) {
+                maximums[entry.getKey().ordinal()] = entry.getValue();
+            }
+            int[] bounded = new int[BONUSES.length];
+            int count = 0;
+            for (CombatBonus bonus : BONUSES) {
+                if (minimums[bonus.ordinal()] != Integer.MIN_VALUE || maximums[bonus.ordinal()] != Integer.MAX_VALUE) {
+                    bounded[count++] = bonus.ordinal();
+                }
+            }
+            this.bounded = count == 0 ? EMPTY : Arrays.copyOf(bounded, count);
+            this.unlocks = query.getUnlocks().orElse(null);
+            //unlocks without completed quests can only equip equipment without quest requirements
+            this.questFree = query.isQuestFree() || (unlocks != null && unlocks.getCompletedQuests().isEmpty());
+        }
+
+        /**
+         * Determines if the {@link Equipment} at the specified catalog index matches every filter.
+         *
+         * @param index the catalog index of the equipment
+         * @return {@code true} if the equipment matches the filters
+         */
+        private boolean matches(int index) {
+            if ((catalog.getSlotMask(index) & slotMask) != slotMask || (questFree && questRequired[index])) {
+                return false;
+            }
+            for (int bonus : bounded) {
+                int value = bonuses[index * BONUSES.length + bonus];
+                if (value < minimums[bonus] || value > maximums[bonus]) {
+                    return false;
+                }
+            }
+            return unlocks == null || unlocks.canEquip(catalog.get(index));
+        }
+    }
+}
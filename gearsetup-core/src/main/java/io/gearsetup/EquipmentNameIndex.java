@@ -0,0 +1,512 @@
+package io.gearsetup;
+
+import io.gearsetup.util.IntIntMap;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * A representation of a search index over the {@link Equipment#getName()} of the {@link Equipment} of an
+ * {@link EquipmentCatalog}, which finds the ids of the best matching {@link Equipment} of a search term.
+ * <p>
+ * Names and search terms are compared in lower case, and the index holds two structures built once when the index is
+ * created.
+ * <ul>
+ * <li>The suffixes of every name starting at a word, sorted, so the names with a word starting with the search term are
+ * a contiguous run found by binary search. This is the flattened form of a trie of the words of every name. A segment
+ * tree of the best ranked suffix of each range of the sorted suffixes finds the best {@code k} matches of a run in
+ * {@code O(k log n)}, regardless of the length of the run.</li>
+ * <li>An inverted index of the trigrams of every name, padded with a space at either end, to the catalog indices of
+ * the names containing each trigram.</li>
+ * </ul>
+ * Matches are ranked by the quality of the match in the following order, where ties are ranked by the shorter name
+ * and then by catalog index.
+ * <ol>
+ * <li>The name is the search term.</li>
+ * <li>The name starts with the search term.</li>
+ * <li>A word of the name starts with the search term.</li>
+ * <li>The name contains the search term, found by intersecting the trigrams of the search term and only for search
+ * terms of at least three characters.</li>
+ * <li>The name shares enough trigrams with the search term to be a misspelling of the search term, ranked by the
+ * <a href="https://en.wikipedia.org/wiki/Jaccard_index">Jaccard index</a> of their trigrams instead of name length.
+ * </ol>
+ * Matches of a lower rank are only searched when the matches of the higher ranks do not reach the limit, so the search
+ * time of a search term matching the start of many words does not grow with the catalog.
+ * <p>
+ * {@link EquipmentNameIndex} is immutable and thread-safe.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code EquipmentNameIndex names = EquipmentNameIndex.of(EquipmentCatalog.of(repository.load()));}
+ * <p>
+ * {@code int[] ids = names.search("scim", 10);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class EquipmentNameIndex {
+    /**
+     * Represents the minimum Jaccard index of the trigrams of a name and a search term for the name to be a fuzzy match.
+     */
+    public static final double FUZZY_SIMILARITY = 0.3;
+    private static final int[] EMPTY = new int[0];
+    private static final long EXACT = 0;
+    private static final long PREFIX = 1;
+    private static final long WORD_PREFIX = 2;
+    private static final long SUBSTRING = 3;
+    private static final long FUZZY = 4;
+    //rank keys are the tier, then the tie-breaking quality, then the catalog index, so a smaller key is a better match
+    private static final int QUALITY_BITS = 24;
+    private static final long QUALITY_MASK = (1L << QUALITY_BITS) - 1;
+    private final EquipmentCatalog catalog;
+    private final String[] names;
+    //each word suffix is the catalog index in the high bits and the offset of the word in the low bits
+    private final long[] suffixes;
+    //rank of each word suffix, which is whether the word is not the start of the name, then the name length, then the catalog index
+    private final long[] ranks;
+    //position of the best ranked word suffix of each node, where the leaves are the word suffixes
+    private final int[] tree;
+    private final long[] trigrams;
+    private final int[] postingOffsets;
+    private final int[] postings;
+    private final int[] trigramCounts;
+
+    private EquipmentNameIndex(EquipmentCatalog catalog, String[] names, long[] suffixes, long[] ranks, int[] tree,
+                               long[] trigrams, int[] postingOffsets, int[] postings, int[] trigramCounts) {
+        this.catalog = catalog;
+        this.names = names;
+        this.suffixes = suffixes;
+        this.ranks = ranks;
+        this.tree = tree;
+        this.trigrams = trigrams;
+        this.postingOffsets = postingOffsets;
+        this.postings = postings;
+        this.trigramCounts = trigramCounts;
+    }
+
+    /**
+     * Constructs a new {@link EquipmentNameIndex} of the names of the specified {@link EquipmentCatalog}.
+     *
+     * @param catalog the catalog to index
+     * @return a new name index of the catalog
+     */
+    public static EquipmentNameIndex of(@NonNull EquipmentCatalog catalog) {
+        int size = catalog.size();
+        String[] names = new String[size];
+        long[][] nameTrigrams = new long[size][];
+        int[] trigramCounts = new int[size];
+        int suffixCount = 0;
+        int trigramTotal = 0;
+        for (int i = 0; i < size; i++) {
+            names[i] = normalize(catalog.get(i).getName());
+            for (int offset = 0; offset < names[i].length(); offset++) {
+                suffixCount += isWordStart(names[i], offset) ? 1 : 0;
+            }
+            nameTrigrams[i] = distinctTrigrams(" " + names[i] + " ");
+            trigramCounts[i] = nameTrigrams[i].length;
+            trigramTotal += trigramCounts[i];
+        }
+        Long[] unsorted = new Long[suffixCount];
+        suffixCount = 0;
+        for (int i = 0; i < size; i++) {
+            for (int offset = 0; offset < names[i].length(); offset++) {
+                if (isWordStart(names[i], offset)) {
+                    unsorted[suffixCount++] = ((long) i << 32) | offset;
+                }
+            }
+        }
+        Arrays.sort(unsorted, (a, b) -> {
+            int comparison = compareSuffixes(names[(int) (a >>> 32)], (int) (long) a, names[(int) (b >>> 32)], (int) (long) b);
+            return comparison != 0 ? comparison : Long.compare(a, b);
+        });
+        long[] suffixes = new long[suffixCount];
+        long[] ranks = new long[suffixCount];
+        int[] tree = new int[2 * suffixCount];
+        for (int i = 0; i < suffixCount; i++) {
+            suffixes[i] = unsorted[i];
+            int index = (int) (suffixes[i] >>> 32);
+            ranks[i] = ((long) ((int) suffixes[i] > 0 ? 1 : 0) << 62) | ((long) names[index].length() << 32) | index;
+            tree[suffixCount + i] = i;
+        }
+        for (int node = suffixCount - 1; node > 0; node--) {
+            tree[node] = better(ranks, tree[2 * node], tree[2 * node + 1]);
+        }
+        //distinct trigrams of every name, and the catalog indices containing each trigram in catalog index order
+        long[] all = new long[trigramTotal];
+        for (int i = 0, position = 0; i < size; i++) {
+            System.arraycopy(nameTrigrams[i], 0, all, position, nameTrigrams[i].length);
+            position += nameTrigrams[i].length;
+        }
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[distinct++] = all[i];
+            }
+        }
+        long[] trigrams = Arrays.copyOf(all, distinct);
+        int[] postingOffsets = new int[distinct + 1];
+        for (long[] grams : nameTrigrams) {
+            for (long gram : grams) {
+                postingOffsets[Arrays.binarySearch(trigrams, gram) + 1]++;
+            }
+        }
+        for (int i = 0; i < distinct; i++) {
+            postingOffsets[i + 1] += postingOffsets[i];
+        }
+        int[] postings = new int[trigramTotal];
+        int[] filled = Arrays.copyOf(postingOffsets, distinct);
+        for (int i = 0; i < size; i++) {
+            for (long gram : nameTrigrams[i]) {
+                postings[filled[Arrays.binarySearch(trigrams, gram)]++] = i;
+            }
+        }
+        return new EquipmentNameIndex(catalog, names, suffixes, ranks, tree, trigrams, postingOffsets, postings, trigramCounts);
+    }
+
+    /**
+     * Represents the {@link EquipmentCatalog} of the index.
+     *
+     * @return the catalog of the index
+     */
+    public EquipmentCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Finds the ids of the {@link Equipment} with the best matching names for the specified search term.
+     *
+     * @param term  the search term
+     * @param limit the maximum number of ids to find
+     * @return the ids of the best matching equipment, best match first
+     * @throws IllegalArgumentException indicating the limit is negative
+     */
+    public int[] search(@NonNull String term, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Search limit must not be negative.");
+        }
+        String query = normalize(term).trim();
+        if (query.isEmpty() || limit == 0) {
+            return EMPTY;
+        }
+        Matches matches = new Matches();
+        prefixes(query, lowerBound(query, 0), lowerBound(query, 1), limit, matches);
+        if (query.length() >= 3 && matches.size < limit) {
+            long[] grams = distinctTrigrams(query);
+            int[] candidates = postings(grams[0]);
+            for (int g = 1; g < grams.length && candidates.length > 0; g++) {
+                candidates = intersect(candidates, postings(grams[g]));
+            }
+            for (int index : candidates) {
+                if (names[index].contains(query)) {
+                    matches.offer(index, SUBSTRING, names[index].length());
+                }
+            }
+            if (matches.size < limit) {
+                fuzzy(query, matches);
+            }
+        }
+        return matches.top(limit);
+    }
+
+    /**
+     * Offers the best ranked word suffixes in the range {@code [from, to)} of the sorted word suffixes as prefix matches
+     * until the matches reach the limit, by repeatedly taking the best ranked word suffix of a range from the segment
+     * tree and splitting the range around it.
+     *
+     * @param query   the normalized search term
+     * @param from    the first position of the word suffixes starting with the search term
+     * @param to      the position after the last position of the word suffixes starting with the search term
+     * @param limit   the maximum number of matches
+     * @param matches the matches of the search
+     */
+    private void prefixes(String query, int from, int to, int limit, Matches matches) {
+        if (from >= to) {
+            return;
+        }
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> Long.compare(ranks[a[2]], ranks[b[2]]));
+        ranges.add(new int[]{from, to, best(from, to)});
+        while (!ranges.isEmpty() && matches.size < limit) {
+            int[] range = ranges.poll();
+            int position = range[2];
+            int index = (int) (suffixes[position] >>> 32);
+            long tier = (int) suffixes[position] > 0 ? WORD_PREFIX : names[index].length() == query.length() ? EXACT : PREFIX;
+            matches.offer(index, tier, names[index].length());
+            if (range[0] < position) {
+                ranges.add(new int[]{range[0], position, best(range[0], position)});
+            }
+            if (position + 1 < range[1]) {
+                ranges.add(new int[]{position + 1, range[1], best(position + 1, range[1])});
+            }
+        }
+    }
+
+    /**
+     * Finds the position of the best ranked word suffix in the range {@code [from, to)} of the sorted word suffixes.
+     *
+     * @param from the first position of the range
+     * @param to   the position after the last position of the range
+     * @return the position of the best ranked word suffix
+     */
+    private int best(int from, int to) {
+        int best = -1;
+        for (int low = from + ranks.length, high = to + ranks.length; low < high; low >>>= 1, high >>>= 1) {
+            if ((low & 1) == 1) {
+                best = best < 0 ? tree[low] : better(ranks, best, tree[low]);
+                low++;
+            }
+            if ((high & 1) == 1) {
+                high--;
+                best = best < 0 ? tree[high] : better(ranks, best, tree[high]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Offers every name sharing at least {@link EquipmentNameIndex#FUZZY_SIMILARITY} of its trigrams with the
+     * specified search term as a fuzzy match.
+     *
+     * @param query   the normalized search term
+     * @param matches the matches of the search
+     */
+    private void fuzzy(String query, Matches matches) {
+        long[] grams = distinctTrigrams(" " + query + " ");
+        IntIntMap slots = new IntIntMap(64);
+        int[] indices = new int[64];
+        int[] shared = new int[64];
+        int count = 0;
+        for (long gram : grams) {
+            int position = Arrays.binarySearch(trigrams, gram);
+            if (position < 0) {
+                continue;
+            }
+            for (int p = postingOffsets[position]; p < postingOffsets[position + 1]; p++) {
+                int index = postings[p];
+                int slot = slots.get(index, -1);
+                if (slot < 0) {
+                    if (count == indices.length) {
+                        indices = Arrays.copyOf(indices, count * 2);
+                        shared = Arrays.copyOf(shared, count * 2);
+                    }
+                    slot = count++;
+                    slots.put(index, slot);
+                    indices[slot] = index;
+                }
+                shared[slot]++;
+            }
+        }
+        for (int slot = 0; slot < count; slot++) {
+            int index = indices[slot];
+            double similarity = (double) shared[slot] / (grams.length + trigramCounts[index] - shared[slot]);
+            if (similarity >= FUZZY_SIMILARITY) {
+                matches.offer(index, FUZZY, (long) ((1 - similarity) * QUALITY_MASK));
+            }
+        }
+    }
+
+    /**
+     * Finds the first word suffix that starts with the specified search term or is after the search term.
+     *
+     * @param query the normalized search term
+     * @param after {@code 1} to skip the word suffixes starting with the search term, otherwise {@code 0}
+     * @return the position of the first word suffix not before the search term
+     */
+    private int lowerBound(String query, int after) {
+        int low = 0;
+        int high = suffixes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            String name = names[(int) (suffixes[middle] >>> 32)];
+            int offset = (int) suffixes[middle];
+            if (comparePrefix(name, offset, query) < after) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the better ranked of the specified word suffixes.
+     *
+     * @param ranks  the rank of each word suffix
+     * @param first  the position of the first word suffix
+     * @param second the position of the second word suffix
+     * @return the position of the better ranked word suffix, or the first position if they are ranked equally
+     */
+    private static int better(long[] ranks, int first, int second) {
+        return ranks[second] < ranks[first] ? second : first;
+    }
+
+    /**
+     * Compares the suffixes of the specified names.
+     *
+     * @param first        the first normalized name
+     * @param firstOffset  the offset of the suffix of the first name
+     * @param second       the second normalized name
+     * @param secondOffset the offset of the suffix of the second name
+     * @return a negative number, zero or a positive number if the first suffix is before, equal to or after the second suffix
+     */
+    private static int compareSuffixes(String first, int firstOffset, String second, int secondOffset) {
+        int length = Math.min(first.length() - firstOffset, second.length() - secondOffset);
+        for (int i = 0; i < length; i++) {
+            int comparison = first.charAt(firstOffset + i) - second.charAt(secondOffset + i);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return (first.length() - firstOffset) - (second.length() - secondOffset);
+    }
+
+    /**
+     * Compares the suffix of the specified name, truncated to the length of the specified search term, to the search
+     * term, so every suffix starting with the search term compares equal to the search term.
+     *
+     * @param name   the normalized name
+     * @param offset the offset of the suffix in the name
+     * @param query  the normalized search term
+     * @return a negative number, zero or a positive number if the truncated suffix is before, equal to or after the search term
+     */
+    private static int comparePrefix(String name, int offset, String query) {
+        int length = Math.min(query.length(), name.length() - offset);
+        for (int i = 0; i < length; i++) {
+            int comparison = name.charAt(offset + i) - query.charAt(i);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return length - query.length();
+    }
+
+    /**
+     * Finds the catalog indices of the names containing the specified trigram.
+     *
+     * @param gram the trigram
+     * @return the catalog indices in catalog index order
+     */
+    private int[] postings(long gram) {
+        int position = Arrays.binarySearch(trigrams, gram);
+        return position < 0 ? EMPTY : Arrays.copyOfRange(postings, postingOffsets[position], postingOffsets[position + 1]);
+    }
+
+    /**
+     * Intersects two sorted arrays of catalog indices.
+     *
+     * @param first  the first sorted catalog indices
+     * @param second the second sorted catalog indices
+     * @return the sorted catalog indices in both arrays
+     */
+    private static int[] intersect(int[] first, int[] second) {
+        int[] result = new int[Math.min(first.length, second.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < first.length && j < second.length; ) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Normalizes the specified name or search term to lower case.
+     *
+     * @param value the name or search term
+     * @return the normalized value
+     */
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Determines if a word of the specified name starts at the specified offset, which is the start of the name and
+     * every letter or digit following another character.
+     *
+     * @param name   the normalized name
+     * @param offset the offset in the name
+     * @return {@code true} if a word starts at the offset
+     */
+    private static boolean isWordStart(String name, int offset) {
+        return offset == 0 || (Character.isLetterOrDigit(name.charAt(offset)) && !Character.isLetterOrDigit(name.charAt(offset - 1)));
+    }
+
+    /**
+     * Finds the distinct trigrams of the specified value, each packed into a {@code long} of three 16 bit characters.
+     *
+     * @param value the value to find the trigrams of
+     * @return the sorted distinct trigrams of the value
+     */
+    private static long[] distinctTrigrams(String value) {
+        if (value.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[value.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * A representation of the best match of each catalog index found by a search, where each match is represented as
+     * a rank key of its tier, quality and catalog index.
+     */
+    private final class Matches {
+        private final IntIntMap slots = new IntIntMap(16);
+        private long[] keys = new long[16];
+        private int size;
+
+        /**
+         * Offers a match of the specified catalog index, which replaces the previous match of the catalog index if better.
+         *
+         * @param index   the catalog index of the match
+         * @param tier    the tier of the match
+         * @param quality the quality of the match within the tier, where smaller is better
+         */
+        private void offer(int index, long tier, long quality) {
+            long key = (tier << (QUALITY_BITS + 32)) | (Math.min(quality, QUALITY_MASK) << 32) | index;
+            int slot = slots.get(index, -1);
+            if (slot >= 0) {
+                keys[slot] = Math.min(keys[slot], key);
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            slots.put(index, size);
+            keys[size++] = key;
+        }
+
+        /**
+         * Finds the ids of the best matches.
+         *
+         * @param limit the maximum number of ids to find
+         * @return the ids of the best matches, best match first
+         */
+        private int[] top(int limit) {
+            long[] best = Arrays.copyOf(keys, size);
+            Arrays.sort(best);
+            int[] ids = new int[Math.min(limit, size)];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = catalog.get((int) best[i]).getId();
+            }
+            return ids;
+        }
+    }
+}
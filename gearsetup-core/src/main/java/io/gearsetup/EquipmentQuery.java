@@ -0,0 +1,142 @@
+package io.gearsetup;
+
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Check;
+import org.immutables.value.Value.Default;
+import org.immutables.value.Value.Immutable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A representation of a query of the {@link Equipment} of an {@link EquipmentCatalog}, which is answered by an
+ * {@link EquipmentIndex}.
+ * <p>
+ * A piece of {@link Equipment} matches the query when it satisfies every filter of the query.
+ * <ul>
+ * <li>It occupies every {@link EquipmentSlot} of {@link EquipmentQuery#getSlots()}.</li>
+ * <li>Each {@link CombatBonus} is at least its {@link EquipmentQuery#getMinimums()} value.</li>
+ * <li>Each {@link CombatBonus} is at most its {@link EquipmentQuery#getMaximums()} value.</li>
+ * <li>It has no {@link QuestRequirement} if {@link EquipmentQuery#isQuestFree()}.</li>
+ * <li>It can be equipped by {@link EquipmentQuery#getUnlocks()} if present.</li>
+ * </ul>
+ * Matching {@link Equipment} is ordered by {@link EquipmentQuery#getOrderBy()} in descending order if present and
+ * otherwise by catalog index, where ties are ordered by catalog index, and at most {@link EquipmentQuery#getLimit()}
+ * pieces of {@link Equipment} are returned.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code EquipmentQuery query = EquipmentQuery.builder().addSlot(EquipmentSlot.HEAD).putMinimum(CombatBonus.MAGIC_ATTACK, 10).setQuestFree(true).setOrderBy(CombatBonus.PRAYER).setLimit(10).build();}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface EquipmentQuery {
+    //Immutables builder stub to hide immutable class dependency
+    static Builder builder() {
+        return ImmutableEquipmentQuery.builder();
+    }
+
+    /**
+     * Represents the set of {@link EquipmentSlot} that matching {@link Equipment} must occupy.
+     *
+     * @return the slots that must be occupied
+     */
+    Set<EquipmentSlot> getSlots();
+
+    /**
+     * Represents the minimum value of each {@link CombatBonus} of matching {@link Equipment}.
+     *
+     * @return the minimum combat bonuses
+     */
+    Map<CombatBonus, Integer> getMinimums();
+
+    /**
+     * Represents the maximum value of each {@link CombatBonus} of matching {@link Equipment}.
+     *
+     * @return the maximum combat bonuses
+     */
+    Map<CombatBonus, Integer> getMaximums();
+
+    /**
+     * Represents whether matching {@link Equipment} must have no {@link QuestRequirement}.
+     *
+     * @return {@code true} if equipment with a quest requirement does not match
+     */
+    @Default
+    default boolean isQuestFree() {
+        return false;
+    }
+
+    /**
+     * Represents the {@link PlayerUnlocks} that must be able to equip matching {@link Equipment}.
+     *
+     * @return the unlocks that must meet every requirement or {@link Optional#empty()} if requirements are unrestricted
+     */
+    Optional<PlayerUnlocks> getUnlocks();
+
+    /**
+     * Represents the {@link CombatBonus} to order matching {@link Equipment} by in descending order.
+     *
+     * @return the combat bonus to order by or {@link Optional#empty()} to order by catalog index
+     */
+    Optional<CombatBonus> getOrderBy();
+
+    /**
+     * Represents the maximum number of matching {@link Equipment} to return.
+     * <p>
+     * The default limit is unlimited.
+     *
+     * @return the maximum number of results
+     */
+    @Default
+    default int getLimit() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Validates the limit of the query is not negative.
+     *
+     * @throws IllegalStateException indicating the limit is negative
+     */
+    @Check
+    default void validate() {
+        if (getLimit() < 0) {
+            throw new IllegalStateException("Query limit must not be negative.");
+        }
+    }
+
+    //Immutables builder stub to hide immutable class dependency
+    interface Builder {
+        Builder addSlot(EquipmentSlot slot);
+
+        Builder addSlots(EquipmentSlot... slots);
+
+        Builder setSlots(Iterable<EquipmentSlot> slots);
+
+        Builder putMinimum(CombatBonus bonus, int value);
+
+        Builder setMinimums(Map<CombatBonus, ? extends Integer> minimums);
+
+        Builder putMaximum(CombatBonus bonus, int value);
+
+        Builder setMaximums(Map<CombatBonus, ? extends Integer> maximums);
+
+        Builder setQuestFree(boolean questFree);
+
+        Builder setUnlocks(PlayerUnlocks unlocks);
+
+        Builder setUnlocks(Optional<? extends PlayerUnlocks> unlocks);
+
+        Builder setOrderBy(CombatBonus orderBy);
+
+        Builder setOrderBy(Optional<? extends CombatBonus> orderBy);
+
+        Builder setLimit(int limit);
+
+        EquipmentQuery build();
+    }
+}
@@ -0,0 +1,583 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import io.gearsetup.util.IntIntMap;
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A representation of a fixed set of {@link Equipment} packed into a single direct {@link ByteBuffer}, where each piece
+ * of {@link Equipment} is assigned a dense index {@code [0, size)} like an {@link EquipmentCatalog}.
+ * <p>
+ * Every piece of {@link Equipment} is packed into a fixed size record holding its id, slot mask, weight and the value
+ * of every {@link CombatBonus}, followed by a heap of the names, {@link AttackSpeed} and {@link EquipmentRequirement}
+ * referenced by the records. Equal values in the heap are only packed once, so equipment sharing an attack speed or a
+ * set of requirements share their encoding. The memory of the store is outside of the Java heap and holds no object
+ * references, so holding several stores (e.g. the current, previous and staged catalog) costs a fraction of the
+ * {@link Equipment} object graph and adds no work to garbage collection.
+ * <p>
+ * {@link EquipmentStore#get(int)} returns a flyweight {@link Equipment} cursor over the record, which decodes every
+ * attribute on each call except the {@link CombatBonuses}, which are decoded once per cursor. The primitive attributes of a record can be read without creating a cursor or allocating
+ * using {@link EquipmentStore#getId(int)}, {@link EquipmentStore#getSlotMask(int)}, {@link EquipmentStore#getBonus(int, CombatBonus)}
+ * and {@link EquipmentStore#getWeight(int)}. Cursors of the same store are equal when they have the same index, but are
+ * never equal to other implementations of {@link Equipment}.
+ * <p>
+ * {@link EquipmentStore} releases its memory when closed, after which every read of the store or its cursors throws an
+ * {@link IllegalStateException}. The store is thread-safe to read, but must not be closed while in use.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code try (EquipmentStore store = EquipmentStore.of(repository.load())) { EquipmentCatalog catalog = EquipmentCatalog.of(store.getEquipment()); }}
+ * <p>
+ * {@code int prayerBonus = store.getBonus(store.indexOf(id), CombatBonus.PRAYER);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class EquipmentStore implements AutoCloseable {
+    private static final CombatBonus[] BONUSES = CombatBonus.values();
+    private static final AttackType[] ATTACK_TYPES = AttackType.values();
+    private static final Skill[] SKILLS = Skill.values();
+    //record layout, where the weight is first to keep it aligned
+    private static final int WEIGHT = 0;
+    private static final int ID = 8;
+    private static final int SLOT_MASK = 12;
+    private static final int BONUS = 16;
+    private static final int NAME = BONUS + BONUSES.length * Integer.BYTES;
+    private static final int ATTACK_SPEED = NAME + Integer.BYTES;
+    private static final int REQUIREMENTS = ATTACK_SPEED + Integer.BYTES;
+    private static final int RECORD_BYTES = (REQUIREMENTS + Integer.BYTES + Double.BYTES - 1) & -Double.BYTES;
+    //heap value tags
+    private static final byte FIXED = 0;
+    private static final byte TARGET_DEPENDENT = 1;
+    private static final byte TYPE_DEPENDENT = 2;
+    private static final int QUEST = -1;
+    private static final int ABSENT = -1;
+    private final int size;
+    private final int heap;
+    private final IntIntMap indices;
+    private volatile ByteBuffer buffer;
+
+    private EquipmentStore(int size, int heap, IntIntMap indices, ByteBuffer buffer) {
+        this.size = size;
+        this.heap = heap;
+        this.indices = indices;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Constructs a new {@link EquipmentStore} of the specified {@link Equipment}, indexed in iteration order.
+     *
+     * @param equipment the equipment of the store
+     * @return a new store of the equipment
+     * @throws IllegalArgumentException indicating two pieces of equipment share the same id
+     */
+    public static EquipmentStore of(@NonNull Collection<Equipment> equipment) {
+        int size = equipment.size();
+        IntIntMap indices = new IntIntMap(size);
+        HeapWriter writer = new HeapWriter();
+        int[] names = new int[size];
+        int[] attackSpeeds = new int[size];
+        int[] requirements = new int[size];
+        int index = 0;
+        for (Equipment value : equipment) {
+            if (indices.containsKey(value.getId())) {
+                throw new IllegalArgumentException("Duplicate equipment id " + value.getId() + ".");
+            }
+            indices.put(value.getId(), index);
+            names[index] = writer.write(value.getName());
+            attackSpeeds[index] = value.getAttackSpeed().map(writer::write).orElse(ABSENT);
+            requirements[index++] = writer.write(value.getRequirements());
+        }
+        int heap = size * RECORD_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(heap + writer.buffer.position());
+        index = 0;
+        for (Equipment value : equipment) {
+            int record = index * RECORD_BYTES;
+            buffer.putDouble(record + WEIGHT, value.getWeight());
+            buffer.putInt(record + ID, value.getId());
+            buffer.putInt(record + SLOT_MASK, value.getSlotMask());
+            CombatBonuses bonuses = value.getCombatBonuses();
+            for (CombatBonus bonus : BONUSES) {
+                buffer.putInt(record + BONUS + bonus.ordinal() * Integer.BYTES, bonus.get(bonuses));
+            }
+            buffer.putInt(record + NAME, names[index]);
+            buffer.putInt(record + ATTACK_SPEED, attackSpeeds[index]);
+            buffer.putInt(record + REQUIREMENTS, requirements[index++]);
+        }
+        writer.buffer.flip();
+        buffer.position(heap);
+        buffer.put(writer.buffer);
+        buffer.clear();
+        return new EquipmentStore(size, heap, indices, buffer);
+    }
+
+    /**
+     * Represents the number of {@link Equipment} in the store.
+     *
+     * @return the equipment count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Represents the number of bytes of memory held by the store outside of the Java heap.
+     *
+     * @return the size of the store in bytes
+     * @throws IllegalStateException indicating the store is closed
+     */
+    public int getSizeInBytes() {
+        return buffer().capacity();
+    }
+
+    /**
+     * Represents every {@link Equipment} in the store as a list of cursors, in index order.
+     * <p>
+     * The list is a view of the store, where each element is created when it is accessed.
+     *
+     * @return the equipment of the store
+     */
+    public List<Equipment> getEquipment() {
+        return new AbstractList<Equipment>() {
+            @Override
+            public Equipment get(int index) {
+                return EquipmentStore.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Creates a flyweight {@link Equipment} cursor over the record at the specified index.
+     *
+     * @param index the index of the equipment
+     * @return the equipment at the index
+     * @throws IndexOutOfBoundsException indicating the index is not in {@code [0, size)}
+     */
+    public Equipment get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Equipment index " + index + " is not in [0, " + size + ").");
+        }
+        return new StoredEquipment(this, index);
+    }
+
+    /**
+     * Finds the index of the {@link Equipment} with the specified id.
+     *
+     * @param id the id of the equipment
+     * @return the index of the equipment or {@code -1} if the store does not contain the id
+     */
+    public int indexOf(int id) {
+        return indices.get(id, -1);
+    }
+
+    /**
+     * Finds the {@link Equipment} with the specified id.
+     *
+     * @param id the id of the equipment
+     * @return the equipment with the id or {@link Optional#empty()} if the store does not contain the id
+     */
+    public Optional<Equipment> find(int id) {
+        int index = indices.get(id, -1);
+        return index < 0 ? Optional.empty() : Optional.of(new StoredEquipment(this, index));
+    }
+
+    /**
+     * Represents the {@link Equipment#getId()} of the {@link Equipment} at the specified index.
+     *
+     * @param index the index of the equipment
+     * @return the id of the equipment
+     * @throws IndexOutOfBoundsException indicating the index is not in {@code [0, size)}
+     * @throws IllegalStateException     indicating the store is closed
+     */
+    public int getId(int index) {
+        return buffer().getInt(record(index) + ID);
+    }
+
+    /**
+     * Represents the {@link Equipment#getSlotMask()} of the {@link Equipment} at the specified index.
+     *
+     * @param index the index of the equipment
+     * @return the mask of the occupied slots of the equipment
+     * @throws IndexOutOfBoundsException indicating the index is not in {@code [0, size)}
+     * @throws IllegalStateException     indicating the store is closed
+     */
+    public int getSlotMask(int index) {
+        return buffer().getInt(record(index) + SLOT_MASK);
+    }
+
+    /**
+     * Represents the value of the specified {@link CombatBonus} of the {@link Equipment} at the specified index.
+     *
+     * @param index the index of the equipment
+     * @param bonus the combat bonus to read
+     * @return the value of the combat bonus of the equipment
+     * @throws IndexOutOfBoundsException indicating the index is not in {@code [0, size)}
+     * @throws IllegalStateException     indicating the store is closed
+     */
+    public int getBonus(int index, @NonNull CombatBonus bonus) {
+        return buffer().getInt(record(index) + BONUS + bonus.ordinal() * Integer.BYTES);
+    }
+
+    /**
+     * Represents the {@link Equipment#getWeight()} of the {@link Equipment} at the specified index.
+     *
+     * @param index the index of the equipment
+     * @return the weight of the equipment
+     * @throws IndexOutOfBoundsException indicating the index is not in {@code [0, size)}
+     * @throws IllegalStateException     indicating the store is closed
+     */
+    public double getWeight(int index) {
+        return buffer().getDouble(record(index) + WEIGHT);
+    }
+
+    /**
+     * Releases the memory of the store, after which every read of the store or its cursors throws an
+     * {@link IllegalStateException}. Closing a closed store does nothing.
+     * <p>
+     * The memory is returned once the buffer is no longer reachable, as direct buffers cannot be freed explicitly.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    /**
+     * Represents the buffer of the store.
+     *
+     * @return the buffer of the store
+     * @throws IllegalStateException indicating the store is closed
+     */
+    private ByteBuffer buffer() {
+        ByteBuffer buffer = this.buffer;
+        if (buffer == null) {
+            throw new IllegalStateException("Equipment store is closed.");
+        }
+        return buffer;
+    }
+
+    /**
+     * Represents the offset of the record at the specified index.
+     *
+     * @param index the index of the record
+     * @return the offset of the record
+     * @throws IndexOutOfBoundsException indicating the index is not in {@code [0, size)}
+     */
+    private int record(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Equipment index " + index + " is not in [0, " + size + ").");
+        }
+        return index * RECORD_BYTES;
+    }
+
+    /**
+     * Reads the string at the specified heap offset.
+     *
+     * @param buffer the buffer of the store
+     * @param offset the heap offset of the string
+     * @return the string
+     */
+    private String readString(ByteBuffer buffer, int offset) {
+        int position = heap + offset;
+        byte[] bytes = new byte[buffer.getInt(position)];
+        position += Integer.BYTES;
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the {@link AttackSpeed} at the specified heap offset.
+     *
+     * @param buffer the buffer of the store
+     * @param offset the heap offset of the attack speed
+     * @return the attack speed
+     */
+    private AttackSpeed readAttackSpeed(ByteBuffer buffer, int offset) {
+        int position = heap + offset;
+        switch (buffer.get(position)) {
+            case FIXED:
+                return FixedAttackSpeed.of(buffer.getInt(position + 1));
+            case TARGET_DEPENDENT:
+                return TargetDependentAttackSpeed.of(readAttackSpeed(buffer, buffer.getInt(position + 1)),
+                        readAttackSpeed(buffer, buffer.getInt(position + 1 + Integer.BYTES)));
+            default:
+                int count = buffer.get(position + 1);
+                Map<AttackType, AttackSpeed> speeds = new LinkedHashMap<>(count * 2);
+                for (int i = 0, entry = position + 2; i < count; i++, entry += 1 + Integer.BYTES) {
+                    speeds.put(ATTACK_TYPES[buffer.get(entry)], readAttackSpeed(buffer, buffer.getInt(entry + 1)));
+                }
+                return TypeDependentAttackSpeed.of(speeds);
+        }
+    }
+
+    /**
+     * Reads the {@link EquipmentRequirement} set at the specified heap offset.
+     *
+     * @param buffer the buffer of the store
+     * @param offset the heap offset of the requirements
+     * @return the requirements
+     */
+    private Set<EquipmentRequirement> readRequirements(ByteBuffer buffer, int offset) {
+        int position = heap + offset;
+        int count = buffer.getInt(position);
+        ImmutableSet.Builder<EquipmentRequirement> requirements = ImmutableSet.builder();
+        for (int i = 0, entry = position + Integer.BYTES; i < count; i++, entry += 2 * Integer.BYTES) {
+            int kind = buffer.getInt(entry);
+            int value = buffer.getInt(entry + Integer.BYTES);
+            requirements.add(kind == QUEST ? QuestRequirement.of(readString(buffer, value)) : SkillRequirement.of(SKILLS[kind], value));
+        }
+        return requirements.build();
+    }
+
+    /**
+     * A representation of the heap of an {@link EquipmentStore} while it is being packed, where each distinct value
+     * is written once and referenced by its offset in the heap.
+     */
+    private static final class HeapWriter {
+        private final Map<Object, Integer> offsets = new HashMap<>();
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+
+        /**
+         * Writes the specified string as its length followed by its UTF-8 bytes.
+         *
+         * @param value the string to write
+         * @return the heap offset of the string
+         */
+        int write(String value) {
+            Integer offset = offsets.get(value);
+            if (offset != null) {
+                return offset;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int position = reserve(Integer.BYTES + bytes.length);
+            buffer.putInt(bytes.length).put(bytes);
+            offsets.put(value, position);
+            return position;
+        }
+
+        /**
+         * Writes the specified {@link AttackSpeed} as its tag followed by its attributes, where nested attack speeds
+         * are written first and referenced by their offsets.
+         *
+         * @param value the attack speed to write
+         * @return the heap offset of the attack speed
+         */
+        int write(AttackSpeed value) {
+            Integer offset = offsets.get(value);
+            if (offset != null) {
+                return offset;
+            }
+            int position = value.accept(new AttackSpeedVisitor<Integer>() {
+                @Override
+                public Integer visit(FixedAttackSpeed speed) {
+                    int position = reserve(1 + Integer.BYTES);
+                    buffer.put(FIXED).putInt(speed.getSpeed());
+                    return position;
+                }
+
+                @Override
+                public Integer visit(TargetDependentAttackSpeed speed) {
+                    int player = write(speed.getPlayerAttackSpeed());
+                    int monster = write(speed.getMonsterAttackSpeed());
+                    int position = reserve(1 + 2 * Integer.BYTES);
+                    buffer.put(TARGET_DEPENDENT).putInt(player).putInt(monster);
+                    return position;
+                }
+
+                @Override
+                public Integer visit(TypeDependentAttackSpeed speed) {
+                    Map<AttackType, AttackSpeed> speeds = speed.getAttackSpeeds();
+                    int[] entries = new int[speeds.size()];
+                    int i = 0;
+                    for (AttackSpeed entry : speeds.values()) {
+                        entries[i++] = write(entry);
+                    }
+                    int position = reserve(2 + entries.length * (1 + Integer.BYTES));
+                    buffer.put(TYPE_DEPENDENT).put((byte) entries.length);
+                    i = 0;
+                    for (AttackType type : speeds.keySet()) {
+                        buffer.put((byte) type.ordinal()).putInt(entries[i++]);
+                    }
+                    return position;
+                }
+            });
+            offsets.put(value, position);
+            return position;
+        }
+
+        /**
+         * Writes the specified {@link EquipmentRequirement} set as its size followed by a pair of integers for each
+         * requirement, which is either the skill and level of a {@link SkillRequirement} or {@code -1} and the heap
+         * offset of the quest name of a {@link QuestRequirement}.
+         *
+         * @param value the requirements to write
+         * @return the heap offset of the requirements
+         */
+        int write(Set<EquipmentRequirement> value) {
+            Integer offset = offsets.get(value);
+            if (offset != null) {
+                return offset;
+            }
+            int[] entries = new int[value.size() * 2];
+            int i = 0;
+            for (EquipmentRequirement requirement : value) {
+                if (requirement instanceof SkillRequirement) {
+                    entries[i++] = ((SkillRequirement) requirement).getSkill().ordinal();
+                    entries[i++] = ((SkillRequirement) requirement).getLevel();
+                } else {
+                    entries[i++] = QUEST;
+                    entries[i++] = write(((QuestRequirement) requirement).getQuestName());
+                }
+            }
+            int position = reserve(Integer.BYTES + entries.length * Integer.BYTES);
+            buffer.putInt(value.size());
+            for (int entry : entries) {
+                buffer.putInt(entry);
+            }
+            offsets.put(value, position);
+            return position;
+        }
+
+        /**
+         * Ensures the heap has room for the specified number of bytes, growing the heap if necessary.
+         *
+         * @param bytes the number of bytes to write
+         * @return the heap offset of the bytes
+         */
+        private int reserve(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+            return buffer.position();
+        }
+    }
+
+    /**
+     * A representation of a flyweight {@link Equipment} cursor over a record of an {@link EquipmentStore}, which decodes
+     * its attributes from the store on each call.
+     * <p>
+     * The {@link CombatBonuses} are decoded on first use and cached, as weighting functions read several bonuses of the
+     * same cursor (e.g. {@link CombatBonus#get(CombatBonuses)} for every bonus). {@link CombatBonuses} are immutable, so
+     * the cache is safe to publish without synchronization, where racing threads at worst decode the bonuses twice.
+     */
+    private static final class StoredEquipment implements Equipment {
+        private final EquipmentStore store;
+        private final int index;
+        private CombatBonuses combatBonuses;
+
+        private StoredEquipment(EquipmentStore store, int index) {
+            this.store = store;
+            this.index = index;
+        }
+
+        @Override
+        public int getId() {
+            return store.getId(index);
+        }
+
+        @Override
+        public String getName() {
+            ByteBuffer buffer = store.buffer();
+            return store.readString(buffer, buffer.getInt(store.record(index) + NAME));
+        }
+
+        @Override
+        public Set<EquipmentSlot> getOccupiedSlots() {
+            return Sets.immutableEnumSet(EquipmentSlot.slots(getSlotMask()));
+        }
+
+        @Override
+        public int getSlotMask() {
+            return store.getSlotMask(index);
+        }
+
+        @Override
+        public CombatBonuses getCombatBonuses() {
+            //the store is read before the cache so cursors of a closed store still throw
+            ByteBuffer buffer = store.buffer();
+            CombatBonuses combatBonuses = this.combatBonuses;
+            if (combatBonuses != null) {
+                return combatBonuses;
+            }
+            int bonus = store.record(index) + BONUS;
+            return this.combatBonuses = CombatBonuses.of(
+                    AttackTypeBonuses.of(buffer.getInt(bonus + CombatBonus.STAB_ATTACK.ordinal() * Integer.BYTES),
+                            buffer.getInt(bonus + CombatBonus.SLASH_ATTACK.ordinal() * Integer.BYTES),
+                            buffer.getInt(bonus + CombatBonus.CRUSH_ATTACK.ordinal() * Integer.BYTES),
+                            buffer.getInt(bonus + CombatBonus.MAGIC_ATTACK.ordinal() * Integer.BYTES),
+                            buffer.getInt(bonus + CombatBonus.RANGED_ATTACK.ordinal() * Integer.BYTES)),
+                    AttackTypeBonuses.of(buffer.getInt(bonus + CombatBonus.STAB_DEFENCE.ordinal() * Integer.BYTES),
+                            buffer.getInt(bonus + CombatBonus.SLASH_DEFENCE.ordinal() * Integer.BYTES),
+                            buffer.getInt(bonus + CombatBonus.CRUSH_DEFENCE.ordinal() * Integer.BYTES),
+                            buffer.getInt(bonus + CombatBonus.MAGIC_DEFENCE.ordinal() * Integer.BYTES),
+                            buffer.getInt(bonus + CombatBonus.RANGED_DEFENCE.ordinal() * Integer.BYTES)),
+                    buffer.getInt(bonus + CombatBonus.PRAYER.ordinal() * Integer.BYTES),
+                    buffer.getInt(bonus + CombatBonus.MELEE_STRENGTH.ordinal() * Integer.BYTES),
+                    buffer.getInt(bonus + CombatBonus.RANGED_STRENGTH.ordinal() * Integer.BYTES),
+                    buffer.getInt(bonus + CombatBonus.MAGIC_STRENGTH.ordinal() * Integer.BYTES));
+        }
+
+        @Override
+        public Optional<AttackSpeed> getAttackSpeed() {
+            ByteBuffer buffer = store.buffer();
+            int offset = buffer.getInt(store.record(index) + ATTACK_SPEED);
+            return offset == ABSENT ? Optional.empty() : Optional.of(store.readAttackSpeed(buffer, offset));
+        }
+
+        @Override
+        public Set<EquipmentRequirement> getRequirements() {
+            ByteBuffer buffer = store.buffer();
+            return store.readRequirements(buffer, buffer.getInt(store.record(index) + REQUIREMENTS));
+        }
+
+        @Override
+        public double getWeight() {
+            return store.getWeight(index);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StoredEquipment)) {
+                return false;
+            }
+            StoredEquipment other = (StoredEquipment) o;
+            return store == other.store && index == other.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(store) + index;
+        }
+
+        @Override
+        public String toString() {
+            return "Equipment{id=" + getId() + ", name=" + getName() + ", occupiedSlots=" + getOccupiedSlots()
+                    + ", combatBonuses=" + getCombatBonuses() + ", attackSpeed=" + getAttackSpeed()
+                    + ", requirements=" + getRequirements() + ", weight=" + getWeight() + "}";
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package io.gearsetup;
+
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Check;
+import org.immutables.value.Value.Default;
+import org.immutables.value.Value.Immutable;
+
+import java.util.Collections;
+import java.util.OptionalDouble;
+import java.util.Set;
+
+/**
+ * A representation of the constraints a gear setup found by {@link OptimalGearSetup} must satisfy.
+ * <p>
+ * Constraints restrict the candidate gear setups in the following ways:
+ * <ul>
+ * <li>The total <a href="http://oldschoolrunescape.wikia.com/wiki/Weight">weight</a> of the worn {@link Equipment}
+ * must not exceed {@link GearSetupConstraints#getWeightLimit()}.</li>
+ * <li>Every piece of {@link GearSetupConstraints#getForcedEquipment()} must be worn.</li>
+ * <li>No piece of {@link GearSetupConstraints#getForbiddenEquipment()} may be worn.</li>
+ * <li>Every {@link GearSetupConstraints#getForcedSlots()} must be occupied by some piece of {@link Equipment}.</li>
+ * <li>No {@link GearSetupConstraints#getForbiddenSlots()} may be occupied by any piece of {@link Equipment}.</li>
+ * </ul>
+ * Examples:
+ * <p>
+ * Finding the melee strength setup that weighs at most 20 kg:
+ * <p>
+ * {@code GearSetupConstraints constraints = GearSetupConstraints.builder().setWeightLimit(20).build();}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface GearSetupConstraints {
+    /**
+     * The maximum number of discretised weights a weight limit may span, which bounds the size of the tables searched by
+     * {@link OptimalGearSetup} to a few megabytes per occupied slot mask.
+     */
+    int MAXIMUM_WEIGHT_BUCKETS = 1 << 16;
+
+    //Immutables builder stub to hide immutable class dependency
+    static Builder builder() {
+        return ImmutableGearSetupConstraints.builder();
+    }
+
+    /**
+     * Constructs a new {@link GearSetupConstraints} that does not restrict the candidate gear setups.
+     *
+     * @return the constraints that are satisfied by every valid gear setup
+     */
+    static GearSetupConstraints none() {
+        return builder().build();
+    }
+
+    /**
+     * Represents the maximum total weight in kilograms of the worn {@link Equipment}.
+     * <p>
+     * {@link Equipment} with a negative weight (e.g. <a href="http://oldschoolrunescape.wikia.com/wiki/Boots_of_lightness">Boots of lightness</a>)
+     * reduce the total weight of the gear setup.
+     *
+     * @return the maximum total weight in kg or {@link OptionalDouble#empty()} if the weight is unconstrained
+     */
+    OptionalDouble getWeightLimit();
+
+    /**
+     * Represents the granularity in kilograms that {@link Equipment#getWeight()} is discretised to when enforcing
+     * {@link GearSetupConstraints#getWeightLimit()}.
+     * <p>
+     * Each piece of {@link Equipment} has its weight rounded up to the next multiple of the resolution, so a gear setup
+     * found under a weight limit is guaranteed to not exceed the weight limit. Smaller resolutions are more precise at the
+     * cost of a larger search space.
+     * <p>
+     * The default resolution is {@code 0.01} kg. The weight limit divided by the resolution must not exceed
+     * {@link GearSetupConstraints#MAXIMUM_WEIGHT_BUCKETS}.
+     *
+     * @return the weight resolution in kg
+     */
+    @Default
+    default double getWeightResolution() {
+        return 0.01;
+    }
+
+    /**
+     * Represents the set of {@link Equipment} that must be worn in the gear setup.
+     * <p>
+     * Forced {@link Equipment} is not required to be a candidate and must occupy disjoint {@link EquipmentSlot}.
+     *
+     * @return the equipment that must be worn
+     */
+    Set<Equipment> getForcedEquipment();
+
+    /**
+     * Represents the set of {@link Equipment} that must not be worn in the gear setup.
+     * <p>
+     * Candidates are matched against forced and forbidden {@link Equipment} by {@link Equipment#getId()}.
+     *
+     * @return the equipment that must not be worn
+     */
+    Set<Equipment> getForbiddenEquipment();
+
+    /**
+     * Represents the set of {@link EquipmentSlot} that must be occupied in the gear setup.
+     *
+     * @return the slots that must be occupied
+     */
+    Set<EquipmentSlot> getForcedSlots();
+
+    /**
+     * Represents the set of {@link EquipmentSlot} that must not be occupied in the gear setup.
+     *
+     * @return the slots that must not be occupied
+     */
+    Set<EquipmentSlot> getForbiddenSlots();
+
+    /**
+     * Validates the constraints are not contradictory on their own.
+     *
+     * @throws IllegalStateException indicating the constraints can never be satisfied
+     */
+    @Check
+    default void validate() {
+        if (getWeightResolution() <= 0 || Double.isNaN(getWeightResolution()) || Double.isInfinite(getWeightResolution())) {
+            throw new IllegalStateException("Weight resolution must be a positive finite number.");
+        }
+        if (getWeightLimit().isPresent()) {
+            double weightLimit = getWeightLimit().getAsDouble();
+            if (Double.isNaN(weightLimit) || Double.isInfinite(weightLimit)) {
+                throw new IllegalStateException("Weight limit must be a finite number.");
+            }
+            if (Math.abs(weightLimit) / getWeightResolution() > MAXIMUM_WEIGHT_BUCKETS) {
+                throw new IllegalStateException("Weight limit of " + weightLimit + " kg spans more than " + MAXIMUM_WEIGHT_BUCKETS
+                        + " weights at a resolution of " + getWeightResolution() + " kg.");
+            }
+        }
+        if (!Collections.disjoint(getForcedEquipment(), getForbiddenEquipment())) {
+            throw new IllegalStateException("Equipment cannot be both forced and forbidden.");
+        }
+        if (!Collections.disjoint(getForcedSlots(), getForbiddenSlots())) {
+            throw new IllegalStateException("Equipment slots cannot be both forced and forbidden.");
+        }
+    }
+
+    //Immutables builder stub to hide immutable class dependency
+    interface Builder {
+        Builder setWeightLimit(double weightLimit);
+
+        Builder setWeightLimit(OptionalDouble weightLimit);
+
+        Builder setWeightResolution(double weightResolution);
+
+        Builder addForcedEquipment(Equipment equipment);
+
+        Builder addForcedEquipment(Equipment... equipment);
+
+        Builder setForcedEquipment(Iterable<? extends Equipment> equipment);
+
+        Builder addAllForcedEquipment(Iterable<? extends Equipment> equipment);
+
+        Builder addForbiddenEquipment(Equipment equipment);
+
+        Builder addForbiddenEquipment(Equipment... equipment);
+
+        Builder setForbiddenEquipment(Iterable<? extends Equipment> equipment);
+
+        Builder addAllForbiddenEquipment(Iterable<? extends Equipment> equipment);
+
+        Builder addForcedSlot(EquipmentSlot slot);
+
+        Builder addForcedSlots(EquipmentSlot... slots);
+
+        Builder setForcedSlots(Iterable<EquipmentSlot> slots);
+
+        Builder addAllForcedSlots(Iterable<EquipmentSlot> slots);
+
+        Builder addForbiddenSlot(EquipmentSlot slot);
+
+        Builder addForbiddenSlots(EquipmentSlot... slots);
+
+        Builder setForbiddenSlots(Iterable<EquipmentSlot> slots);
+
+        Builder addAllForbiddenSlots(Iterable<EquipmentSlot> slots);
+
+        GearSetupConstraints build();
+    }
+}
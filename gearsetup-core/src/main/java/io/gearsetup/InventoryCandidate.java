@@ -0,0 +1,123 @@
+package io.gearsetup;
+
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Check;
+import org.immutables.value.Value.Default;
+import org.immutables.value.Value.Immutable;
+
+/**
+ * A representation of an item that can be carried in the 28 slot inventory of a character in
+ * <a href="https://oldschool.runescape.com/">Old School Runescape</a>, such as a gear switch or supplies.
+ * <p>
+ * Up to {@link InventoryCandidate#getMaximumQuantity()} of the item can be carried. Each unit of a non-stackable item
+ * occupies its own inventory slot, while a stackable item (e.g. runes) is carried at its maximum quantity in a single slot.
+ * <p>
+ * Examples:
+ * <p>
+ * Carrying up to 10 sharks:
+ * <p>
+ * {@code InventoryCandidate sharks = InventoryCandidate.builder().setId(385).setName("Shark").setWeight(0.65).setMaximumQuantity(10).build();}
+ * <p>
+ * Carrying a weapon switch:
+ * <p>
+ * {@code InventoryCandidate weaponSwitch = InventoryCandidate.of(dragonDagger);}
+ *
+ * @author Ian Caffey
+ * @see OptimalLoadout
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface InventoryCandidate {
+    //Immutables builder stub to hide immutable class dependency
+    static Builder builder() {
+        return ImmutableInventoryCandidate.builder();
+    }
+
+    /**
+     * Constructs a new {@link InventoryCandidate} for carrying a single unit of the specified {@link Equipment} as a switch.
+     * <p>
+     * {@link Equipment} with a negative weight only reduces the total weight when worn, so it is carried as weightless.
+     *
+     * @param equipment the equipment to carry
+     * @return a new inventory candidate for the equipment
+     */
+    static InventoryCandidate of(Equipment equipment) {
+        return builder().setId(equipment.getId()).setName(equipment.getName()).setWeight(Math.max(0, equipment.getWeight())).build();
+    }
+
+    /**
+     * Represents the unique id of the item.
+     *
+     * @return the item id
+     */
+    int getId();
+
+    /**
+     * Represents the name of the item.
+     *
+     * @return the item name
+     */
+    String getName();
+
+    /**
+     * Represents the weight in kilograms of a single unit of the item.
+     *
+     * @return the unit weight in kg
+     */
+    double getWeight();
+
+    /**
+     * Represents the maximum number of units of the item that can be carried.
+     * <p>
+     * The default maximum quantity is {@code 1}.
+     *
+     * @return the maximum quantity
+     */
+    @Default
+    default int getMaximumQuantity() {
+        return 1;
+    }
+
+    /**
+     * Represents whether every unit of the item shares a single inventory slot.
+     * <p>
+     * Items are not stackable by default.
+     *
+     * @return {@code true} if the item is stackable
+     */
+    @Default
+    default boolean isStackable() {
+        return false;
+    }
+
+    /**
+     * Validates the item has a non-negative weight and a positive maximum quantity.
+     *
+     * @throws IllegalStateException indicating the item is invalid
+     */
+    @Check
+    default void validate() {
+        if (!(getWeight() >= 0) || Double.isInfinite(getWeight())) {
+            throw new IllegalStateException("Inventory item weight must be a non-negative finite number.");
+        }
+        if (getMaximumQuantity() < 1) {
+            throw new IllegalStateException("Inventory item maximum quantity must be positive.");
+        }
+    }
+
+    //Immutables builder stub to hide immutable class dependency
+    interface Builder {
+        Builder setId(int id);
+
+        Builder setName(String name);
+
+        Builder setWeight(double weight);
+
+        Builder setMaximumQuantity(int maximumQuantity);
+
+        Builder setStackable(boolean stackable);
+
+        InventoryCandidate build();
+    }
+}
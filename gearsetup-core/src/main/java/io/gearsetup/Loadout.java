@@ -0,0 +1,65 @@
+package io.gearsetup;
+
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Immutable;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A representation of the worn {@link Equipment} and the carried inventory of a character found by {@link OptimalLoadout}.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface Loadout {
+    //Immutables factory stub to hide immutable class dependency
+    static Loadout of(Set<Equipment> equipment, Map<InventoryCandidate, Integer> inventory) {
+        return ImmutableLoadout.of(equipment, inventory);
+    }
+
+    /**
+     * Represents the set of worn {@link Equipment}.
+     *
+     * @return the worn equipment
+     */
+    Set<Equipment> getEquipment();
+
+    /**
+     * Represents the quantity of each carried {@link InventoryCandidate}.
+     *
+     * @return the carried quantity of each inventory item
+     */
+    Map<InventoryCandidate, Integer> getInventory();
+
+    /**
+     * Calculates the number of inventory slots occupied by the carried items.
+     *
+     * @return the occupied inventory slot count
+     */
+    default int getInventorySlotsUsed() {
+        int slots = 0;
+        for (Map.Entry<InventoryCandidate, Integer> entry : getInventory().entrySet()) {
+            slots += entry.getKey().isStackable() ? 1 : entry.getValue();
+        }
+        return slots;
+    }
+
+    /**
+     * Calculates the total weight in kilograms of the worn {@link Equipment} and the carried items.
+     *
+     * @return the total weight in kg
+     */
+    default double getTotalWeight() {
+        double weight = 0;
+        for (Equipment equipment : getEquipment()) {
+            weight += equipment.getWeight();
+        }
+        for (Map.Entry<InventoryCandidate, Integer> entry : getInventory().entrySet()) {
+            weight += entry.getKey().getWeight() * entry.getValue();
+        }
+        return weight;
+    }
+}
@@ -1,14 +1,16 @@
 package io.gearsetup;
 
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import io.gearsetup.util.IndependentSetStrategy;
 import io.gearsetup.util.MaximumWeightIndependentSet;
+import io.gearsetup.util.SolverWorkspace;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
-import java.util.*;
-import java.util.function.BiPredicate;
-import java.util.function.Function;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 import java.util.function.ToDoubleFunction;
 
 /**
@@ -31,71 +33,413 @@ import java.util.function.ToDoubleFunction;
  * Finding the equipment setup that occupies the most equipment slots:
  * <p>
  * {@code Set<Equipment> mostSlotsUsed = OptimalGearSetup.find(candidates, equipment -> equipment.getOccupiedSlots().size());}
+ * <p>
+ * Finding the equipment setup that maximizes melee strength while weighing at most 20 kg:
+ * <p>
+ * {@code Set<Equipment> lightMeleeStrength = OptimalGearSetup.find(candidates, equipment -> equipment.getCombatBonuses().getMeleeStrength(), GearSetupConstraints.builder().setWeightLimit(20).build());}
+ * <p>
+ * Finding the equipment setup that maximizes prayer bonus while reporting where the solve spent its time:
+ * <p>
+ * {@code Set<Equipment> highestPrayerBonus = OptimalGearSetup.find(candidates, equipment -> equipment.getCombatBonuses().getPrayerBonus(), metrics -> log.info("{}", metrics));}
  *
  * @author Ian Caffey
  * @since 1.0
  */
 @UtilityClass
 public class OptimalGearSetup {
-    private static final Map<EquipmentSlot, Set<EquipmentSlot>> SINGLETON_SLOTS = Arrays.stream(EquipmentSlot.values())
-            .collect(ImmutableMap.toImmutableMap(Function.identity(), ImmutableSet::of));
+    private static final int MASK_COUNT = 1 << EquipmentSlot.COUNT;
+    private static final IndependentSetStrategy EXACT = IndependentSetStrategy.exact();
 
     /**
      * Finds the optimal gear setup given the specified candidate {@link Equipment} and the weighting function to maximize.
      * <p>
      * Every occupied slot combination is calculated for the candidate {@link Equipment}, the occupied slots set is maximized
-     * using {@link MaximumWeightIndependentSet#find(Set, BiPredicate, ToDoubleFunction)} where the weight function is the maximum
-     * weight of a piece of {@link Equipment} that occupies that set of {@link EquipmentSlot}, and then the set of disjoint
-     * {@link EquipmentSlot} is converted back to a set of {@link Equipment} by mapping each slot back to its maximum
-     * weight {@link Equipment} calculated previously.
+     * using {@link MaximumWeightIndependentSet#find(int, boolean[], double[], int[], SolverWorkspace)} where the weight
+     * function is the maximum weight of a piece of {@link Equipment} that occupies that set of {@link EquipmentSlot}, and
+     * then the set of disjoint {@link EquipmentSlot} is converted back to a set of {@link Equipment} by mapping each slot
+     * back to its maximum weight {@link Equipment} calculated previously.
+     * <p>
+     * The buffers of the search are provided by {@link SolverWorkspace#local()}.
      *
      * @param candidates the candidates to consider when finding optimal gear setup
      * @param weight     the weight function to apply to each candidate when maximizing
      * @return the set of candidates that maximize the weight function while occupying unique equipment slot
-     * @see MaximumWeightIndependentSet#find(Set, BiPredicate, ToDoubleFunction)
+     * @see MaximumWeightIndependentSet#find(int, boolean[], double[], int[], SolverWorkspace)
      */
     public Set<Equipment> find(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight) {
-        //collect weight and maximum slot heuristics
-        Map<Equipment, Double> weights = candidates.stream().collect(ImmutableMap.toImmutableMap(Function.identity(), weight::applyAsDouble));
-        Map<Set<EquipmentSlot>, Equipment> maximumWeightForSlots = new HashMap<>();
-        candidates.forEach(equipment -> {
-            double equipmentWeight = weights.get(equipment);
-            //equipment does not contribute to maximizing the weighting function, having no item would be better than this equipment
-            if (equipmentWeight <= 0) {
-                return;
+        return find(candidates, weight, SolverWorkspace.local());
+    }
+
+    /**
+     * Finds the optimal gear setup given the specified candidate {@link Equipment} and the weighting function to maximize
+     * using the buffers of the specified {@link SolverWorkspace}.
+     * <p>
+     * Each {@link EquipmentSlot} combination is represented as an {@code int} mask ({@code 1 << slot.ordinal()} for each
+     * occupied slot), so the maximum weight {@link Equipment} for each occupied slot combination is tracked in a lookup
+     * table indexed by the mask and two pieces of {@link Equipment} intersect when their masks share a bit.
+     * <p>
+     * In the steady state, the only allocation is the resulting set of {@link Equipment}.
+     *
+     * @param candidates the candidates to consider when finding optimal gear setup
+     * @param weight     the weight function to apply to each candidate when maximizing
+     * @param workspace  the workspace providing the buffers of the search
+     * @return the set of candidates that maximize the weight function while occupying unique equipment slot
+     * @throws IllegalStateException indicating the workspace is already acquired by another solve
+     */
+    public Set<Equipment> find(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                               @NonNull SolverWorkspace workspace) {
+        return solve(candidates, weight, null, null, workspace, EXACT, null);
+    }
+
+    /**
+     * Finds the optimal gear setup given the specified candidate {@link Equipment} and the weighting function to maximize,
+     * reporting the {@link SolverMetrics} of the solve to the specified {@link SolverListener}.
+     * <p>
+     * The buffers of the search are provided by {@link SolverWorkspace#local()}.
+     *
+     * @param candidates the candidates to consider when finding optimal gear setup
+     * @param weight     the weight function to apply to each candidate when maximizing
+     * @param listener   the listener of the metrics of the solve
+     * @return the set of candidates that maximize the weight function while occupying unique equipment slot
+     * @see OptimalGearSetup#find(Set, ToDoubleFunction, SolverWorkspace, SolverListener)
+     */
+    public Set<Equipment> find(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                               @NonNull SolverListener listener) {
+        return solve(candidates, weight, null, null, SolverWorkspace.local(), EXACT, listener);
+    }
+
+    /**
+     * Finds the optimal gear setup given the specified candidate {@link Equipment} and the weighting function to maximize
+     * using the buffers of the specified {@link SolverWorkspace}, reporting the {@link SolverMetrics} of the solve to the
+     * specified {@link SolverListener}.
+     * <p>
+     * The listener is invoked after the workspace is released and is not invoked if the solve fails.
+     *
+     * @param candidates the candidates to consider when finding optimal gear setup
+     * @param weight     the weight function to apply to each candidate when maximizing
+     * @param workspace  the workspace providing the buffers of the search
+     * @param listener   the listener of the metrics of the solve
+     * @return the set of candidates that maximize the weight function while occupying unique equipment slot
+     * @throws IllegalStateException indicating the workspace is already acquired by another solve
+     */
+    public Set<Equipment> find(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                               @NonNull SolverWorkspace workspace, @NonNull SolverListener listener) {
+        return solve(candidates, weight, null, null, workspace, EXACT, listener);
+    }
+
+    /**
+     * Finds a gear setup given the specified candidate {@link Equipment} and the weighting function to maximize, using the
+     * specified {@link IndependentSetStrategy} to bound the time spent searching large conflicting slot combinations.
+     * <p>
+     * The gear setup is optimal when every component is searched exactly within the budget of the strategy, otherwise it
+     * is an approximation whose quality is reported by {@link SolverMetrics#getOptimalityGap()}.
+     *
+     * @param candidates the candidates to consider when finding optimal gear setup
+     * @param weight     the weight function to apply to each candidate when maximizing
+     * @param strategy   the strategy for choosing between an exact and an approximate search
+     * @return the set of candidates that maximize the weight function while occupying unique equipment slot
+     * @see MaximumWeightIndependentSet#find(int, boolean[], double[], int[], SolverWorkspace, IndependentSetStrategy)
+     */
+    public Set<Equipment> find(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                               @NonNull IndependentSetStrategy strategy) {
+        return solve(candidates, weight, null, null, SolverWorkspace.local(), strategy, null);
+    }
+
+    /**
+     * Finds a gear setup given the specified candidate {@link Equipment} and the weighting function to maximize, using the
+     * specified {@link IndependentSetStrategy} to bound the time spent searching large conflicting slot combinations and
+     * reporting the {@link SolverMetrics} of the solve to the specified {@link SolverListener}.
+     *
+     * @param candidates the candidates to consider when finding optimal gear setup
+     * @param weight     the weight function to apply to each candidate when maximizing
+     * @param strategy   the strategy for choosing between an exact and an approximate search
+     * @param listener   the listener of the metrics of the solve
+     * @return the set of candidates that maximize the weight function while occupying unique equipment slot
+     * @see OptimalGearSetup#find(Set, ToDoubleFunction, IndependentSetStrategy)
+     */
+    public Set<Equipment> find(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                               @NonNull IndependentSetStrategy strategy, @NonNull SolverListener listener) {
+        return solve(candidates, weight, null, null, SolverWorkspace.local(), strategy, listener);
+    }
+
+    /**
+     * Finds the optimal gear setup given the {@link Equipment} of the specified {@link EquipmentCatalog} and the weighting
+     * function to maximize.
+     * <p>
+     * The weighting function is applied once to each piece of {@link Equipment} using
+     * {@link EquipmentCatalog#weigh(ToDoubleFunction)}. Solves that reuse the same weights should create the weight table
+     * once and use {@link OptimalGearSetup#find(EquipmentCatalog, double[])}.
+     *
+     * @param catalog the catalog of candidates to consider when finding optimal gear setup
+     * @param weight  the weight function to apply to each candidate when maximizing
+     * @return the set of candidates that maximize the weight function while occupying unique equipment slot
+     * @see OptimalGearSetup#find(Set, ToDoubleFunction)
+     */
+    public Set<Equipment> find(@NonNull EquipmentCatalog catalog, @NonNull ToDoubleFunction<Equipment> weight) {
+        return find(catalog, catalog.weigh(weight));
+    }
+
+    /**
+     * Finds the optimal gear setup given the {@link Equipment} of the specified {@link EquipmentCatalog} and the weight
+     * table to maximize, where the weight of the {@link Equipment} at catalog index {@code i} is {@code weights[i]}.
+     * <p>
+     * The {@link EquipmentSlot} masks and weights are read by catalog index, so the solve never iterates, hashes, or
+     * applies a weighting function to the {@link Equipment}.
+     *
+     * @param catalog the catalog of candidates to consider when finding optimal gear setup
+     * @param weights the weight table of the catalog, typically created by {@link EquipmentCatalog#weigh(ToDoubleFunction)}
+     * @return the set of candidates that maximize the weight function while occupying unique equipment slot
+     * @throws IllegalArgumentException indicating the weight table does not have a weight for each piece of equipment
+     */
+    public Set<Equipment> find(@NonNull EquipmentCatalog catalog, @NonNull double[] weights) {
+        if (weights.length != catalog.size()) {
+            throw new IllegalArgumentException("Weight table has " + weights.length + " weights for " + catalog.size() + " equipment.");
+        }
+        return solve(null, null, catalog, weights, SolverWorkspace.local(), EXACT, null);
+    }
+
+    /**
+     * Finds the optimal gear setup given the {@link Equipment} of the specified {@link EquipmentCatalog} that a character
+     * with the specified {@link PlayerUnlocks} can equip, maximizing the specified {@link CombatBonus} using the
+     * precomputed rankings of the specified {@link BestInSlotTable}.
+     * <p>
+     * The best piece of {@link Equipment} of each set of occupied {@link EquipmentSlot} is the first piece of its
+     * {@link SlotRanking} the character can equip, and the disjoint sets of occupied {@link EquipmentSlot} are then
+     * combined by a dynamic program over slot masks, so the solve never sorts or weighs the {@link Equipment}. The table
+     * must be computed from the {@link Equipment} of the catalog, as {@link Equipment} missing from the catalog is skipped.
+     *
+     * @param catalog the catalog of the equipment ranked by the table
+     * @param table   the precomputed rankings of the equipment
+     * @param bonus   the bonus to maximize
+     * @param unlocks the unlocks of the character
+     * @return the set of unlocked candidates that maximize the bonus while occupying unique equipment slot
+     * @see BestInSlotTable#compute(java.util.Collection)
+     */
+    public Set<Equipment> find(@NonNull EquipmentCatalog catalog, @NonNull BestInSlotTable table,
+                               @NonNull CombatBonus bonus, @NonNull PlayerUnlocks unlocks) {
+        List<SlotRanking> rankings = table.getRankings(bonus);
+        Equipment[] best = new Equipment[rankings.size()];
+        int[] scores = new int[rankings.size()];
+        int[] masks = new int[rankings.size()];
+        int count = 0;
+        for (SlotRanking ranking : rankings) {
+            List<Integer> ids = ranking.getEquipmentIds();
+            for (int i = 0; i < ids.size(); i++) {
+                int index = catalog.indexOf(ids.get(i));
+                if (index >= 0 && unlocks.canEquip(catalog.get(index))) {
+                    best[count] = catalog.get(index);
+                    scores[count] = ranking.getScores().get(i);
+                    masks[count++] = ranking.getSlotMask();
+                    break;
+                }
             }
-            Set<EquipmentSlot> occupiedSlots = equipment.getOccupiedSlots();
-            Equipment previousMaximum = maximumWeightForSlots.putIfAbsent(occupiedSlots, equipment);
-            //first equipment found for slot or the weight is less than the previous maximum
-            if (previousMaximum == null || equipmentWeight <= weights.get(previousMaximum)) {
-                return;
+        }
+        //totals[mask] is the best total score using only the slots of the mask, choices[mask] is the ranking taking its lowest slot
+        int[] totals = new int[MASK_COUNT];
+        int[] choices = new int[MASK_COUNT];
+        for (int mask = 1; mask < MASK_COUNT; mask++) {
+            int low = mask & -mask;
+            totals[mask] = totals[mask & ~low];
+            choices[mask] = -1;
+            for (int i = 0; i < count; i++) {
+                if ((masks[i] & low) != 0 && (masks[i] & ~mask) == 0 && scores[i] + totals[mask & ~masks[i]] > totals[mask]) {
+                    totals[mask] = scores[i] + totals[mask & ~masks[i]];
+                    choices[mask] = i;
+                }
             }
-            maximumWeightForSlots.put(occupiedSlots, equipment);
-        });
-        //most multi-slot equipment provide no bonuses over their components, so to reduce overhead in MWIS, filter them out
-        Set<Equipment> considered = maximumWeightForSlots.values().stream().filter(equipment -> {
-            Set<EquipmentSlot> slots = equipment.getOccupiedSlots();
-            if (slots.size() < 2) {
-                return true;
+        }
+        ImmutableSet.Builder<Equipment> builder = ImmutableSet.builder();
+        for (int mask = MASK_COUNT - 1; mask != 0; ) {
+            int choice = choices[mask];
+            if (choice < 0) {
+                mask &= mask - 1;
+            } else {
+                builder.add(best[choice]);
+                mask &= ~masks[choice];
             }
-            double totalIndividualEquipmentWeight = slots.stream()
-                    .mapToDouble(slot -> weights.getOrDefault(maximumWeightForSlots.get(SINGLETON_SLOTS.get(slot)), 0.0))
-                    .sum();
-            //multi-slot equipment is better than the total individual weight, keep the multi-slot
-            return weights.get(equipment) > totalIndividualEquipmentWeight;
-        }).collect(ImmutableSet.toImmutableSet());
-        //only 0 or 1 candidates are remaining to be considered, they are optimal as there are no other options to consider
-        if (considered.size() < 2) {
-            return ImmutableSet.copyOf(considered);
         }
-        boolean allSingleSlotItems = considered.stream().allMatch(equipment -> equipment.getOccupiedSlots().size() == 1);
-        //if all considered items are single slot items, they are guaranteed to each be the best-in-slot, so they are guaranteed to be disjoint
-        if (allSingleSlotItems) {
-            return ImmutableSet.copyOf(considered);
+        return builder.build();
+    }
+
+    /**
+     * Finds the optimal gear setup given the specified candidate {@link Equipment} and the weighting function to maximize
+     * using the buffers of the specified {@link SolverWorkspace}.
+     * <p>
+     * Each phase of the solve is only timed when there is a {@link SolverListener}, so uninstrumented solves do not pay
+     * for reading the clock.
+     *
+     * @param candidates     the candidates to consider when finding optimal gear setup or {@code null} if the candidates are a catalog
+     * @param weight         the weight function to apply to each candidate or {@code null} if the candidates are a catalog
+     * @param catalog        the catalog of candidates or {@code null} if the candidates are a set
+     * @param catalogWeights the weight table of the catalog or {@code null} if the candidates are a set
+     * @param workspace      the workspace providing the buffers of the search
+     * @param strategy       the strategy for choosing between an exact and an approximate search
+     * @param listener       the listener of the metrics of the solve or {@code null} if the solve is not instrumented
+     * @return the set of candidates that maximize the weight function while occupying unique equipment slot
+     */
+    private Set<Equipment> solve(Set<Equipment> candidates, ToDoubleFunction<Equipment> weight, EquipmentCatalog catalog,
+                                 double[] catalogWeights, SolverWorkspace workspace, IndependentSetStrategy strategy,
+                                 SolverListener listener) {
+        boolean instrumented = listener != null;
+        SolverMetrics metrics = null;
+        Set<Equipment> setup;
+        workspace.acquire();
+        try {
+            long start = instrumented ? System.nanoTime() : 0;
+            long weightNanos = 0;
+            //catalog solves read the precomputed slot masks and weight table by index instead of iterating the candidates
+            Iterator<Equipment> iterator = catalog == null ? candidates.iterator() : null;
+            int size = catalog == null ? candidates.size() : catalog.size();
+            Object[] equipment = workspace.vertices(size);
+            double[] weights = workspace.weights(size);
+            int[] masks = workspace.masks(size);
+            //indices of the distinct occupied slot masks, which are then compacted to the indices of the considered equipment
+            int[] considered = workspace.indices(size);
+            int[] maximumWeightForSlots = workspace.table(MASK_COUNT);
+            //collect weight and maximum slot heuristics
+            int index = 0;
+            int count = 0;
+            boolean allSingleSlotItems = true;
+            long grouped = 0;
+            try {
+                int slotCombinations = 0;
+                for (int position = 0; position < size; position++) {
+                    Equipment candidate = iterator == null ? catalog.get(position) : iterator.next();
+                    double equipmentWeight;
+                    if (iterator == null) {
+                        equipmentWeight = catalogWeights[position];
+                    } else if (instrumented) {
+                        long before = System.nanoTime();
+                        equipmentWeight = weight.applyAsDouble(candidate);
+                        weightNanos += System.nanoTime() - before;
+                    } else {
+                        equipmentWeight = weight.applyAsDouble(candidate);
+                    }
+                    //equipment does not contribute to maximizing the weighting function, having no item would be better than this equipment
+                    if (!(equipmentWeight > 0)) {
+                        continue;
+                    }
+                    int mask = iterator == null ? catalog.getSlotMask(position) : candidate.getSlotMask();
+                    equipment[index] = candidate;
+                    weights[index] = equipmentWeight;
+                    masks[index] = mask;
+                    int previousMaximum = maximumWeightForSlots[mask];
+                    //first equipment found for slot or the weight is more than the previous maximum
+                    if (previousMaximum < 0) {
+                        considered[slotCombinations++] = mask;
+                        maximumWeightForSlots[mask] = index;
+                    } else if (equipmentWeight > weights[previousMaximum]) {
+                        maximumWeightForSlots[mask] = index;
+                    }
+                    index++;
+                }
+                grouped = instrumented ? System.nanoTime() : 0;
+                //most multi-slot equipment provide no bonuses over their components, so to reduce overhead in MWIS, filter them out
+                for (int i = 0; i < slotCombinations; i++) {
+                    int mask = considered[i];
+                    int maximum = maximumWeightForSlots[mask];
+                    if (Integer.bitCount(mask) > 1) {
+                        double totalIndividualEquipmentWeight = 0;
+                        for (int slots = mask; slots != 0; slots &= slots - 1) {
+                            int individual = maximumWeightForSlots[Integer.lowestOneBit(slots)];
+                            totalIndividualEquipmentWeight += individual < 0 ? 0 : weights[individual];
+                        }
+                        //multi-slot equipment is not better than the total individual weight, drop the multi-slot
+                        if (weights[maximum] <= totalIndividualEquipmentWeight) {
+                            continue;
+                        }
+                        allSingleSlotItems = false;
+                    }
+                    considered[count++] = maximum;
+                }
+            } finally {
+                //reset the lookup table for the next solve
+                for (int i = 0; i < index; i++) {
+                    maximumWeightForSlots[masks[i]] = -1;
+                }
+            }
+            //compact the considered equipment to the front of the buffers, indices are sorted so no entry is overwritten before it is read
+            Arrays.sort(considered, 0, count);
+            for (int i = 0; i < count; i++) {
+                int from = considered[i];
+                equipment[i] = equipment[from];
+                weights[i] = weights[from];
+                masks[i] = masks[from];
+                considered[i] = i;
+            }
+            int consideredCount = count;
+            long pruned = instrumented ? System.nanoTime() : 0;
+            long built = pruned;
+            //if all considered items are single slot items, they are guaranteed to each be the best-in-slot, so they are guaranteed to be disjoint
+            //only 0 or 1 candidates are remaining to be considered, they are optimal as there are no other options to consider
+            boolean conflicting = !allSingleSlotItems && count > 1;
+            if (conflicting) {
+                boolean[] adjacency = workspace.adjacency(count);
+                for (int i = 0; i < count; i++) {
+                    for (int j = 0; j < count; j++) {
+                        adjacency[i * count + j] = i != j && (masks[i] & masks[j]) != 0;
+                    }
+                }
+                built = instrumented ? System.nanoTime() : 0;
+                count = MaximumWeightIndependentSet.find(count, adjacency, weights, considered, workspace, strategy);
+            }
+            long searched = instrumented ? System.nanoTime() : 0;
+            ImmutableSet.Builder<Equipment> builder = ImmutableSet.builder();
+            double total = 0;
+            for (int i = 0; i < count; i++) {
+                builder.add((Equipment) equipment[considered[i]]);
+                total += weights[considered[i]];
+            }
+            setup = builder.build();
+            if (instrumented) {
+                SolverMetrics.Builder metricsBuilder = SolverMetrics.builder()
+                        .setCandidateCount(size)
+                        .setConsideredCount(consideredCount)
+                        .setWeightNanos(weightNanos)
+                        .setGroupingNanos(grouped - start - weightNanos)
+                        .setPruningNanos(pruned - grouped)
+                        .setGraphNanos(built - pruned)
+                        .setSearchNanos(searched - built)
+                        .setNodesVisited(workspace.getNodesVisited())
+                        .setLeavesReached(workspace.getLeavesReached())
+                        .setWeight(total)
+                        .setUpperBound(conflicting ? Math.max(total, workspace.getUpperBound()) : total)
+                        .setExact(!conflicting || workspace.isExact());
+                for (int i = 0; i < workspace.getComponentCount(); i++) {
+                    metricsBuilder.addComponentSize(workspace.getComponentSize(i));
+                }
+                metrics = metricsBuilder.build();
+            }
+        } finally {
+            workspace.close();
         }
-        return MaximumWeightIndependentSet.find(considered,
-                (left, right) -> !Collections.disjoint(left.getOccupiedSlots(), right.getOccupiedSlots()),
-                weights::get
-        );
+        if (instrumented) {
+            listener.onSolve(metrics);
+        }
+        return setup;
+    }
+
+    /**
+     * Finds the optimal gear setup given the specified candidate {@link Equipment}, the weighting function to maximize,
+     * and the {@link GearSetupConstraints} the gear setup must satisfy.
+     * <p>
+     * The constrained gear setup is found in a single pass of a
+     * <a href="https://en.wikipedia.org/wiki/Dynamic_programming">dynamic program</a> over the mask of occupied
+     * {@link EquipmentSlot} and the total weight of the worn {@link Equipment} discretised to
+     * {@link GearSetupConstraints#getWeightResolution()}.
+     * <p>
+     * Unlike {@link OptimalGearSetup#find(Set, ToDoubleFunction)}, {@link Equipment} with a non-positive weight can be
+     * part of the constrained gear setup when it is required to occupy a forced {@link EquipmentSlot} or when it reduces
+     * the total weight of the gear setup enough to allow wearing heavier {@link Equipment}.
+     *
+     * @param candidates  the candidates to consider when finding optimal gear setup
+     * @param weight      the weight function to apply to each candidate when maximizing
+     * @param constraints the constraints the gear setup must satisfy
+     * @return the set of candidates and forced equipment that maximize the weight function while satisfying the constraints
+     * @throws IllegalArgumentException indicating there is no gear setup that satisfies the constraints
+     */
+    public Set<Equipment> find(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                               @NonNull GearSetupConstraints constraints) {
+        return SlotMaskKnapsack.find(candidates, weight, constraints);
     }
 }
@@ -0,0 +1,239 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A utility class providing the ability to calculate the optimal worn {@link Equipment} together with the optimal
+ * 28 slot inventory of a character in <a href="https://oldschool.runescape.com/">Old School Runescape</a>.
+ * <p>
+ * The worn {@link Equipment} is found by the same knapsack as {@link OptimalGearSetup#find(Set, ToDoubleFunction, GearSetupConstraints)},
+ * which provides the maximum score of the worn {@link Equipment} for each discretised total weight. The inventory is a
+ * bounded <a href="https://en.wikipedia.org/wiki/Knapsack_problem">knapsack</a> over the occupied inventory slots and
+ * the discretised total weight of the carried items, where each {@link InventoryCandidate} is split into units of
+ * {@code 1, 2, 4, ...} quantities so the search is logarithmic in the maximum quantity. The two are then combined in a
+ * single pass over the worn weights, so the weight limit of the {@link GearSetupConstraints} applies to the total weight
+ * of the worn {@link Equipment} and the carried items.
+ * <p>
+ * Examples:
+ * <p>
+ * Finding the melee strength setup and the most healing carried within 30 kg:
+ * <p>
+ * {@code Loadout loadout = OptimalLoadout.find(candidates, equipment -> equipment.getCombatBonuses().getMeleeStrength(), food, item -> healing.get(item.getId()), GearSetupConstraints.builder().setWeightLimit(30).build());}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+public class OptimalLoadout {
+    /**
+     * Represents the number of slots in the inventory of a character.
+     */
+    public static final int INVENTORY_SIZE = 28;
+    /**
+     * The maximum number of states recorded by the inventory knapsack to reconstruct the carried items, which is the
+     * number of item units multiplied by the {@code 29} occupied slot counts and the discretised weights of the inventory.
+     * <p>
+     * Each recorded state is a single bit, so the reconstruction holds at most {@code 32} MB.
+     */
+    public static final long MAXIMUM_RECORDED_STATES = 1L << 28;
+    //tolerance for floating point error when discretising weights (e.g. 0.3 / 0.1 = 2.9999999999999996)
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Finds the optimal loadout given the specified candidate {@link Equipment} and {@link InventoryCandidate}, the
+     * weighting function of the worn {@link Equipment} and the value of a single unit of each carried item to maximize.
+     *
+     * @param candidates the equipment candidates to consider for the worn equipment
+     * @param weight     the weight function to apply to each equipment candidate when maximizing
+     * @param inventory  the inventory candidates to consider for the carried items
+     * @param value      the value function to apply to a single unit of each inventory candidate when maximizing
+     * @return the worn equipment and carried items that maximize the total weight and value
+     * @see OptimalLoadout#find(Set, ToDoubleFunction, Set, ToDoubleFunction, GearSetupConstraints)
+     */
+    public Loadout find(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                        @NonNull Set<InventoryCandidate> inventory, @NonNull ToDoubleFunction<InventoryCandidate> value) {
+        return find(candidates, weight, inventory, value, GearSetupConstraints.none());
+    }
+
+    /**
+     * Finds the optimal loadout given the specified candidate {@link Equipment} and {@link InventoryCandidate}, the
+     * weighting function of the worn {@link Equipment} and the value of a single unit of each carried item to maximize,
+     * and the {@link GearSetupConstraints} the loadout must satisfy.
+     * <p>
+     * The weight limit of the constraints applies to the total weight of the worn {@link Equipment} and the carried items,
+     * and every other constraint applies to the worn {@link Equipment}. Items with a non-positive value are never carried.
+     * <p>
+     * Every item is split into at most {@code 5} units, so the number of inventory candidates multiplied by the
+     * discretised weights of the inventory must stay within {@link OptimalLoadout#MAXIMUM_RECORDED_STATES}.
+     *
+     * @param candidates  the equipment candidates to consider for the worn equipment
+     * @param weight      the weight function to apply to each equipment candidate when maximizing
+     * @param inventory   the inventory candidates to consider for the carried items
+     * @param value       the value function to apply to a single unit of each inventory candidate when maximizing
+     * @param constraints the constraints the loadout must satisfy
+     * @return the worn equipment and carried items that maximize the total weight and value
+     * @throws IllegalArgumentException indicating there is no loadout that satisfies the constraints or the inventory
+     *                                  knapsack would record more than {@link OptimalLoadout#MAXIMUM_RECORDED_STATES}
+     * @throws CancellationException    indicating the current thread was interrupted during the search
+     */
+    public Loadout find(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                        @NonNull Set<InventoryCandidate> inventory, @NonNull ToDoubleFunction<InventoryCandidate> value,
+                        @NonNull GearSetupConstraints constraints) {
+        SlotMaskKnapsack.Frontier frontier = SlotMaskKnapsack.frontier(candidates, weight, constraints);
+        boolean weightLimited = constraints.getWeightLimit().isPresent();
+        double resolution = constraints.getWeightResolution();
+        //the heaviest inventory is bounded by the lightest reachable worn equipment
+        int range = 0;
+        for (int i = 0; i < frontier.size(); i++) {
+            if (frontier.isReachable(i)) {
+                range = Math.max(range, frontier.remaining(i) + 1);
+            }
+        }
+        if (range == 0) {
+            throw new IllegalArgumentException("No gear setup satisfies the constraints.");
+        }
+        //split each item into units of 1, 2, 4, ... so every quantity up to the maximum is a combination of units
+        List<Unit> units = new ArrayList<>();
+        for (InventoryCandidate candidate : inventory) {
+            double unitValue = value.applyAsDouble(candidate);
+            if (!(unitValue > 0)) {
+                continue;
+            }
+            if (candidate.isStackable()) {
+                units.add(unit(candidate, candidate.getMaximumQuantity(), 1, unitValue, weightLimited, resolution));
+                continue;
+            }
+            int remaining = Math.min(candidate.getMaximumQuantity(), INVENTORY_SIZE);
+            for (int quantity = 1; remaining > 0; quantity <<= 1) {
+                int split = Math.min(quantity, remaining);
+                units.add(unit(candidate, split, split, unitValue, weightLimited, resolution));
+                remaining -= split;
+            }
+        }
+        //best[slots][bucket] is the maximum value of the units processed so far occupying exactly slots and bucket
+        int states = (INVENTORY_SIZE + 1) * range;
+        //the taken units of every state are recorded to reconstruct the inventory, so the recorded states are bounded up front
+        if ((long) units.size() * states > MAXIMUM_RECORDED_STATES) {
+            throw new IllegalArgumentException("Inventory of " + units.size() + " units over " + range + " weights records more than "
+                    + MAXIMUM_RECORDED_STATES + " states, use fewer inventory candidates or a coarser weight resolution.");
+        }
+        double[] best = new double[states];
+        Arrays.fill(best, Double.NEGATIVE_INFINITY);
+        best[0] = 0;
+        long[][] taken = new long[units.size()][];
+        for (int u = 0; u < units.size(); u++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Solve was interrupted.");
+            }
+            Unit unit = units.get(u);
+            long[] take = taken[u] = new long[(states + 63) >>> 6];
+            //iterate downwards so each unit is taken at most once
+            for (int slots = INVENTORY_SIZE; slots >= unit.slots; slots--) {
+                for (int bucket = range - 1; bucket >= unit.bucket; bucket--) {
+                    double previous = best[(slots - unit.slots) * range + bucket - unit.bucket];
+                    int state = slots * range + bucket;
+                    if (previous != Double.NEGATIVE_INFINITY && previous + unit.value > best[state]) {
+                        best[state] = previous + unit.value;
+                        take[state >>> 6] |= 1L << state;
+                    }
+                }
+            }
+        }
+        //within[bucket] is the state of the maximum value occupying at most the discretised weight bucket
+        int[] within = new int[range];
+        for (int bucket = 0; bucket < range; bucket++) {
+            int state = bucket == 0 ? -1 : within[bucket - 1];
+            for (int slots = 0; slots <= INVENTORY_SIZE; slots++) {
+                int candidate = slots * range + bucket;
+                if (best[candidate] != Double.NEGATIVE_INFINITY && (state < 0 || best[candidate] > best[state])) {
+                    state = candidate;
+                }
+            }
+            within[bucket] = state;
+        }
+        //combine each reachable worn state with the best inventory that fits in the remaining weight
+        int bestWorn = -1;
+        int bestInventory = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < frontier.size(); i++) {
+            if (!frontier.isReachable(i)) {
+                continue;
+            }
+            int state = within[frontier.remaining(i)];
+            double score = frontier.score(i) + best[state];
+            if (bestWorn < 0 || score > bestScore) {
+                bestWorn = i;
+                bestInventory = state;
+                bestScore = score;
+            }
+        }
+        //replay the taken units in reverse to recover the quantity of each item
+        ImmutableMap.Builder<InventoryCandidate, Integer> carried = ImmutableMap.builder();
+        int[] quantities = new int[units.size()];
+        int state = bestInventory;
+        for (int u = units.size() - 1; u >= 0; u--) {
+            if ((taken[u][state >>> 6] & (1L << state)) != 0) {
+                Unit unit = units.get(u);
+                quantities[u] = unit.quantity;
+                state -= unit.slots * range + unit.bucket;
+            }
+        }
+        //units of the same item are adjacent, so their quantities are summed in a single pass
+        for (int u = 0; u < units.size(); ) {
+            InventoryCandidate candidate = units.get(u).candidate;
+            int quantity = 0;
+            for (; u < units.size() && units.get(u).candidate == candidate; u++) {
+                quantity += quantities[u];
+            }
+            if (quantity > 0) {
+                carried.put(candidate, quantity);
+            }
+        }
+        return Loadout.of(frontier.setup(bestWorn), carried.build());
+    }
+
+    /**
+     * Constructs a new {@link Unit} carrying the specified quantity of the specified item.
+     *
+     * @param candidate     the carried item
+     * @param quantity      the quantity of the item
+     * @param slots         the inventory slots occupied by the quantity
+     * @param unitValue     the value of a single unit of the item
+     * @param weightLimited whether the total weight is limited
+     * @param resolution    the granularity the weight is discretised to
+     * @return a new unit of the item
+     */
+    private Unit unit(InventoryCandidate candidate, int quantity, int slots, double unitValue, boolean weightLimited, double resolution) {
+        int bucket = weightLimited ? (int) Math.ceil(candidate.getWeight() * quantity / resolution - EPSILON) : 0;
+        return new Unit(candidate, quantity, slots, bucket, unitValue * quantity);
+    }
+
+    /**
+     * A representation of a quantity of an {@link InventoryCandidate} that is either carried entirely or not at all,
+     * with its occupied inventory slots, discretised weight, and value.
+     */
+    private static final class Unit {
+        private final InventoryCandidate candidate;
+        private final int quantity;
+        private final int slots;
+        private final int bucket;
+        private final double value;
+
+        private Unit(InventoryCandidate candidate, int quantity, int slots, int bucket, double value) {
+            this.candidate = candidate;
+            this.quantity = quantity;
+            this.slots = slots;
+            this.bucket = bucket;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.gearsetup.util.IntIntMap;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A utility class providing the ability to plan the gear setup of each phase of a fight in
+ * <a href="https://oldschool.runescape.com/">Old School Runescape</a> (e.g. a melee phase and a magic phase), where
+ * pieces of {@link Equipment} can be shared between phases and every other piece is carried as a switch.
+ * <p>
+ * Each phase has its own weighting function, and the plan maximizes the total weight of every phase minus a penalty
+ * for each distinct piece of {@link Equipment} in the plan, which trades a slightly better phase against carrying
+ * another switch. A plan of at most {@link OptimalSwitchPlan#MAXIMUM_PHASES} phases carries at most {@code 22} switches,
+ * so every switch always fits in the {@link OptimalLoadout#INVENTORY_SIZE} inventory slots.
+ * <p>
+ * The phases are solved jointly by a single <a href="https://en.wikipedia.org/wiki/Dynamic_programming">dynamic program</a>
+ * over the layers of {@link EquipmentSlot}, like the knapsack of {@link OptimalGearSetup#find(Set, ToDoubleFunction, GearSetupConstraints)},
+ * where the state packs the slots of every phase occupied by multi-slot {@link Equipment} of earlier layers into a single
+ * {@code int} key of an {@link IntIntMap}.
+ * Each piece of {@link Equipment} belongs to the layer of its lowest occupied {@link EquipmentSlot}, so the distinct
+ * {@link Equipment} of the plan is counted layer by layer.
+ * <p>
+ * Phases that share a piece of {@link Equipment} always share the piece that maximizes their total weight, so only
+ * the best piece for each subset of phases and each slot mask is considered, which keeps the search exact while its
+ * cost grows exponentially with the number of phases, limited to {@link OptimalSwitchPlan#MAXIMUM_PHASES}. States
+ * are pruned when the best score of each phase on its remaining free slots cannot reach the plan of the optimal setup
+ * of each phase on its own.
+ * <p>
+ * Examples:
+ * <p>
+ * Planning a melee and a magic phase, where a switch must improve the plan by at least 2:
+ * <p>
+ * {@code SwitchPlan plan = OptimalSwitchPlan.find(candidates, Arrays.asList(equipment -> equipment.getCombatBonuses().getMeleeStrength(), equipment -> equipment.getCombatBonuses().getMagicStrength()), 2);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+public class OptimalSwitchPlan {
+    /**
+     * Represents the maximum number of phases of a switch plan.
+     */
+    public static final int MAXIMUM_PHASES = 3;
+    private static final int SLOT_COUNT = EquipmentSlot.COUNT;
+    private static final int MASK_COUNT = 1 << SLOT_COUNT;
+    private static final double EPSILON = 1e-9;
+    //the first slot is never pending after its layer, so each phase packs the remaining slots of its mask into the key
+    private static final int PACKED_BITS = SLOT_COUNT - 1;
+    private static final int PACKED_MASK = (1 << PACKED_BITS) - 1;
+
+    /**
+     * Finds the optimal switch plan given the specified candidate {@link Equipment} and the weighting function of each
+     * phase, without penalizing distinct {@link Equipment}.
+     *
+     * @param candidates the candidates to consider for every phase
+     * @param phases     the weighting function of each phase, in phase order
+     * @return the gear setup of each phase that maximizes the total weight of every phase
+     * @see OptimalSwitchPlan#find(Set, List, double)
+     */
+    public SwitchPlan find(@NonNull Set<Equipment> candidates, @NonNull List<ToDoubleFunction<Equipment>> phases) {
+        return find(candidates, phases, 0);
+    }
+
+    /**
+     * Finds the optimal switch plan given the specified candidate {@link Equipment}, the weighting function of each
+     * phase, and the penalty for each distinct piece of {@link Equipment} in the plan.
+     * <p>
+     * Like {@link OptimalGearSetup#find(Set, ToDoubleFunction)}, a phase never wears {@link Equipment} with a non-positive
+     * weight for the phase.
+     *
+     * @param candidates  the candidates to consider for every phase
+     * @param phases      the weighting function of each phase, in phase order
+     * @param itemPenalty the penalty for each distinct piece of equipment in the plan
+     * @return the gear setup of each phase that maximizes the total weight of every phase minus the item penalties
+     * @throws IllegalArgumentException indicating there are no phases, too many phases, or the penalty is invalid
+     * @throws CancellationException    indicating the current thread was interrupted during the search
+     */
+    public SwitchPlan find(@NonNull Set<Equipment> candidates, @NonNull List<ToDoubleFunction<Equipment>> phases, double itemPenalty) {
+        int phaseCount = phases.size();
+        if (phaseCount == 0 || phaseCount > MAXIMUM_PHASES) {
+            throw new IllegalArgumentException("Switch plans must have between 1 and " + MAXIMUM_PHASES + " phases.");
+        }
+        if (!(itemPenalty >= 0) || Double.isInfinite(itemPenalty)) {
+            throw new IllegalArgumentException("Item penalty must be a non-negative finite number.");
+        }
+        int subsetCount = 1 << phaseCount;
+        Equipment[] equipment = new Equipment[candidates.size()];
+        int[] masks = new int[candidates.size()];
+        double[] scores = new double[candidates.size() * phaseCount];
+        //best[mask * subsetCount + subset] is the candidate occupying the mask that maximizes the total score of the subset of phases
+        int[] best = new int[MASK_COUNT * subsetCount];
+        double[] bestScores = new double[MASK_COUNT * subsetCount];
+        Arrays.fill(best, -1);
+        int count = 0;
+        for (Equipment candidate : candidates) {
+            int mask = candidate.getSlotMask();
+            if (mask == 0) {
+                continue;
+            }
+            int gaining = 0;
+            for (int phase = 0; phase < phaseCount; phase++) {
+                double score = phases.get(phase).applyAsDouble(candidate);
+                scores[count * phaseCount + phase] = score;
+                if (score > 0) {
+                    gaining |= 1 << phase;
+                }
+            }
+            if (gaining == 0) {
+                continue;
+            }
+            equipment[count] = candidate;
+            masks[count] = mask;
+            //only subsets of the phases that gain from the candidate can share it
+            for (int subset = gaining; subset != 0; subset = (subset - 1) & gaining) {
+                double total = 0;
+                for (int remaining = subset; remaining != 0; remaining &= remaining - 1) {
+                    total += scores[count * phaseCount + Integer.numberOfTrailingZeros(remaining)];
+                }
+                int entry = mask * subsetCount + subset;
+                if (best[entry] < 0 || total > bestScores[entry]) {
+                    best[entry] = count;
+                    bestScores[entry] = total;
+                }
+            }
+            count++;
+        }
+        //options[layer][subset] are the best candidates of each slot mask of the layer for the subset of phases
+        int[][][] options = new int[SLOT_COUNT][subsetCount][];
+        double[][][] totals = new double[SLOT_COUNT][subsetCount][];
+        int[] buffer = new int[MASK_COUNT];
+        double[] bufferTotals = new double[MASK_COUNT];
+        for (int layer = 0; layer < SLOT_COUNT; layer++) {
+            for (int subset = 1; subset < subsetCount; subset++) {
+                int size = 0;
+                //the masks of the layer have the slot of the layer as their lowest slot
+                for (int rest = 0; rest < MASK_COUNT >>> (layer + 1); rest++) {
+                    int entry = ((rest << (layer + 1)) | (1 << layer)) * subsetCount + subset;
+                    if (best[entry] >= 0) {
+                        buffer[size] = best[entry];
+                        bufferTotals[size++] = bestScores[entry];
+                    }
+                }
+                options[layer][subset] = Arrays.copyOf(buffer, size);
+                totals[layer][subset] = Arrays.copyOf(bufferTotals, size);
+            }
+        }
+        //bounds[phase][mask] is the best score of the phase using only the slots of the mask, ignoring the item penalty
+        double[][] bounds = new double[phaseCount][MASK_COUNT];
+        int[][] picks = new int[phaseCount][MASK_COUNT];
+        for (int phase = 0; phase < phaseCount; phase++) {
+            double[] bound = bounds[phase];
+            int[] pick = picks[phase];
+            for (int mask = 1; mask < MASK_COUNT; mask++) {
+                int low = mask & -mask;
+                int rest = mask & ~low;
+                bound[mask] = bound[rest];
+                pick[mask] = -1;
+                //every candidate with the lowest slot of the mask as its lowest slot that fits in the mask
+                for (int other = rest; ; other = (other - 1) & rest) {
+                    int entry = (other | low) * subsetCount + (1 << phase);
+                    if (best[entry] >= 0 && bestScores[entry] + bound[rest & ~other] > bound[mask]) {
+                        bound[mask] = bestScores[entry] + bound[rest & ~other];
+                        pick[mask] = best[entry];
+                    }
+                    if (other == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        //the optimal setup of each phase on its own is a feasible plan, so no optimal plan scores lower
+        boolean[] picked = new boolean[count];
+        double lowerBound = 0;
+        for (int phase = 0; phase < phaseCount; phase++) {
+            lowerBound += bounds[phase][MASK_COUNT - 1];
+            for (int mask = MASK_COUNT - 1; mask != 0; ) {
+                int candidate = picks[phase][mask];
+                if (candidate < 0) {
+                    mask &= mask - 1;
+                    continue;
+                }
+                if (!picked[candidate]) {
+                    picked[candidate] = true;
+                    lowerBound -= itemPenalty;
+                }
+                mask &= ~masks[candidate];
+            }
+        }
+        //every layer is kept to reconstruct the plan from the parent of each state
+        List<Layer> layers = new ArrayList<>(SLOT_COUNT + 1);
+        Layer states = new Layer(phaseCount, 1);
+        states.relax(0, -1, 0, new int[phaseCount]);
+        layers.add(states);
+        Search search = new Search(phaseCount, masks, itemPenalty, bounds, lowerBound);
+        for (int layer = 0; layer < SLOT_COUNT; layer++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Solve was interrupted.");
+            }
+            Layer next = new Layer(phaseCount, states.size);
+            for (int state = 0; state < states.size; state++) {
+                search.expand(states, state, options[layer], totals[layer], layer, next);
+            }
+            layers.add(next);
+            states = next;
+        }
+        //every multi-slot equipment has been passed through by the final layer, so only the empty state remains
+        List<ImmutableSet.Builder<Equipment>> setups = new ArrayList<>(phaseCount);
+        for (int phase = 0; phase < phaseCount; phase++) {
+            setups.add(ImmutableSet.builder());
+        }
+        for (int layer = SLOT_COUNT, state = 0; layer > 0; state = layers.get(layer--).parents[state]) {
+            Layer current = layers.get(layer);
+            for (int phase = 0; phase < phaseCount; phase++) {
+                int candidate = current.choices[state * phaseCount + phase];
+                if (candidate >= 0) {
+                    setups.get(phase).add(equipment[candidate]);
+                }
+            }
+        }
+        ImmutableList.Builder<Set<Equipment>> builder = ImmutableList.builder();
+        for (ImmutableSet.Builder<Equipment> setup : setups) {
+            builder.add(setup.build());
+        }
+        return SwitchPlan.of(builder.build());
+    }
+
+    /**
+     * A representation of the states of a single layer of the dynamic program, where the key of each state packs the
+     * occupied slot mask of every phase and each state keeps the best partial plan reaching it, as the choice of each
+     * phase in the layer and the index of its state in the previous layer.
+     */
+    private static final class Layer {
+        private final int phaseCount;
+        private final IntIntMap indices;
+        private int[] keys;
+        private double[] scores;
+        private int[] parents;
+        private int[] choices;
+        private int size;
+
+        private Layer(int phaseCount, int expectedSize) {
+            this.phaseCount = phaseCount;
+            this.indices = new IntIntMap(expectedSize);
+            this.keys = new int[Math.max(1, expectedSize)];
+            this.scores = new double[keys.length];
+            this.parents = new int[keys.length];
+            this.choices = new int[keys.length * phaseCount];
+        }
+
+        /**
+         * Relaxes the state with the specified key, keeping the partial plan if it improves the score of the state.
+         *
+         * @param key    the packed slot masks of the state
+         * @param parent the index of the previous state
+         * @param score  the score of the partial plan
+         * @param choice the candidate chosen by each phase or {@code -1} if the phase chose nothing
+         */
+        private void relax(int key, int parent, double score, int[] choice) {
+            int index = indices.get(key, -1);
+            if (index < 0) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size << 1);
+                    scores = Arrays.copyOf(scores, size << 1);
+                    parents = Arrays.copyOf(parents, size << 1);
+                    choices = Arrays.copyOf(choices, (size << 1) * phaseCount);
+                }
+                index = size++;
+                indices.put(key, index);
+                keys[index] = key;
+            } else if (score <= scores[index]) {
+                return;
+            }
+            scores[index] = score;
+            parents[index] = parent;
+            System.arraycopy(choice, 0, choices, index * phaseCount, phaseCount);
+        }
+    }
+
+    /**
+     * A representation of the transitions of a single layer of the dynamic program, which enumerates the choice of each
+     * phase for a state of the previous layer.
+     * <p>
+     * Phases choosing the same candidate form a block, so each transition is a set of phases choosing nothing and a
+     * partition of the remaining phases into blocks, where each block chooses one of the best candidates for the block
+     * and pays the item penalty once.
+     */
+    private static final class Search {
+        private final int phaseCount;
+        private final int[] masks;
+        private final double itemPenalty;
+        private final double[][] bounds;
+        private final double lowerBound;
+        private final int[] current;
+        private final int[] occupied;
+        private final int[] choice;
+
+        private Search(int phaseCount, int[] masks, double itemPenalty, double[][] bounds, double lowerBound) {
+            this.phaseCount = phaseCount;
+            this.masks = masks;
+            this.itemPenalty = itemPenalty;
+            this.bounds = bounds;
+            this.lowerBound = lowerBound;
+            this.current = new int[phaseCount];
+            this.occupied = new int[phaseCount];
+            this.choice = new int[phaseCount];
+        }
+
+        /**
+         * Relaxes every state of the next layer reachable from the specified state of the previous layer.
+         *
+         * @param states  the states of the previous layer
+         * @param state   the index of the state
+         * @param options the best candidates of the layer for each subset of phases
+         * @param totals  the total score of each candidate for its subset of phases
+         * @param layer   the slot of the layer
+         * @param next    the states of the next layer
+         */
+        private void expand(Layer states, int state, int[][] options, double[][] totals, int layer, Layer next) {
+            int key = states.keys[state];
+            for (int phase = 0; phase < phaseCount; phase++) {
+                current[phase] = ((key >>> (phase * PACKED_BITS)) & PACKED_MASK) << 1;
+            }
+            choose(state, states.scores[state], options, totals, 1 << layer, 0, next);
+        }
+
+        /**
+         * Enumerates the choice of the first undecided phase and every later undecided phase.
+         *
+         * @param state   the index of the state
+         * @param score   the score of the phases decided so far
+         * @param options the best candidates of the layer for each subset of phases
+         * @param totals  the total score of each candidate for its subset of phases
+         * @param bit     the slot of the layer
+         * @param decided the subset of phases decided so far
+         * @param next    the states of the next layer
+         */
+        private void choose(int state, double score, int[][] options, double[][] totals, int bit, int decided, Layer next) {
+            int undecided = ~decided & ((1 << phaseCount) - 1);
+            if (undecided == 0) {
+                //the slots of later layers that are still free bound the score the rest of the plan can add
+                int remaining = (MASK_COUNT - 1) & ~((bit << 1) - 1);
+                double bound = score;
+                for (int phase = 0; phase < phaseCount; phase++) {
+                    bound += bounds[phase][remaining & ~occupied[phase]];
+                }
+                if (bound < lowerBound - EPSILON) {
+                    return;
+                }
+                int key = 0;
+                for (int phase = 0; phase < phaseCount; phase++) {
+                    key |= (occupied[phase] >>> 1) << (phase * PACKED_BITS);
+                }
+                next.relax(key, state, score, choice);
+                return;
+            }
+            int phase = Integer.numberOfTrailingZeros(undecided);
+            int mask = current[phase];
+            choice[phase] = -1;
+            occupied[phase] = mask & ~bit;
+            //slot already occupied by multi-slot equipment from an earlier layer
+            if ((mask & bit) != 0) {
+                choose(state, score, options, totals, bit, decided | (1 << phase), next);
+                return;
+            }
+            //leaving the slot empty is enumerated first so empty slots are preferred over equipment that adds nothing
+            choose(state, score, options, totals, bit, decided | (1 << phase), next);
+            //the phase shares a candidate with any subset of the later undecided phases with a free slot
+            int free = 0;
+            for (int later = undecided & (undecided - 1); later != 0; later &= later - 1) {
+                int other = Integer.numberOfTrailingZeros(later);
+                if ((current[other] & bit) == 0) {
+                    free |= 1 << other;
+                }
+            }
+            for (int shared = free; ; shared = (shared - 1) & free) {
+                int block = shared | (1 << phase);
+                int[] candidates = options[block];
+                for (int i = 0; i < candidates.length; i++) {
+                    int candidate = candidates[i];
+                    if (fits(candidate, block)) {
+                        for (int members = block; members != 0; members &= members - 1) {
+                            int member = Integer.numberOfTrailingZeros(members);
+                            choice[member] = candidate;
+                            occupied[member] = (current[member] | masks[candidate]) & ~bit;
+                        }
+                        choose(state, score + totals[block][i] - itemPenalty, options, totals, bit, decided | block, next);
+                    }
+                }
+                if (shared == 0) {
+                    break;
+                }
+            }
+            choice[phase] = -1;
+        }
+
+        /**
+         * Determines if the specified candidate fits in the occupied slots of every phase of the block.
+         *
+         * @param candidate the candidate to check
+         * @param block     the subset of phases sharing the candidate
+         * @return {@code true} if no phase of the block occupies a slot of the candidate
+         */
+        private boolean fits(int candidate, int block) {
+            for (int members = block; members != 0; members &= members - 1) {
+                if ((current[Integer.numberOfTrailingZeros(members)] & masks[candidate]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.gearsetup;
+
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Immutable;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A representation of the skill levels and completed quests of a character in
+ * <a href="https://oldschool.runescape.com/">Old School Runescape</a>, which determine the {@link Equipment} the
+ * character has unlocked.
+ * <p>
+ * Skills without a level are considered to be level {@code 1}.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code PlayerUnlocks unlocks = PlayerUnlocks.builder().putSkillLevel(Skill.ATTACK, 60).addCompletedQuest("Dragon Slayer").build();}
+ * <p>
+ * {@code Set<Equipment> unlocked = equipment.stream().filter(unlocks::canEquip).collect(Collectors.toSet());}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface PlayerUnlocks {
+    //Immutables builder stub to hide immutable class dependency
+    static Builder builder() {
+        return ImmutablePlayerUnlocks.builder();
+    }
+
+    //Immutables factory stub to hide immutable class dependency
+    static PlayerUnlocks of(Map<Skill, Integer> skillLevels, Iterable<String> completedQuests) {
+        return ImmutablePlayerUnlocks.of(skillLevels, completedQuests);
+    }
+
+    /**
+     * Represents the level of each {@link Skill} of the character.
+     *
+     * @return the skill levels of the character
+     */
+    Map<Skill, Integer> getSkillLevels();
+
+    /**
+     * Represents the names of the quests the character has completed.
+     *
+     * @return the completed quests of the character
+     */
+    Set<String> getCompletedQuests();
+
+    /**
+     * Finds the level of the specified {@link Skill} of the character.
+     *
+     * @param skill the skill to find the level of
+     * @return the level of the skill or {@code 1} if the character has no level in the skill
+     */
+    default int getLevel(Skill skill) {
+        return getSkillLevels().getOrDefault(skill, 1);
+    }
+
+    /**
+     * Determines if the character meets the specified {@link EquipmentRequirement}.
+     *
+     * @param requirement the requirement to check
+     * @return {@code true} if the character meets the requirement
+     */
+    default boolean meets(EquipmentRequirement requirement) {
+        return requirement.accept(new EquipmentRequirementVisitor<Boolean>() {
+            @Override
+            public Boolean visit(QuestRequirement requirement) {
+                return getCompletedQuests().contains(requirement.getQuestName());
+            }
+
+            @Override
+            public Boolean visit(SkillRequirement requirement) {
+                return getLevel(requirement.getSkill()) >= requirement.getLevel();
+            }
+        });
+    }
+
+    /**
+     * Determines if the character meets every {@link EquipmentRequirement} of the specified {@link Equipment}.
+     *
+     * @param equipment the equipment to check
+     * @return {@code true} if the character can equip the equipment
+     */
+    default boolean canEquip(Equipment equipment) {
+        for (EquipmentRequirement requirement : equipment.getRequirements()) {
+            if (!meets(requirement)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Immutables builder stub to hide immutable class dependency
+    interface Builder {
+        Builder putSkillLevel(Skill skill, int level);
+
+        Builder setSkillLevels(Map<Skill, ? extends Integer> skillLevels);
+
+        Builder addCompletedQuest(String completedQuest);
+
+        Builder setCompletedQuests(Iterable<String> completedQuests);
+
+        PlayerUnlocks build();
+    }
+}
@@ -0,0 +1,407 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableSet;
+import io.gearsetup.util.IntSet;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A utility class providing an implementation of a multiple-choice <a href="https://en.wikipedia.org/wiki/Knapsack_problem">knapsack</a>
+ * over {@link EquipmentSlot} masks to find the optimal gear setup which satisfies a set of {@link GearSetupConstraints}.
+ * <p>
+ * Each {@link EquipmentSlot} is represented as a single bit of an {@code int} mask ({@code 1 << slot.ordinal()}) and each
+ * piece of {@link Equipment} is placed in the layer of the lowest {@link EquipmentSlot} it occupies. The layers are
+ * processed in {@link EquipmentSlot#ordinal()} order, where the state of the
+ * <a href="https://en.wikipedia.org/wiki/Dynamic_programming">dynamic program</a> is the mask of the remaining slots
+ * already occupied by multi-slot {@link Equipment} chosen in an earlier layer and the discretised weight of the
+ * {@link Equipment} chosen so far. Each layer either passes through an occupied slot, leaves the slot empty, or chooses
+ * a single piece of {@link Equipment} from the layer that is disjoint with the occupied slots.
+ * <p>
+ * Multi-slot {@link Equipment} is rare, so the number of reachable slot masks is small and each layer is linear in the
+ * number of candidates for the slot and the number of discretised weights.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+class SlotMaskKnapsack {
+    private static final int SLOT_COUNT = EquipmentSlot.COUNT;
+    private static final int MASK_COUNT = 1 << SLOT_COUNT;
+    //tolerance for floating point error when discretising weights (e.g. 0.3 / 0.1 = 2.9999999999999996)
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Finds the optimal gear setup given the specified candidate {@link Equipment}, the weighting function to maximize,
+     * and the {@link GearSetupConstraints} the gear setup must satisfy.
+     *
+     * @param candidates  the candidates to consider when finding optimal gear setup
+     * @param weight      the weight function to apply to each candidate when maximizing
+     * @param constraints the constraints the gear setup must satisfy
+     * @return the set of candidates and forced equipment that maximize the weight function while satisfying the constraints
+     * @throws IllegalArgumentException indicating there is no gear setup that satisfies the constraints
+     * @throws CancellationException    indicating the current thread was interrupted during the search
+     */
+    Set<Equipment> find(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                        @NonNull GearSetupConstraints constraints) {
+        Frontier frontier = frontier(candidates, weight, constraints);
+        int best = -1;
+        for (int i = 0; i < frontier.size(); i++) {
+            if (frontier.isReachable(i) && (best < 0 || frontier.score(i) > frontier.score(best))) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            throw new IllegalArgumentException("No gear setup satisfies the constraints.");
+        }
+        return frontier.setup(best);
+    }
+
+    /**
+     * Calculates the {@link Frontier} of the gear setups that satisfy the specified {@link GearSetupConstraints}, which
+     * holds the maximum score of a gear setup for each discretised total weight.
+     *
+     * @param candidates  the candidates to consider when finding optimal gear setup
+     * @param weight      the weight function to apply to each candidate when maximizing
+     * @param constraints the constraints the gear setup must satisfy
+     * @return the frontier of the maximum score for each discretised total weight
+     * @throws IllegalArgumentException indicating the forced equipment or weight limit can never be satisfied
+     * @throws CancellationException    indicating the current thread was interrupted during the search
+     */
+    Frontier frontier(@NonNull Set<Equipment> candidates, @NonNull ToDoubleFunction<Equipment> weight,
+                      @NonNull GearSetupConstraints constraints) {
+        //forced equipment is always worn, so the slots and weight are reserved before searching
+        int forcedMask = 0;
+        double forcedWeight = 0;
+        for (Equipment equipment : constraints.getForcedEquipment()) {
+            int mask = equipment.getSlotMask();
+            if ((forcedMask & mask) != 0) {
+                throw new IllegalArgumentException("Forced equipment " + equipment.getName() + " occupies the same slot as other forced equipment.");
+            }
+            forcedMask |= mask;
+            forcedWeight += equipment.getWeight();
+        }
+        int forbiddenMask = EquipmentSlot.mask(constraints.getForbiddenSlots());
+        if ((forcedMask & forbiddenMask) != 0) {
+            throw new IllegalArgumentException("Forced equipment occupies a forbidden slot.");
+        }
+        int blockedMask = forcedMask | forbiddenMask;
+        int requiredMask = EquipmentSlot.mask(constraints.getForcedSlots()) & ~forcedMask;
+        boolean weightLimited = constraints.getWeightLimit().isPresent();
+        double resolution = constraints.getWeightResolution();
+        //group each candidate into the layer of its lowest occupied slot
+        List<List<Candidate>> layerCandidates = new ArrayList<>(SLOT_COUNT);
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            layerCandidates.add(new ArrayList<>());
+        }
+        //forced and forbidden equipment are matched by id, which avoids hashing and comparing every candidate
+        IntSet excluded = EquipmentCatalog.ids(constraints.getForcedEquipment());
+        for (Equipment equipment : constraints.getForbiddenEquipment()) {
+            excluded.add(equipment.getId());
+        }
+        for (Equipment equipment : candidates) {
+            int mask = equipment.getSlotMask();
+            if (mask == 0 || (mask & blockedMask) != 0 || excluded.contains(equipment.getId())) {
+                continue;
+            }
+            double score = weight.applyAsDouble(equipment);
+            if (Double.isNaN(score)) {
+                continue;
+            }
+            int bucket = weightLimited ? (int) Math.ceil(equipment.getWeight() / resolution - EPSILON) : 0;
+            layerCandidates.get(Integer.numberOfTrailingZeros(mask)).add(new Candidate(equipment, mask, bucket, score));
+        }
+        Layer[] layers = new Layer[SLOT_COUNT];
+        int lowestBucket = 0;
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            layers[i] = Layer.of(layerCandidates.get(i));
+            lowestBucket += Math.min(0, layers[i].lightestBucket());
+        }
+        //negative weight equipment chosen in later layers can bring an overweight partial setup back under the limit
+        int budget = weightLimited ? (int) Math.floor((constraints.getWeightLimit().getAsDouble() - forcedWeight) / resolution + EPSILON) : 0;
+        int highestBucket = budget - lowestBucket;
+        //the lightest reachable setup is still over the budget, which leaves the empty starting state out of range
+        if (budget < lowestBucket) {
+            throw new IllegalArgumentException("No gear setup satisfies the weight limit of the constraints.");
+        }
+        int range = highestBucket - lowestBucket + 1;
+        //scores[mask][bucket - lowestBucket] is the maximum score of the layers processed so far
+        double[][] scores = new double[MASK_COUNT][];
+        scores[0] = emptyRow(range);
+        scores[0][-lowestBucket] = 0;
+        //choices[slot][mask][bucket - lowestBucket] and parents[slot][mask][bucket - lowestBucket] track the path to each state
+        int[][][] choices = new int[SLOT_COUNT][][];
+        int[][][] parents = new int[SLOT_COUNT][][];
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Solve was interrupted.");
+            }
+            int bit = 1 << slot;
+            Layer layer = layers[slot];
+            double[][] next = new double[MASK_COUNT][];
+            int[][] choice = new int[MASK_COUNT][];
+            int[][] parent = new int[MASK_COUNT][];
+            for (int mask = 0; mask < MASK_COUNT; mask++) {
+                double[] row = scores[mask];
+                if (row == null) {
+                    continue;
+                }
+                //slot already occupied by multi-slot equipment from an earlier layer
+                if ((mask & bit) != 0) {
+                    relax(row, mask, mask & ~bit, -1, 0, 0, next, choice, parent);
+                    continue;
+                }
+                //leaving the slot empty is processed first so empty slots are preferred over equipment that adds nothing
+                if ((requiredMask & bit) == 0) {
+                    relax(row, mask, mask, -1, 0, 0, next, choice, parent);
+                }
+                for (int i = 0; i < layer.size; i++) {
+                    if ((layer.masks[i] & mask) == 0) {
+                        relax(row, mask, (mask | layer.masks[i]) & ~bit, i, layer.buckets[i], layer.scores[i], next, choice, parent);
+                    }
+                }
+            }
+            scores = next;
+            choices[slot] = choice;
+            parents[slot] = parent;
+        }
+        //every multi-slot equipment has been passed through by the final layer, so the only reachable mask is 0
+        return new Frontier(scores[0], lowestBucket, budget, layers, choices, parents, constraints.getForcedEquipment());
+    }
+
+    /**
+     * Relaxes every reachable state in the specified row of the previous layer by transitioning to the target mask
+     * in the next layer, shifting the discretised weight and increasing the score.
+     *
+     * @param row    the scores of the previous layer for the source mask
+     * @param source the mask of the state in the previous layer
+     * @param target the mask of the state in the next layer
+     * @param chosen the index of the equipment chosen in the layer or {@code -1} if no equipment is chosen
+     * @param shift  the discretised weight of the chosen equipment
+     * @param gain   the score of the chosen equipment
+     * @param next   the scores of the next layer
+     * @param choice the chosen equipment of the next layer
+     * @param parent the source masks of the next layer
+     */
+    private void relax(double[] row, int source, int target, int chosen, int shift, double gain,
+                       double[][] next, int[][] choice, int[][] parent) {
+        double[] targetRow = next[target];
+        if (targetRow == null) {
+            targetRow = next[target] = emptyRow(row.length);
+            choice[target] = new int[row.length];
+            parent[target] = new int[row.length];
+        }
+        int[] targetChoice = choice[target];
+        int[] targetParent = parent[target];
+        int start = Math.max(0, -shift);
+        int end = Math.min(row.length, row.length - shift);
+        for (int i = start; i < end; i++) {
+            if (row[i] == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            double score = row[i] + gain;
+            if (score > targetRow[i + shift]) {
+                targetRow[i + shift] = score;
+                targetChoice[i + shift] = chosen;
+                targetParent[i + shift] = source;
+            }
+        }
+    }
+
+    /**
+     * Constructs a row of unreachable states.
+     *
+     * @param range the number of discretised weights
+     * @return a row where every state is unreachable
+     */
+    private double[] emptyRow(int range) {
+        double[] row = new double[range];
+        Arrays.fill(row, Double.NEGATIVE_INFINITY);
+        return row;
+    }
+
+    /**
+     * A representation of the final layer of the knapsack, holding the maximum score of a gear setup for each discretised
+     * total weight that satisfies the {@link GearSetupConstraints}, and the path of each score through the layers.
+     * <p>
+     * The state at index {@code i} represents gear setups whose discretised total weight, excluding the forced
+     * {@link Equipment}, is {@code i + lowestBucket}.
+     */
+    static final class Frontier {
+        private final double[] scores;
+        private final int lowestBucket;
+        private final int budget;
+        private final Layer[] layers;
+        private final int[][][] choices;
+        private final int[][][] parents;
+        private final Set<Equipment> forcedEquipment;
+
+        private Frontier(double[] scores, int lowestBucket, int budget, Layer[] layers, int[][][] choices, int[][][] parents,
+                         Set<Equipment> forcedEquipment) {
+            this.scores = scores;
+            this.lowestBucket = lowestBucket;
+            this.budget = budget;
+            this.layers = layers;
+            this.choices = choices;
+            this.parents = parents;
+            this.forcedEquipment = forcedEquipment;
+        }
+
+        /**
+         * Represents the number of discretised total weights of the frontier that do not exceed the weight budget.
+         * <p>
+         * Heavier states are only kept by the knapsack for negative weight {@link Equipment} in later layers, so they
+         * are never part of the frontier.
+         *
+         * @return the number of states
+         */
+        int size() {
+            return scores == null ? 0 : Math.min(scores.length, budget - lowestBucket + 1);
+        }
+
+        /**
+         * Determines if some gear setup reaches the state at the specified index.
+         *
+         * @param index the index of the state
+         * @return {@code true} if the state is reachable
+         */
+        boolean isReachable(int index) {
+            return scores[index] != Double.NEGATIVE_INFINITY;
+        }
+
+        /**
+         * Represents the maximum score of a gear setup in the state at the specified index.
+         *
+         * @param index the index of the state
+         * @return the maximum score or {@link Double#NEGATIVE_INFINITY} if the state is unreachable
+         */
+        double score(int index) {
+            return scores[index];
+        }
+
+        /**
+         * Represents the discretised weight that remains under the weight budget for gear setups in the state at the
+         * specified index.
+         *
+         * @param index the index of the state
+         * @return the remaining discretised weight, which is never negative
+         */
+        int remaining(int index) {
+            return budget - (index + lowestBucket);
+        }
+
+        /**
+         * Reconstructs the gear setup of the maximum score in the state at the specified index.
+         *
+         * @param index the index of a reachable state
+         * @return the set of chosen candidates and forced equipment of the state
+         */
+        Set<Equipment> setup(int index) {
+            ImmutableSet.Builder<Equipment> builder = ImmutableSet.builder();
+            builder.addAll(forcedEquipment);
+            int mask = 0;
+            int bucket = index;
+            for (int slot = SLOT_COUNT - 1; slot >= 0; slot--) {
+                int chosen = choices[slot][mask][bucket];
+                int previous = parents[slot][mask][bucket];
+                if (chosen >= 0) {
+                    builder.add(layers[slot].equipment[chosen]);
+                    bucket -= layers[slot].buckets[chosen];
+                }
+                mask = previous;
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * A representation of a piece of {@link Equipment} considered by the knapsack with its precomputed mask,
+     * discretised weight, and score.
+     */
+    private static final class Candidate {
+        private final Equipment equipment;
+        private final int mask;
+        private final int bucket;
+        private final double score;
+
+        private Candidate(Equipment equipment, int mask, int bucket, double score) {
+            this.equipment = equipment;
+            this.mask = mask;
+            this.bucket = bucket;
+            this.score = score;
+        }
+    }
+
+    /**
+     * A representation of the candidates of a single layer of the knapsack, stored as parallel arrays.
+     * <p>
+     * Candidates which occupy the same slots as another candidate that is at most as heavy and scores at least as high
+     * can never be part of an optimal gear setup and are removed from the layer.
+     */
+    private static final class Layer {
+        private final int size;
+        private final Equipment[] equipment;
+        private final int[] masks;
+        private final int[] buckets;
+        private final double[] scores;
+
+        private Layer(int size) {
+            this.size = size;
+            this.equipment = new Equipment[size];
+            this.masks = new int[size];
+            this.buckets = new int[size];
+            this.scores = new double[size];
+        }
+
+        /**
+         * Constructs a new {@link Layer} of the candidates that are not dominated by another candidate occupying the same slots.
+         *
+         * @param candidates the candidates of the layer
+         * @return a new layer of the non-dominated candidates
+         */
+        private static Layer of(List<Candidate> candidates) {
+            candidates.sort(Comparator.<Candidate>comparingInt(candidate -> candidate.mask)
+                    .thenComparingInt(candidate -> candidate.bucket)
+                    .thenComparing(candidate -> candidate.score, Comparator.reverseOrder()));
+            List<Candidate> kept = new ArrayList<>();
+            int mask = 0;
+            double best = Double.NEGATIVE_INFINITY;
+            for (Candidate candidate : candidates) {
+                if (candidate.mask != mask) {
+                    mask = candidate.mask;
+                    best = Double.NEGATIVE_INFINITY;
+                }
+                //candidates are sorted by weight, so a lower score than a lighter candidate is dominated
+                if (candidate.score > best) {
+                    best = candidate.score;
+                    kept.add(candidate);
+                }
+            }
+            Layer layer = new Layer(kept.size());
+            for (int i = 0; i < kept.size(); i++) {
+                Candidate candidate = kept.get(i);
+                layer.equipment[i] = candidate.equipment;
+                layer.masks[i] = candidate.mask;
+                layer.buckets[i] = candidate.bucket;
+                layer.scores[i] = candidate.score;
+            }
+            return layer;
+        }
+
+        /**
+         * Represents the smallest discretised weight of the candidates in the layer.
+         *
+         * @return the smallest discretised weight or {@code 0} if the layer is empty
+         */
+        private int lightestBucket() {
+            int lightest = 0;
+            for (int i = 0; i < size; i++) {
+                lightest = Math.min(lightest, buckets[i]);
+            }
+            return lightest;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.gearsetup;
+
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A listener of the {@link SolverMetrics} of each gear setup found by {@link OptimalGearSetup}.
+ * <p>
+ * Metrics are only collected for solves given a {@link SolverListener}, so solves without a listener have no
+ * instrumentation overhead.
+ * <p>
+ * Examples:
+ * <p>
+ * Logging the slowest phases of a solve:
+ * <p>
+ * {@code Set<Equipment> setup = OptimalGearSetup.find(candidates, weight, metrics -> log.info("Solved gear setup: {}", metrics));}
+ *
+ * @author Ian Caffey
+ * @see OptimalGearSetup#find(Set, ToDoubleFunction, SolverListener)
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface SolverListener {
+    /**
+     * Invoked once a gear setup has been found, on the thread that found the gear setup.
+     *
+     * @param metrics the metrics of the solve
+     */
+    void onSolve(SolverMetrics metrics);
+}
@@ -0,0 +1,184 @@
+package io.gearsetup;
+
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Immutable;
+
+import java.util.List;
+
+/**
+ * A representation of the metrics of a single gear setup found by {@link OptimalGearSetup}.
+ * <p>
+ * A solve has the following phases:
+ * <ul>
+ * <li>Weight evaluation, where the weighting function is applied to each candidate {@link Equipment}.</li>
+ * <li>Slot grouping, where the maximum weight {@link Equipment} is found for each occupied slot combination.</li>
+ * <li>Multi-slot pruning, where multi-slot {@link Equipment} that is not better than its individual slots is dropped.</li>
+ * <li>Graph build, where the adjacency matrix of the remaining {@link Equipment} is built.</li>
+ * <li>Search, where the maximum-weight independent set of each connected component is found.</li>
+ * </ul>
+ * The graph build and search phases are skipped when the remaining {@link Equipment} is guaranteed to be disjoint.
+ *
+ * @author Ian Caffey
+ * @see SolverListener
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface SolverMetrics {
+    //Immutables builder stub to hide immutable class dependency
+    static Builder builder() {
+        return ImmutableSolverMetrics.builder();
+    }
+
+    /**
+     * Represents the number of candidate {@link Equipment} given to the solve.
+     *
+     * @return the number of candidates
+     */
+    int getCandidateCount();
+
+    /**
+     * Represents the number of {@link Equipment} remaining after slot grouping and multi-slot pruning, which are the
+     * vertices of the graph that is searched.
+     *
+     * @return the number of considered equipment
+     */
+    int getConsideredCount();
+
+    /**
+     * Represents the time spent applying the weighting function to the candidate {@link Equipment}.
+     *
+     * @return the weight evaluation time in nanoseconds
+     */
+    long getWeightNanos();
+
+    /**
+     * Represents the time spent finding the maximum weight {@link Equipment} for each occupied slot combination,
+     * excluding the time spent applying the weighting function.
+     *
+     * @return the slot grouping time in nanoseconds
+     */
+    long getGroupingNanos();
+
+    /**
+     * Represents the time spent dropping multi-slot {@link Equipment} that is not better than its individual slots.
+     *
+     * @return the multi-slot pruning time in nanoseconds
+     */
+    long getPruningNanos();
+
+    /**
+     * Represents the time spent building the adjacency matrix of the considered {@link Equipment}.
+     *
+     * @return the graph build time in nanoseconds
+     */
+    long getGraphNanos();
+
+    /**
+     * Represents the time spent searching for the maximum-weight independent set of the considered {@link Equipment}.
+     *
+     * @return the search time in nanoseconds
+     */
+    long getSearchNanos();
+
+    /**
+     * Represents the number of vertices in each connected component of the graph, in the order the components were searched.
+     * <p>
+     * The component sizes are empty when the search was skipped.
+     *
+     * @return the size of each connected component
+     */
+    List<Integer> getComponentSizes();
+
+    /**
+     * Represents the number of nodes visited by the recursive search over the binary tree of vertex combinations.
+     *
+     * @return the number of search nodes visited
+     */
+    long getNodesVisited();
+
+    /**
+     * Represents the number of leaves reached by the recursive search over the binary tree of vertex combinations,
+     * where each leaf is a complete independent set.
+     *
+     * @return the number of search leaves reached
+     */
+    long getLeavesReached();
+
+    /**
+     * Represents the total weight of the gear setup found by the solve.
+     *
+     * @return the weight of the gear setup
+     */
+    double getWeight();
+
+    /**
+     * Represents an upper bound on the weight of the optimal gear setup.
+     *
+     * @return the upper bound of the optimal weight
+     * @see io.gearsetup.util.IndependentSetSolution#getUpperBound()
+     */
+    double getUpperBound();
+
+    /**
+     * Represents whether every component was searched exactly within the budget, which guarantees the gear setup is optimal.
+     *
+     * @return {@code true} if the gear setup is optimal
+     */
+    boolean isExact();
+
+    /**
+     * Represents the relative optimality gap between the weight of the gear setup and the upper bound, where {@code 0}
+     * indicates the gear setup is proven to be optimal.
+     *
+     * @return the optimality gap in {@code [0, 1]}
+     */
+    default double getOptimalityGap() {
+        if (isExact() || getUpperBound() <= 0) {
+            return 0;
+        }
+        return Math.max(0, (getUpperBound() - getWeight()) / getUpperBound());
+    }
+
+    /**
+     * Represents the total time spent across every phase of the solve.
+     *
+     * @return the total time in nanoseconds
+     */
+    default long getTotalNanos() {
+        return getWeightNanos() + getGroupingNanos() + getPruningNanos() + getGraphNanos() + getSearchNanos();
+    }
+
+    //Immutables builder stub to hide immutable class dependency
+    interface Builder {
+        Builder setCandidateCount(int candidateCount);
+
+        Builder setConsideredCount(int consideredCount);
+
+        Builder setWeightNanos(long weightNanos);
+
+        Builder setGroupingNanos(long groupingNanos);
+
+        Builder setPruningNanos(long pruningNanos);
+
+        Builder setGraphNanos(long graphNanos);
+
+        Builder setSearchNanos(long searchNanos);
+
+        Builder addComponentSize(int componentSize);
+
+        Builder setComponentSizes(Iterable<Integer> componentSizes);
+
+        Builder setNodesVisited(long nodesVisited);
+
+        Builder setLeavesReached(long leavesReached);
+
+        Builder setWeight(double weight);
+
+        Builder setUpperBound(double upperBound);
+
+        Builder setExact(boolean exact);
+
+        SolverMetrics build();
+    }
+}
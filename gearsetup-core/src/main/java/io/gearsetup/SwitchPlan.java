@@ -0,0 +1,63 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableSet;
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Immutable;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A representation of the gear setup worn in each phase of a fight found by {@link OptimalSwitchPlan}.
+ * <p>
+ * The gear setup of the first phase is worn at the start of the fight and every other piece of {@link Equipment} of the
+ * plan is a switch carried in the inventory.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface SwitchPlan {
+    //Immutables factory stub to hide immutable class dependency
+    static SwitchPlan of(Iterable<? extends Set<Equipment>> setups) {
+        return ImmutableSwitchPlan.of(setups);
+    }
+
+    /**
+     * Represents the gear setup worn in each phase, in phase order.
+     *
+     * @return the gear setup of each phase
+     */
+    List<Set<Equipment>> getSetups();
+
+    /**
+     * Calculates every distinct piece of {@link Equipment} worn in some phase.
+     *
+     * @return the distinct equipment of the plan
+     */
+    default Set<Equipment> getDistinctEquipment() {
+        ImmutableSet.Builder<Equipment> builder = ImmutableSet.builder();
+        for (Set<Equipment> setup : getSetups()) {
+            builder.addAll(setup);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Calculates the distinct pieces of {@link Equipment} that are not worn in the first phase, which must be carried
+     * in the inventory as switches.
+     *
+     * @return the switches of the plan
+     */
+    default Set<Equipment> getSwitches() {
+        ImmutableSet.Builder<Equipment> builder = ImmutableSet.builder();
+        Set<Equipment> first = getSetups().isEmpty() ? ImmutableSet.of() : getSetups().get(0);
+        for (Equipment equipment : getDistinctEquipment()) {
+            if (!first.contains(equipment)) {
+                builder.add(equipment);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,330 @@
+package io.gearsetup.util;
+
+import com.google.common.collect.ImmutableSet;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A utility class providing an approximation of
+ * <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+ * that runs in polynomial time.
+ * <p>
+ * The approximation is found in two phases:
+ * <ul>
+ * <li>A greedy independent set is built by considering the vertices in descending order of {@code weight / (degree + 1)},
+ * selecting each vertex that has no selected neighbor.</li>
+ * <li>The greedy independent set is improved by local search using (1,2)-swaps, where a selected vertex is replaced by
+ * one or two non-adjacent neighbors whose only selected neighbor is the replaced vertex and whose total weight is greater
+ * than the replaced vertex. Any vertex left without a selected neighbor by a swap is then selected.</li>
+ * </ul>
+ * Each candidate swap and each vertex scanned by the local search is a search node of the {@link SolverWorkspace}, so
+ * the local search stops once the budget of the {@link IndependentSetStrategy} is exhausted. The greedy independent set
+ * is always completed.
+ * <p>
+ * The quality of the approximation is bounded by a greedy <a href="https://en.wikipedia.org/wiki/Clique_cover">clique cover</a>,
+ * as an independent set contains at most one vertex of each clique.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+public class ApproximateMaximumWeightIndependentSet {
+    //minimum improvement of a swap, which guarantees the local search terminates despite floating point error
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Finds an approximation of the <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+     * of the specified vertices, edge predicate, and weighting function.
+     * <p>
+     * The edge predicate is tested once for each pair of vertices and the weighting function is applied once for each
+     * vertex before performing the search. The local search runs until no swap improves the independent set.
+     *
+     * @param vertices  the vertices of the graph to consider when finding the maximum-weight independent set
+     * @param predicate the edge predicate for determine if two vertices have an edge
+     * @param weight    the weighting function for each vertex
+     * @param <T>       the type of vertex being used for finding maximum-weight independent set
+     * @return an independent set of vertices that approximately maximizes the weight function
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Set<T> find(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> predicate, @NonNull ToDoubleFunction<T> weight) {
+        try (SolverWorkspace workspace = SolverWorkspace.local().acquire()) {
+            int size = vertices.size();
+            Object[] values = workspace.vertices(size);
+            double[] weights = workspace.weights(size);
+            boolean[] adjacency = workspace.adjacency(size);
+            int[] indices = workspace.indices(size);
+            int index = 0;
+            for (T vertex : vertices) {
+                values[index] = vertex;
+                indices[index] = index;
+                weights[index++] = weight.applyAsDouble(vertex);
+            }
+            for (int i = 0; i < size; i++) {
+                adjacency[i * size + i] = false;
+                for (int j = 0; j < i; j++) {
+                    boolean edge = predicate.test((T) values[i], (T) values[j]);
+                    adjacency[i * size + j] = edge;
+                    adjacency[j * size + i] = edge;
+                }
+            }
+            workspace.ensureSearchCapacity(size);
+            int[] result = workspace.order;
+            int count = search(indices, size, size, adjacency, weights, result, 0, Double.NEGATIVE_INFINITY, workspace);
+            ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+            for (int i = 0; i < count; i++) {
+                builder.add((T) values[result[i]]);
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Searches for an approximation of the maximum-weight independent set of the specified subset of vertices of a graph
+     * and appends the vertices of the independent set to the result buffer if it weighs more than the specified minimum.
+     * <p>
+     * The subset of vertices must not alias {@link SolverWorkspace#sorted} or {@link SolverWorkspace#candidates}.
+     *
+     * @param vertices      the subset of vertices to search
+     * @param count         the number of vertices in the subset
+     * @param size          the number of vertices in the graph
+     * @param adjacency     the adjacency matrix of the graph
+     * @param weights       the weight of each vertex in the graph
+     * @param result        the buffer to hold the indices of the independent set
+     * @param offset        the index in the result buffer to begin appending the independent set
+     * @param minimumWeight the weight the independent set must exceed to be appended
+     * @param workspace     the workspace providing the buffers of the search
+     * @return the index in the result buffer after the appended independent set or {@code -1} if the independent set
+     * does not weigh more than the minimum weight
+     */
+    int search(int[] vertices, int count, int size, boolean[] adjacency, double[] weights, int[] result, int offset,
+               double minimumWeight, SolverWorkspace workspace) {
+        int[] tightness = workspace.tightness;
+        boolean[] chosen = workspace.chosen;
+        double[] keys = workspace.keys;
+        int[] sorted = workspace.sorted;
+        for (int i = 0; i < count; i++) {
+            int vertex = vertices[i];
+            int row = vertex * size;
+            int degree = 0;
+            for (int j = 0; j < count; j++) {
+                if (adjacency[row + vertices[j]]) {
+                    degree++;
+                }
+            }
+            keys[vertex] = weights[vertex] / (degree + 1);
+            tightness[vertex] = 0;
+            chosen[vertex] = false;
+            sorted[i] = vertex;
+        }
+        IndexSort.sortDescending(sorted, count, keys);
+        double weight = 0;
+        for (int i = 0; i < count; i++) {
+            int vertex = sorted[i];
+            //vertices that do not increase the weight of the independent set are never selected
+            if (tightness[vertex] == 0 && weights[vertex] > 0) {
+                choose(vertex, sorted, count, size, adjacency, workspace);
+                weight += weights[vertex];
+            }
+        }
+        weight += improve(sorted, count, size, adjacency, weights, workspace);
+        if (!(weight > minimumWeight)) {
+            return -1;
+        }
+        for (int i = 0; i < count; i++) {
+            if (chosen[sorted[i]]) {
+                result[offset++] = sorted[i];
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Calculates an upper bound of the weight of the maximum-weight independent set of the specified subset of vertices
+     * of a graph using a greedy <a href="https://en.wikipedia.org/wiki/Clique_cover">clique cover</a>.
+     * <p>
+     * Vertices are considered in descending order of weight and each vertex joins the first clique it is adjacent to every
+     * member of, otherwise it starts a new clique. Each clique contributes the weight of the vertex that started it, which
+     * is the heaviest vertex of the clique. Vertices with a non-positive weight never increase the weight of an independent
+     * set, so they are not covered.
+     * <p>
+     * The subset of vertices must not alias {@link SolverWorkspace#sorted}.
+     *
+     * @param vertices  the subset of vertices to bound
+     * @param count     the number of vertices in the subset
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param weights   the weight of each vertex in the graph
+     * @param workspace the workspace providing the buffers of the clique cover
+     * @return the upper bound of the weight of the maximum-weight independent set
+     */
+    double upperBound(int[] vertices, int count, int size, boolean[] adjacency, double[] weights, SolverWorkspace workspace) {
+        double[] keys = workspace.keys;
+        int[] sorted = workspace.sorted;
+        int[] heads = workspace.cliqueHeads;
+        int[] next = workspace.cliqueNext;
+        int positive = 0;
+        for (int i = 0; i < count; i++) {
+            int vertex = vertices[i];
+            if (weights[vertex] > 0) {
+                keys[vertex] = weights[vertex];
+                sorted[positive++] = vertex;
+            }
+        }
+        IndexSort.sortDescending(sorted, positive, keys);
+        int cliques = 0;
+        double bound = 0;
+        for (int i = 0; i < positive; i++) {
+            int vertex = sorted[i];
+            int row = vertex * size;
+            boolean covered = false;
+            for (int clique = 0; clique < cliques && !covered; clique++) {
+                boolean adjacent = true;
+                for (int member = heads[clique]; member >= 0; member = next[member]) {
+                    if (!adjacency[row + member]) {
+                        adjacent = false;
+                        break;
+                    }
+                }
+                if (adjacent) {
+                    next[vertex] = heads[clique];
+                    heads[clique] = vertex;
+                    covered = true;
+                }
+            }
+            if (!covered) {
+                next[vertex] = -1;
+                heads[cliques++] = vertex;
+                bound += weights[vertex];
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Improves the selected independent set using (1,2)-swaps until no swap improves the independent set or the budget
+     * of the {@link SolverWorkspace} is exhausted.
+     *
+     * @param sorted    the subset of vertices in the order they were considered by the greedy phase
+     * @param count     the number of vertices in the subset
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param weights   the weight of each vertex in the graph
+     * @param workspace the workspace holding the selected independent set
+     * @return the weight gained by the local search
+     */
+    private double improve(int[] sorted, int count, int size, boolean[] adjacency, double[] weights, SolverWorkspace workspace) {
+        int[] tightness = workspace.tightness;
+        boolean[] chosen = workspace.chosen;
+        int[] candidates = workspace.candidates;
+        double gained = 0;
+        boolean improved = true;
+        while (improved && !workspace.exhausted) {
+            improved = false;
+            for (int i = 0; i < count && !workspace.exhausted; i++) {
+                int replaced = sorted[i];
+                if (!chosen[replaced]) {
+                    continue;
+                }
+                int row = replaced * size;
+                //neighbors whose only selected neighbor is the replaced vertex can be selected once it is removed
+                workspace.visit(count);
+                int candidateCount = 0;
+                for (int j = 0; j < count; j++) {
+                    int candidate = sorted[j];
+                    if (!chosen[candidate] && tightness[candidate] == 1 && weights[candidate] > 0 && adjacency[row + candidate]) {
+                        candidates[candidateCount++] = candidate;
+                    }
+                }
+                double best = weights[replaced] + EPSILON;
+                int first = -1;
+                int second = -1;
+                for (int a = 0; a < candidateCount && !workspace.exhausted; a++) {
+                    int one = candidates[a];
+                    workspace.visit();
+                    if (weights[one] > best) {
+                        best = weights[one];
+                        first = one;
+                        second = -1;
+                    }
+                    int oneRow = one * size;
+                    for (int b = 0; b < a && !workspace.exhausted; b++) {
+                        int two = candidates[b];
+                        workspace.visit();
+                        if (!adjacency[oneRow + two] && weights[one] + weights[two] > best) {
+                            best = weights[one] + weights[two];
+                            first = one;
+                            second = two;
+                        }
+                    }
+                }
+                if (first < 0) {
+                    continue;
+                }
+                //the swap scans the subset once to update each changed vertex and once more to find freed vertices
+                workspace.visit(count * (second >= 0 ? 4 : 3));
+                unchoose(replaced, sorted, count, size, adjacency, workspace);
+                choose(first, sorted, count, size, adjacency, workspace);
+                gained += weights[first] - weights[replaced];
+                if (second >= 0) {
+                    choose(second, sorted, count, size, adjacency, workspace);
+                    gained += weights[second];
+                }
+                //removing the replaced vertex can leave its other neighbors without a selected neighbor
+                for (int j = 0; j < count; j++) {
+                    int free = sorted[j];
+                    if (!chosen[free] && tightness[free] == 0 && weights[free] > 0) {
+                        workspace.visit(count);
+                        choose(free, sorted, count, size, adjacency, workspace);
+                        gained += weights[free];
+                    }
+                }
+                improved = true;
+            }
+        }
+        return gained;
+    }
+
+    /**
+     * Selects the specified vertex, incrementing the number of selected neighbors of each of its neighbors.
+     *
+     * @param vertex    the vertex to select
+     * @param vertices  the subset of vertices being searched
+     * @param count     the number of vertices in the subset
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param workspace the workspace holding the selected independent set
+     */
+    private void choose(int vertex, int[] vertices, int count, int size, boolean[] adjacency, SolverWorkspace workspace) {
+        workspace.chosen[vertex] = true;
+        int row = vertex * size;
+        for (int i = 0; i < count; i++) {
+            if (adjacency[row + vertices[i]]) {
+                workspace.tightness[vertices[i]]++;
+            }
+        }
+    }
+
+    /**
+     * Deselects the specified vertex, decrementing the number of selected neighbors of each of its neighbors.
+     *
+     * @param vertex    the vertex to deselect
+     * @param vertices  the subset of vertices being searched
+     * @param count     the number of vertices in the subset
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param workspace the workspace holding the selected independent set
+     */
+    private void unchoose(int vertex, int[] vertices, int count, int size, boolean[] adjacency, SolverWorkspace workspace) {
+        workspace.chosen[vertex] = false;
+        int row = vertex * size;
+        for (int i = 0; i < count; i++) {
+            if (adjacency[row + vertices[i]]) {
+                workspace.tightness[vertices[i]]--;
+            }
+        }
+    }
+}
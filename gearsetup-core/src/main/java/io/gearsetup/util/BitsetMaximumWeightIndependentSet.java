@@ -0,0 +1,239 @@
+package io.gearsetup.util;
+
+import com.google.common.collect.ImmutableSet;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A utility class providing an implementation of
+ * <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+ * that performs a <a href="https://en.wikipedia.org/wiki/Branch_and_bound">branch and bound</a> search over bitsets,
+ * which is the maximum-weight clique search of the complement graph.
+ * <p>
+ * The adjacency of each vertex and the candidates of each search node are bitsets of 64-bit words, so removing the
+ * neighbors of a chosen vertex from the candidates is a word-parallel {@code AND NOT} over 64 vertices at a time.
+ * <p>
+ * Each search node greedily covers its candidates with cliques, where an independent set contains at most one vertex
+ * of each clique, so the heaviest vertex of each clique bounds the weight the candidates can add. The vertices are
+ * numbered in descending order of weight, so the first vertex of each clique is its heaviest vertex. Branching takes the
+ * candidates in reverse order of the clique cover, and the search node is pruned as soon as the weight of the selected
+ * vertices plus the bound of the remaining cliques cannot exceed the maximum-weight independent set found so far.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+public class BitsetMaximumWeightIndependentSet {
+    /**
+     * Finds the <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+     * of the specified vertices, edge predicate, and weighting function.
+     * <p>
+     * The edge predicate is tested once for each pair of vertices and the weighting function is applied once for each
+     * vertex before performing the search. Vertices with a negative weight are never added to the independent set.
+     * <p>
+     * The buffers of the search are provided by {@link SolverWorkspace#local()}.
+     *
+     * @param vertices  the vertices of the graph to consider when finding the maximum-weight independent set
+     * @param predicate the edge predicate for determine if two vertices have an edge
+     * @param weight    the weighting function for each vertex
+     * @param <T>       the type of vertex being used for finding maximum-weight independent set
+     * @return the independent set of vertices that maximize the weight function
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Set<T> find(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> predicate, @NonNull ToDoubleFunction<T> weight) {
+        try (SolverWorkspace workspace = SolverWorkspace.local().acquire()) {
+            int size = vertices.size();
+            Object[] values = workspace.vertices(size);
+            double[] weights = workspace.weights(size);
+            boolean[] adjacency = workspace.adjacency(size);
+            int index = 0;
+            for (T vertex : vertices) {
+                values[index] = vertex;
+                weights[index++] = weight.applyAsDouble(vertex);
+            }
+            for (int i = 0; i < size; i++) {
+                adjacency[i * size + i] = false;
+                for (int j = 0; j < i; j++) {
+                    boolean edge = predicate.test((T) values[i], (T) values[j]);
+                    adjacency[i * size + j] = edge;
+                    adjacency[j * size + i] = edge;
+                }
+            }
+            workspace.ensureSearchCapacity(size);
+            int[] order = workspace.order;
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            int[] result = workspace.indices(size);
+            int count = search(order, size, size, adjacency, weights, result, 0, workspace);
+            ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+            for (int i = 0; i < count; i++) {
+                builder.add((T) values[result[i]]);
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Searches for the maximum-weight independent set of the specified subset of vertices of a graph and appends the
+     * vertices of the maximum-weight independent set to the result buffer.
+     * <p>
+     * The weight of the maximum-weight independent set is available from {@link SolverWorkspace#maximumWeight} after the
+     * search, which is the best independent set found so far if the budget of the workspace was exhausted. The subset of
+     * vertices must not alias {@link SolverWorkspace#selected}, {@link SolverWorkspace#maximum}, or {@link SolverWorkspace#sorted}.
+     *
+     * @param vertices  the subset of vertices to search
+     * @param count     the number of vertices in the subset
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param weights   the weight of each vertex in the graph
+     * @param result    the buffer to hold the indices of the maximum-weight independent set
+     * @param offset    the index in the result buffer to begin appending the maximum-weight independent set
+     * @param workspace the workspace providing the buffers of the search
+     * @return the index in the result buffer after the appended maximum-weight independent set
+     */
+    int search(int[] vertices, int count, int size, boolean[] adjacency, double[] weights, int[] result, int offset,
+               SolverWorkspace workspace) {
+        workspace.maximumSize = 0;
+        workspace.maximumWeight = 0;
+        if (count == 0) {
+            return offset;
+        }
+        //vertices are renumbered to [0, count) in descending order of weight for the duration of the search
+        int[] sorted = workspace.sorted;
+        System.arraycopy(vertices, 0, sorted, 0, count);
+        IndexSort.sortDescending(sorted, count, weights);
+        int words = (count + 63) >>> 6;
+        workspace.ensureBitsetCapacity(count, words);
+        long[] rows = workspace.rows;
+        long[] sets = workspace.sets;
+        double[] local = workspace.keys;
+        for (int i = 0; i < count; i++) {
+            int row = sorted[i] * size;
+            int base = i * words;
+            for (int w = 0; w < words; w++) {
+                rows[base + w] = 0;
+            }
+            for (int j = 0; j < count; j++) {
+                if (adjacency[row + sorted[j]]) {
+                    rows[base + (j >>> 6)] |= 1L << j;
+                }
+            }
+            local[i] = weights[sorted[i]];
+        }
+        //the candidates of the root are every vertex
+        for (int w = 0; w < words; w++) {
+            sets[w] = -1L;
+        }
+        if ((count & 63) != 0) {
+            sets[words - 1] = (1L << count) - 1;
+        }
+        expand(words, count, 0, 0, 0, 0, workspace);
+        //maximum[0, maximumSize] is the maximum-weight independent set, numbered in descending order of weight
+        int[] maximum = workspace.maximum;
+        for (int i = 0; i < workspace.maximumSize; i++) {
+            result[offset++] = sorted[maximum[i]];
+        }
+        return offset;
+    }
+
+    /**
+     * Expands a node of the branch and bound search, where the candidates of the node are the bitset at
+     * {@code depth * words} of {@link SolverWorkspace#sets}.
+     *
+     * @param words          the number of words in each bitset
+     * @param count          the number of vertices in the search
+     * @param depth          the depth of the search node
+     * @param branches       the index in the branching buffers to begin writing the branches of the search node
+     * @param selectedCount  the number of selected vertices
+     * @param selectedWeight the total weight of the selected vertices
+     * @param workspace      the workspace holding the buffers of the search and the maximum-weight independent set
+     */
+    private void expand(int words, int count, int depth, int branches, int selectedCount, double selectedWeight,
+                        SolverWorkspace workspace) {
+        //the search budget is exhausted, the maximum found so far is kept
+        if (workspace.exhausted) {
+            return;
+        }
+        workspace.visit();
+        if (selectedWeight > workspace.maximumWeight) {
+            System.arraycopy(workspace.selected, 0, workspace.maximum, 0, selectedCount);
+            workspace.maximumWeight = selectedWeight;
+            workspace.maximumSize = selectedCount;
+        }
+        long[] rows = workspace.rows;
+        long[] sets = workspace.sets;
+        double[] weights = workspace.keys;
+        int candidates = depth * words;
+        //the scratch sets live after the candidate sets of every possible depth
+        int uncovered = (count + 1) * words;
+        int clique = uncovered + words;
+        int candidateCount = 0;
+        for (int w = 0; w < words; w++) {
+            long word = sets[candidates + w];
+            sets[uncovered + w] = word;
+            candidateCount += Long.bitCount(word);
+        }
+        if (candidateCount == 0) {
+            workspace.leaf();
+            return;
+        }
+        workspace.ensureBranchCapacity(branches + candidateCount);
+        int[] order = workspace.branchOrder;
+        double[] bounds = workspace.branchBounds;
+        //greedily cover the candidates with cliques, each bounded by its first and heaviest vertex
+        int end = branches;
+        double bound = 0;
+        for (int w = 0; w < words; ) {
+            long word = sets[uncovered + w];
+            if (word == 0) {
+                w++;
+                continue;
+            }
+            int vertex = (w << 6) + Long.numberOfTrailingZeros(word);
+            bound += Math.max(0, weights[vertex]);
+            for (int i = 0; i < words; i++) {
+                sets[clique + i] = sets[uncovered + i];
+            }
+            while (vertex >= 0) {
+                sets[uncovered + (vertex >>> 6)] &= ~(1L << vertex);
+                order[end] = vertex;
+                bounds[end++] = bound;
+                //the clique can only be extended by uncovered neighbors of every vertex in the clique
+                int row = vertex * words;
+                int next = -1;
+                for (int i = 0; i < words; i++) {
+                    long extension = sets[clique + i] & rows[row + i];
+                    sets[clique + i] = extension;
+                    if (next < 0 && extension != 0) {
+                        next = (i << 6) + Long.numberOfTrailingZeros(extension);
+                    }
+                }
+                vertex = next;
+            }
+        }
+        //deeper search nodes can grow the branching buffers, so the branches are read from the workspace
+        int children = candidates + words;
+        for (int branch = end - 1; branch >= branches; branch--) {
+            //the remaining candidates are covered by the cliques up to the clique of the branch
+            if (selectedWeight + workspace.branchBounds[branch] <= workspace.maximumWeight) {
+                return;
+            }
+            int vertex = workspace.branchOrder[branch];
+            int row = vertex * words;
+            sets[candidates + (vertex >>> 6)] &= ~(1L << vertex);
+            for (int i = 0; i < words; i++) {
+                sets[children + i] = sets[candidates + i] & ~rows[row + i];
+            }
+            workspace.selected[selectedCount] = vertex;
+            expand(words, count, depth + 1, end, selectedCount + 1, selectedWeight + weights[vertex], workspace);
+            if (workspace.exhausted) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package io.gearsetup.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * A utility class providing the ability to find the
+ * <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected components</a> of the graph
+ * of a set of vertices and an edge predicate using a {@link DisjointSet}.
+ * <p>
+ * Unlike {@link IndexedGraph#forEachComponent(java.util.function.Consumer)}, the adjacency of the graph is never
+ * stored. Each unordered pair of vertices is considered once and the edge predicate is only tested when the pair is not
+ * already known to be in the same component, so the edge predicate is expected to be symmetric.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code List<Set<Equipment>> components = ConnectedComponents.parallelFind(candidates, (a, b) -> (a.getSlotMask() & b.getSlotMask()) != 0);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+public class ConnectedComponents {
+    /**
+     * Finds the <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected components</a> of
+     * the graph of the specified vertices and edge predicate.
+     * <p>
+     * The components are ordered by their first vertex in the iteration order of the vertices, and the vertices of each
+     * component keep the iteration order of the vertices.
+     *
+     * @param vertices  the vertices of the graph
+     * @param predicate the symmetric edge predicate for determine if two vertices have an edge
+     * @param <T>       the type of the vertices in the graph
+     * @return the connected components of the graph
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<Set<T>> find(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> predicate) {
+        Object[] values = vertices.toArray();
+        DisjointSet components = new DisjointSet(values.length);
+        for (int i = 1; i < values.length; i++) {
+            union(components, (T[]) values, i, predicate);
+        }
+        return collect((T[]) values, components);
+    }
+
+    /**
+     * Finds the <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected components</a> of
+     * the graph of the specified vertices and edge predicate, testing the edge predicate in parallel on the
+     * {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+     * <p>
+     * The rows of the triangular pair matrix are interleaved across one partial {@link DisjointSet} per worker, which
+     * balances the work of the shorter and longer rows, and the partial disjoint sets are merged once every row has
+     * been processed. The edge predicate must be safe to test concurrently.
+     * <p>
+     * The components are ordered by their first vertex in the iteration order of the vertices, and the vertices of each
+     * component keep the iteration order of the vertices.
+     *
+     * @param vertices  the vertices of the graph
+     * @param predicate the symmetric, thread-safe edge predicate for determine if two vertices have an edge
+     * @param <T>       the type of the vertices in the graph
+     * @return the connected components of the graph
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<Set<T>> parallelFind(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> predicate) {
+        T[] values = (T[]) vertices.toArray();
+        int partitions = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), values.length / 2));
+        DisjointSet components = IntStream.range(0, partitions).parallel()
+                .mapToObj(partition -> {
+                    DisjointSet partial = new DisjointSet(values.length);
+                    for (int i = 1 + partition; i < values.length; i += partitions) {
+                        union(partial, values, i, predicate);
+                    }
+                    return partial;
+                })
+                .reduce((one, two) -> {
+                    one.merge(two);
+                    return one;
+                })
+                .orElseGet(() -> new DisjointSet(values.length));
+        return collect(values, components);
+    }
+
+    /**
+     * Unions the vertex at the specified index with each vertex at a smaller index it has an edge with, skipping the
+     * edge predicate for vertices already in the same set.
+     *
+     * @param components the disjoint set of the components found so far
+     * @param values     the vertices of the graph
+     * @param index      the index of the vertex whose row to process
+     * @param predicate  the edge predicate for determine if two vertices have an edge
+     * @param <T>        the type of the vertices in the graph
+     */
+    private <T> void union(DisjointSet components, T[] values, int index, BiPredicate<T, T> predicate) {
+        T vertex = values[index];
+        for (int other = 0; other < index; other++) {
+            if (!components.connected(index, other) && predicate.test(vertex, values[other])) {
+                components.union(index, other);
+            }
+        }
+    }
+
+    /**
+     * Collects the vertices of each set of the specified {@link DisjointSet} into a component.
+     *
+     * @param values     the vertices of the graph
+     * @param components the disjoint set of the components
+     * @param <T>        the type of the vertices in the graph
+     * @return the connected components of the graph
+     */
+    private <T> List<Set<T>> collect(T[] values, DisjointSet components) {
+        //map each representative to one past the position of its component, in order of the first vertex of the component
+        int[] positions = new int[values.length];
+        List<ImmutableSet.Builder<T>> builders = new ArrayList<>(components.count());
+        for (int i = 0; i < values.length; i++) {
+            int root = components.find(i);
+            if (positions[root] == 0) {
+                builders.add(ImmutableSet.builder());
+                positions[root] = builders.size();
+            }
+            builders.get(positions[root] - 1).add(values[i]);
+        }
+        ImmutableList.Builder<Set<T>> result = ImmutableList.builder();
+        for (ImmutableSet.Builder<T> builder : builders) {
+            result.add(builder.build());
+        }
+        return result.build();
+    }
+}
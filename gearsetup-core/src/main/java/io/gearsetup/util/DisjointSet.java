@@ -0,0 +1,130 @@
+package io.gearsetup.util;
+
+import lombok.NonNull;
+
+/**
+ * An implementation of a <a href="https://en.wikipedia.org/wiki/Disjoint-set_data_structure">disjoint-set</a>
+ * (union-find) over the elements {@code [0, size)}.
+ * <p>
+ * {@link DisjointSet} uses union by size and path halving, so any sequence of operations runs in nearly constant
+ * amortized time per operation. Every element begins in its own singleton set.
+ * <p>
+ * {@link DisjointSet} is not thread-safe. Partial {@link DisjointSet} built by separate threads over the same elements
+ * can be combined using {@link DisjointSet#merge(DisjointSet)}.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class DisjointSet {
+    private final int[] parent;
+    private final int[] size;
+    private int count;
+
+    /**
+     * Constructs a new {@link DisjointSet} where each element in {@code [0, size)} is in its own singleton set.
+     *
+     * @param size the number of elements
+     */
+    public DisjointSet(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Disjoint set size must be non-negative.");
+        }
+        this.parent = new int[size];
+        this.size = new int[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+            this.size[i] = 1;
+        }
+        this.count = size;
+    }
+
+    /**
+     * Represents the total number of elements.
+     *
+     * @return the total element count
+     */
+    public int size() {
+        return parent.length;
+    }
+
+    /**
+     * Represents the number of disjoint sets.
+     *
+     * @return the disjoint set count
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Finds the representative element of the set containing the specified element.
+     * <p>
+     * Each element visited while finding the representative is moved closer to the representative (path halving).
+     *
+     * @param element the element to find the set of
+     * @return the representative element of the set
+     * @throws ArrayIndexOutOfBoundsException indicating the element is not in {@code [0, size)}
+     */
+    public int find(int element) {
+        int current = element;
+        while (parent[current] != current) {
+            parent[current] = parent[parent[current]];
+            current = parent[current];
+        }
+        return current;
+    }
+
+    /**
+     * Determines if the two specified elements are in the same set.
+     *
+     * @param one the first element
+     * @param two the second element
+     * @return {@code true} if the elements are in the same set
+     */
+    public boolean connected(int one, int two) {
+        return find(one) == find(two);
+    }
+
+    /**
+     * Merges the sets containing the two specified elements, attaching the smaller set to the larger set.
+     *
+     * @param one the first element
+     * @param two the second element
+     * @return {@code true} if the elements were in different sets before the union
+     */
+    public boolean union(int one, int two) {
+        int first = find(one);
+        int second = find(two);
+        if (first == second) {
+            return false;
+        }
+        if (size[first] < size[second]) {
+            int swap = first;
+            first = second;
+            second = swap;
+        }
+        parent[second] = first;
+        size[first] += size[second];
+        count--;
+        return true;
+    }
+
+    /**
+     * Merges every set of the specified {@link DisjointSet} into this {@link DisjointSet}, so two elements are in the
+     * same set if they were in the same set of either {@link DisjointSet}.
+     *
+     * @param other the disjoint set over the same elements to merge
+     * @throws IllegalArgumentException indicating the disjoint sets are not over the same elements
+     */
+    public void merge(@NonNull DisjointSet other) {
+        if (other.size() != size()) {
+            throw new IllegalArgumentException("Disjoint sets of " + size() + " and " + other.size() + " elements cannot be merged.");
+        }
+        for (int i = 0; i < other.parent.length; i++) {
+            //only non-representative elements carry an edge of the other disjoint set
+            if (other.parent[i] != i) {
+                union(i, other.parent[i]);
+            }
+        }
+    }
+}
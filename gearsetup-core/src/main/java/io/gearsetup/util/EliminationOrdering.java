@@ -0,0 +1,24 @@
+package io.gearsetup.util;
+
+/**
+ * An enumeration of the heuristics for choosing the next vertex to eliminate when building the
+ * <a href="https://en.wikipedia.org/wiki/Tree_decomposition">tree decomposition</a> of a graph from an elimination ordering.
+ * <p>
+ * Eliminating a vertex connects all of its remaining neighbors, and the width of the tree decomposition is the largest
+ * number of remaining neighbors of a vertex when it is eliminated.
+ *
+ * @author Ian Caffey
+ * @see TreeDecompositionMaximumWeightIndependentSet
+ * @since 1.0
+ */
+public enum EliminationOrdering {
+    /**
+     * Eliminates the vertex with the fewest remaining neighbors, which is the cheapest heuristic.
+     */
+    MIN_DEGREE,
+    /**
+     * Eliminates the vertex whose elimination adds the fewest edges between its remaining neighbors, breaking ties by
+     * the fewest remaining neighbors, which commonly finds narrower tree decompositions than {@link #MIN_DEGREE}.
+     */
+    MIN_FILL
+}
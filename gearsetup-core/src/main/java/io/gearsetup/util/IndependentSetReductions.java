@@ -0,0 +1,345 @@
+package io.gearsetup.util;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * A utility class providing the <a href="https://en.wikipedia.org/wiki/Kernelization">kernelization</a> of a connected
+ * component before searching for its
+ * <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>.
+ * <p>
+ * The following reduction rules are applied until none of them changes the component:
+ * <ul>
+ * <li>Vertices with a non-positive weight are removed, as they never increase the weight of an independent set.</li>
+ * <li>A simplicial vertex, whose neighbors form a clique, that weighs at least as much as each of its neighbors is
+ * included and its neighbors are removed. This includes isolated vertices and pendant vertices that weigh at least as
+ * much as their neighbor.</li>
+ * <li>A pendant vertex {@code v} lighter than its only neighbor {@code u} is folded into {@code u}, which is reweighted
+ * to {@code w(u) - w(v)}. When lifting, {@code v} is included if {@code u} is not.</li>
+ * <li>A vertex {@code v} is removed if a neighbor {@code u} weighs at least as much and {@code N[u]} is a subset of
+ * {@code N[v]}, as {@code u} can replace {@code v} in any independent set.</li>
+ * <li>Non-adjacent twins {@code u} and {@code v} with the same neighbors are merged into {@code u} with the weight
+ * {@code w(u) + w(v)}. When lifting, {@code v} is included if {@code u} is.</li>
+ * </ul>
+ * The remaining vertices are the kernel, whose maximum-weight independent set is lifted back to the maximum-weight
+ * independent set of the component by undoing each fold in reverse order.
+ * <p>
+ * Reductions never add edges, so the adjacency matrix of the graph is shared with the kernel and only the weights are
+ * copied to {@link SolverWorkspace#reduced}. Each neighborhood comparison of the domination and twin rules is a search
+ * node of the {@link SolverWorkspace}, so they stop being applied once the budget is exhausted.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+class IndependentSetReductions {
+    /**
+     * Reduces the specified connected component to its kernel, which is written to {@link SolverWorkspace#kernel} with
+     * the reduced weight of each kernel vertex in {@link SolverWorkspace#reduced}.
+     * <p>
+     * The subset of vertices must not alias {@link SolverWorkspace#kernel}.
+     *
+     * @param vertices  the vertices of the connected component
+     * @param count     the number of vertices in the component
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param weights   the weight of each vertex in the graph
+     * @param workspace the workspace holding the reductions
+     * @return the number of vertices in the kernel
+     */
+    int reduce(int[] vertices, int count, int size, boolean[] adjacency, double[] weights, SolverWorkspace workspace) {
+        boolean[] alive = workspace.alive;
+        int[] degree = workspace.degree;
+        double[] reduced = workspace.reduced;
+        workspace.forcedCount = 0;
+        workspace.foldCount = 0;
+        workspace.foldedWeight = 0;
+        for (int i = 0; i < count; i++) {
+            int vertex = vertices[i];
+            reduced[vertex] = weights[vertex];
+            alive[vertex] = weights[vertex] > 0;
+        }
+        for (int i = 0; i < count; i++) {
+            int vertex = vertices[i];
+            int row = vertex * size;
+            int neighbors = 0;
+            for (int j = 0; j < count; j++) {
+                if (alive[vertices[j]] && adjacency[row + vertices[j]]) {
+                    neighbors++;
+                }
+            }
+            degree[vertex] = neighbors;
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < count; i++) {
+                int vertex = vertices[i];
+                if (!alive[vertex]) {
+                    continue;
+                }
+                if (simplicial(vertex, vertices, count, size, adjacency, workspace)) {
+                    force(vertex, vertices, count, size, adjacency, workspace);
+                    changed = true;
+                } else if (degree[vertex] == 1) {
+                    foldPendant(vertex, vertices, count, size, adjacency, workspace);
+                    changed = true;
+                } else if (!workspace.exhausted && dominated(vertex, vertices, count, size, adjacency, workspace)) {
+                    remove(vertex, vertices, count, size, adjacency, workspace);
+                    changed = true;
+                } else if (!workspace.exhausted && mergeTwin(vertex, vertices, count, size, adjacency, workspace)) {
+                    changed = true;
+                }
+            }
+        }
+        int[] kernel = workspace.kernel;
+        int kernelSize = 0;
+        for (int i = 0; i < count; i++) {
+            if (alive[vertices[i]]) {
+                kernel[kernelSize++] = vertices[i];
+            }
+        }
+        return kernelSize;
+    }
+
+    /**
+     * Lifts the maximum-weight independent set of the kernel back to the maximum-weight independent set of the connected
+     * component, by including each forced vertex and undoing each fold in reverse order.
+     *
+     * @param vertices  the vertices of the connected component
+     * @param count     the number of vertices in the component
+     * @param result    the buffer holding the independent set of the kernel
+     * @param start     the index in the result buffer of the independent set of the kernel
+     * @param end       the index in the result buffer after the independent set of the kernel
+     * @param workspace the workspace holding the reductions
+     * @return the index in the result buffer after the lifted independent set
+     */
+    int lift(int[] vertices, int count, int[] result, int start, int end, SolverWorkspace workspace) {
+        boolean[] lifted = workspace.lifted;
+        for (int i = start; i < end; i++) {
+            lifted[result[i]] = true;
+        }
+        for (int i = 0; i < workspace.forcedCount; i++) {
+            lifted[workspace.forced[i]] = true;
+        }
+        for (int i = workspace.foldCount - 1; i >= 0; i--) {
+            int kept = workspace.foldKept[i];
+            int removed = workspace.foldRemoved[i];
+            if (removed >= 0) {
+                //pendant fold, the pendant is included when its neighbor is not
+                lifted[removed] = !lifted[kept];
+            } else {
+                //twin merge, the twin is included with the vertex it was merged into
+                lifted[~removed] = lifted[kept];
+            }
+        }
+        int offset = start;
+        for (int i = 0; i < count; i++) {
+            int vertex = vertices[i];
+            if (lifted[vertex]) {
+                result[offset++] = vertex;
+                lifted[vertex] = false;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Determines if the specified vertex is simplicial and weighs at least as much as each of its neighbors, in which
+     * case some maximum-weight independent set includes the vertex.
+     *
+     * @param vertex    the vertex to check
+     * @param vertices  the vertices of the connected component
+     * @param count     the number of vertices in the component
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param workspace the workspace holding the reductions
+     * @return {@code true} if the vertex can be included
+     */
+    private boolean simplicial(int vertex, int[] vertices, int count, int size, boolean[] adjacency, SolverWorkspace workspace) {
+        boolean[] alive = workspace.alive;
+        double[] reduced = workspace.reduced;
+        int row = vertex * size;
+        for (int i = 0; i < count; i++) {
+            int neighbor = vertices[i];
+            if (!alive[neighbor] || !adjacency[row + neighbor]) {
+                continue;
+            }
+            if (reduced[neighbor] > reduced[vertex]) {
+                return false;
+            }
+            int neighborRow = neighbor * size;
+            for (int j = 0; j < i; j++) {
+                int other = vertices[j];
+                if (alive[other] && adjacency[row + other] && !adjacency[neighborRow + other]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines if the specified vertex is dominated by a neighbor {@code u}, where {@code u} weighs at least as much
+     * as the vertex and every neighbor of {@code u} is the vertex or a neighbor of the vertex.
+     *
+     * @param vertex    the vertex to check
+     * @param vertices  the vertices of the connected component
+     * @param count     the number of vertices in the component
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param workspace the workspace holding the reductions
+     * @return {@code true} if the vertex can be removed
+     */
+    private boolean dominated(int vertex, int[] vertices, int count, int size, boolean[] adjacency, SolverWorkspace workspace) {
+        boolean[] alive = workspace.alive;
+        int[] degree = workspace.degree;
+        double[] reduced = workspace.reduced;
+        int row = vertex * size;
+        for (int i = 0; i < count; i++) {
+            int dominating = vertices[i];
+            if (!alive[dominating] || !adjacency[row + dominating] || degree[dominating] > degree[vertex]
+                    || reduced[dominating] < reduced[vertex]) {
+                continue;
+            }
+            workspace.visit();
+            int dominatingRow = dominating * size;
+            boolean subset = true;
+            for (int j = 0; j < count && subset; j++) {
+                int other = vertices[j];
+                subset = other == vertex || !alive[other] || !adjacency[dominatingRow + other] || adjacency[row + other];
+            }
+            if (subset) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Merges the specified vertex into a non-adjacent twin with the same neighbors, if there is one.
+     *
+     * @param vertex    the vertex to merge
+     * @param vertices  the vertices of the connected component
+     * @param count     the number of vertices in the component
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param workspace the workspace holding the reductions
+     * @return {@code true} if the vertex was merged into a twin
+     */
+    private boolean mergeTwin(int vertex, int[] vertices, int count, int size, boolean[] adjacency, SolverWorkspace workspace) {
+        boolean[] alive = workspace.alive;
+        int[] degree = workspace.degree;
+        int row = vertex * size;
+        //every twin is a neighbor of any neighbor of the vertex, so only the neighbors of one neighbor are candidates
+        int pivot = -1;
+        for (int i = 0; i < count && pivot < 0; i++) {
+            if (alive[vertices[i]] && adjacency[row + vertices[i]]) {
+                pivot = vertices[i];
+            }
+        }
+        if (pivot < 0) {
+            return false;
+        }
+        int pivotRow = pivot * size;
+        for (int i = 0; i < count; i++) {
+            int twin = vertices[i];
+            if (twin == vertex || !alive[twin] || !adjacency[pivotRow + twin] || adjacency[row + twin] || degree[twin] != degree[vertex]) {
+                continue;
+            }
+            workspace.visit();
+            int twinRow = twin * size;
+            boolean same = true;
+            for (int j = 0; j < count && same; j++) {
+                int other = vertices[j];
+                same = !alive[other] || adjacency[row + other] == adjacency[twinRow + other];
+            }
+            if (same) {
+                workspace.reduced[twin] += workspace.reduced[vertex];
+                fold(twin, ~vertex, workspace);
+                remove(vertex, vertices, count, size, adjacency, workspace);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Folds the specified pendant vertex into its only neighbor, which must weigh more than the pendant vertex.
+     *
+     * @param vertex    the pendant vertex
+     * @param vertices  the vertices of the connected component
+     * @param count     the number of vertices in the component
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param workspace the workspace holding the reductions
+     */
+    private void foldPendant(int vertex, int[] vertices, int count, int size, boolean[] adjacency, SolverWorkspace workspace) {
+        int row = vertex * size;
+        for (int i = 0; i < count; i++) {
+            int neighbor = vertices[i];
+            if (workspace.alive[neighbor] && adjacency[row + neighbor]) {
+                //the pendant is always worth including, either with the neighbor excluded or in exchange for part of its weight
+                workspace.foldedWeight += workspace.reduced[vertex];
+                workspace.reduced[neighbor] -= workspace.reduced[vertex];
+                fold(neighbor, vertex, workspace);
+                remove(vertex, vertices, count, size, adjacency, workspace);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Includes the specified vertex, removing it and each of its neighbors from the component.
+     *
+     * @param vertex    the vertex to include
+     * @param vertices  the vertices of the connected component
+     * @param count     the number of vertices in the component
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param workspace the workspace holding the reductions
+     */
+    private void force(int vertex, int[] vertices, int count, int size, boolean[] adjacency, SolverWorkspace workspace) {
+        workspace.forced[workspace.forcedCount++] = vertex;
+        workspace.foldedWeight += workspace.reduced[vertex];
+        int row = vertex * size;
+        for (int i = 0; i < count; i++) {
+            int neighbor = vertices[i];
+            if (workspace.alive[neighbor] && adjacency[row + neighbor]) {
+                remove(neighbor, vertices, count, size, adjacency, workspace);
+            }
+        }
+        remove(vertex, vertices, count, size, adjacency, workspace);
+    }
+
+    /**
+     * Removes the specified vertex from the component, decrementing the degree of each of its neighbors.
+     *
+     * @param vertex    the vertex to remove
+     * @param vertices  the vertices of the connected component
+     * @param count     the number of vertices in the component
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param workspace the workspace holding the reductions
+     */
+    private void remove(int vertex, int[] vertices, int count, int size, boolean[] adjacency, SolverWorkspace workspace) {
+        workspace.alive[vertex] = false;
+        int row = vertex * size;
+        for (int i = 0; i < count; i++) {
+            if (adjacency[row + vertices[i]]) {
+                workspace.degree[vertices[i]]--;
+            }
+        }
+    }
+
+    /**
+     * Records a fold to be undone when lifting, where a negative removed vertex {@code ~v} indicates a twin merge.
+     *
+     * @param kept      the vertex that remains in the component
+     * @param removed   the vertex folded into the kept vertex
+     * @param workspace the workspace holding the reductions
+     */
+    private void fold(int kept, int removed, SolverWorkspace workspace) {
+        workspace.foldKept[workspace.foldCount] = kept;
+        workspace.foldRemoved[workspace.foldCount++] = removed;
+    }
+}
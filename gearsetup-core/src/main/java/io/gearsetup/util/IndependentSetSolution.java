@@ -0,0 +1,70 @@
+package io.gearsetup.util;
+
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Immutable;
+
+import java.util.Set;
+
+/**
+ * A representation of an independent set found by {@link MaximumWeightIndependentSet} along with an upper bound on the
+ * weight of the <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>.
+ * <p>
+ * The upper bound of a component searched exactly is the weight of its independent set, and the upper bound of a
+ * component searched approximately is the total weight of a greedy
+ * <a href="https://en.wikipedia.org/wiki/Clique_cover">clique cover</a>, where each clique contributes the weight of its
+ * heaviest vertex as an independent set contains at most one vertex of each clique.
+ *
+ * @param <T> the type of the vertices
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface IndependentSetSolution<T> {
+    //Immutables factory stub to hide immutable class dependency
+    static <T> IndependentSetSolution<T> of(Iterable<? extends T> vertices, double weight, double upperBound, boolean exact) {
+        return ImmutableIndependentSetSolution.of(vertices, weight, upperBound, exact);
+    }
+
+    /**
+     * Represents the vertices of the independent set.
+     *
+     * @return the independent set of vertices
+     */
+    Set<T> getVertices();
+
+    /**
+     * Represents the total weight of the vertices of the independent set.
+     *
+     * @return the weight of the independent set
+     */
+    double getWeight();
+
+    /**
+     * Represents an upper bound on the weight of the maximum-weight independent set.
+     *
+     * @return the upper bound of the maximum weight
+     */
+    double getUpperBound();
+
+    /**
+     * Represents whether every component was searched exactly within the budget, which guarantees the independent set
+     * is a maximum-weight independent set even if the upper bound is not tight.
+     *
+     * @return {@code true} if the independent set is a maximum-weight independent set
+     */
+    boolean isExact();
+
+    /**
+     * Represents the relative optimality gap between the weight of the independent set and the upper bound, where
+     * {@code 0} indicates the independent set is proven to be maximal by the upper bound.
+     *
+     * @return the optimality gap in {@code [0, 1]}
+     */
+    default double getOptimalityGap() {
+        if (isExact() || getUpperBound() <= 0) {
+            return 0;
+        }
+        return Math.max(0, (getUpperBound() - getWeight()) / getUpperBound());
+    }
+}
@@ -0,0 +1,157 @@
+package io.gearsetup.util;
+
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Check;
+import org.immutables.value.Value.Default;
+import org.immutables.value.Value.Immutable;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A representation of how {@link MaximumWeightIndependentSet} chooses between an exact and an approximate search for
+ * each <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected component</a>.
+ * <p>
+ * Components with a tree decomposition of at most {@link IndependentSetStrategy#getMaximumTreewidth()} width are searched
+ * exactly by {@link TreeDecompositionMaximumWeightIndependentSet}. Otherwise, components with at most
+ * {@link IndependentSetStrategy#getExactComponentSize()} vertices are searched exactly by
+ * {@link BitsetMaximumWeightIndependentSet} and larger components are searched by
+ * {@link ApproximateMaximumWeightIndependentSet}. Every search of a solve shares the node and time budget, and once the
+ * budget is exhausted the remaining components only receive a greedy independent set. An exact search that exhausts
+ * the budget falls back to the better of its best independent set so far and the greedy independent set.
+ * <p>
+ * Examples:
+ * <p>
+ * Searching components of more than 20 vertices approximately within 5 milliseconds:
+ * <p>
+ * {@code IndependentSetStrategy strategy = IndependentSetStrategy.builder().setExactComponentSize(20).setTimeBudget(Duration.ofMillis(5)).build();}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface IndependentSetStrategy {
+    //Immutables builder stub to hide immutable class dependency
+    static Builder builder() {
+        return ImmutableIndependentSetStrategy.builder();
+    }
+
+    /**
+     * Constructs a new {@link IndependentSetStrategy} that searches every component exactly without a budget.
+     *
+     * @return the strategy that always finds the maximum-weight independent set
+     */
+    static IndependentSetStrategy exact() {
+        return builder().setExactComponentSize(Integer.MAX_VALUE).setNodeBudget(Long.MAX_VALUE).build();
+    }
+
+    /**
+     * Constructs a new {@link IndependentSetStrategy} using the default component size and node budget.
+     *
+     * @return the strategy that approximates large components
+     */
+    static IndependentSetStrategy approximate() {
+        return builder().build();
+    }
+
+    /**
+     * Represents the maximum number of vertices in a component that is searched exactly.
+     * <p>
+     * The default exact component size is {@code 24} vertices.
+     *
+     * @return the maximum exact component size
+     */
+    @Default
+    default int getExactComponentSize() {
+        return 24;
+    }
+
+    /**
+     * Represents the maximum width of the tree decomposition of a component that is searched by
+     * {@link TreeDecompositionMaximumWeightIndependentSet}, where the search takes time and memory proportional to
+     * {@code 2^width} for each vertex of the component.
+     * <p>
+     * The default maximum treewidth is {@code 12}.
+     *
+     * @return the maximum treewidth
+     */
+    @Default
+    default int getMaximumTreewidth() {
+        return 12;
+    }
+
+    /**
+     * Represents the heuristic for building the tree decomposition of a component.
+     * <p>
+     * The default elimination ordering is {@link EliminationOrdering#MIN_FILL}.
+     *
+     * @return the elimination ordering
+     */
+    @Default
+    default EliminationOrdering getEliminationOrdering() {
+        return EliminationOrdering.MIN_FILL;
+    }
+
+    /**
+     * Represents the maximum number of search nodes visited by every search of a solve, where a search node is a node
+     * of the exact search tree, an entry of a tree decomposition table, or a candidate swap or scanned vertex of the
+     * approximate local search.
+     * <p>
+     * The default node budget is {@code 10,000,000} nodes.
+     *
+     * @return the node budget of a solve
+     */
+    @Default
+    default long getNodeBudget() {
+        return 10_000_000;
+    }
+
+    /**
+     * Represents the maximum duration of every search of a solve.
+     * <p>
+     * The time budget is checked periodically between search nodes, so a search can exceed the time budget by the time
+     * it takes to visit a few thousand search nodes.
+     *
+     * @return the time budget of a solve or {@link Optional#empty()} if the solve is only limited by the node budget
+     */
+    Optional<Duration> getTimeBudget();
+
+    /**
+     * Validates the strategy has a non-negative component size and positive budgets.
+     *
+     * @throws IllegalStateException indicating the strategy is invalid
+     */
+    @Check
+    default void validate() {
+        if (getExactComponentSize() < 0) {
+            throw new IllegalStateException("Exact component size must be non-negative.");
+        }
+        if (getMaximumTreewidth() < 0 || getMaximumTreewidth() > 30) {
+            throw new IllegalStateException("Maximum treewidth must be between 0 and 30.");
+        }
+        if (getNodeBudget() <= 0) {
+            throw new IllegalStateException("Node budget must be positive.");
+        }
+        if (getTimeBudget().isPresent() && (getTimeBudget().get().isNegative() || getTimeBudget().get().isZero())) {
+            throw new IllegalStateException("Time budget must be positive.");
+        }
+    }
+
+    //Immutables builder stub to hide immutable class dependency
+    interface Builder {
+        Builder setExactComponentSize(int exactComponentSize);
+
+        Builder setMaximumTreewidth(int maximumTreewidth);
+
+        Builder setEliminationOrdering(EliminationOrdering eliminationOrdering);
+
+        Builder setNodeBudget(long nodeBudget);
+
+        Builder setTimeBudget(Duration timeBudget);
+
+        Builder setTimeBudget(Optional<? extends Duration> timeBudget);
+
+        IndependentSetStrategy build();
+    }
+}
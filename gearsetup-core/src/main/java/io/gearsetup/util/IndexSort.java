@@ -0,0 +1,40 @@
+package io.gearsetup.util;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * A utility class providing in-place sorting of primitive index arrays by a key of each index, which avoids boxing the
+ * indices into a {@link java.util.Comparator}.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+class IndexSort {
+    /**
+     * Sorts the specified indices in descending order of their keys using a
+     * <a href="https://en.wikipedia.org/wiki/Shellsort">shellsort</a>.
+     *
+     * @param indices the indices to sort
+     * @param count   the number of indices to sort
+     * @param keys    the key of each index
+     */
+    void sortDescending(int[] indices, int count, double[] keys) {
+        int gap = 1;
+        while (gap < count / 3) {
+            gap = gap * 3 + 1;
+        }
+        for (; gap > 0; gap /= 3) {
+            for (int i = gap; i < count; i++) {
+                int index = indices[i];
+                double key = keys[index];
+                int j = i;
+                while (j >= gap && keys[indices[j - gap]] < key) {
+                    indices[j] = indices[j - gap];
+                    j -= gap;
+                }
+                indices[j] = index;
+            }
+        }
+    }
+}
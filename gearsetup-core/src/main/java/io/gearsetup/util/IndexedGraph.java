@@ -1,7 +1,6 @@
 package io.gearsetup.util;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import lombok.Getter;
 import lombok.NonNull;
@@ -9,6 +8,7 @@ import lombok.NonNull;
 import java.util.*;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -17,19 +17,37 @@ import java.util.stream.Stream;
  * <p>
  * An edge predicate is a {@link BiPredicate} that takes in two vertices and returns {@code true} if there is an edge
  * between the vertices.
+ * <p>
+ * {@link IndexedGraph} can be constructed in one of two modes:
+ * <ul>
+ * <li>Eager ({@link IndexedGraph#of(Set, BiPredicate)}), where the edge predicate is tested for every ordered pair of
+ * vertices when the graph is constructed.</li>
+ * <li>Lazy ({@link IndexedGraph#lazy(Set, BiPredicate)}), where the edges of a vertex are found the first time they are
+ * traversed and the edge predicate is tested at most once for each unordered pair of vertices. The edge predicate is
+ * expected to be symmetric. A lazy graph can be given a key extractor so only vertices sharing a key are tested as
+ * candidate neighbors, which avoids scanning every pair of vertices in large sparse graphs.</li>
+ * </ul>
+ * A lazy {@link IndexedGraph} finds edges as the graph is traversed, so it is not thread-safe.
  *
  * @param <T> the type of the vertices in the graph
  * @author Ian Caffey
  * @since 1.0
  */
 public final class IndexedGraph<T> {
+    private static final int[] NO_NEIGHBORS = new int[0];
     @Getter
     private final Set<T> vertices;
     @Getter
     private final BiPredicate<T, T> edgePredicate;
+    private final Object[] values;
+    private final Map<T, Integer> indices;
     private final int[] neighborCount;
     private final int[][] adjacencyList;
-    private final BiMap<T, Integer> indices;
+    //lazy graph state, expanded is null for eager graphs as every vertex has its edges found on construction
+    private final boolean[] expanded;
+    private final int[][] buckets;
+    private final int[][] vertexBuckets;
+    private final int[] candidateStamps;
 
     /**
      * Constructs a new {@link IndexedGraph} of the specified values using the specified edge predicate for building the graph edges.
@@ -41,7 +59,6 @@ public final class IndexedGraph<T> {
         int size = vertices.size();
         int[] neighborCounts = new int[size];
         int[][] adjacencyList = new int[size][size];
-        ImmutableBiMap.Builder<T, Integer> builder = ImmutableBiMap.builder();
         int vertexIndex = 0;
         for (T vertex : vertices) {
             int otherIndex = 0;
@@ -52,14 +69,88 @@ public final class IndexedGraph<T> {
                 }
                 otherIndex++;
             }
-            neighborCounts[vertexIndex] = neighbors;
-            builder.put(vertex, vertexIndex++);
+            neighborCounts[vertexIndex++] = neighbors;
         }
         this.vertices = ImmutableSet.copyOf(vertices);
         this.edgePredicate = edgePredicate;
+        this.values = this.vertices.toArray();
+        this.indices = index(values);
         this.adjacencyList = adjacencyList;
         this.neighborCount = neighborCounts;
-        this.indices = builder.build();
+        this.expanded = null;
+        this.buckets = null;
+        this.vertexBuckets = null;
+        this.candidateStamps = null;
+    }
+
+    /**
+     * Constructs a new lazy {@link IndexedGraph} of the specified values using the specified edge predicate for finding
+     * the graph edges as they are traversed.
+     * <p>
+     * When a key extractor is specified, each vertex is placed in a bucket for each of its keys and only vertices
+     * sharing a bucket are tested with the edge predicate.
+     *
+     * @param vertices      the vertices of the graph
+     * @param edgePredicate the edge predicate for determine if two vertices have an edge
+     * @param keys          the key extractor for finding candidate neighbors or {@code null} if every vertex is a candidate neighbor
+     */
+    private IndexedGraph(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> edgePredicate, Function<T, ? extends Iterable<?>> keys) {
+        int size = vertices.size();
+        this.vertices = ImmutableSet.copyOf(vertices);
+        this.edgePredicate = edgePredicate;
+        this.values = this.vertices.toArray();
+        this.indices = index(values);
+        this.neighborCount = new int[size];
+        this.adjacencyList = new int[size][];
+        Arrays.fill(adjacencyList, NO_NEIGHBORS);
+        this.expanded = new boolean[size];
+        if (keys == null) {
+            this.buckets = null;
+            this.vertexBuckets = null;
+            this.candidateStamps = null;
+            return;
+        }
+        //assign an id to each distinct key and count the members of each bucket
+        Map<Object, Integer> bucketIds = new HashMap<>();
+        int[] bucketSizes = new int[16];
+        int[][] vertexBuckets = new int[size][];
+        for (int i = 0; i < size; i++) {
+            int[] ids = NO_NEIGHBORS;
+            int count = 0;
+            for (Object key : keys.apply(at(i))) {
+                Integer id = bucketIds.get(key);
+                if (id == null) {
+                    id = bucketIds.size();
+                    bucketIds.put(key, id);
+                    if (id == bucketSizes.length) {
+                        bucketSizes = Arrays.copyOf(bucketSizes, id << 1);
+                    }
+                }
+                //a vertex with a repeated key is only placed in the bucket once
+                if (containsBucket(ids, count, id)) {
+                    continue;
+                }
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(4, count << 1));
+                }
+                ids[count++] = id;
+                bucketSizes[id]++;
+            }
+            vertexBuckets[i] = count == ids.length ? ids : Arrays.copyOf(ids, count);
+        }
+        int[][] buckets = new int[bucketIds.size()][];
+        for (int id = 0; id < buckets.length; id++) {
+            buckets[id] = new int[bucketSizes[id]];
+            bucketSizes[id] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            for (int id : vertexBuckets[i]) {
+                buckets[id][bucketSizes[id]++] = i;
+            }
+        }
+        this.buckets = buckets;
+        this.vertexBuckets = vertexBuckets;
+        this.candidateStamps = new int[size];
     }
 
     /**
@@ -74,6 +165,43 @@ public final class IndexedGraph<T> {
         return new IndexedGraph<>(vertices, criteria);
     }
 
+    /**
+     * Constructs a new lazy {@link IndexedGraph} of the specified values using the specified edge predicate for finding
+     * the graph edges as they are traversed.
+     * <p>
+     * The edge predicate is tested at most once for each unordered pair of vertices, so it is expected to be symmetric.
+     *
+     * @param vertices the values to use when building the graph
+     * @param criteria the symmetric edge predicate for determine if two vertices have an edge
+     * @param <T>      the type of the vertices in the graph
+     * @return a new lazy {@link IndexedGraph} represented by the vertices and edge predicate
+     */
+    public static <T> IndexedGraph<T> lazy(Set<T> vertices, BiPredicate<T, T> criteria) {
+        return new IndexedGraph<>(vertices, criteria, null);
+    }
+
+    /**
+     * Constructs a new lazy {@link IndexedGraph} of the specified values using the specified edge predicate for finding
+     * the graph edges as they are traversed, where only vertices sharing a key are candidate neighbors.
+     * <p>
+     * The edge predicate is tested at most once for each unordered pair of vertices sharing a key, so it is expected to
+     * be symmetric. Vertices that do not share a key are never neighbors, even if the edge predicate would have an edge
+     * between them.
+     * <p>
+     * Examples:
+     * <p>
+     * {@code IndexedGraph<Equipment> graph = IndexedGraph.lazy(candidates, (a, b) -> (a.getSlotMask() & b.getSlotMask()) != 0, Equipment::getOccupiedSlots);}
+     *
+     * @param vertices the values to use when building the graph
+     * @param criteria the symmetric edge predicate for determine if two vertices have an edge
+     * @param keys     the key extractor for each vertex, where neighboring vertices must share at least one key
+     * @param <T>      the type of the vertices in the graph
+     * @return a new lazy {@link IndexedGraph} represented by the vertices, edge predicate, and key extractor
+     */
+    public static <T> IndexedGraph<T> lazy(Set<T> vertices, BiPredicate<T, T> criteria, @NonNull Function<T, ? extends Iterable<?>> keys) {
+        return new IndexedGraph<>(vertices, criteria, keys);
+    }
+
     /**
      * Returns whether the specified vertex is present within the graph.
      *
@@ -97,7 +225,9 @@ public final class IndexedGraph<T> {
      * @throws IllegalArgumentException indicating the vertex is not present in the graph
      */
     public int neighborCount(@NonNull T vertex) {
-        return neighborCount[indexOf(vertex)];
+        int index = indexOf(vertex);
+        expand(index);
+        return neighborCount[index];
     }
 
     /**
@@ -107,6 +237,9 @@ public final class IndexedGraph<T> {
      * Edges between vertices are decided by the edge predicate used when constructing the {@link IndexedGraph}.
      * <p>
      * Loops are not allowed within {@link IndexedGraph}, therefore a vertex is not a neighbor with itself.
+     * <p>
+     * Vertices of a lazy graph with a key extractor are only neighbors if they share a key. The adjacency list of a
+     * vertex is used instead of the edge predicate if the vertex has already been traversed.
      *
      * @param one the first vertex
      * @param two the second vertex
@@ -116,7 +249,43 @@ public final class IndexedGraph<T> {
     public boolean neighbors(@NonNull T one, @NonNull T two) {
         //indexOf equality is performed instead of one != two to also guarantee the vertices are in the graph
         //it's possible to pass in an edge predicate that satisfies more values outside the specified set of vertices
-        return indexOf(one) != indexOf(two) && edgePredicate.test(one, two);
+        int first = indexOf(one);
+        int second = indexOf(two);
+        if (first == second) {
+            return false;
+        }
+        if (expanded != null && (expanded[first] || expanded[second])) {
+            return expanded[first] ? isNeighbor(first, second) : isNeighbor(second, first);
+        }
+        if (vertexBuckets != null && !sharesBucket(first, second)) {
+            return false;
+        }
+        return edgePredicate.test(one, two);
+    }
+
+    /**
+     * Represents the number of neighbors of the vertex at the specified index, finding the edges of the vertex if necessary.
+     *
+     * @param index the index of the vertex
+     * @return the number of neighbors of the vertex
+     */
+    int degree(int index) {
+        expand(index);
+        return neighborCount[index];
+    }
+
+    /**
+     * Represents the indices of the neighbors of the vertex at the specified index, finding the edges of the vertex if necessary.
+     * <p>
+     * Only the first {@link IndexedGraph#degree(int)} entries of the adjacency list are neighbors, and the adjacency
+     * list must not be modified.
+     *
+     * @param index the index of the vertex
+     * @return the adjacency list of the vertex
+     */
+    int[] neighborIndices(int index) {
+        expand(index);
+        return adjacencyList[index];
     }
 
     /**
@@ -137,12 +306,12 @@ public final class IndexedGraph<T> {
      * @return the vertex at the specified index in the graph
      * @throws IllegalArgumentException indicating there is not a vertex present at the specified index in the graph
      */
+    @SuppressWarnings("unchecked")
     public T at(int index) {
-        T vertex = indices.inverse().get(index);
-        if (vertex == null) {
+        if (index < 0 || index >= values.length) {
             throw new IllegalArgumentException("A vertex could not be found in the graph at index " + index + ".");
         }
-        return vertex;
+        return (T) values[index];
     }
 
     /**
@@ -190,6 +359,7 @@ public final class IndexedGraph<T> {
      */
     public Stream<T> neighbors(@NonNull T vertex) {
         int index = indexOf(vertex);
+        expand(index);
         return Arrays.stream(adjacencyList[index], 0, neighborCount[index]).mapToObj(this::at);
     }
 
@@ -204,6 +374,7 @@ public final class IndexedGraph<T> {
      */
     public void forEachNeighbor(@NonNull T vertex, Consumer<T> consumer) {
         int index = indexOf(vertex);
+        expand(index);
         for (int i = 0; i < neighborCount[index]; i++) {
             consumer.accept(at(adjacencyList[index][i]));
         }
@@ -250,7 +421,9 @@ public final class IndexedGraph<T> {
      */
     private Iterator<Set<T>> componentIterator() {
         return new Iterator<Set<T>>() {
-            private boolean[] visited = new boolean[vertices.size()];
+            private final boolean[] visited = new boolean[vertices.size()];
+            //each vertex is pushed at most once, so the stack never exceeds the number of vertices
+            private final int[] stack = new int[vertices.size()];
             private int currentIndex;
             private Set<T> component;
 
@@ -301,18 +474,21 @@ public final class IndexedGraph<T> {
                     return;
                 }
                 ImmutableSet.Builder<T> component = ImmutableSet.builder();
-                //dfs from current index to generate a component
-                Deque<Integer> verticesToSearch = new LinkedList<>();
-                verticesToSearch.push(currentIndex);
-                while (!verticesToSearch.isEmpty()) {
-                    int currentVertex = verticesToSearch.pop();
-                    if (visited[currentVertex]) {
-                        continue;
-                    }
-                    visited[currentVertex] = true;
+                //dfs from current index to generate a component, vertices are marked when pushed to avoid duplicates
+                int stackSize = 0;
+                stack[stackSize++] = currentIndex;
+                visited[currentIndex] = true;
+                while (stackSize > 0) {
+                    int currentVertex = stack[--stackSize];
                     component.add(at(currentVertex));
+                    expand(currentVertex);
+                    int[] neighbors = adjacencyList[currentVertex];
                     for (int i = 0; i < neighborCount[currentVertex]; i++) {
-                        verticesToSearch.push(adjacencyList[currentVertex][i]);
+                        int neighbor = neighbors[i];
+                        if (!visited[neighbor]) {
+                            visited[neighbor] = true;
+                            stack[stackSize++] = neighbor;
+                        }
                     }
                 }
                 this.component = component.build();
@@ -329,4 +505,137 @@ public final class IndexedGraph<T> {
             }
         };
     }
+
+    /**
+     * Finds the edges of the vertex at the specified index of a lazy graph, if not already found.
+     * <p>
+     * Edges with vertices that have already been expanded were recorded when those vertices were expanded, so the edge
+     * predicate is only tested against candidate neighbors that have not been expanded. Once a vertex has been expanded,
+     * its adjacency list is complete and never changes.
+     *
+     * @param index the index of the vertex to expand
+     */
+    private void expand(int index) {
+        if (expanded == null || expanded[index]) {
+            return;
+        }
+        expanded[index] = true;
+        if (vertexBuckets == null) {
+            for (int other = 0; other < values.length; other++) {
+                test(index, other);
+            }
+            return;
+        }
+        //candidate stamps are unique to the expanded vertex, so a vertex sharing multiple buckets is only tested once
+        int stamp = index + 1;
+        for (int bucket : vertexBuckets[index]) {
+            for (int other : buckets[bucket]) {
+                if (candidateStamps[other] != stamp) {
+                    candidateStamps[other] = stamp;
+                    test(index, other);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the edge predicate for the vertices at the specified indices, recording the edge in the adjacency list of
+     * both vertices. Vertices that have already been expanded are skipped as their edges are already recorded.
+     *
+     * @param index the index of the vertex being expanded
+     * @param other the index of the candidate neighbor
+     */
+    private void test(int index, int other) {
+        if (other == index || expanded[other]) {
+            return;
+        }
+        if (edgePredicate.test(at(index), at(other))) {
+            addNeighbor(index, other);
+            addNeighbor(other, index);
+        }
+    }
+
+    /**
+     * Appends a neighbor to the adjacency list of the vertex at the specified index, growing the adjacency list if necessary.
+     *
+     * @param index    the index of the vertex
+     * @param neighbor the index of the neighboring vertex
+     */
+    private void addNeighbor(int index, int neighbor) {
+        int[] neighbors = adjacencyList[index];
+        int count = neighborCount[index];
+        if (count == neighbors.length) {
+            neighbors = Arrays.copyOf(neighbors, Math.max(4, count << 1));
+            adjacencyList[index] = neighbors;
+        }
+        neighbors[count] = neighbor;
+        neighborCount[index] = count + 1;
+    }
+
+    /**
+     * Determines if the vertex at the specified index has already recorded the other vertex in its adjacency list.
+     *
+     * @param index the index of an expanded vertex
+     * @param other the index of the candidate neighbor
+     * @return {@code true} if the vertices are neighbors
+     */
+    private boolean isNeighbor(int index, int other) {
+        int[] neighbors = adjacencyList[index];
+        for (int i = 0; i < neighborCount[index]; i++) {
+            if (neighbors[i] == other) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines if the vertices at the specified indices share at least one key of a keyed lazy graph.
+     *
+     * @param index the index of the first vertex
+     * @param other the index of the second vertex
+     * @return {@code true} if the vertices share a bucket
+     */
+    private boolean sharesBucket(int index, int other) {
+        int[] others = vertexBuckets[other];
+        for (int bucket : vertexBuckets[index]) {
+            if (containsBucket(others, others.length, bucket)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the lookup of each vertex to its index in the graph.
+     *
+     * @param values the vertices of the graph in index order
+     * @param <T>    the type of the vertices in the graph
+     * @return the index of each vertex in the graph
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Map<T, Integer> index(Object[] values) {
+        ImmutableMap.Builder<T, Integer> builder = ImmutableMap.builder();
+        for (int i = 0; i < values.length; i++) {
+            builder.put((T) values[i], i);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Determines if the specified bucket id is within the first {@code count} bucket ids of a vertex.
+     *
+     * @param ids   the bucket ids of a vertex
+     * @param count the number of bucket ids of the vertex
+     * @param id    the bucket id to find
+     * @return {@code true} if the bucket id is present
+     */
+    private static boolean containsBucket(int[] ids, int count, int id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,148 @@
+package io.gearsetup.util;
+
+/**
+ * An <a href="https://en.wikipedia.org/wiki/Open_addressing">open addressing</a> hash map from {@code int} keys to
+ * {@code int} values, which avoids boxing the keys and values and never calls {@link Object#hashCode()} or
+ * {@link Object#equals(Object)}.
+ * <p>
+ * Keys are spread using <a href="https://en.wikipedia.org/wiki/Hash_function#Fibonacci_hashing">Fibonacci hashing</a>
+ * and collisions are resolved by linear probing over a power of two table kept at most half full. The key {@code 0}
+ * marks an empty entry of the table, so it is stored outside of the table.
+ * <p>
+ * {@link IntIntMap} is not thread-safe.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code IntIntMap indices = new IntIntMap(16); indices.put(4151, 0); int index = indices.get(4151, -1);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class IntIntMap {
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int size;
+    private boolean containsZero;
+    private int zeroValue;
+
+    /**
+     * Constructs a new {@link IntIntMap} that can hold the specified number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public IntIntMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must be non-negative.");
+        }
+        allocate(IntSet.tableSize(expectedSize));
+    }
+
+    /**
+     * Represents the number of entries in the map.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines if the map contains an entry for the specified key.
+     *
+     * @param key the key to check
+     * @return {@code true} if the map contains the key
+     */
+    public boolean containsKey(int key) {
+        if (key == 0) {
+            return containsZero;
+        }
+        return keys[slot(key)] == key;
+    }
+
+    /**
+     * Finds the value of the specified key.
+     *
+     * @param key          the key to find the value of
+     * @param defaultValue the value to return if the map does not contain the key
+     * @return the value of the key or the default value if the map does not contain the key
+     */
+    public int get(int key, int defaultValue) {
+        if (key == 0) {
+            return containsZero ? zeroValue : defaultValue;
+        }
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Associates the specified value with the specified key, replacing the previous value of the key.
+     *
+     * @param key   the key
+     * @param value the value of the key
+     */
+    public void put(int key, int value) {
+        if (key == 0) {
+            size += containsZero ? 0 : 1;
+            containsZero = true;
+            zeroValue = value;
+            return;
+        }
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            //keep the table at most half full, which keeps probe sequences short
+            if ((size + 1) << 1 > keys.length) {
+                rehash(keys.length << 1);
+                slot = slot(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Finds the slot of the table holding the specified non-zero key or the empty slot where it would be inserted.
+     *
+     * @param key the non-zero key
+     * @return the slot of the key
+     */
+    private int slot(int key) {
+        int slot = (key * 0x9E3779B9) >>> shift;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Grows the table to the specified power of two capacity and reinserts every entry.
+     *
+     * @param capacity the new capacity of the table
+     */
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Allocates an empty table of the specified power of two capacity.
+     *
+     * @param capacity the capacity of the table
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+}
@@ -0,0 +1,158 @@
+package io.gearsetup.util;
+
+/**
+ * An <a href="https://en.wikipedia.org/wiki/Open_addressing">open addressing</a> hash set of {@code int} values, which
+ * avoids boxing the values and never calls {@link Object#hashCode()} or {@link Object#equals(Object)}.
+ * <p>
+ * Values are spread using <a href="https://en.wikipedia.org/wiki/Hash_function#Fibonacci_hashing">Fibonacci hashing</a>
+ * and collisions are resolved by linear probing over a power of two table kept at most half full. The value {@code 0}
+ * marks an empty entry of the table, so it is tracked outside of the table.
+ * <p>
+ * {@link IntSet} is not thread-safe.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code IntSet ids = IntSet.of(4151, 11802); boolean whip = ids.contains(4151);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class IntSet {
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int size;
+    private boolean containsZero;
+
+    /**
+     * Constructs a new {@link IntSet} that can hold the specified number of values without resizing.
+     *
+     * @param expectedSize the expected number of values
+     */
+    public IntSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must be non-negative.");
+        }
+        allocate(tableSize(expectedSize));
+    }
+
+    /**
+     * Constructs a new {@link IntSet} containing the specified values.
+     *
+     * @param values the values of the set
+     * @return a new set containing the values
+     */
+    public static IntSet of(int... values) {
+        IntSet set = new IntSet(values.length);
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    /**
+     * Represents the number of values in the set.
+     *
+     * @return the value count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines if the set contains the specified value.
+     *
+     * @param value the value to check
+     * @return {@code true} if the set contains the value
+     */
+    public boolean contains(int value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        return values[slot(value)] == value;
+    }
+
+    /**
+     * Adds the specified value to the set.
+     *
+     * @param value the value to add
+     * @return {@code true} if the set did not already contain the value
+     */
+    public boolean add(int value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int slot = slot(value);
+        if (values[slot] == value) {
+            return false;
+        }
+        //keep the table at most half full, which keeps probe sequences short
+        if ((size + 1) << 1 > values.length) {
+            rehash(values.length << 1);
+            slot = slot(value);
+        }
+        values[slot] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Calculates the power of two table capacity that holds the specified number of entries at most half full.
+     *
+     * @param expectedSize the expected number of entries
+     * @return the table capacity
+     */
+    static int tableSize(int expectedSize) {
+        int capacity = 2;
+        while (capacity < expectedSize << 1 && capacity < MAXIMUM_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Finds the slot of the table holding the specified non-zero value or the empty slot where it would be inserted.
+     *
+     * @param value the non-zero value
+     * @return the slot of the value
+     */
+    private int slot(int value) {
+        int slot = (value * 0x9E3779B9) >>> shift;
+        while (values[slot] != 0 && values[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Grows the table to the specified power of two capacity and reinserts every value.
+     *
+     * @param capacity the new capacity of the table
+     */
+    private void rehash(int capacity) {
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int value : oldValues) {
+            if (value != 0) {
+                values[slot(value)] = value;
+            }
+        }
+    }
+
+    /**
+     * Allocates an empty table of the specified power of two capacity.
+     *
+     * @param capacity the capacity of the table
+     */
+    private void allocate(int capacity) {
+        values = new int[capacity];
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+}
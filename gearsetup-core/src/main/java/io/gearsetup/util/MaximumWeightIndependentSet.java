@@ -4,23 +4,33 @@ import com.google.common.collect.ImmutableSet;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.function.ToDoubleFunction;
 
 /**
  * A utility class providing an implementation of
  * <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
- * that performs modular decomposition, delegates to {@link RecursiveMaximumWeightIndependentSet} for calculating the
+ * that performs modular decomposition, delegates to {@link BitsetMaximumWeightIndependentSet} for calculating the
  * maximum-weight independent set of each <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected component</a>,
  * and collects the maximum-weight independent subsets into a single set which is then considered maximal for the {@link IndexedGraph}.
+ * <p>
+ * Each component of at least 3 vertices is reduced to a kernel by {@link IndependentSetReductions} before it is
+ * searched, and the independent set of the kernel is lifted back to the component.
  *
  * @author Ian Caffey
  * @since 1.0
  */
 @UtilityClass
 public class MaximumWeightIndependentSet {
+    private static final IndependentSetStrategy EXACT = IndependentSetStrategy.exact();
+    //below this many vertices the pair matrix is cheaper to scan serially than to split across the common pool
+    static final int PARALLEL_COMPONENTS_THRESHOLD = 1024;
+
     /**
      * Finds the<a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
      * of the specified graph using the specified weighting function.
@@ -31,7 +41,11 @@ public class MaximumWeightIndependentSet {
      * <p>
      * For graphs with {@code IndexedGraph#size() >= 2}, the graph is decomposed into its
      * <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected components</a> where each
-     * component is processed by {@link RecursiveMaximumWeightIndependentSet} and the results are aggregated into a set.
+     * component is reduced to a kernel, processed by {@link BitsetMaximumWeightIndependentSet}, and the results are
+     * aggregated into a set.
+     * <p>
+     * The adjacency of each component is built from the edges the graph found while traversing the component, so the
+     * edge predicate is never tested again and vertices of a keyed lazy graph that do not share a key are never adjacent.
      *
      * @param graph  the graph to find the maximum-weight independent set
      * @param weight the weighting function for each candidate
@@ -39,7 +53,18 @@ public class MaximumWeightIndependentSet {
      * @return the independent set of vertices that maximize the weight function
      */
     public <T> Set<T> find(@NonNull IndexedGraph<T> graph, @NonNull ToDoubleFunction<T> weight) {
-        return find(graph.getVertices(), graph.getEdgePredicate(), weight);
+        if (graph.size() < 2) {
+            return graph.getVertices();
+        }
+        ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+        //position of each vertex of the graph within its connected component
+        int[] positions = new int[graph.size()];
+        graph.forEachComponent(component -> {
+            if (!addTrivial(builder, component, weight)) {
+                builder.addAll(solve(graph, component, positions, weight));
+            }
+        });
+        return builder.build();
     }
 
     /**
@@ -50,37 +75,378 @@ public class MaximumWeightIndependentSet {
      * be a single combination/subset created from the vertices so it is always maximal and graphs with 0 or 1 vertex
      * cannot have edges.
      * <p>
-     * For sets with {@code IndexedGraph#size() >= 2}, the {@link IndexedGraph} of the vertices is decomposed into its
-     * <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected components</a> where each
-     * component is processed by {@link RecursiveMaximumWeightIndependentSet} and the results are aggregated into a set.
+     * For sets with {@code IndexedGraph#size() >= 2}, the vertices are decomposed into their
+     * <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected components</a> using
+     * {@link ConnectedComponents#find(Set, BiPredicate)} where each component is reduced to a kernel, processed by
+     * {@link BitsetMaximumWeightIndependentSet}, and the results are aggregated into a set. The edge predicate is
+     * expected to be symmetric, as it is tested at most once for each unordered pair of vertices when finding the
+     * connected components.
+     * <p>
+     * Sets of at least {@code 1024} vertices are decomposed using {@link ConnectedComponents#parallelFind(Set, BiPredicate)},
+     * so the edge predicate must be safe to test concurrently.
      *
      * @param vertices  the vertices of the graph to consider when finding the maximum-weight independent set
      * @param predicate the edge predicate for determine if two vertices have an edge
      * @param weight    the weighting function for each candidate
      * @param <T>       the type of value being used for finding maximum-weight independent set
      * @return the independent set of vertices that maximize the weight function
+     * @see ConnectedComponents#find(Set, BiPredicate)
+     * @see ConnectedComponents#parallelFind(Set, BiPredicate)
      */
     public <T> Set<T> find(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> predicate, @NonNull ToDoubleFunction<T> weight) {
         if (vertices.size() < 2) {
             return ImmutableSet.copyOf(vertices);
         }
         ImmutableSet.Builder<T> builder = ImmutableSet.builder();
-        IndexedGraph.of(vertices, predicate).forEachComponent(component -> {
-            //isolated vertex, always maximum and independent
-            if (component.size() < 2) {
-                builder.addAll(component);
-                return;
+        List<Set<T>> components = vertices.size() < PARALLEL_COMPONENTS_THRESHOLD
+                ? ConnectedComponents.find(vertices, predicate)
+                : ConnectedComponents.parallelFind(vertices, predicate);
+        for (Set<T> component : components) {
+            if (!addTrivial(builder, component, weight)) {
+                builder.addAll(solve(component, predicate, weight, EXACT).getVertices());
             }
-            //two vertex component, choose maximum of the two in the component
-            if (component.size() == 2) {
-                Iterator<T> it = component.iterator();
-                T first = it.next();
-                T second = it.next();
-                builder.add(weight.applyAsDouble(first) >= weight.applyAsDouble(second) ? first : second);
-                return;
-            }
-            builder.addAll(RecursiveMaximumWeightIndependentSet.find(component, predicate, weight));
-        });
+        }
         return builder.build();
     }
+
+    /**
+     * Finds the<a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+     * of the specified vertices, edge predicate, and weighting function, where only vertices sharing a key can have an edge.
+     * <p>
+     * The <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected components</a> are found
+     * by only testing the edge predicate for vertices sharing a key, which avoids testing every pair of vertices when
+     * the graph is large and sparse.
+     *
+     * @param vertices  the vertices of the graph to consider when finding the maximum-weight independent set
+     * @param predicate the edge predicate for determine if two vertices have an edge
+     * @param keys      the key extractor for each vertex, where neighboring vertices must share at least one key
+     * @param weight    the weighting function for each candidate
+     * @param <T>       the type of value being used for finding maximum-weight independent set
+     * @return the independent set of vertices that maximize the weight function
+     * @see IndexedGraph#lazy(Set, BiPredicate, Function)
+     */
+    public <T> Set<T> find(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> predicate, @NonNull Function<T, ? extends Iterable<?>> keys,
+                           @NonNull ToDoubleFunction<T> weight) {
+        if (vertices.size() < 2) {
+            return ImmutableSet.copyOf(vertices);
+        }
+        return find(IndexedGraph.lazy(vertices, predicate, keys), weight);
+    }
+
+    /**
+     * Finds an independent set of the specified vertices, edge predicate, and weighting function using the specified
+     * {@link IndependentSetStrategy} to choose between an exact and an approximate search for each
+     * <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected component</a>.
+     * <p>
+     * The edge predicate is tested once for each pair of vertices and the weighting function is applied once for each
+     * vertex before performing the search. The buffers of the search are provided by {@link SolverWorkspace#local()}.
+     *
+     * @param vertices  the vertices of the graph to consider when finding the maximum-weight independent set
+     * @param predicate the edge predicate for determine if two vertices have an edge
+     * @param weight    the weighting function for each candidate
+     * @param strategy  the strategy for choosing between an exact and an approximate search
+     * @param <T>       the type of value being used for finding maximum-weight independent set
+     * @return the independent set of vertices, its weight, and an upper bound of the maximum weight
+     * @see MaximumWeightIndependentSet#find(int, boolean[], double[], int[], SolverWorkspace, IndependentSetStrategy)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> IndependentSetSolution<T> solve(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> predicate,
+                                               @NonNull ToDoubleFunction<T> weight, @NonNull IndependentSetStrategy strategy) {
+        try (SolverWorkspace workspace = SolverWorkspace.local().acquire()) {
+            int size = vertices.size();
+            Object[] values = workspace.vertices(size);
+            double[] weights = workspace.weights(size);
+            boolean[] adjacency = workspace.adjacency(size);
+            int index = 0;
+            for (T vertex : vertices) {
+                values[index] = vertex;
+                weights[index++] = weight.applyAsDouble(vertex);
+            }
+            for (int i = 0; i < size; i++) {
+                adjacency[i * size + i] = false;
+                for (int j = 0; j < i; j++) {
+                    boolean edge = predicate.test((T) values[i], (T) values[j]);
+                    adjacency[i * size + j] = edge;
+                    adjacency[j * size + i] = edge;
+                }
+            }
+            int[] result = workspace.indices(size);
+            int count = find(size, adjacency, weights, result, workspace, strategy);
+            ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+            double total = 0;
+            for (int i = 0; i < count; i++) {
+                builder.add((T) values[result[i]]);
+                total += weights[result[i]];
+            }
+            return IndependentSetSolution.of(builder.build(), total, Math.max(total, workspace.getUpperBound()), workspace.isExact());
+        }
+    }
+
+    /**
+     * Finds the <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+     * of the graph represented by the specified adjacency matrix and vertex weights.
+     * <p>
+     * The vertices of the graph are the indices {@code [0, size)}, where the edge between the vertex at index {@code i}
+     * and the vertex at index {@code j} is at {@code adjacency[i * size + j]}.
+     * <p>
+     * The graph is decomposed into its <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected components</a>
+     * using the buffers of the {@link SolverWorkspace}, where each component is reduced to a kernel, processed by
+     * {@link BitsetMaximumWeightIndependentSet}, and the results are appended to the result buffer.
+     * <p>
+     * The workspace is expected to be acquired by the caller, as the adjacency matrix and weights are commonly buffers of
+     * the same {@link SolverWorkspace}.
+     *
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param weights   the weight of each vertex in the graph
+     * @param result    the buffer to hold the indices of the maximum-weight independent set
+     * @param workspace the workspace providing the buffers of the search
+     * @return the number of vertices in the maximum-weight independent set written to the result buffer
+     * @throws java.util.concurrent.CancellationException indicating the current thread was interrupted during the search
+     */
+    public int find(int size, @NonNull boolean[] adjacency, @NonNull double[] weights, @NonNull int[] result,
+                    @NonNull SolverWorkspace workspace) {
+        return find(size, adjacency, weights, result, workspace, EXACT);
+    }
+
+    /**
+     * Finds an independent set of the graph represented by the specified adjacency matrix and vertex weights using the
+     * specified {@link IndependentSetStrategy} to choose between an exact and an approximate search for each
+     * <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected component</a>.
+     * <p>
+     * Components of 1 or 2 vertices are always solved exactly, and vertices with a negative weight are never added to
+     * the independent set. Larger components are reduced to a kernel and each component of the kernel is processed by {@link TreeDecompositionMaximumWeightIndependentSet} when it has a tree
+     * decomposition of at most {@link IndependentSetStrategy#getMaximumTreewidth()} width, and otherwise by
+     * {@link BitsetMaximumWeightIndependentSet} when it has at most {@link IndependentSetStrategy#getExactComponentSize()}
+     * vertices and by {@link ApproximateMaximumWeightIndependentSet} otherwise. Once the budget of the strategy is exhausted, every remaining component only receives a greedy independent set.
+     * <p>
+     * The upper bound of the maximum weight and whether every component was solved exactly are available from
+     * {@link SolverWorkspace#getUpperBound()} and {@link SolverWorkspace#isExact()} after the search.
+     *
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param weights   the weight of each vertex in the graph
+     * @param result    the buffer to hold the indices of the independent set
+     * @param workspace the workspace providing the buffers of the search
+     * @param strategy  the strategy for choosing between an exact and an approximate search
+     * @return the number of vertices in the independent set written to the result buffer
+     * @throws java.util.concurrent.CancellationException indicating the current thread was interrupted during the search
+     */
+    public int find(int size, @NonNull boolean[] adjacency, @NonNull double[] weights, @NonNull int[] result,
+                    @NonNull SolverWorkspace workspace, @NonNull IndependentSetStrategy strategy) {
+        workspace.limit(strategy.getNodeBudget(), strategy.getTimeBudget());
+        workspace.upperBound = 0;
+        workspace.exact = true;
+        if (size < 2) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (weights[i] >= 0) {
+                    result[count++] = i;
+                }
+                workspace.upperBound += Math.max(0, weights[i]);
+                workspace.component(1);
+            }
+            return count;
+        }
+        workspace.ensureSearchCapacity(size);
+        boolean[] visited = workspace.visited;
+        int[] stack = workspace.stack;
+        int[] component = workspace.order;
+        int count = 0;
+        for (int start = 0; start < size; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            //dfs from the unvisited vertex to generate a component, vertices are marked when pushed to avoid duplicates
+            int componentSize = 0;
+            int stackSize = 0;
+            stack[stackSize++] = start;
+            visited[start] = true;
+            while (stackSize > 0) {
+                int vertex = stack[--stackSize];
+                component[componentSize++] = vertex;
+                int row = vertex * size;
+                for (int other = 0; other < size; other++) {
+                    if (!visited[other] && adjacency[row + other]) {
+                        visited[other] = true;
+                        stack[stackSize++] = other;
+                    }
+                }
+            }
+            workspace.component(componentSize);
+            //isolated vertex, always independent and maximum unless it would decrease the weight
+            if (componentSize < 2) {
+                if (weights[component[0]] >= 0) {
+                    result[count++] = component[0];
+                }
+                workspace.upperBound += Math.max(0, weights[component[0]]);
+                continue;
+            }
+            //two vertex component, choose maximum of the two in the component
+            if (componentSize == 2) {
+                int maximum = weights[component[0]] >= weights[component[1]] ? component[0] : component[1];
+                if (weights[maximum] >= 0) {
+                    result[count++] = maximum;
+                }
+                workspace.upperBound += Math.max(0, weights[maximum]);
+                continue;
+            }
+            count = reduceAndSearch(component, componentSize, size, adjacency, weights, result, count, workspace, strategy);
+        }
+        return count;
+    }
+
+    /**
+     * Searches for the independent set of a connected component of at least 3 vertices and appends it to the result buffer.
+     * <p>
+     * The component is first reduced to its kernel by {@link IndependentSetReductions}, which commonly splits the
+     * component, so each connected component of the kernel is searched separately using the reduced weights. Kernel
+     * components with a narrow tree decomposition or at most {@link IndependentSetStrategy#getExactComponentSize()}
+     * vertices are searched exactly and the rest are approximated. The independent set of the kernel is then lifted back to the component.
+     *
+     * @param component     the vertices of the connected component
+     * @param componentSize the number of vertices in the component
+     * @param size          the number of vertices in the graph
+     * @param adjacency     the adjacency matrix of the graph
+     * @param weights       the weight of each vertex in the graph
+     * @param result        the buffer to hold the indices of the independent set
+     * @param offset        the index in the result buffer to begin appending the independent set
+     * @param workspace     the workspace providing the buffers of the search
+     * @param strategy      the strategy for choosing between an exact and an approximate search
+     * @return the index in the result buffer after the appended independent set
+     */
+    private int reduceAndSearch(int[] component, int componentSize, int size, boolean[] adjacency, double[] weights,
+                                int[] result, int offset, SolverWorkspace workspace, IndependentSetStrategy strategy) {
+        int kernelSize = IndependentSetReductions.reduce(component, componentSize, size, adjacency, weights, workspace);
+        int[] kernel = workspace.kernel;
+        double[] reduced = workspace.reduced;
+        //only the kernel vertices are still alive, so the alive marks are cleared as the kernel vertices are visited
+        boolean[] unvisited = workspace.alive;
+        //each kernel component is found by a breadth-first search that queues its vertices at the front of the stack buffer
+        int[] stack = workspace.stack;
+        int count = offset;
+        double bound = workspace.foldedWeight;
+        for (int start = 0; start < kernelSize; start++) {
+            if (!unvisited[kernel[start]]) {
+                continue;
+            }
+            int kernelComponentSize = 0;
+            int next = 0;
+            stack[kernelComponentSize++] = kernel[start];
+            unvisited[kernel[start]] = false;
+            while (next < kernelComponentSize) {
+                int row = stack[next++] * size;
+                for (int i = start + 1; i < kernelSize; i++) {
+                    int other = kernel[i];
+                    if (unvisited[other] && adjacency[row + other]) {
+                        unvisited[other] = false;
+                        stack[kernelComponentSize++] = other;
+                    }
+                }
+            }
+            //sparse kernel components are solved in polynomial time when their tree decomposition is narrow enough
+            if (kernelComponentSize > strategy.getMaximumTreewidth() + 1 && !workspace.exhausted) {
+                int end = TreeDecompositionMaximumWeightIndependentSet.search(stack, kernelComponentSize, size, adjacency, reduced,
+                        result, count, strategy.getMaximumTreewidth(), strategy.getEliminationOrdering(), workspace);
+                if (end >= 0) {
+                    for (int i = count; i < end; i++) {
+                        bound += reduced[result[i]];
+                    }
+                    count = end;
+                    continue;
+                }
+            }
+            if (kernelComponentSize <= strategy.getExactComponentSize()) {
+                int end = BitsetMaximumWeightIndependentSet.search(stack, kernelComponentSize, size, adjacency, reduced, result, count, workspace);
+                if (!workspace.exhausted) {
+                    bound += workspace.maximumWeight;
+                    count = end;
+                    continue;
+                }
+                //the budget was exhausted during the exact search, keep the better of its best so far and the approximation
+                int approximate = ApproximateMaximumWeightIndependentSet.search(stack, kernelComponentSize, size, adjacency, reduced,
+                        result, count, workspace.maximumWeight, workspace);
+                count = approximate < 0 ? end : approximate;
+            } else {
+                count = ApproximateMaximumWeightIndependentSet.search(stack, kernelComponentSize, size, adjacency, reduced,
+                        result, count, Double.NEGATIVE_INFINITY, workspace);
+            }
+            workspace.exact = false;
+            bound += ApproximateMaximumWeightIndependentSet.upperBound(stack, kernelComponentSize, size, adjacency, reduced, workspace);
+        }
+        workspace.upperBound += bound;
+        return IndependentSetReductions.lift(component, componentSize, result, offset, count, workspace);
+    }
+
+    /**
+     * Finds the <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+     * of the specified <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected component</a>
+     * of the graph, using the adjacency lists of the graph rather than its edge predicate.
+     *
+     * @param graph     the graph of the connected component
+     * @param component the connected component
+     * @param positions the buffer to hold the position of each vertex of the graph within the component
+     * @param weight    the weighting function for each candidate
+     * @param <T>       the type of value being used for finding maximum-weight independent set
+     * @return the independent set of vertices that maximize the weight function
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Set<T> solve(IndexedGraph<T> graph, Set<T> component, int[] positions, ToDoubleFunction<T> weight) {
+        try (SolverWorkspace workspace = SolverWorkspace.local().acquire()) {
+            int size = component.size();
+            Object[] values = workspace.vertices(size);
+            double[] weights = workspace.weights(size);
+            boolean[] adjacency = workspace.adjacency(size);
+            Arrays.fill(adjacency, 0, size * size, false);
+            int index = 0;
+            for (T vertex : component) {
+                values[index] = vertex;
+                weights[index] = weight.applyAsDouble(vertex);
+                positions[graph.indexOf(vertex)] = index++;
+            }
+            for (int i = 0; i < size; i++) {
+                int vertex = graph.indexOf((T) values[i]);
+                int[] neighbors = graph.neighborIndices(vertex);
+                int row = i * size;
+                for (int j = 0, degree = graph.degree(vertex); j < degree; j++) {
+                    adjacency[row + positions[neighbors[j]]] = true;
+                }
+            }
+            int[] result = workspace.indices(size);
+            int count = find(size, adjacency, weights, result, workspace, EXACT);
+            ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+            for (int i = 0; i < count; i++) {
+                builder.add((T) values[result[i]]);
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Adds the maximum-weight independent set of the specified
+     * <a href="https://en.wikipedia.org/wiki/Connected_component_(graph_theory)">connected component</a> to the builder
+     * if the component has fewer than 3 vertices.
+     *
+     * @param builder   the builder of the maximum-weight independent set of the graph
+     * @param component the connected component
+     * @param weight    the weighting function for each candidate
+     * @param <T>       the type of value being used for finding maximum-weight independent set
+     * @return {@code true} if the independent set of the component was added, otherwise the component must be searched
+     */
+    private <T> boolean addTrivial(ImmutableSet.Builder<T> builder, Set<T> component, ToDoubleFunction<T> weight) {
+        //isolated vertex, always maximum and independent
+        if (component.size() < 2) {
+            builder.addAll(component);
+            return true;
+        }
+        //two vertex component, choose maximum of the two in the component
+        if (component.size() == 2) {
+            Iterator<T> it = component.iterator();
+            T first = it.next();
+            T second = it.next();
+            builder.add(weight.applyAsDouble(first) >= weight.applyAsDouble(second) ? first : second);
+            return true;
+        }
+        return false;
+    }
 }
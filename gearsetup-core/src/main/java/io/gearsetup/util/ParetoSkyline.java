@@ -0,0 +1,88 @@
+package io.gearsetup.util;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+
+/**
+ * A utility class providing the ability to find the <a href="https://en.wikipedia.org/wiki/Pareto_front">Pareto skyline</a>
+ * of a set of integer vectors using the sort-filter-skyline algorithm.
+ * <p>
+ * A vector dominates another vector when it is at least as large in every dimension, so a dominated vector can never
+ * be the unique maximum of a non-negative linear objective over the vectors. Of equal vectors, only one is kept.
+ * <p>
+ * The vectors are sorted in descending order of the sum of their dimensions, where a vector can only be dominated by a
+ * vector with at least its sum, so each vector is only compared to the skyline found so far and every vector of the
+ * skyline is final as soon as it is added.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code int size = ParetoSkyline.find(new int[]{1, 2, 2, 1, 0, 1}, 2, 3, result);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+public class ParetoSkyline {
+    /**
+     * Finds the Pareto skyline of the specified vectors, stored row by row with {@code dimensions} values per vector.
+     *
+     * @param vectors    the values of every vector
+     * @param dimensions the number of dimensions of each vector
+     * @param count      the number of vectors
+     * @param result     the buffer to hold the indices of the skyline vectors, which must hold {@code count} indices
+     * @return the number of vectors in the skyline, whose indices are in ascending order at the front of the result buffer
+     * @throws IllegalArgumentException indicating the vectors or result buffer are too small
+     */
+    public int find(@NonNull int[] vectors, int dimensions, int count, @NonNull int[] result) {
+        if (vectors.length < dimensions * count || result.length < count) {
+            throw new IllegalArgumentException("Skyline of " + count + " vectors requires " + dimensions * count
+                    + " values and a result buffer of " + count + " indices.");
+        }
+        double[] sums = new double[count];
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            long sum = 0;
+            for (int d = i * dimensions; d < (i + 1) * dimensions; d++) {
+                sum += vectors[d];
+            }
+            sums[i] = sum;
+            order[i] = i;
+        }
+        IndexSort.sortDescending(order, count, sums);
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int vector = order[i];
+            boolean dominated = false;
+            for (int j = 0; j < size && !dominated; j++) {
+                dominated = dominates(vectors, dimensions, result[j], vector);
+            }
+            if (!dominated) {
+                result[size++] = vector;
+            }
+        }
+        Arrays.sort(result, 0, size);
+        return size;
+    }
+
+    /**
+     * Determines if the first vector is at least as large as the second vector in every dimension.
+     *
+     * @param vectors    the values of every vector
+     * @param dimensions the number of dimensions of each vector
+     * @param first      the index of the first vector
+     * @param second     the index of the second vector
+     * @return {@code true} if the first vector dominates the second vector
+     */
+    private boolean dominates(int[] vectors, int dimensions, int first, int second) {
+        int a = first * dimensions;
+        int b = second * dimensions;
+        for (int d = 0; d < dimensions; d++) {
+            if (vectors[a + d] < vectors[b + d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
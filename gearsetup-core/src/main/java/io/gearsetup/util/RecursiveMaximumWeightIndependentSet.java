@@ -1,11 +1,9 @@
 package io.gearsetup.util;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
-import java.util.List;
 import java.util.Set;
 import java.util.function.BiPredicate;
 import java.util.function.ToDoubleFunction;
@@ -65,6 +63,8 @@ public class RecursiveMaximumWeightIndependentSet {
      * For sets with {@code Set#size() >= 2}, a recursive, right-to-left, pre-order, pruning
      * <a href="https://en.wikipedia.org/wiki/Depth-first_search">depth-first search</a> is performed over the binary tree
      * of vertex combinations to find the independent set that maximizes the specified weighting function.
+     * <p>
+     * The buffers of the search are provided by {@link SolverWorkspace#local()}.
      *
      * @param vertices  the vertices of the graph to consider when finding the maximum-weight independent set
      * @param predicate the edge predicate for determine if two vertices have an edge
@@ -72,73 +72,169 @@ public class RecursiveMaximumWeightIndependentSet {
      * @return the independent set of vertices that maximize the weight function
      */
     public <T> Set<T> find(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> predicate, @NonNull ToDoubleFunction<T> weight) {
+        return find(vertices, predicate, weight, SolverWorkspace.local());
+    }
+
+    /**
+     * Finds the <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+     * of the specified vertices, edge predicate, and weighting function using the buffers of the specified {@link SolverWorkspace}.
+     * <p>
+     * The edge predicate is tested once for each pair of vertices and the weighting function is applied once for each
+     * vertex before performing the search.
+     *
+     * @param vertices  the vertices of the graph to consider when finding the maximum-weight independent set
+     * @param predicate the edge predicate for determine if two vertices have an edge
+     * @param weight    the weighting function for each vertex
+     * @param workspace the workspace providing the buffers of the search
+     * @param <T>       the type of vertex being used for finding maximum-weight independent set
+     * @return the independent set of vertices that maximize the weight function
+     * @throws IllegalStateException indicating the workspace is already acquired by another solve
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Set<T> find(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> predicate, @NonNull ToDoubleFunction<T> weight,
+                           @NonNull SolverWorkspace workspace) {
         if (vertices.size() < 2) {
             return ImmutableSet.copyOf(vertices);
         }
-        List<T> values = ImmutableList.copyOf(vertices);
-        int size = vertices.size();
-        //buffers for the recursive maximum-weight independent set algorithm
-        int[] selected = new int[size];
-        int[] maximum = new int[size];
-        double[] maximumWeight = new double[1];
-        int[] maximumSize = new int[1];
-        fill(values, predicate, weight, selected, 0, 0, maximum, maximumSize, maximumWeight);
-        //maximum[0, maximumSize[0]] is the maximum-weight independent set
-        ImmutableSet.Builder<T> builder = ImmutableSet.builder();
-        for (int i = 0; i < maximumSize[0]; i++) {
-            builder.add(values.get(maximum[i]));
+        workspace.acquire();
+        try {
+            int size = vertices.size();
+            Object[] values = workspace.vertices(size);
+            double[] weights = workspace.weights(size);
+            boolean[] adjacency = workspace.adjacency(size);
+            int index = 0;
+            for (T vertex : vertices) {
+                values[index] = vertex;
+                weights[index++] = weight.applyAsDouble(vertex);
+            }
+            for (int i = 0; i < size; i++) {
+                adjacency[i * size + i] = false;
+                for (int j = 0; j < i; j++) {
+                    boolean edge = predicate.test((T) values[i], (T) values[j]);
+                    adjacency[i * size + j] = edge;
+                    adjacency[j * size + i] = edge;
+                }
+            }
+            int[] result = workspace.indices(size);
+            int count = find(size, adjacency, weights, result, workspace);
+            ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+            for (int i = 0; i < count; i++) {
+                builder.add((T) values[result[i]]);
+            }
+            return builder.build();
+        } finally {
+            workspace.close();
+        }
+    }
+
+    /**
+     * Finds the <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+     * of the graph represented by the specified adjacency matrix and vertex weights.
+     * <p>
+     * The vertices of the graph are the indices {@code [0, size)}, where the edge between the vertex at index {@code i}
+     * and the vertex at index {@code j} is at {@code adjacency[i * size + j]}.
+     * <p>
+     * The workspace is expected to be acquired by the caller, as the adjacency matrix and weights are commonly buffers of
+     * the same {@link SolverWorkspace}.
+     *
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param weights   the weight of each vertex in the graph
+     * @param result    the buffer to hold the indices of the maximum-weight independent set
+     * @param workspace the workspace providing the buffers of the search
+     * @return the number of vertices in the maximum-weight independent set written to the result buffer
+     * @throws java.util.concurrent.CancellationException indicating the current thread was interrupted during the search
+     */
+    public int find(int size, @NonNull boolean[] adjacency, @NonNull double[] weights, @NonNull int[] result,
+                    @NonNull SolverWorkspace workspace) {
+        if (size < 2) {
+            for (int i = 0; i < size; i++) {
+                result[i] = i;
+            }
+            return size;
+        }
+        workspace.ensureSearchCapacity(size);
+        int[] order = workspace.order;
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
         }
-        return builder.build();
+        return search(order, size, size, adjacency, weights, result, 0, workspace);
+    }
+
+    /**
+     * Searches for the maximum-weight independent set of the specified subset of vertices of a graph and appends the
+     * vertices of the maximum-weight independent set to the result buffer.
+     * <p>
+     * The subset of vertices must not alias {@link SolverWorkspace#selected} or {@link SolverWorkspace#maximum}.
+     *
+     * @param vertices  the subset of vertices to search
+     * @param count     the number of vertices in the subset
+     * @param size      the number of vertices in the graph
+     * @param adjacency the adjacency matrix of the graph
+     * @param weights   the weight of each vertex in the graph
+     * @param result    the buffer to hold the indices of the maximum-weight independent set
+     * @param offset    the index in the result buffer to begin appending the maximum-weight independent set
+     * @param workspace the workspace providing the buffers of the search
+     * @return the index in the result buffer after the appended maximum-weight independent set
+     */
+    int search(int[] vertices, int count, int size, boolean[] adjacency, double[] weights, int[] result, int offset,
+               SolverWorkspace workspace) {
+        workspace.maximumSize = 0;
+        workspace.maximumWeight = 0;
+        fill(vertices, count, size, adjacency, weights, workspace.selected, 0, 0, 0, workspace);
+        //maximum[0, maximumSize] is the maximum-weight independent set
+        System.arraycopy(workspace.maximum, 0, result, offset, workspace.maximumSize);
+        return offset + workspace.maximumSize;
     }
 
     /**
      * Performs a recursive, right-to-left, pre-order, pruning <a href="https://en.wikipedia.org/wiki/Depth-first_search">depth-first search</a>
      * over the binary tree of set combinations to find the independent set that maximizes an arbitrary weighting function.
      *
-     * @param vertices      the vertices of the graph to consider when finding the maximum-weight independent set
-     * @param predicate     the edge predicate for determine if two vertices have an edge
-     * @param weight        the weighting function for each vertex
-     * @param selected      the buffer for the currently selected vertices in the graph
-     * @param selectedCount the length of the sub-array in the selected buffer
-     * @param depth         the current depth of the combination binary tree
-     * @param maximum       the buffer for the maximum-weight independent set
-     * @param maximumSize   the buffer to hold the size of the maximum-weight independent set
-     * @param maximumWeight the buffer to hold the weight of the maximum-weight independent set
-     * @param <T>           the type of value being used for finding maximum-weight independent set
+     * @param vertices       the subset of vertices to consider when finding the maximum-weight independent set
+     * @param count          the number of vertices in the subset
+     * @param size           the number of vertices in the graph
+     * @param adjacency      the adjacency matrix of the graph
+     * @param weights        the weight of each vertex in the graph
+     * @param selected       the buffer for the currently selected vertices in the graph
+     * @param selectedCount  the length of the sub-array in the selected buffer
+     * @param selectedWeight the total weight of the currently selected vertices
+     * @param depth          the current depth of the combination binary tree
+     * @param workspace      the workspace holding the maximum-weight independent set
      */
-    private <T> void fill(@NonNull List<T> vertices, @NonNull BiPredicate<T, T> predicate, @NonNull ToDoubleFunction<T> weight,
-                          int[] selected, int selectedCount, int depth,
-                          @NonNull int[] maximum, @NonNull int[] maximumSize, @NonNull double[] maximumWeight) {
+    private void fill(int[] vertices, int count, int size, boolean[] adjacency, double[] weights,
+                      int[] selected, int selectedCount, double selectedWeight, int depth, SolverWorkspace workspace) {
+        //the search budget is exhausted, the maximum found so far is kept
+        if (workspace.exhausted) {
+            return;
+        }
+        workspace.visit();
         //traverse tree until recursive call reaches leaf node
-        if (depth < vertices.size()) {
+        if (depth < count) {
             boolean independent = true;
-            T current = vertices.get(depth);
+            int current = vertices[depth];
+            int row = current * size;
             for (int i = 0; i < selectedCount; i++) {
-                if (predicate.test(current, vertices.get(selected[i]))) {
+                if (adjacency[row + selected[i]]) {
                     independent = false;
                     break;
                 }
             }
             if (independent) {
-                selected[selectedCount++] = depth;
+                selected[selectedCount] = current;
                 //continue looking for a maximum independent set which contains the current vertex
-                fill(vertices, predicate, weight, selected, selectedCount, depth + 1, maximum, maximumSize, maximumWeight);
-                //discard current vertex from selection, to allow finding maximum independent sets that do not contain the current vertex
-                --selectedCount;
+                fill(vertices, count, size, adjacency, weights, selected, selectedCount + 1, selectedWeight + weights[current], depth + 1, workspace);
             }
             //continue looking for a maximum independent set, skipping the vertex at the current depth as it intersected with the current selection
-            fill(vertices, predicate, weight, selected, selectedCount, depth + 1, maximum, maximumSize, maximumWeight);
+            fill(vertices, count, size, adjacency, weights, selected, selectedCount, selectedWeight, depth + 1, workspace);
             return;
         }
-        //reached leaf node for path, accumulate weight of independent vertices
-        double pathWeight = 0;
-        for (int i = 0; i < selectedCount; i++) {
-            pathWeight += weight.applyAsDouble(vertices.get(selected[i]));
-        }
-        if (pathWeight > maximumWeight[0]) {
-            System.arraycopy(selected, 0, maximum, 0, selectedCount);
-            maximumWeight[0] = pathWeight;
-            maximumSize[0] = selectedCount;
+        //reached leaf node for path, the weight of the independent vertices is accumulated along the path
+        workspace.leaf();
+        if (selectedWeight > workspace.maximumWeight) {
+            System.arraycopy(selected, 0, workspace.maximum, 0, selectedCount);
+            workspace.maximumWeight = selectedWeight;
+            workspace.maximumSize = selectedCount;
         }
     }
 }
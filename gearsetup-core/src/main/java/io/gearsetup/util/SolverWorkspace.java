@@ -0,0 +1,538 @@
+package io.gearsetup.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A representation of the reusable buffers used by the solvers when finding
+ * <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent sets</a>
+ * and optimal gear setups.
+ * <p>
+ * Every buffer is a primitive array that grows to the largest problem solved using the {@link SolverWorkspace} and is
+ * reused by every later solve, so in the steady state a solve only allocates its result.
+ * <p>
+ * A {@link SolverWorkspace} is not thread-safe and can only be used by a single solve at a time. A solve acquires the
+ * workspace using {@link SolverWorkspace#acquire()} and releases it using {@link SolverWorkspace#close()}.
+ * {@link SolverWorkspace#local()} provides a workspace per thread that is shared by every solve on the thread.
+ * <p>
+ * Searches using a {@link SolverWorkspace} periodically check if the current thread has been interrupted and throw a
+ * {@link CancellationException} if so, which allows long searches to be cancelled.
+ * <p>
+ * The search counters of the latest solve (e.g. {@link SolverWorkspace#getNodesVisited()}) are reset each time the
+ * workspace is acquired and remain readable after the workspace is released.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code try (SolverWorkspace workspace = SolverWorkspace.local().acquire()) { ... }}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class SolverWorkspace implements AutoCloseable {
+    private static final int INITIAL_CAPACITY = 16;
+    //number of search nodes between checks for thread interruption, minus one
+    private static final long INTERRUPT_CHECK_INTERVAL = (1 << 12) - 1;
+    private static final ThreadLocal<SolverWorkspace> LOCAL = ThreadLocal.withInitial(SolverWorkspace::new);
+    private boolean acquired;
+    private Object[] vertices = new Object[INITIAL_CAPACITY];
+    private int vertexCount;
+    private double[] weights = new double[INITIAL_CAPACITY];
+    private int[] masks = new int[INITIAL_CAPACITY];
+    private int[] indices = new int[INITIAL_CAPACITY];
+    private int[] table = new int[0];
+    private boolean[] adjacency = new boolean[INITIAL_CAPACITY * INITIAL_CAPACITY];
+    //buffers for the maximum-weight independent set algorithms
+    int[] selected = new int[INITIAL_CAPACITY];
+    int[] maximum = new int[INITIAL_CAPACITY];
+    int[] order = new int[INITIAL_CAPACITY];
+    int[] stack = new int[INITIAL_CAPACITY];
+    boolean[] visited = new boolean[INITIAL_CAPACITY];
+    int maximumSize;
+    double maximumWeight;
+    //buffers for the approximate maximum-weight independent set algorithm
+    int[] tightness = new int[INITIAL_CAPACITY];
+    boolean[] chosen = new boolean[INITIAL_CAPACITY];
+    double[] keys = new double[INITIAL_CAPACITY];
+    int[] sorted = new int[INITIAL_CAPACITY];
+    int[] candidates = new int[INITIAL_CAPACITY];
+    int[] cliqueHeads = new int[INITIAL_CAPACITY];
+    int[] cliqueNext = new int[INITIAL_CAPACITY];
+    //buffers for the bitset maximum-weight independent set algorithm
+    long[] rows = new long[0];
+    long[] sets = new long[0];
+    int[] branchOrder = new int[INITIAL_CAPACITY];
+    double[] branchBounds = new double[INITIAL_CAPACITY];
+    //buffers for the tree decomposition maximum-weight independent set algorithm
+    int[][] eliminationNeighbors = new int[INITIAL_CAPACITY][];
+    int[] eliminationNeighborCount = new int[INITIAL_CAPACITY];
+    int[] eliminationDegree = new int[INITIAL_CAPACITY];
+    int[] eliminationOrder = new int[INITIAL_CAPACITY];
+    int[] eliminationPosition = new int[INITIAL_CAPACITY];
+    int[] eliminationFill = new int[INITIAL_CAPACITY];
+    boolean[] eliminated = new boolean[INITIAL_CAPACITY];
+    boolean[] eliminationStale = new boolean[INITIAL_CAPACITY];
+    boolean[] eliminationIncluded = new boolean[INITIAL_CAPACITY];
+    int[] scopes = new int[0];
+    int[] scopeWidths = new int[INITIAL_CAPACITY];
+    int[] bucketHeads = new int[INITIAL_CAPACITY];
+    int[] tableNext = new int[INITIAL_CAPACITY];
+    int[] tableBits = new int[INITIAL_CAPACITY];
+    double[][] tables = new double[INITIAL_CAPACITY][];
+    int[] decisionOffsets = new int[INITIAL_CAPACITY];
+    long[] decisions = new long[0];
+    private double[][] freeTables = new double[INITIAL_CAPACITY][];
+    private int freeTableCount;
+    //buffers for the kernelization of a component
+    boolean[] alive = new boolean[INITIAL_CAPACITY];
+    int[] degree = new int[INITIAL_CAPACITY];
+    double[] reduced = new double[INITIAL_CAPACITY];
+    int[] kernel = new int[INITIAL_CAPACITY];
+    int[] forced = new int[INITIAL_CAPACITY];
+    int[] foldKept = new int[INITIAL_CAPACITY];
+    int[] foldRemoved = new int[INITIAL_CAPACITY];
+    boolean[] lifted = new boolean[INITIAL_CAPACITY];
+    int forcedCount;
+    int foldCount;
+    double foldedWeight;
+    //search budget of the latest solve
+    private long nodeLimit = Long.MAX_VALUE;
+    private boolean deadlined;
+    private long deadline;
+    boolean exhausted;
+    double upperBound;
+    boolean exact = true;
+    //search counters of the latest solve
+    long nodes;
+    long leaves;
+    private int[] componentSizes = new int[INITIAL_CAPACITY];
+    private int componentCount;
+
+    /**
+     * Finds the {@link SolverWorkspace} of the current thread.
+     * <p>
+     * If the workspace of the current thread is already acquired (e.g. a weighting function that itself solves a
+     * maximum-weight independent set), a new {@link SolverWorkspace} is returned instead.
+     *
+     * @return the workspace of the current thread or a new workspace if it is already acquired
+     */
+    public static SolverWorkspace local() {
+        SolverWorkspace workspace = LOCAL.get();
+        return workspace.acquired ? new SolverWorkspace() : workspace;
+    }
+
+    /**
+     * Acquires the {@link SolverWorkspace} for a single solve.
+     *
+     * @return this workspace
+     * @throws IllegalStateException indicating the workspace is already acquired by another solve
+     */
+    public SolverWorkspace acquire() {
+        if (acquired) {
+            throw new IllegalStateException("Solver workspace is already acquired.");
+        }
+        acquired = true;
+        nodes = 0;
+        leaves = 0;
+        componentCount = 0;
+        nodeLimit = Long.MAX_VALUE;
+        deadlined = false;
+        exhausted = false;
+        upperBound = 0;
+        exact = true;
+        return this;
+    }
+
+    /**
+     * Releases the {@link SolverWorkspace} so it can be acquired by another solve.
+     * <p>
+     * All vertices referenced by the workspace are cleared so they can be garbage collected.
+     */
+    @Override
+    public void close() {
+        Arrays.fill(vertices, 0, vertexCount, null);
+        vertexCount = 0;
+        acquired = false;
+    }
+
+    /**
+     * Provides a buffer to hold the vertices of a solve.
+     * <p>
+     * The buffer is cleared when the {@link SolverWorkspace} is released.
+     *
+     * @param size the number of vertices
+     * @return a buffer with a length of at least {@code size}
+     */
+    public Object[] vertices(int size) {
+        if (vertices.length < size) {
+            vertices = new Object[capacity(vertices.length, size)];
+        }
+        vertexCount = Math.max(vertexCount, size);
+        return vertices;
+    }
+
+    /**
+     * Provides a buffer to hold the weight of each vertex of a solve.
+     *
+     * @param size the number of vertices
+     * @return a buffer with a length of at least {@code size}
+     */
+    public double[] weights(int size) {
+        if (weights.length < size) {
+            weights = new double[capacity(weights.length, size)];
+        }
+        return weights;
+    }
+
+    /**
+     * Provides a buffer to hold a bit mask for each vertex of a solve.
+     *
+     * @param size the number of vertices
+     * @return a buffer with a length of at least {@code size}
+     */
+    public int[] masks(int size) {
+        if (masks.length < size) {
+            masks = new int[capacity(masks.length, size)];
+        }
+        return masks;
+    }
+
+    /**
+     * Provides a buffer to hold vertex indices of a solve.
+     *
+     * @param size the number of vertex indices
+     * @return a buffer with a length of at least {@code size}
+     */
+    public int[] indices(int size) {
+        if (indices.length < size) {
+            indices = new int[capacity(indices.length, size)];
+        }
+        return indices;
+    }
+
+    /**
+     * Provides a lookup table where every entry is {@code -1}.
+     * <p>
+     * The caller is responsible for resetting every entry it modifies back to {@code -1} before releasing the
+     * {@link SolverWorkspace}, so the table never needs to be cleared in full.
+     *
+     * @param size the number of entries
+     * @return a table with a length of at least {@code size} where every entry is {@code -1}
+     */
+    public int[] table(int size) {
+        if (table.length < size) {
+            table = new int[size];
+            Arrays.fill(table, -1);
+        }
+        return table;
+    }
+
+    /**
+     * Provides a buffer to hold the adjacency matrix of a graph of the specified size, where the edge between the vertex
+     * at index {@code i} and the vertex at index {@code j} is at {@code i * size + j}.
+     * <p>
+     * The buffer is not cleared, so the caller is responsible for writing every entry of the adjacency matrix.
+     *
+     * @param size the number of vertices
+     * @return a buffer with a length of at least {@code size * size}
+     */
+    public boolean[] adjacency(int size) {
+        if (adjacency.length < size * size) {
+            adjacency = new boolean[capacity(adjacency.length, size * size)];
+        }
+        return adjacency;
+    }
+
+    /**
+     * Ensures the buffers for the maximum-weight independent set algorithms can hold the specified number of vertices.
+     * <p>
+     * {@link SolverWorkspace#visited} is cleared for the first {@code size} vertices.
+     *
+     * @param size the number of vertices
+     */
+    void ensureSearchCapacity(int size) {
+        if (selected.length < size) {
+            int capacity = capacity(selected.length, size);
+            selected = new int[capacity];
+            maximum = new int[capacity];
+            order = new int[capacity];
+            stack = new int[capacity];
+            visited = new boolean[capacity];
+            tightness = new int[capacity];
+            chosen = new boolean[capacity];
+            keys = new double[capacity];
+            sorted = new int[capacity];
+            candidates = new int[capacity];
+            cliqueHeads = new int[capacity];
+            cliqueNext = new int[capacity];
+            alive = new boolean[capacity];
+            degree = new int[capacity];
+            reduced = new double[capacity];
+            kernel = new int[capacity];
+            forced = new int[capacity];
+            foldKept = new int[capacity];
+            foldRemoved = new int[capacity];
+            lifted = new boolean[capacity];
+        }
+        Arrays.fill(visited, 0, size, false);
+    }
+
+    /**
+     * Ensures the bitset buffers can hold the adjacency rows and the candidate sets of a search over the specified
+     * number of vertices, where each bitset has {@code words} 64-bit words.
+     *
+     * @param count the number of vertices
+     * @param words the number of words in each bitset
+     */
+    void ensureBitsetCapacity(int count, int words) {
+        if (rows.length < count * words) {
+            rows = new long[capacity(rows.length, count * words)];
+        }
+        //a candidate set for each depth of the search and two scratch sets for the clique cover
+        if (sets.length < (count + 3) * words) {
+            sets = new long[capacity(sets.length, (count + 3) * words)];
+        }
+    }
+
+    /**
+     * Ensures the branching buffers can hold the specified number of branches.
+     *
+     * @param size the number of branches
+     */
+    void ensureBranchCapacity(int size) {
+        if (branchOrder.length < size) {
+            int capacity = capacity(branchOrder.length, size);
+            branchOrder = Arrays.copyOf(branchOrder, capacity);
+            branchBounds = Arrays.copyOf(branchBounds, capacity);
+        }
+    }
+
+    /**
+     * Ensures the tree decomposition buffers can hold the elimination of the specified number of vertices, where each
+     * vertex is eliminated with at most the specified number of remaining neighbors.
+     *
+     * @param count        the number of vertices
+     * @param maximumWidth the maximum number of remaining neighbors of an eliminated vertex
+     */
+    void ensureDecompositionCapacity(int count, int maximumWidth) {
+        if (eliminationOrder.length < count) {
+            int capacity = capacity(eliminationOrder.length, count);
+            //the neighbor lists of each vertex are kept, so their grown capacity is reused by later searches
+            eliminationNeighbors = Arrays.copyOf(eliminationNeighbors, capacity);
+            eliminationNeighborCount = new int[capacity];
+            eliminationDegree = new int[capacity];
+            eliminationOrder = new int[capacity];
+            eliminationPosition = new int[capacity];
+            eliminationFill = new int[capacity];
+            eliminated = new boolean[capacity];
+            eliminationStale = new boolean[capacity];
+            eliminationIncluded = new boolean[capacity];
+            scopeWidths = new int[capacity];
+            bucketHeads = new int[capacity];
+            tableNext = new int[capacity];
+            tableBits = new int[capacity];
+            tables = new double[capacity][];
+            decisionOffsets = new int[capacity];
+        }
+        int stride = Math.max(1, maximumWidth);
+        if (scopes.length < count * stride) {
+            scopes = new int[capacity(scopes.length, count * stride)];
+        }
+    }
+
+    /**
+     * Ensures the decision buffer of the tree decomposition can hold the specified number of 64-bit words, keeping the
+     * decisions already recorded.
+     *
+     * @param words the number of words
+     */
+    void ensureDecisionCapacity(int words) {
+        if (decisions.length < words) {
+            decisions = Arrays.copyOf(decisions, capacity(decisions.length, words));
+        }
+    }
+
+    /**
+     * Takes a table of the tree decomposition from the pool of released tables, growing it if it is too short.
+     *
+     * @param length the number of entries of the table
+     * @return a table with a length of at least {@code length}, whose entries are not cleared
+     */
+    double[] acquireTable(int length) {
+        double[] table = freeTableCount > 0 ? freeTables[--freeTableCount] : null;
+        return table == null || table.length < length ? new double[Math.max(length, INITIAL_CAPACITY)] : table;
+    }
+
+    /**
+     * Returns a table of the tree decomposition to the pool, so it can be reused by a later table of any solve.
+     *
+     * @param table the table to release
+     */
+    void releaseTable(double[] table) {
+        if (freeTableCount == freeTables.length) {
+            freeTables = Arrays.copyOf(freeTables, capacity(freeTables.length, freeTableCount + 1));
+        }
+        freeTables[freeTableCount++] = table;
+    }
+
+    /**
+     * Counts a node of a search and periodically checks if the current thread has been interrupted, so long searches
+     * can be cancelled.
+     *
+     * @throws CancellationException indicating the current thread has been interrupted
+     */
+    void visit() {
+        if (++nodes >= nodeLimit) {
+            exhausted = true;
+        }
+        if ((nodes & INTERRUPT_CHECK_INTERVAL) == 0) {
+            checkInterrupted();
+        }
+    }
+
+    /**
+     * Counts the specified number of search nodes at once, which charges linear scans performed by a search to its
+     * budget, and checks if the current thread has been interrupted whenever the count crosses a check interval.
+     *
+     * @param count the number of search nodes
+     * @throws CancellationException indicating the current thread has been interrupted
+     */
+    void visit(int count) {
+        long previous = nodes;
+        nodes += count;
+        if (nodes >= nodeLimit) {
+            exhausted = true;
+        }
+        if ((previous | INTERRUPT_CHECK_INTERVAL) != (nodes | INTERRUPT_CHECK_INTERVAL)) {
+            checkInterrupted();
+        }
+    }
+
+    /**
+     * Checks if the current thread has been interrupted and if the deadline of the current solve has passed.
+     *
+     * @throws CancellationException indicating the current thread has been interrupted
+     */
+    private void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Solve was interrupted.");
+        }
+        if (deadlined && System.nanoTime() - deadline >= 0) {
+            exhausted = true;
+        }
+    }
+
+    /**
+     * Limits the searches of the current solve to the specified number of additional search nodes and duration, after
+     * which {@link SolverWorkspace#exhausted} is set.
+     *
+     * @param nodeBudget the number of additional search nodes
+     * @param timeBudget the duration of the searches or {@link Optional#empty()} if the searches have no time limit
+     */
+    void limit(long nodeBudget, Optional<Duration> timeBudget) {
+        nodeLimit = nodes + nodeBudget < nodes ? Long.MAX_VALUE : nodes + nodeBudget;
+        deadlined = timeBudget.isPresent();
+        deadline = deadlined ? System.nanoTime() + timeBudget.get().toNanos() : 0;
+        exhausted = false;
+    }
+
+    /**
+     * Counts a leaf of a search, where a complete independent set has been selected.
+     */
+    void leaf() {
+        leaves++;
+    }
+
+    /**
+     * Records the size of a connected component processed by a search.
+     *
+     * @param size the number of vertices in the component
+     */
+    void component(int size) {
+        if (componentSizes.length == componentCount) {
+            componentSizes = Arrays.copyOf(componentSizes, capacity(componentSizes.length, componentCount + 1));
+        }
+        componentSizes[componentCount++] = size;
+    }
+
+    /**
+     * Represents the number of nodes visited by the searches of the latest solve using the {@link SolverWorkspace}.
+     *
+     * @return the number of search nodes visited
+     */
+    public long getNodesVisited() {
+        return nodes;
+    }
+
+    /**
+     * Represents the number of leaves reached by the searches of the latest solve using the {@link SolverWorkspace},
+     * where each leaf is a complete independent set that was compared against the maximum-weight independent set.
+     *
+     * @return the number of search leaves reached
+     */
+    public long getLeavesReached() {
+        return leaves;
+    }
+
+    /**
+     * Represents the number of connected components processed by the latest solve using the {@link SolverWorkspace}.
+     *
+     * @return the number of connected components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Represents the number of vertices in a connected component processed by the latest solve using the
+     * {@link SolverWorkspace}, in the order the components were processed.
+     *
+     * @param index the index of the component in {@code [0, getComponentCount())}
+     * @return the number of vertices in the component
+     * @throws IndexOutOfBoundsException indicating the index is not the index of a processed component
+     */
+    public int getComponentSize(int index) {
+        if (index < 0 || index >= componentCount) {
+            throw new IndexOutOfBoundsException("Component index " + index + " is out of bounds for " + componentCount + " components.");
+        }
+        return componentSizes[index];
+    }
+
+    /**
+     * Represents the upper bound on the weight of the maximum-weight independent set of the latest search using an
+     * {@link IndependentSetStrategy} with the {@link SolverWorkspace}.
+     *
+     * @return the upper bound of the maximum weight
+     * @see IndependentSetSolution#getUpperBound()
+     */
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Represents whether every component of the latest search using an {@link IndependentSetStrategy} with the
+     * {@link SolverWorkspace} was searched exactly within the budget.
+     *
+     * @return {@code true} if the latest search found a maximum-weight independent set
+     * @see IndependentSetSolution#isExact()
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Calculates the capacity of a grown buffer, doubling the current capacity until the required size fits.
+     *
+     * @param current  the current capacity of the buffer
+     * @param required the required capacity of the buffer
+     * @return the new capacity of the buffer
+     */
+    private static int capacity(int current, int required) {
+        int capacity = Math.max(current, INITIAL_CAPACITY);
+        while (capacity < required && capacity > 0) {
+            capacity <<= 1;
+        }
+        return capacity < required ? required : capacity;
+    }
+}
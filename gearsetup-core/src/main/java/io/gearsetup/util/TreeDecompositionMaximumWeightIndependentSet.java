@@ -0,0 +1,414 @@
+package io.gearsetup.util;
+
+import com.google.common.collect.ImmutableSet;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A utility class providing an implementation of
+ * <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+ * that runs in polynomial time on graphs of bounded <a href="https://en.wikipedia.org/wiki/Treewidth">treewidth</a>.
+ * <p>
+ * A heuristic <a href="https://en.wikipedia.org/wiki/Tree_decomposition">tree decomposition</a> is built from an
+ * {@link EliminationOrdering}, and the maximum-weight independent set is found by
+ * <a href="https://en.wikipedia.org/wiki/Bucket_elimination">bucket elimination</a>, which is the dynamic program over
+ * the bags of the tree decomposition. Eliminating a vertex {@code v} combines every table that contains {@code v} into
+ * a table over the remaining neighbors of {@code v}, holding the maximum weight of the eliminated vertices for each
+ * assignment of the remaining neighbors, and records whether {@code v} is included for each assignment. The independent
+ * set is then recovered by replaying the recorded choices in reverse elimination order.
+ * <p>
+ * Each table has {@code 2^k} entries for {@code k} remaining neighbors, so the search is abandoned as soon as a vertex
+ * would be eliminated with more remaining neighbors than the maximum width, leaving the graph to another algorithm.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+public class TreeDecompositionMaximumWeightIndependentSet {
+    /**
+     * Finds the <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+     * of the specified vertices, edge predicate, and weighting function if the graph has a tree decomposition of at most
+     * the specified width using the specified {@link EliminationOrdering}.
+     * <p>
+     * The edge predicate is tested once for each pair of vertices and the weighting function is applied once for each
+     * vertex before performing the search.
+     *
+     * @param vertices     the vertices of the graph to consider when finding the maximum-weight independent set
+     * @param predicate    the edge predicate for determine if two vertices have an edge
+     * @param weight       the weighting function for each vertex
+     * @param maximumWidth the maximum width of the tree decomposition
+     * @param ordering     the heuristic for building the tree decomposition
+     * @param <T>          the type of vertex being used for finding maximum-weight independent set
+     * @return the independent set of vertices that maximize the weight function or {@link Optional#empty()} if a tree
+     * decomposition of at most the maximum width was not found
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<Set<T>> find(@NonNull Set<T> vertices, @NonNull BiPredicate<T, T> predicate, @NonNull ToDoubleFunction<T> weight,
+                                     int maximumWidth, @NonNull EliminationOrdering ordering) {
+        try (SolverWorkspace workspace = SolverWorkspace.local().acquire()) {
+            int size = vertices.size();
+            Object[] values = workspace.vertices(size);
+            double[] weights = workspace.weights(size);
+            boolean[] adjacency = workspace.adjacency(size);
+            int[] indices = workspace.indices(size);
+            int index = 0;
+            for (T vertex : vertices) {
+                values[index] = vertex;
+                indices[index] = index;
+                weights[index++] = weight.applyAsDouble(vertex);
+            }
+            for (int i = 0; i < size; i++) {
+                adjacency[i * size + i] = false;
+                for (int j = 0; j < i; j++) {
+                    boolean edge = predicate.test((T) values[i], (T) values[j]);
+                    adjacency[i * size + j] = edge;
+                    adjacency[j * size + i] = edge;
+                }
+            }
+            workspace.ensureSearchCapacity(size);
+            int[] result = workspace.order;
+            int count = search(indices, size, size, adjacency, weights, result, 0, maximumWidth, ordering, workspace);
+            if (count < 0) {
+                return Optional.empty();
+            }
+            ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+            for (int i = 0; i < count; i++) {
+                builder.add((T) values[result[i]]);
+            }
+            return Optional.of(builder.build());
+        }
+    }
+
+    /**
+     * Searches for the maximum-weight independent set of the specified subset of vertices of a graph using a tree
+     * decomposition of at most the specified width and appends the vertices of the maximum-weight independent set to the
+     * result buffer.
+     * <p>
+     * Each table entry is a search node of the {@link SolverWorkspace}, so the search is abandoned once the budget is exhausted.
+     *
+     * @param vertices     the subset of vertices to search
+     * @param count        the number of vertices in the subset
+     * @param size         the number of vertices in the graph
+     * @param adjacency    the adjacency matrix of the graph
+     * @param weights      the weight of each vertex in the graph
+     * @param result       the buffer to hold the indices of the maximum-weight independent set
+     * @param offset       the index in the result buffer to begin appending the maximum-weight independent set
+     * @param maximumWidth the maximum width of the tree decomposition
+     * @param ordering     the heuristic for building the tree decomposition
+     * @param workspace    the workspace tracking the budget of the search
+     * @return the index in the result buffer after the appended maximum-weight independent set or {@code -1} if a tree
+     * decomposition of at most the maximum width was not found or the budget was exhausted
+     */
+    int search(int[] vertices, int count, int size, boolean[] adjacency, double[] weights, int[] result, int offset,
+               int maximumWidth, EliminationOrdering ordering, SolverWorkspace workspace) {
+        workspace.ensureDecompositionCapacity(count, maximumWidth);
+        //vertices are renumbered to [0, count) for the duration of the search
+        int[][] neighbors = workspace.eliminationNeighbors;
+        int[] neighborCount = workspace.eliminationNeighborCount;
+        int[] degree = workspace.eliminationDegree;
+        for (int i = 0; i < count; i++) {
+            int row = vertices[i] * size;
+            int[] adjacent = neighbors[i] == null ? new int[4] : neighbors[i];
+            int adjacentCount = 0;
+            for (int j = 0; j < count; j++) {
+                if (adjacency[row + vertices[j]]) {
+                    if (adjacentCount == adjacent.length) {
+                        adjacent = Arrays.copyOf(adjacent, adjacentCount << 1);
+                    }
+                    adjacent[adjacentCount++] = j;
+                }
+            }
+            neighbors[i] = adjacent;
+            neighborCount[i] = adjacentCount;
+            degree[i] = adjacentCount;
+        }
+        int[] order = workspace.eliminationOrder;
+        //the remaining neighbors of each vertex when it is eliminated are stored in a slice of maximum width
+        int[] scopes = workspace.scopes;
+        int[] scopeWidths = workspace.scopeWidths;
+        int stride = Math.max(1, maximumWidth);
+        if (!eliminate(neighbors, neighborCount, degree, order, scopes, scopeWidths, stride, count, maximumWidth, ordering, workspace)) {
+            return -1;
+        }
+        int[] position = workspace.eliminationPosition;
+        for (int step = 0; step < count; step++) {
+            position[order[step]] = step;
+        }
+        //each vertex records whether it is included for each assignment of its scope in its own words of the decisions
+        int[] decisionOffsets = workspace.decisionOffsets;
+        int decisionWords = 0;
+        //tables waiting to be combined, bucketed by the earliest eliminated vertex of their scope and held by the step that created them
+        double[][] tables = workspace.tables;
+        int[] bucketHeads = workspace.bucketHeads;
+        int[] tableNext = workspace.tableNext;
+        Arrays.fill(bucketHeads, 0, count, -1);
+        //bit of each vertex within the combined table of the vertex being eliminated
+        int[] bits = workspace.tableBits;
+        for (int step = 0; step < count; step++) {
+            int vertex = order[step];
+            int scope = vertex * stride;
+            int width = scopeWidths[vertex];
+            int row = vertices[vertex] * size;
+            int conflicts = 0;
+            for (int i = 0; i < width; i++) {
+                bits[scopes[scope + i]] = i;
+                if (adjacency[row + vertices[scopes[scope + i]]]) {
+                    conflicts |= 1 << i;
+                }
+            }
+            bits[vertex] = width;
+            int length = 1 << width;
+            double[] table = workspace.acquireTable(length);
+            int words = Math.max(1, length >>> 6);
+            workspace.ensureDecisionCapacity(decisionWords + words);
+            long[] decisions = workspace.decisions;
+            int decision = decisionWords;
+            Arrays.fill(decisions, decision, decision + words, 0);
+            decisionOffsets[vertex] = decision;
+            decisionWords += words;
+            double weight = weights[vertices[vertex]];
+            for (int assignment = 0; assignment < length; assignment++) {
+                workspace.visit();
+                if (workspace.exhausted) {
+                    workspace.releaseTable(table);
+                    releaseTables(tables, step, workspace);
+                    return -1;
+                }
+                double excluded = 0;
+                double included = weight;
+                for (int t = bucketHeads[vertex]; t >= 0; t = tableNext[t]) {
+                    int tableScope = order[t] * stride;
+                    int tableWidth = scopeWidths[order[t]];
+                    int index = 0;
+                    int vertexBit = 0;
+                    for (int i = 0; i < tableWidth; i++) {
+                        int bit = bits[scopes[tableScope + i]];
+                        if (bit == width) {
+                            vertexBit = 1 << i;
+                        } else {
+                            index |= ((assignment >>> bit) & 1) << i;
+                        }
+                    }
+                    excluded += tables[t][index];
+                    included += tables[t][index | vertexBit];
+                }
+                //the vertex can only be included when none of its remaining neighbors in the original graph are included
+                if ((assignment & conflicts) == 0 && included > excluded) {
+                    table[assignment] = included;
+                    decisions[decision + (assignment >>> 6)] |= 1L << assignment;
+                } else {
+                    table[assignment] = excluded;
+                }
+            }
+            //the combined table replaces the tables of the eliminated vertex in the bucket of its earliest scope vertex
+            for (int t = bucketHeads[vertex]; t >= 0; t = tableNext[t]) {
+                workspace.releaseTable(tables[t]);
+                tables[t] = null;
+            }
+            if (width > 0) {
+                int earliest = scopes[scope];
+                for (int i = 1; i < width; i++) {
+                    if (position[scopes[scope + i]] < position[earliest]) {
+                        earliest = scopes[scope + i];
+                    }
+                }
+                tables[step] = table;
+                tableNext[step] = bucketHeads[earliest];
+                bucketHeads[earliest] = step;
+            } else {
+                workspace.releaseTable(table);
+            }
+        }
+        //replay the decisions in reverse elimination order, as the scope of each vertex is eliminated after it
+        long[] decisions = workspace.decisions;
+        boolean[] included = workspace.eliminationIncluded;
+        for (int step = count - 1; step >= 0; step--) {
+            int vertex = order[step];
+            int scope = vertex * stride;
+            int assignment = 0;
+            for (int i = 0; i < scopeWidths[vertex]; i++) {
+                if (included[scopes[scope + i]]) {
+                    assignment |= 1 << i;
+                }
+            }
+            included[vertex] = (decisions[decisionOffsets[vertex] + (assignment >>> 6)] & (1L << assignment)) != 0;
+        }
+        for (int i = 0; i < count; i++) {
+            if (included[i]) {
+                result[offset++] = vertices[i];
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the tables still waiting to be combined to the pool of the {@link SolverWorkspace} when a search is abandoned.
+     *
+     * @param tables    the tables held by each step of the elimination
+     * @param steps     the number of steps that have created a table
+     * @param workspace the workspace holding the pool of tables
+     */
+    private void releaseTables(double[][] tables, int steps, SolverWorkspace workspace) {
+        for (int step = 0; step < steps; step++) {
+            if (tables[step] != null) {
+                workspace.releaseTable(tables[step]);
+                tables[step] = null;
+            }
+        }
+    }
+
+    /**
+     * Builds the elimination ordering of the graph, recording the remaining neighbors of each vertex when it is eliminated.
+     *
+     * @param neighbors     the neighbors of each vertex, which gain the fill edges added by each elimination
+     * @param neighborCount the number of neighbors of each vertex, including eliminated neighbors
+     * @param degree        the number of remaining neighbors of each vertex
+     * @param order         the buffer to hold the elimination ordering
+     * @param scopes        the buffer to hold the remaining neighbors of each vertex when it is eliminated
+     * @param scopeWidths   the buffer to hold the number of remaining neighbors of each vertex when it is eliminated
+     * @param stride        the length of the slice of the scopes buffer of each vertex
+     * @param count         the number of vertices
+     * @param maximumWidth  the maximum number of remaining neighbors of an eliminated vertex
+     * @param ordering      the heuristic for choosing the next vertex to eliminate
+     * @param workspace     the workspace providing the scratch buffers of the elimination
+     * @return {@code true} if every vertex was eliminated with at most the maximum width remaining neighbors
+     */
+    private boolean eliminate(int[][] neighbors, int[] neighborCount, int[] degree, int[] order, int[] scopes, int[] scopeWidths,
+                              int stride, int count, int maximumWidth, EliminationOrdering ordering, SolverWorkspace workspace) {
+        boolean[] eliminated = workspace.eliminated;
+        Arrays.fill(eliminated, 0, count, false);
+        boolean minimumFill = ordering == EliminationOrdering.MIN_FILL;
+        //fill of each vertex is cached and only recalculated when the neighborhood of the vertex changes
+        int[] fill = workspace.eliminationFill;
+        boolean[] stale = workspace.eliminationStale;
+        Arrays.fill(stale, 0, count, true);
+        for (int step = 0; step < count; step++) {
+            int next = -1;
+            for (int vertex = 0; vertex < count; vertex++) {
+                if (eliminated[vertex] || degree[vertex] > maximumWidth) {
+                    continue;
+                }
+                if (minimumFill && stale[vertex]) {
+                    fill[vertex] = fill(vertex, neighbors, neighborCount, eliminated);
+                    stale[vertex] = false;
+                }
+                if (next < 0 || (minimumFill && fill[vertex] < fill[next])
+                        || ((!minimumFill || fill[vertex] == fill[next]) && degree[vertex] < degree[next])) {
+                    next = vertex;
+                }
+            }
+            //every remaining vertex would exceed the maximum width
+            if (next < 0) {
+                return false;
+            }
+            int scope = next * stride;
+            int width = 0;
+            for (int i = 0; i < neighborCount[next]; i++) {
+                int neighbor = neighbors[next][i];
+                if (!eliminated[neighbor]) {
+                    scopes[scope + width++] = neighbor;
+                }
+            }
+            eliminated[next] = true;
+            order[step] = next;
+            scopeWidths[next] = width;
+            //connect the remaining neighbors, which changes the fill of the neighbors and their neighbors
+            for (int i = 0; i < width; i++) {
+                int one = scopes[scope + i];
+                degree[one]--;
+                stale[one] = true;
+                for (int j = 0; j < i; j++) {
+                    int two = scopes[scope + j];
+                    if (!adjacent(one, two, neighbors, neighborCount)) {
+                        addNeighbor(one, two, neighbors, neighborCount, degree);
+                        addNeighbor(two, one, neighbors, neighborCount, degree);
+                    }
+                }
+            }
+            if (minimumFill) {
+                for (int i = 0; i < width; i++) {
+                    int one = scopes[scope + i];
+                    for (int j = 0; j < neighborCount[one]; j++) {
+                        stale[neighbors[one][j]] = true;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the edges that would be added between the remaining neighbors of the specified vertex if it was eliminated.
+     *
+     * @param vertex        the vertex to count the fill of
+     * @param neighbors     the neighbors of each vertex
+     * @param neighborCount the number of neighbors of each vertex
+     * @param eliminated    whether each vertex has been eliminated
+     * @return the number of missing edges between the remaining neighbors of the vertex
+     */
+    private int fill(int vertex, int[][] neighbors, int[] neighborCount, boolean[] eliminated) {
+        int fill = 0;
+        int[] adjacent = neighbors[vertex];
+        for (int i = 0; i < neighborCount[vertex]; i++) {
+            int one = adjacent[i];
+            if (eliminated[one]) {
+                continue;
+            }
+            for (int j = 0; j < i; j++) {
+                int two = adjacent[j];
+                if (!eliminated[two] && !adjacent(one, two, neighbors, neighborCount)) {
+                    fill++;
+                }
+            }
+        }
+        return fill;
+    }
+
+    /**
+     * Determines if the two specified vertices are adjacent, including fill edges.
+     *
+     * @param one           the first vertex
+     * @param two           the second vertex
+     * @param neighbors     the neighbors of each vertex
+     * @param neighborCount the number of neighbors of each vertex
+     * @return {@code true} if the vertices are adjacent
+     */
+    private boolean adjacent(int one, int two, int[][] neighbors, int[] neighborCount) {
+        //scan the shorter adjacency list
+        if (neighborCount[one] > neighborCount[two]) {
+            int swap = one;
+            one = two;
+            two = swap;
+        }
+        int[] adjacent = neighbors[one];
+        for (int i = 0; i < neighborCount[one]; i++) {
+            if (adjacent[i] == two) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a fill edge to the neighbors of the specified vertex, growing the neighbors if necessary.
+     *
+     * @param vertex        the vertex
+     * @param neighbor      the new neighbor of the vertex
+     * @param neighbors     the neighbors of each vertex
+     * @param neighborCount the number of neighbors of each vertex
+     * @param degree        the number of remaining neighbors of each vertex
+     */
+    private void addNeighbor(int vertex, int neighbor, int[][] neighbors, int[] neighborCount, int[] degree) {
+        if (neighborCount[vertex] == neighbors[vertex].length) {
+            neighbors[vertex] = Arrays.copyOf(neighbors[vertex], Math.max(4, neighborCount[vertex] << 1));
+        }
+        neighbors[vertex][neighborCount[vertex]++] = neighbor;
+        degree[vertex]++;
+    }
+}
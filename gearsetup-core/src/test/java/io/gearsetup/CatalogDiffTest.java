@@ -0,0 +1,144 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CatalogDiff} finds the added, removed and changed {@link Equipment} and their affected masks, treats
+ * versions with the same values as unchanged regardless of their implementation, and rejects catalogs that are not in
+ * strictly ascending order of id.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class CatalogDiffTest {
+    private static final Equipment WHIP = equipment(4151, "Abyssal whip", EquipmentSlot.WEAPON, 82, 0, 0.453);
+    private static final Equipment HELM = equipment(3751, "Berserker helm", EquipmentSlot.HEAD, 0, 3, 2.721);
+    private static final Equipment BOOTS = equipment(11840, "Dragon boots", EquipmentSlot.FEET, 4, 0, 1.814);
+    private static final Equipment CAPE = equipment(6570, "Fire cape", EquipmentSlot.CAPE, 4, 2, 0.544);
+
+    @Test
+    public void findsAddedRemovedAndChangedEquipment() {
+        Equipment strongerWhip = equipment(4151, "Abyssal whip", EquipmentSlot.WEAPON, 86, 0, 0.453);
+        Equipment heavierBoots = equipment(11840, "Dragon boots", EquipmentSlot.FEET, 4, 0, 2.0);
+        CatalogDiff diff = CatalogDiff.compute(Arrays.asList(WHIP, HELM, BOOTS), Arrays.asList(heavierBoots, CAPE, strongerWhip));
+        assertFalse(diff.isEmpty());
+        assertEquals(Collections.singletonList(CAPE), diff.getAdded());
+        assertEquals(Collections.singletonList(HELM), diff.getRemoved());
+        List<EquipmentChange> changed = diff.getChanged();
+        assertEquals(2, changed.size());
+        //changes are in ascending order of id
+        assertEquals(WHIP, changed.get(0).getOlder());
+        assertEquals(strongerWhip, changed.get(0).getNewer());
+        assertEquals(EquipmentField.COMBAT_BONUSES.getMask(), changed.get(0).getFieldMask());
+        assertEquals(1 << CombatBonus.SLASH_ATTACK.ordinal() | 1 << CombatBonus.MELEE_STRENGTH.ordinal(), changed.get(0).getBonusMask());
+        assertEquals(heavierBoots, changed.get(1).getNewer());
+        assertEquals(EquipmentField.WEIGHT.getMask(), changed.get(1).getFieldMask());
+        assertEquals(0, changed.get(1).getBonusMask());
+        int slots = EquipmentSlot.WEAPON.getMask() | EquipmentSlot.HEAD.getMask() | EquipmentSlot.FEET.getMask() | EquipmentSlot.CAPE.getMask();
+        assertEquals(slots, diff.getAffectedSlotMask());
+        //the helm and cape affect their non-zero bonuses, the whip its changed bonuses, and the boots none
+        int bonuses = 1 << CombatBonus.SLASH_ATTACK.ordinal() | 1 << CombatBonus.MELEE_STRENGTH.ordinal() | 1 << CombatBonus.PRAYER.ordinal();
+        assertEquals(bonuses, diff.getAffectedBonusMask());
+    }
+
+    @Test
+    public void changedSlotsAffectEveryNonZeroBonus() {
+        Equipment offhandBoots = equipment(11840, "Dragon boots", EquipmentSlot.SHIELD, 4, 0, 1.814);
+        CatalogDiff diff = CatalogDiff.compute(Collections.singletonList(BOOTS), Collections.singletonList(offhandBoots));
+        EquipmentChange change = diff.getChanged().get(0);
+        assertEquals(EquipmentField.SLOTS.getMask(), change.getFieldMask());
+        assertEquals(0, change.getBonusMask());
+        assertEquals(EquipmentSlot.FEET.getMask() | EquipmentSlot.SHIELD.getMask(), diff.getAffectedSlotMask());
+        assertEquals(1 << CombatBonus.SLASH_ATTACK.ordinal() | 1 << CombatBonus.MELEE_STRENGTH.ordinal(), diff.getAffectedBonusMask());
+    }
+
+    @Test
+    public void equalCatalogsAreEmpty() {
+        CatalogDiff diff = CatalogDiff.compute(Arrays.asList(WHIP, HELM, BOOTS), Arrays.asList(BOOTS, WHIP, HELM));
+        assertTrue(diff.isEmpty());
+        assertEquals(0, diff.getAffectedSlotMask());
+        assertEquals(0, diff.getAffectedBonusMask());
+    }
+
+    @Test
+    public void storesWithTheSameContentAreUnchanged() {
+        List<Equipment> equipment = Arrays.asList(WHIP, HELM, BOOTS, CAPE);
+        try (EquipmentStore older = EquipmentStore.of(equipment); EquipmentStore newer = EquipmentStore.of(equipment)) {
+            //cursors of different stores are never equal, so the masks decide whether they changed
+            assertNotEquals(older.get(0), newer.get(0));
+            assertTrue(CatalogDiff.compute(older.getEquipment(), newer.getEquipment()).isEmpty());
+            assertTrue(CatalogDiff.compute(equipment, newer.getEquipment()).isEmpty());
+            List<Equipment> changed = new ArrayList<>(equipment);
+            changed.set(1, equipment(3751, "Berserker helm", EquipmentSlot.HEAD, 0, 3, 2.5));
+            try (EquipmentStore reweighed = EquipmentStore.of(changed)) {
+                CatalogDiff diff = CatalogDiff.compute(older.getEquipment(), reweighed.getEquipment());
+                assertEquals(1, diff.getChanged().size());
+                assertEquals(3751, diff.getChanged().get(0).getNewer().getId());
+                assertEquals(EquipmentField.WEIGHT.getMask(), diff.getChanged().get(0).getFieldMask());
+                assertEquals(EquipmentSlot.HEAD.getMask(), diff.getAffectedSlotMask());
+                assertEquals(0, diff.getAffectedBonusMask());
+            }
+        }
+    }
+
+    @Test
+    public void streamReportsEachDifference() {
+        List<String> events = new ArrayList<>();
+        CatalogDiff.stream(Arrays.asList(HELM, WHIP).iterator(), Arrays.asList(WHIP, CAPE).iterator(), new CatalogDiffListener() {
+            @Override
+            public void onAdded(Equipment equipment) {
+                events.add("added " + equipment.getId());
+            }
+
+            @Override
+            public void onRemoved(Equipment equipment) {
+                events.add("removed " + equipment.getId());
+            }
+
+            @Override
+            public void onChanged(EquipmentChange change) {
+                events.add("changed " + change.getNewer().getId());
+            }
+        });
+        assertEquals(Arrays.asList("removed 3751", "added 6570"), events);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void streamRejectsOutOfOrderIds() {
+        CatalogDiff.stream(Arrays.asList(WHIP, HELM).iterator(), Collections.emptyIterator(), new CatalogDiffListener() {
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void streamRejectsOutOfOrderIdsOfTheNewerCatalog() {
+        CatalogDiff.stream(Collections.emptyIterator(), Arrays.asList(CAPE, HELM).iterator(), new CatalogDiffListener() {
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void streamRejectsDuplicateIds() {
+        CatalogDiff.stream(Arrays.asList(HELM, HELM).iterator(), Collections.singletonList(HELM).iterator(), new CatalogDiffListener() {
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void computeRejectsDuplicateIds() {
+        CatalogDiff.compute(Collections.singletonList(WHIP), Arrays.asList(WHIP, equipment(4151, "Abyssal whip", EquipmentSlot.WEAPON, 86, 0, 0.453)));
+    }
+
+    private static Equipment equipment(int id, String name, EquipmentSlot slot, int strength, int prayer, double weight) {
+        CombatBonuses bonuses = CombatBonuses.of(AttackTypeBonuses.of(0, strength, 0, 0, 0), AttackTypeBonuses.of(0, 0, 0, 0, 0),
+                prayer, strength, 0, 0);
+        return Equipment.of(id, name, EnumSet.of(slot), bonuses, Optional.empty(), ImmutableSet.of(), weight);
+    }
+}
@@ -0,0 +1,69 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link CombatBonuses} of the {@link EquipmentStore} cursors match the packed {@link Equipment}, are decoded
+ * once per cursor, and are not readable once the store is closed.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class EquipmentStoreTest {
+    @Test
+    public void cursorsDecodeTheCombatBonuses() {
+        List<Equipment> equipment = randomEquipment(new Random(44), 50);
+        try (EquipmentStore store = EquipmentStore.of(equipment)) {
+            for (int index = 0; index < store.size(); index++) {
+                Equipment cursor = store.get(index);
+                assertEquals(equipment.get(index).getCombatBonuses(), cursor.getCombatBonuses());
+                for (CombatBonus bonus : CombatBonus.values()) {
+                    assertEquals(bonus.get(cursor.getCombatBonuses()), store.getBonus(index, bonus));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void cursorsCacheTheCombatBonuses() {
+        try (EquipmentStore store = EquipmentStore.of(randomEquipment(new Random(440), 5))) {
+            Equipment cursor = store.get(3);
+            assertSame(cursor.getCombatBonuses(), cursor.getCombatBonuses());
+            //every cursor decodes its own bonuses
+            assertNotSame(cursor.getCombatBonuses(), store.get(3).getCombatBonuses());
+            assertEquals(cursor.getCombatBonuses(), store.get(3).getCombatBonuses());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cachedCombatBonusesAreNotReadableOnceClosed() {
+        Equipment cursor;
+        try (EquipmentStore store = EquipmentStore.of(randomEquipment(new Random(4400), 5))) {
+            cursor = store.get(0);
+            cursor.getCombatBonuses();
+        }
+        cursor.getCombatBonuses();
+    }
+
+    private static List<Equipment> randomEquipment(Random random, int size) {
+        List<Equipment> equipment = new ArrayList<>();
+        for (int id = 0; id < size; id++) {
+            CombatBonuses bonuses = CombatBonuses.of(
+                    AttackTypeBonuses.of(random.nextInt(200) - 50, random.nextInt(200) - 50, random.nextInt(200) - 50, random.nextInt(200) - 50, random.nextInt(200) - 50),
+                    AttackTypeBonuses.of(random.nextInt(200) - 50, random.nextInt(200) - 50, random.nextInt(200) - 50, random.nextInt(200) - 50, random.nextInt(200) - 50),
+                    random.nextInt(10), random.nextInt(100), random.nextInt(100), random.nextInt(30));
+            equipment.add(Equipment.of(id, "equipment " + id, EnumSet.of(EquipmentSlot.values()[random.nextInt(EquipmentSlot.values().length)]),
+                    bonuses, Optional.empty(), ImmutableSet.of(), random.nextInt(100) / 10.0));
+        }
+        return equipment;
+    }
+}
@@ -0,0 +1,87 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the inventory knapsack of {@link OptimalLoadout} against a brute-force enumeration of the carried quantities,
+ * where stackable items are carried at their maximum quantity or not at all, and the bound on the states it records to reconstruct the inventory.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class OptimalLoadoutTest {
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void matchesBruteForceOnSmallInventories() {
+        Random random = new Random(38);
+        for (int trial = 0; trial < 300; trial++) {
+            List<InventoryCandidate> items = new ArrayList<>();
+            Map<InventoryCandidate, Double> values = new HashMap<>();
+            for (int id = 0; id < 1 + random.nextInt(3); id++) {
+                InventoryCandidate item = InventoryCandidate.builder()
+                        .setId(id)
+                        .setName("item " + id)
+                        .setWeight(random.nextInt(10) / 10.0)
+                        .setMaximumQuantity(1 + random.nextInt(random.nextBoolean() ? 4 : 30))
+                        .setStackable(random.nextInt(3) == 0)
+                        .build();
+                items.add(item);
+                values.put(item, (double) random.nextInt(10) - 2);
+            }
+            GearSetupConstraints constraints = GearSetupConstraints.builder().setWeightLimit(random.nextInt(40) / 10.0).build();
+            Loadout loadout = OptimalLoadout.find(ImmutableSet.of(), equipment -> 0, ImmutableSet.copyOf(items), values::get, constraints);
+            double carried = 0;
+            for (Map.Entry<InventoryCandidate, Integer> entry : loadout.getInventory().entrySet()) {
+                assertTrue(entry.getValue() <= entry.getKey().getMaximumQuantity());
+                carried += values.get(entry.getKey()) * entry.getValue();
+            }
+            assertTrue(loadout.getInventorySlotsUsed() <= OptimalLoadout.INVENTORY_SIZE);
+            assertTrue(loadout.getTotalWeight() <= constraints.getWeightLimit().getAsDouble() + EPSILON);
+            assertEquals(items + " within " + constraints.getWeightLimit(), bruteForce(items, values, constraints.getWeightLimit().getAsDouble()), carried, EPSILON);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInventoriesRecordingTooManyStates() {
+        //65,536 weights at the finest resolution, so 150 units record about 285 million states
+        Set<InventoryCandidate> items = new HashSet<>();
+        for (int id = 0; id < 30; id++) {
+            items.add(InventoryCandidate.builder().setId(id).setName("item " + id).setWeight(0.5).setMaximumQuantity(28).build());
+        }
+        GearSetupConstraints constraints = GearSetupConstraints.builder().setWeightLimit(655.36).setWeightResolution(0.01).build();
+        OptimalLoadout.find(ImmutableSet.of(), equipment -> 0, items, item -> 1, constraints);
+    }
+
+    private static double bruteForce(List<InventoryCandidate> items, Map<InventoryCandidate, Double> values, double weightLimit) {
+        return bruteForce(items, values, weightLimit, 0, 0, 0);
+    }
+
+    private static double bruteForce(List<InventoryCandidate> items, Map<InventoryCandidate, Double> values, double weightLimit,
+                                     int index, int slots, double weight) {
+        if (slots > OptimalLoadout.INVENTORY_SIZE || weight > weightLimit + EPSILON) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (index == items.size()) {
+            return 0;
+        }
+        InventoryCandidate item = items.get(index);
+        double best = Double.NEGATIVE_INFINITY;
+        //stackable items are carried at their maximum quantity or not at all, and items without value are never carried
+        int maximum = values.get(item) > 0 ? item.getMaximumQuantity() : 0;
+        if (maximum == 0) {
+            return bruteForce(items, values, weightLimit, index + 1, slots, weight);
+        }
+        for (int quantity = 0; quantity <= maximum; quantity = item.isStackable() ? quantity + maximum : quantity + 1) {
+            int used = item.isStackable() ? Math.min(1, quantity) : quantity;
+            double rest = bruteForce(items, values, weightLimit, index + 1, slots + used, weight + item.getWeight() * quantity);
+            best = Math.max(best, rest + values.get(item) * quantity);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,205 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SlotMaskKnapsack} through {@link OptimalGearSetup#find(Set, java.util.function.ToDoubleFunction, GearSetupConstraints)}
+ * against a brute-force enumeration of every subset of small catalogs.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class SlotMaskKnapsackTest {
+    private static final EquipmentSlot[] SLOTS = {EquipmentSlot.HEAD, EquipmentSlot.BODY, EquipmentSlot.SHIELD, EquipmentSlot.WEAPON};
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void matchesBruteForceOnRandomCatalogs() {
+        Random random = new Random(26);
+        for (int trial = 0; trial < 500; trial++) {
+            List<Equipment> catalog = randomCatalog(random, 1 + random.nextInt(10));
+            GearSetupConstraints.Builder builder = GearSetupConstraints.builder();
+            if (random.nextBoolean()) {
+                builder.setWeightLimit(random.nextInt(20) / 10.0 - 0.5);
+            }
+            EquipmentSlot forcedSlot = random.nextInt(3) == 0 ? SLOTS[random.nextInt(SLOTS.length)] : null;
+            if (forcedSlot != null) {
+                builder.addForcedSlot(forcedSlot);
+            }
+            EquipmentSlot forbiddenSlot = random.nextInt(3) == 0 ? SLOTS[random.nextInt(SLOTS.length)] : null;
+            if (forbiddenSlot != null && forbiddenSlot != forcedSlot) {
+                builder.addForbiddenSlot(forbiddenSlot);
+            }
+            Equipment forced = random.nextInt(3) == 0 ? catalog.get(random.nextInt(catalog.size())) : null;
+            if (forced != null) {
+                builder.addForcedEquipment(forced);
+            }
+            Equipment forbidden = random.nextInt(3) == 0 ? catalog.get(random.nextInt(catalog.size())) : null;
+            if (forbidden != null && forbidden != forced) {
+                builder.addForbiddenEquipment(forbidden);
+            }
+            GearSetupConstraints constraints = builder.build();
+            Set<Equipment> candidates = ImmutableSet.copyOf(catalog);
+            double expected = bruteForce(catalog, constraints);
+            if (expected == Double.NEGATIVE_INFINITY) {
+                try {
+                    OptimalGearSetup.find(candidates, SlotMaskKnapsackTest::score, constraints);
+                    fail("Expected no gear setup to satisfy " + constraints + " for " + catalog);
+                } catch (IllegalArgumentException expectedException) {
+                    //no subset satisfies the constraints
+                }
+                continue;
+            }
+            Set<Equipment> setup = OptimalGearSetup.find(candidates, SlotMaskKnapsackTest::score, constraints);
+            assertTrue(setup + " does not satisfy " + constraints, satisfies(setup, constraints));
+            assertEquals(constraints + " for " + catalog, expected, total(setup), EPSILON);
+        }
+    }
+
+    @Test
+    public void negativeWeightEquipmentAllowsHeavierEquipment() {
+        Equipment heavy = equipment(1, 10, 2.0, EquipmentSlot.BODY);
+        Equipment light = equipment(2, 1, 0.5, EquipmentSlot.BODY);
+        Equipment boots = equipment(3, 0, -1.5, EquipmentSlot.FEET);
+        GearSetupConstraints constraints = GearSetupConstraints.builder().setWeightLimit(1).build();
+        assertEquals(ImmutableSet.of(heavy, boots), OptimalGearSetup.find(ImmutableSet.of(heavy, light, boots), SlotMaskKnapsackTest::score, constraints));
+    }
+
+    @Test
+    public void forcedSlotAcceptsNonPositiveEquipment() {
+        Equipment shield = equipment(1, -2, 0, EquipmentSlot.SHIELD);
+        Equipment hat = equipment(2, 3, 0, EquipmentSlot.HEAD);
+        GearSetupConstraints constraints = GearSetupConstraints.builder().addForcedSlot(EquipmentSlot.SHIELD).build();
+        assertEquals(ImmutableSet.of(shield, hat), OptimalGearSetup.find(ImmutableSet.of(shield, hat), SlotMaskKnapsackTest::score, constraints));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnreachableWeightLimit() {
+        Equipment hat = equipment(1, 3, 1, EquipmentSlot.HEAD);
+        GearSetupConstraints constraints = GearSetupConstraints.builder().setWeightLimit(-1).build();
+        OptimalGearSetup.find(ImmutableSet.of(hat), SlotMaskKnapsackTest::score, constraints);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOverlappingForcedEquipment() {
+        GearSetupConstraints constraints = GearSetupConstraints.builder()
+                .addForcedEquipment(equipment(1, 1, 0, EquipmentSlot.WEAPON), equipment(2, 1, 0, EquipmentSlot.WEAPON, EquipmentSlot.SHIELD))
+                .build();
+        OptimalGearSetup.find(ImmutableSet.of(), SlotMaskKnapsackTest::score, constraints);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsNaNWeightLimit() {
+        GearSetupConstraints.builder().setWeightLimit(Double.NaN).build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsPositiveInfiniteWeightLimit() {
+        GearSetupConstraints.builder().setWeightLimit(Double.POSITIVE_INFINITY).build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsNegativeInfiniteWeightLimit() {
+        GearSetupConstraints.builder().setWeightLimit(Double.NEGATIVE_INFINITY).build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsNonFiniteWeightResolution() {
+        GearSetupConstraints.builder().setWeightLimit(1).setWeightResolution(Double.POSITIVE_INFINITY).build();
+    }
+
+    @Test
+    public void weightLimitMayNotSpanMoreThanTheMaximumBuckets() {
+        GearSetupConstraints.builder().setWeightResolution(1).setWeightLimit(GearSetupConstraints.MAXIMUM_WEIGHT_BUCKETS).build();
+        GearSetupConstraints.builder().setWeightResolution(1).setWeightLimit(-GearSetupConstraints.MAXIMUM_WEIGHT_BUCKETS).build();
+        for (double limit : new double[]{GearSetupConstraints.MAXIMUM_WEIGHT_BUCKETS + 1, -GearSetupConstraints.MAXIMUM_WEIGHT_BUCKETS - 1, 1e12}) {
+            try {
+                GearSetupConstraints.builder().setWeightResolution(1).setWeightLimit(limit).build();
+                fail("Expected weight limit " + limit + " to be rejected.");
+            } catch (IllegalStateException expected) {
+                //the weight limit spans too many buckets
+            }
+        }
+    }
+
+    private static List<Equipment> randomCatalog(Random random, int size) {
+        List<Equipment> catalog = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            int score = random.nextInt(13) - 4;
+            //weights are multiples of 0.1 kg so the default resolution discretises them exactly
+            double weight = (random.nextInt(12) - 3) / 10.0;
+            if (random.nextInt(4) == 0) {
+                catalog.add(equipment(id, score, weight, EquipmentSlot.WEAPON, EquipmentSlot.SHIELD));
+            } else {
+                catalog.add(equipment(id, score, weight, SLOTS[random.nextInt(SLOTS.length)]));
+            }
+        }
+        return catalog;
+    }
+
+    private static double bruteForce(List<Equipment> catalog, GearSetupConstraints constraints) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (int subset = 0; subset < 1 << catalog.size(); subset++) {
+            Set<Equipment> setup = new HashSet<>(constraints.getForcedEquipment());
+            boolean valid = true;
+            for (int i = 0; i < catalog.size() && valid; i++) {
+                if ((subset & (1 << i)) != 0) {
+                    Equipment equipment = catalog.get(i);
+                    //forced equipment is always worn, so choosing it again is the same setup
+                    valid = !constraints.getForcedEquipment().contains(equipment) && setup.add(equipment);
+                }
+            }
+            if (valid && satisfies(setup, constraints)) {
+                best = Math.max(best, total(setup));
+            }
+        }
+        return best;
+    }
+
+    private static boolean satisfies(Set<Equipment> setup, GearSetupConstraints constraints) {
+        int occupied = 0;
+        double weight = 0;
+        for (Equipment equipment : setup) {
+            int mask = equipment.getSlotMask();
+            if ((occupied & mask) != 0 || constraints.getForbiddenEquipment().contains(equipment)) {
+                return false;
+            }
+            occupied |= mask;
+            weight += equipment.getWeight();
+        }
+        if (!setup.containsAll(constraints.getForcedEquipment())) {
+            return false;
+        }
+        if ((occupied & EquipmentSlot.mask(constraints.getForbiddenSlots())) != 0) {
+            return false;
+        }
+        int forcedSlots = EquipmentSlot.mask(constraints.getForcedSlots());
+        if ((occupied & forcedSlots) != forcedSlots) {
+            return false;
+        }
+        return !constraints.getWeightLimit().isPresent() || weight <= constraints.getWeightLimit().getAsDouble() + EPSILON;
+    }
+
+    private static double total(Set<Equipment> setup) {
+        double total = 0;
+        for (Equipment equipment : setup) {
+            total += score(equipment);
+        }
+        return total;
+    }
+
+    private static double score(Equipment equipment) {
+        return equipment.getCombatBonuses().getPrayerBonus();
+    }
+
+    private static Equipment equipment(int id, int prayerBonus, double weight, EquipmentSlot... slots) {
+        AttackTypeBonuses none = AttackTypeBonuses.of(0, 0, 0, 0, 0);
+        return Equipment.of(id, "equipment " + id, EnumSet.copyOf(Arrays.asList(slots)),
+                CombatBonuses.of(none, none, prayerBonus, 0, 0, 0), Optional.empty(), ImmutableSet.of(), weight);
+    }
+}
@@ -0,0 +1,122 @@
+package io.gearsetup.util;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the properties of the approximate independent sets of {@link ApproximateMaximumWeightIndependentSet} and of
+ * the solutions of {@link MaximumWeightIndependentSet#solve(Set, java.util.function.BiPredicate, java.util.function.ToDoubleFunction, IndependentSetStrategy)}
+ * that approximate every component, including solves stopped by their node and time budgets.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class ApproximateMaximumWeightIndependentSetTest {
+    private static final double EPSILON = 1e-9;
+    //approximates every component, as no kernel component fits a tree decomposition of width 0 or an exact search of 0 vertices
+    private static final IndependentSetStrategy APPROXIMATE = IndependentSetStrategy.builder()
+            .setExactComponentSize(0)
+            .setMaximumTreewidth(0)
+            .build();
+
+    @Test
+    public void approximationIsIndependentAndBoundedByTheOptimum() {
+        Random random = new Random(32);
+        for (int trial = 0; trial < 1000; trial++) {
+            int size = 1 + random.nextInt(16);
+            boolean[] adjacency = RandomGraphs.adjacency(random, size, random.nextDouble());
+            double[] weights = RandomGraphs.weights(random, size, -3, 10);
+            Set<Integer> found = ApproximateMaximumWeightIndependentSet.find(RandomGraphs.vertices(size), RandomGraphs.predicate(size, adjacency),
+                    vertex -> weights[vertex]);
+            assertTrue(found + " is not independent", RandomGraphs.independent(size, adjacency, found));
+            assertTrue(RandomGraphs.weight(weights, found) <= RandomGraphs.maximumWeight(size, adjacency, weights) + EPSILON);
+            //the local search selects every positive vertex left without a selected neighbor
+            for (int vertex = 0; vertex < size; vertex++) {
+                if (weights[vertex] > 0 && !found.contains(vertex)) {
+                    boolean blocked = false;
+                    for (Integer other : found) {
+                        blocked |= adjacency[vertex * size + other];
+                    }
+                    assertTrue("Vertex " + vertex + " could be added to " + found, blocked);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void solutionWeightIsBoundedByTheUpperBound() {
+        Random random = new Random(320);
+        for (int trial = 0; trial < 1000; trial++) {
+            int size = 1 + random.nextInt(18);
+            boolean[] adjacency = RandomGraphs.adjacency(random, size, random.nextDouble());
+            double[] weights = RandomGraphs.weights(random, size, -3, 10);
+            IndependentSetSolution<Integer> solution = MaximumWeightIndependentSet.solve(RandomGraphs.vertices(size),
+                    RandomGraphs.predicate(size, adjacency), vertex -> weights[vertex], APPROXIMATE);
+            assertSolution(size, adjacency, weights, solution);
+            double optimum = RandomGraphs.maximumWeight(size, adjacency, weights);
+            assertTrue(solution.getWeight() <= optimum + EPSILON);
+            assertTrue("Upper bound " + solution.getUpperBound() + " is below the optimum " + optimum, optimum <= solution.getUpperBound() + EPSILON);
+            if (solution.isExact()) {
+                assertEquals(optimum, solution.getWeight(), EPSILON);
+                assertEquals(0, solution.getOptimalityGap(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void nodeBudgetStopsTheLocalSearch() {
+        Random random = new Random(3200);
+        int size = 400;
+        boolean[] adjacency = RandomGraphs.adjacency(random, size, 0.05);
+        double[] weights = RandomGraphs.weights(random, size, 1, 100);
+        SolverWorkspace workspace = SolverWorkspace.local();
+        IndependentSetSolution<Integer> unlimited = MaximumWeightIndependentSet.solve(RandomGraphs.vertices(size),
+                RandomGraphs.predicate(size, adjacency), vertex -> weights[vertex], APPROXIMATE);
+        long unlimitedNodes = workspace.getNodesVisited();
+        IndependentSetStrategy budgeted = IndependentSetStrategy.builder()
+                .setExactComponentSize(0)
+                .setMaximumTreewidth(0)
+                .setNodeBudget(1)
+                .build();
+        IndependentSetSolution<Integer> limited = MaximumWeightIndependentSet.solve(RandomGraphs.vertices(size),
+                RandomGraphs.predicate(size, adjacency), vertex -> weights[vertex], budgeted);
+        assertSolution(size, adjacency, weights, unlimited);
+        assertSolution(size, adjacency, weights, limited);
+        assertFalse(limited.isExact());
+        assertTrue(workspace.getNodesVisited() + " nodes visited with a budget of 1, " + unlimitedNodes + " without",
+                workspace.getNodesVisited() < unlimitedNodes);
+        assertTrue(limited.getWeight() <= unlimited.getWeight() + EPSILON);
+    }
+
+    @Test(timeout = 30_000)
+    public void timeBudgetStopsTheExactSearch() {
+        Random random = new Random(32000);
+        int size = 200;
+        boolean[] adjacency = RandomGraphs.adjacency(random, size, 0.1);
+        double[] weights = RandomGraphs.weights(random, size, 1, 100);
+        //without the time budget the exact search of this graph takes far longer than the timeout
+        IndependentSetStrategy strategy = IndependentSetStrategy.builder()
+                .setExactComponentSize(Integer.MAX_VALUE)
+                .setNodeBudget(Long.MAX_VALUE)
+                .setTimeBudget(Duration.ofMillis(50))
+                .build();
+        IndependentSetSolution<Integer> solution = MaximumWeightIndependentSet.solve(RandomGraphs.vertices(size),
+                RandomGraphs.predicate(size, adjacency), vertex -> weights[vertex], strategy);
+        assertSolution(size, adjacency, weights, solution);
+        assertFalse(solution.isExact());
+        assertTrue(solution.getWeight() > 0);
+    }
+
+    private static void assertSolution(int size, boolean[] adjacency, double[] weights, IndependentSetSolution<Integer> solution) {
+        assertTrue(solution.getVertices() + " is not independent", RandomGraphs.independent(size, adjacency, solution.getVertices()));
+        assertEquals(RandomGraphs.weight(weights, solution.getVertices()), solution.getWeight(), EPSILON);
+        assertTrue(solution.getWeight() + " exceeds the upper bound " + solution.getUpperBound(), solution.getWeight() <= solution.getUpperBound() + EPSILON);
+        assertTrue(solution.getOptimalityGap() >= 0);
+        assertTrue(solution.getOptimalityGap() <= 1);
+    }
+}
@@ -0,0 +1,100 @@
+package io.gearsetup.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link BitsetMaximumWeightIndependentSet} against a brute-force maximum-weight independent set on graphs whose
+ * sizes fall on either side of the 64-bit word boundaries of its bitsets.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class BitsetMaximumWeightIndependentSetTest {
+    private static final double EPSILON = 1e-9;
+    private static final int[] SIZES = {1, 2, 63, 64, 65, 127, 128, 130};
+
+    @Test
+    public void matchesBruteForceAcrossWordBoundaries() {
+        Random random = new Random(35);
+        for (int size : SIZES) {
+            for (int trial = 0; trial < 10; trial++) {
+                //components of at most 12 vertices, whose vertices are shuffled across every word of the bitsets
+                boolean[] adjacency = RandomGraphs.components(random, size, 12, density(random, size));
+                double[] weights = RandomGraphs.weights(random, size, 1, 50);
+                assertMaximum(size, adjacency, weights, RandomGraphs.maximumWeight(size, adjacency, weights));
+            }
+        }
+    }
+
+    @Test
+    public void matchesBruteForceWithNegativeAndZeroWeights() {
+        Random random = new Random(350);
+        for (int size : SIZES) {
+            for (int trial = 0; trial < 10; trial++) {
+                boolean[] adjacency = RandomGraphs.components(random, size, 12, density(random, size));
+                double[] weights = RandomGraphs.weights(random, size, -20, 20);
+                int[] result = assertMaximum(size, adjacency, weights, RandomGraphs.maximumWeight(size, adjacency, weights));
+                for (int vertex : result) {
+                    assertTrue("Vertex " + vertex + " with a negative weight was added", weights[vertex] >= 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void matchesBruteForceOnDenseConnectedGraphs() {
+        Random random = new Random(3500);
+        for (int size : SIZES) {
+            for (int trial = 0; trial < 10; trial++) {
+                //dense graphs have few independent sets to enumerate, while the edges connect vertices of every word
+                boolean[] adjacency = RandomGraphs.adjacency(random, size, 0.7 + random.nextDouble() * 0.3);
+                double[] weights = RandomGraphs.weights(random, size, -5, 50);
+                assertMaximum(size, adjacency, weights, RandomGraphs.maximumWeight(size, adjacency, weights));
+            }
+        }
+    }
+
+    @Test
+    public void publicFindMatchesBruteForce() {
+        Random random = new Random(35000);
+        for (int size : SIZES) {
+            boolean[] adjacency = RandomGraphs.components(random, size, 10, density(random, size));
+            double[] weights = RandomGraphs.weights(random, size, -10, 30);
+            Set<Integer> found = BitsetMaximumWeightIndependentSet.find(RandomGraphs.vertices(size), RandomGraphs.predicate(size, adjacency),
+                    vertex -> weights[vertex]);
+            assertTrue(RandomGraphs.independent(size, adjacency, found));
+            assertEquals(RandomGraphs.maximumWeight(size, adjacency, weights), RandomGraphs.weight(weights, found), EPSILON);
+        }
+    }
+
+    private static int[] assertMaximum(int size, boolean[] adjacency, double[] weights, double expected) {
+        try (SolverWorkspace workspace = new SolverWorkspace().acquire()) {
+            workspace.ensureSearchCapacity(size);
+            int[] vertices = new int[size];
+            for (int i = 0; i < size; i++) {
+                vertices[i] = i;
+            }
+            int[] result = new int[size];
+            int count = BitsetMaximumWeightIndependentSet.search(vertices, size, size, adjacency, weights, result, 0, workspace);
+            assertTrue(RandomGraphs.independent(size, adjacency, result, count));
+            assertEquals("Graph of " + size + " vertices", expected, RandomGraphs.weight(weights, result, count), EPSILON);
+            assertEquals(expected, workspace.maximumWeight, EPSILON);
+            int[] found = new int[count];
+            System.arraycopy(result, 0, found, 0, count);
+            return found;
+        }
+    }
+
+    /**
+     * Chooses the density of the components of a graph, where the branch and bound does not split the components of a
+     * graph, so graphs of many components are kept dense enough to be searched quickly.
+     */
+    private static double density(Random random, int size) {
+        return size > 65 ? 0.8 + random.nextDouble() * 0.2 : 0.5 + random.nextDouble() * 0.5;
+    }
+}
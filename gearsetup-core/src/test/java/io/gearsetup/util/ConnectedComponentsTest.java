@@ -0,0 +1,91 @@
+package io.gearsetup.util;
+
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.Range;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.BiPredicate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the serial and parallel {@link ConnectedComponents} partitions against each other, and the component
+ * decomposition of {@link MaximumWeightIndependentSet} on either side of its parallel threshold.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class ConnectedComponentsTest {
+    @Test
+    public void parallelPartitionEqualsSerialPartition() {
+        Random random = new Random(31);
+        for (int trial = 0; trial < 200; trial++) {
+            int size = random.nextInt(300);
+            Set<Integer> vertices = vertices(size);
+            BiPredicate<Integer, Integer> predicate = randomEdges(random, size, random.nextDouble() * 4 / Math.max(1, size));
+            List<Set<Integer>> serial = ConnectedComponents.find(vertices, predicate);
+            assertEquals(serial, ConnectedComponents.parallelFind(vertices, predicate));
+            assertPartition(vertices, serial);
+        }
+    }
+
+    @Test
+    public void componentsAreOrderedByFirstVertex() {
+        Set<Integer> vertices = new LinkedHashSet<>(Arrays.asList(5, 1, 4, 2, 3));
+        BiPredicate<Integer, Integer> predicate = (a, b) -> a % 2 == b % 2;
+        List<Set<Integer>> expected = Arrays.asList(new LinkedHashSet<>(Arrays.asList(5, 1, 3)), new LinkedHashSet<>(Arrays.asList(4, 2)));
+        assertEquals(expected, ConnectedComponents.find(vertices, predicate));
+        assertEquals(expected, ConnectedComponents.parallelFind(vertices, predicate));
+        assertEquals(Arrays.asList(3, 1, 5), new ArrayList<>(ConnectedComponents.find(new LinkedHashSet<>(Arrays.asList(3, 1, 5)), predicate).get(0)));
+    }
+
+    @Test
+    public void independentSetMatchesAcrossParallelThreshold() {
+        for (int size : new int[]{MaximumWeightIndependentSet.PARALLEL_COMPONENTS_THRESHOLD - 1, MaximumWeightIndependentSet.PARALLEL_COMPONENTS_THRESHOLD + 1}) {
+            Set<Integer> vertices = vertices(size);
+            //paths of 5 vertices, where the independent set of each path is chosen by the weights
+            BiPredicate<Integer, Integer> predicate = (a, b) -> Math.abs(a - b) == 1 && a / 5 == b / 5;
+            Set<Integer> keyed = MaximumWeightIndependentSet.find(vertices, predicate, vertex -> Collections.singleton(vertex / 5), ConnectedComponentsTest::weight);
+            Set<Integer> found = MaximumWeightIndependentSet.find(vertices, predicate, ConnectedComponentsTest::weight);
+            assertEquals(total(keyed), total(found), 0);
+            for (Integer vertex : found) {
+                assertFalse(found.contains(vertex + 1) && predicate.test(vertex, vertex + 1));
+            }
+        }
+    }
+
+    private static double weight(int vertex) {
+        return 1 + vertex % 3;
+    }
+
+    private static double total(Set<Integer> vertices) {
+        return vertices.stream().mapToDouble(ConnectedComponentsTest::weight).sum();
+    }
+
+    private static Set<Integer> vertices(int size) {
+        return ContiguousSet.create(Range.closedOpen(0, size), DiscreteDomain.integers());
+    }
+
+    private static BiPredicate<Integer, Integer> randomEdges(Random random, int size, double density) {
+        boolean[] adjacency = new boolean[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < i; j++) {
+                adjacency[i * size + j] = adjacency[j * size + i] = random.nextDouble() < density;
+            }
+        }
+        return (a, b) -> adjacency[a * size + b];
+    }
+
+    private static void assertPartition(Set<Integer> vertices, List<Set<Integer>> components) {
+        Set<Integer> seen = new HashSet<>();
+        for (Set<Integer> component : components) {
+            assertFalse(component.isEmpty());
+            for (Integer vertex : component) {
+                assertTrue(seen.add(vertex));
+            }
+        }
+        assertEquals(vertices, seen);
+    }
+}
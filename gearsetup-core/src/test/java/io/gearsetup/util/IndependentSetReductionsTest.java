@@ -0,0 +1,200 @@
+package io.gearsetup.util;
+
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the kernelization of {@link IndependentSetReductions} and the reduced search of
+ * {@link MaximumWeightIndependentSet#find(int, boolean[], double[], int[], SolverWorkspace)} against a brute-force
+ * maximum-weight independent set, including graphs with negative and zero weights.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class IndependentSetReductionsTest {
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void reducedSearchMatchesBruteForce() {
+        Random random = new Random(33);
+        for (int trial = 0; trial < 3000; trial++) {
+            int size = 3 + random.nextInt(18);
+            boolean[] adjacency = randomGraph(random, size);
+            double[] weights = RandomGraphs.weights(random, size, -3, 8);
+            try (SolverWorkspace workspace = new SolverWorkspace().acquire()) {
+                int[] result = new int[size];
+                int count = MaximumWeightIndependentSet.find(size, adjacency, weights, result, workspace);
+                assertTrue(RandomGraphs.independent(size, adjacency, result, count));
+                assertEquals(RandomGraphs.maximumWeight(size, adjacency, weights), RandomGraphs.weight(weights, result, count), EPSILON);
+                assertTrue(workspace.isExact());
+            }
+        }
+    }
+
+    @Test
+    public void kernelPreservesTheMaximumWeight() {
+        Random random = new Random(330);
+        for (int trial = 0; trial < 3000; trial++) {
+            int size = 3 + random.nextInt(14);
+            boolean[] adjacency = randomGraph(random, size);
+            double[] weights = RandomGraphs.weights(random, size, -2, 6);
+            try (SolverWorkspace workspace = new SolverWorkspace().acquire()) {
+                workspace.limit(Long.MAX_VALUE, Optional.empty());
+                workspace.ensureSearchCapacity(size);
+                int[] vertices = new int[size];
+                for (int i = 0; i < size; i++) {
+                    vertices[i] = i;
+                }
+                int kernelSize = IndependentSetReductions.reduce(vertices, size, size, adjacency, weights, workspace);
+                int[] kernel = workspace.kernel.clone();
+                //the kernel is solved by brute force using the reduced weights, which together with the folded weight is the maximum weight
+                int[] result = new int[size];
+                int end = bestSubset(kernel, kernelSize, size, adjacency, workspace.reduced, result);
+                double optimum = RandomGraphs.maximumWeight(size, adjacency, weights);
+                assertEquals(optimum, workspace.foldedWeight + RandomGraphs.weight(workspace.reduced, result, end), EPSILON);
+                for (int i = 0; i < kernelSize; i++) {
+                    assertTrue("Kernel vertex " + kernel[i] + " has a non-positive reduced weight", workspace.reduced[kernel[i]] > 0);
+                }
+                int count = IndependentSetReductions.lift(vertices, size, result, 0, end, workspace);
+                assertTrue(RandomGraphs.independent(size, adjacency, result, count));
+                assertEquals(optimum, RandomGraphs.weight(weights, result, count), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void reducesTreesCompletely() {
+        Random random = new Random(3300);
+        for (int trial = 0; trial < 500; trial++) {
+            int size = 3 + random.nextInt(40);
+            boolean[] adjacency = new boolean[size * size];
+            for (int i = 1; i < size; i++) {
+                int parent = random.nextInt(i);
+                adjacency[i * size + parent] = adjacency[parent * size + i] = true;
+            }
+            double[] weights = RandomGraphs.weights(random, size, 0, 9);
+            try (SolverWorkspace workspace = new SolverWorkspace().acquire()) {
+                workspace.limit(Long.MAX_VALUE, Optional.empty());
+                workspace.ensureSearchCapacity(size);
+                int[] vertices = new int[size];
+                for (int i = 0; i < size; i++) {
+                    vertices[i] = i;
+                }
+                //pendant folds and simplicial vertices reduce every forest to an empty kernel
+                assertEquals(0, IndependentSetReductions.reduce(vertices, size, size, adjacency, weights, workspace));
+                int[] result = new int[size];
+                int count = IndependentSetReductions.lift(vertices, size, result, 0, 0, workspace);
+                assertTrue(RandomGraphs.independent(size, adjacency, result, count));
+                assertEquals(treeMaximumWeight(size, adjacency, weights), RandomGraphs.weight(weights, result, count), EPSILON);
+                assertEquals(workspace.foldedWeight, RandomGraphs.weight(weights, result, count), EPSILON);
+            }
+        }
+    }
+
+    /**
+     * Constructs a random graph that mixes the structures targeted by the reductions: pendant paths, cliques, and twins.
+     */
+    private static boolean[] randomGraph(Random random, int size) {
+        boolean[] adjacency = RandomGraphs.adjacency(random, size, random.nextDouble() * 0.6);
+        switch (random.nextInt(3)) {
+            case 0:
+                //a clique of the first vertices, whose members are simplicial unless they have other neighbors
+                int clique = Math.min(size, 2 + random.nextInt(4));
+                for (int i = 0; i < clique; i++) {
+                    for (int j = 0; j < i; j++) {
+                        adjacency[i * size + j] = adjacency[j * size + i] = true;
+                    }
+                }
+                break;
+            case 1:
+                //the last vertex is a non-adjacent twin of the first vertex
+                int twin = size - 1;
+                for (int i = 0; i < size; i++) {
+                    boolean edge = i != 0 && i != twin && adjacency[i];
+                    adjacency[twin * size + i] = adjacency[i * size + twin] = edge;
+                }
+                adjacency[twin] = adjacency[twin * size] = false;
+                break;
+            default:
+                if (size < 5) {
+                    break;
+                }
+                //a pendant path hanging off of the first vertex
+                for (int i = size - 3; i < size; i++) {
+                    for (int j = 0; j < size; j++) {
+                        adjacency[i * size + j] = adjacency[j * size + i] = false;
+                    }
+                }
+                for (int i = size - 3; i < size; i++) {
+                    int previous = i == size - 3 ? 0 : i - 1;
+                    adjacency[i * size + previous] = adjacency[previous * size + i] = true;
+                }
+                break;
+        }
+        return adjacency;
+    }
+
+    /**
+     * Writes the maximum-weight independent set of the subset of vertices to the result buffer by enumerating every subset.
+     */
+    private static int bestSubset(int[] vertices, int count, int size, boolean[] adjacency, double[] weights, int[] result) {
+        double best = 0;
+        int bestSubset = 0;
+        for (int subset = 1; subset < 1 << count; subset++) {
+            double weight = 0;
+            boolean independent = true;
+            for (int i = 0; i < count && independent; i++) {
+                if ((subset & (1 << i)) == 0) {
+                    continue;
+                }
+                weight += weights[vertices[i]];
+                for (int j = 0; j < i && independent; j++) {
+                    independent = (subset & (1 << j)) == 0 || !adjacency[vertices[i] * size + vertices[j]];
+                }
+            }
+            if (independent && weight > best) {
+                best = weight;
+                bestSubset = subset;
+            }
+        }
+        int end = 0;
+        for (int i = 0; i < count; i++) {
+            if ((bestSubset & (1 << i)) != 0) {
+                result[end++] = vertices[i];
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Calculates the maximum weight of an independent set of a tree rooted at vertex 0 by dynamic programming.
+     */
+    private static double treeMaximumWeight(int size, boolean[] adjacency, double[] weights) {
+        double[] included = new double[size];
+        double[] excluded = new double[size];
+        //parents always have a smaller index than their children, so children are processed first in reverse order
+        for (int vertex = size - 1; vertex >= 0; vertex--) {
+            included[vertex] = Math.max(0, weights[vertex]);
+            for (int child = vertex + 1; child < size; child++) {
+                if (adjacency[vertex * size + child] && isParent(vertex, child, size, adjacency)) {
+                    included[vertex] += excluded[child];
+                    excluded[vertex] += Math.max(included[child], excluded[child]);
+                }
+            }
+        }
+        return Math.max(included[0], excluded[0]);
+    }
+
+    private static boolean isParent(int parent, int child, int size, boolean[] adjacency) {
+        for (int other = 0; other < child; other++) {
+            if (adjacency[child * size + other]) {
+                return other == parent;
+            }
+        }
+        return false;
+    }
+}
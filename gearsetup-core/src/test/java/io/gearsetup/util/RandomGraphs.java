@@ -0,0 +1,248 @@
+package io.gearsetup.util;
+
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.Range;
+import lombok.experimental.UtilityClass;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * A utility class providing random graphs as adjacency matrices and a brute-force
+ * <a href="https://en.wikipedia.org/wiki/Independent_set_(graph_theory)#Finding_maximum_independent_sets">maximum-weight independent set</a>
+ * to test the independent set solvers against.
+ * <p>
+ * The brute force enumerates every independent set of each connected component separately, so large graphs are
+ * supported as long as they are split into small components or are dense enough to have few independent sets.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+class RandomGraphs {
+    /**
+     * Constructs a random adjacency matrix where each edge is present with the specified probability.
+     *
+     * @param random  the source of randomness
+     * @param size    the number of vertices
+     * @param density the probability of each edge
+     * @return the symmetric adjacency matrix
+     */
+    boolean[] adjacency(Random random, int size, double density) {
+        boolean[] adjacency = new boolean[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < i; j++) {
+                adjacency[i * size + j] = adjacency[j * size + i] = random.nextDouble() < density;
+            }
+        }
+        return adjacency;
+    }
+
+    /**
+     * Constructs a random adjacency matrix of disjoint random components of at most the specified size, where the
+     * vertices of the components are shuffled across the whole graph.
+     *
+     * @param random        the source of randomness
+     * @param size          the number of vertices
+     * @param componentSize the maximum number of vertices of each component
+     * @param density       the probability of each edge within a component
+     * @return the symmetric adjacency matrix
+     */
+    boolean[] components(Random random, int size, int componentSize, double density) {
+        int[] labels = new int[size];
+        for (int i = 0; i < size; i++) {
+            labels[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int label = labels[i];
+            labels[i] = labels[j];
+            labels[j] = label;
+        }
+        boolean[] adjacency = new boolean[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = i - i % componentSize; j < i; j++) {
+                if (random.nextDouble() < density) {
+                    adjacency[labels[i] * size + labels[j]] = adjacency[labels[j] * size + labels[i]] = true;
+                }
+            }
+        }
+        return adjacency;
+    }
+
+    /**
+     * Constructs random integer weights in {@code [minimum, maximum]}.
+     *
+     * @param random  the source of randomness
+     * @param size    the number of vertices
+     * @param minimum the smallest weight
+     * @param maximum the largest weight
+     * @return the weight of each vertex
+     */
+    double[] weights(Random random, int size, int minimum, int maximum) {
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = minimum + random.nextInt(maximum - minimum + 1);
+        }
+        return weights;
+    }
+
+    /**
+     * Represents the vertices {@code [0, size)} of a graph as a set.
+     *
+     * @param size the number of vertices
+     * @return the vertices of the graph
+     */
+    Set<Integer> vertices(int size) {
+        return ContiguousSet.create(Range.closedOpen(0, size), DiscreteDomain.integers());
+    }
+
+    /**
+     * Represents the edges of the specified adjacency matrix as an edge predicate.
+     *
+     * @param size      the number of vertices
+     * @param adjacency the adjacency matrix
+     * @return the edge predicate of the graph
+     */
+    BiPredicate<Integer, Integer> predicate(int size, boolean[] adjacency) {
+        return (one, two) -> adjacency[one * size + two];
+    }
+
+    /**
+     * Calculates the weight of the maximum-weight independent set by enumerating every independent set of each connected
+     * component.
+     *
+     * @param size      the number of vertices
+     * @param adjacency the adjacency matrix
+     * @param weights   the weight of each vertex
+     * @return the weight of the maximum-weight independent set
+     */
+    double maximumWeight(int size, boolean[] adjacency, double[] weights) {
+        boolean[] visited = new boolean[size];
+        int[] component = new int[size];
+        double total = 0;
+        for (int start = 0; start < size; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            int count = 0;
+            component[count++] = start;
+            visited[start] = true;
+            for (int next = 0; next < count; next++) {
+                for (int other = 0; other < size; other++) {
+                    if (!visited[other] && adjacency[component[next] * size + other]) {
+                        visited[other] = true;
+                        component[count++] = other;
+                    }
+                }
+            }
+            total += enumerate(component, count, size, adjacency, weights);
+        }
+        return total;
+    }
+
+    /**
+     * Enumerates every independent set of the specified candidates by either excluding the first candidate or including
+     * it and excluding its neighbors.
+     *
+     * @param candidates the candidates that may be added to the independent set
+     * @param count      the number of candidates
+     * @param size       the number of vertices
+     * @param adjacency  the adjacency matrix
+     * @param weights    the weight of each vertex
+     * @return the weight of the maximum-weight independent set of the candidates
+     */
+    private double enumerate(int[] candidates, int count, int size, boolean[] adjacency, double[] weights) {
+        if (count == 0) {
+            return 0;
+        }
+        int vertex = candidates[0];
+        int[] remaining = new int[count - 1];
+        int remainingCount = 0;
+        for (int i = 1; i < count; i++) {
+            if (!adjacency[vertex * size + candidates[i]]) {
+                remaining[remainingCount++] = candidates[i];
+            }
+        }
+        int[] excluded = new int[count - 1];
+        System.arraycopy(candidates, 1, excluded, 0, count - 1);
+        return Math.max(weights[vertex] + enumerate(remaining, remainingCount, size, adjacency, weights),
+                enumerate(excluded, count - 1, size, adjacency, weights));
+    }
+
+    /**
+     * Determines if the vertices in the result buffer are distinct vertices of the graph without an edge between them.
+     *
+     * @param size      the number of vertices
+     * @param adjacency the adjacency matrix
+     * @param result    the buffer holding the independent set
+     * @param count     the number of vertices in the independent set
+     * @return {@code true} if the vertices form an independent set
+     */
+    boolean independent(int size, boolean[] adjacency, int[] result, int count) {
+        boolean[] seen = new boolean[size];
+        for (int i = 0; i < count; i++) {
+            int vertex = result[i];
+            if (vertex < 0 || vertex >= size || seen[vertex]) {
+                return false;
+            }
+            seen[vertex] = true;
+            for (int j = 0; j < i; j++) {
+                if (adjacency[vertex * size + result[j]]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines if the set of vertices is an independent set of the graph.
+     *
+     * @param size      the number of vertices
+     * @param adjacency the adjacency matrix
+     * @param vertices  the independent set
+     * @return {@code true} if the vertices form an independent set
+     */
+    boolean independent(int size, boolean[] adjacency, Set<Integer> vertices) {
+        int[] result = new int[vertices.size()];
+        int count = 0;
+        for (Integer vertex : vertices) {
+            result[count++] = vertex;
+        }
+        return independent(size, adjacency, result, count);
+    }
+
+    /**
+     * Calculates the total weight of the vertices in the result buffer.
+     *
+     * @param weights the weight of each vertex
+     * @param result  the buffer holding the vertices
+     * @param count   the number of vertices
+     * @return the total weight
+     */
+    double weight(double[] weights, int[] result, int count) {
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += weights[result[i]];
+        }
+        return total;
+    }
+
+    /**
+     * Calculates the total weight of the set of vertices.
+     *
+     * @param weights  the weight of each vertex
+     * @param vertices the vertices
+     * @return the total weight
+     */
+    double weight(double[] weights, Set<Integer> vertices) {
+        double total = 0;
+        for (Integer vertex : vertices) {
+            total += weights[vertex];
+        }
+        return total;
+    }
+}
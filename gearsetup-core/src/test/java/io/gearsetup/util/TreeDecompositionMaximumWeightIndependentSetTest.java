@@ -0,0 +1,160 @@
+package io.gearsetup.util;
+
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link TreeDecompositionMaximumWeightIndependentSet} against {@link RecursiveMaximumWeightIndependentSet} on
+ * random graphs of bounded treewidth, graphs wider than the maximum width, and a {@link SolverWorkspace} reused across
+ * solves with its pooled tables.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class TreeDecompositionMaximumWeightIndependentSetTest {
+    private static final double EPSILON = 1e-9;
+    private static final int MAXIMUM_WIDTH = 12;
+    private static final int HEURISTIC_SLACK = 4;
+
+    @Test
+    public void matchesRecursiveSearchOnNarrowGraphs() {
+        Random random = new Random(34);
+        for (EliminationOrdering ordering : EliminationOrdering.values()) {
+            for (int trial = 0; trial < 300; trial++) {
+                int size = 2 + random.nextInt(21);
+                int width = 1 + random.nextInt(MAXIMUM_WIDTH);
+                boolean[] adjacency = banded(random, size, width);
+                double[] weights = RandomGraphs.weights(random, size, -3, 10);
+                try (SolverWorkspace workspace = new SolverWorkspace().acquire()) {
+                    int[] result = new int[size];
+                    int count = TreeDecompositionMaximumWeightIndependentSet.search(vertices(size), size, size, adjacency, weights, result, 0,
+                            MAXIMUM_WIDTH, ordering, workspace);
+                    //the orderings are heuristics, so bands close to the maximum width may need a slightly wider decomposition
+                    if (count < 0) {
+                        assertTrue("No decomposition of width " + width + " found by " + ordering, width > MAXIMUM_WIDTH - HEURISTIC_SLACK);
+                        continue;
+                    }
+                    assertTrue(RandomGraphs.independent(size, adjacency, result, count));
+                    assertEquals(recursiveWeight(size, adjacency, weights), RandomGraphs.weight(weights, result, count), EPSILON);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void publicFindMatchesRecursiveSearch() {
+        Random random = new Random(340);
+        for (int trial = 0; trial < 200; trial++) {
+            int size = 2 + random.nextInt(21);
+            boolean[] adjacency = banded(random, size, 1 + random.nextInt(6));
+            double[] weights = RandomGraphs.weights(random, size, 0, 10);
+            Set<Integer> vertices = RandomGraphs.vertices(size);
+            Optional<Set<Integer>> found = TreeDecompositionMaximumWeightIndependentSet.find(vertices, RandomGraphs.predicate(size, adjacency),
+                    vertex -> weights[vertex], MAXIMUM_WIDTH, EliminationOrdering.MIN_FILL);
+            assertTrue(found.isPresent());
+            assertTrue(RandomGraphs.independent(size, adjacency, found.get()));
+            Set<Integer> recursive = RecursiveMaximumWeightIndependentSet.find(vertices, RandomGraphs.predicate(size, adjacency), vertex -> weights[vertex]);
+            assertEquals(RandomGraphs.weight(weights, recursive), RandomGraphs.weight(weights, found.get()), EPSILON);
+        }
+    }
+
+    @Test
+    public void graphsWiderThanTheMaximumWidthFallBack() {
+        Random random = new Random(3400);
+        for (int trial = 0; trial < 20; trial++) {
+            int size = 30;
+            //a random graph of this density has a treewidth far above the maximum width
+            boolean[] adjacency = RandomGraphs.adjacency(random, size, 0.5);
+            double[] weights = RandomGraphs.weights(random, size, 1, 20);
+            Set<Integer> vertices = RandomGraphs.vertices(size);
+            assertFalse(TreeDecompositionMaximumWeightIndependentSet.find(vertices, RandomGraphs.predicate(size, adjacency),
+                    vertex -> weights[vertex], MAXIMUM_WIDTH, EliminationOrdering.MIN_DEGREE).isPresent());
+            try (SolverWorkspace workspace = new SolverWorkspace().acquire()) {
+                int[] result = new int[size];
+                assertEquals(-1, TreeDecompositionMaximumWeightIndependentSet.search(vertices(size), size, size, adjacency, weights, result, 0,
+                        MAXIMUM_WIDTH, EliminationOrdering.MIN_FILL, workspace));
+                //the solver falls back to the exact bitset search of the kernel
+                int count = MaximumWeightIndependentSet.find(size, adjacency, weights, result, workspace);
+                assertTrue(RandomGraphs.independent(size, adjacency, result, count));
+                assertEquals(recursiveWeight(size, adjacency, weights), RandomGraphs.weight(weights, result, count), EPSILON);
+                assertTrue(workspace.isExact());
+            }
+        }
+    }
+
+    @Test
+    public void reusedWorkspaceMatchesFreshWorkspaces() {
+        Random random = new Random(34000);
+        try (SolverWorkspace reused = new SolverWorkspace().acquire()) {
+            for (int trial = 0; trial < 500; trial++) {
+                int size = 2 + random.nextInt(23);
+                //wide graphs are abandoned part way through, which releases their tables back to the pool
+                boolean wide = random.nextInt(5) == 0;
+                boolean[] adjacency = wide ? RandomGraphs.adjacency(random, size, 0.6) : banded(random, size, 1 + random.nextInt(MAXIMUM_WIDTH));
+                double[] weights = RandomGraphs.weights(random, size, -3, 10);
+                int maximumWidth = 1 + random.nextInt(MAXIMUM_WIDTH);
+                EliminationOrdering ordering = EliminationOrdering.values()[random.nextInt(EliminationOrdering.values().length)];
+                int[] result = new int[size];
+                int count = TreeDecompositionMaximumWeightIndependentSet.search(vertices(size), size, size, adjacency, weights, result, 0,
+                        maximumWidth, ordering, reused);
+                try (SolverWorkspace fresh = new SolverWorkspace().acquire()) {
+                    int[] expected = new int[size];
+                    assertEquals(TreeDecompositionMaximumWeightIndependentSet.search(vertices(size), size, size, adjacency, weights, expected, 0,
+                            maximumWidth, ordering, fresh), count);
+                }
+                if (count >= 0) {
+                    assertTrue(RandomGraphs.independent(size, adjacency, result, count));
+                    assertEquals(recursiveWeight(size, adjacency, weights), RandomGraphs.weight(weights, result, count), EPSILON);
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructs a random graph where each vertex is only adjacent to the vertices of the previous {@code width}
+     * positions, so the graph has a treewidth of at most {@code width}, and then shuffles the vertices.
+     */
+    private static boolean[] banded(Random random, int size, int width) {
+        int[] labels = new int[size];
+        for (int i = 0; i < size; i++) {
+            labels[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int label = labels[i];
+            labels[i] = labels[j];
+            labels[j] = label;
+        }
+        double density = 0.3 + random.nextDouble() * 0.7;
+        boolean[] adjacency = new boolean[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = Math.max(0, i - width); j < i; j++) {
+                if (random.nextDouble() < density) {
+                    adjacency[labels[i] * size + labels[j]] = adjacency[labels[j] * size + labels[i]] = true;
+                }
+            }
+        }
+        return adjacency;
+    }
+
+    private static int[] vertices(int size) {
+        int[] vertices = new int[size];
+        for (int i = 0; i < size; i++) {
+            vertices[i] = i;
+        }
+        return vertices;
+    }
+
+    private static double recursiveWeight(int size, boolean[] adjacency, double[] weights) {
+        try (SolverWorkspace workspace = new SolverWorkspace().acquire()) {
+            int[] result = new int[size];
+            int count = RecursiveMaximumWeightIndependentSet.find(size, adjacency, weights, result, workspace);
+            return RandomGraphs.weight(weights, result, count);
+        }
+    }
+}
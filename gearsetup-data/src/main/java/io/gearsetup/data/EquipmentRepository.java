@@ -4,6 +4,7 @@ import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
 import com.amazonaws.services.s3.AmazonS3;
 import io.gearsetup.Equipment;
+import io.gearsetup.SlotRanking;
 import io.gearsetup.immutables.ImmutableGearSetupStyle;
 import org.immutables.value.Value.Auxiliary;
 import org.immutables.value.Value.Default;
@@ -16,7 +17,8 @@ import java.util.Set;
  * A representation of a repository of {@link Equipment} snapshot stored in {@link AmazonS3}.
  * <p>
  * {@link Equipment} snapshots for the entire <a href="https://oldschool.runescape.com/">Old School Runescape</a> are
- * maintained in the {@code gearsetup} S3 bucket in the {@code Equipment} directory.
+ * maintained in the {@code gearsetup} S3 bucket in the {@code Equipment} directory, alongside the best-in-slot
+ * {@link SlotRanking} precomputed from each snapshot.
  *
  * @author Ian Caffey
  * @since 1.0
@@ -75,6 +77,17 @@ public abstract class EquipmentRepository {
         return new SnapshotRetriever<>(getRegion(), "gearsetup", "Equipment/latest.json", getCredentials(), Equipment.class);
     }
 
+    /**
+     * Represents the {@link SnapshotRetriever} that gets lazily initialized to retrieving the best-in-slot
+     * {@link SlotRanking} of the {@link Equipment} snapshot.
+     *
+     * @return the listing retriever to use for loading best-in-slot rankings
+     */
+    @Lazy
+    protected SnapshotRetriever<SlotRanking> getBestInSlotRetriever() {
+        return new SnapshotRetriever<>(getRegion(), "gearsetup", "Equipment/latest.bis.json", getCredentials(), SlotRanking.class);
+    }
+
     /**
      * Loads the current {@link Equipment} snapshot from S3 using {@link SnapshotRetriever}.
      * <p>
@@ -87,6 +100,18 @@ public abstract class EquipmentRepository {
         return getRetriever().load();
     }
 
+    /**
+     * Loads the best-in-slot {@link SlotRanking} of the current {@link Equipment} snapshot from S3 using {@link SnapshotRetriever}.
+     * <p>
+     * The call to retrieve the rankings from S3 only happens once and the results are cached for future calls.
+     *
+     * @return the current set of best-in-slot rankings present in S3
+     */
+    @Lazy
+    public Set<SlotRanking> loadBestInSlot() {
+        return getBestInSlotRetriever().load();
+    }
+
     //Immutables builder stub to hide immutable class dependency
     public interface Builder {
         Builder setRegion(String region);
@@ -0,0 +1,91 @@
+package io.gearsetup.data;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An implementation of {@link SnapshotStorage} that stores each object as a file under a root directory of the local
+ * file system, where the key of the object is the path of the file relative to the root directory.
+ * <p>
+ * Objects are written to a temporary file and moved into place, so readers never observe a partially written object.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code SnapshotHistory history = new SnapshotHistory(new FileSystemSnapshotStorage(Paths.get("snapshots")), "Equipment");}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class FileSystemSnapshotStorage implements SnapshotStorage {
+    private final Path root;
+
+    /**
+     * Constructs a new {@link FileSystemSnapshotStorage} storing objects under the specified root directory.
+     * <p>
+     * The root directory is created on the first write if it does not exist.
+     *
+     * @param root the root directory of the objects
+     */
+    public FileSystemSnapshotStorage(@NonNull Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public Optional<byte[]> read(@NonNull String key) {
+        try {
+            return Optional.of(Files.readAllBytes(root.resolve(key)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void write(@NonNull String key, @NonNull byte[] bytes) {
+        Path path = root.resolve(key);
+        try {
+            Files.createDirectories(path.getParent());
+            Path temporary = Files.createTempFile(path.getParent(), ".", ".tmp");
+            Files.write(temporary, bytes);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean exists(@NonNull String key) {
+        return Files.isRegularFile(root.resolve(key));
+    }
+
+    @Override
+    public List<String> list(@NonNull String prefix) {
+        //only walk the deepest directory containing every key of the prefix
+        int separator = prefix.lastIndexOf('/');
+        Path directory = separator < 0 ? root : root.resolve(prefix.substring(0, separator));
+        if (!Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .map(path -> root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/"))
+                    .filter(key -> key.startsWith(prefix) && !key.endsWith(".tmp"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.gearsetup.data;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.util.IOUtils;
+import lombok.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An implementation of {@link SnapshotStorage} that stores each object in an {@link AmazonS3} bucket, where the key of
+ * the object is the key of the {@link S3Object}.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code SnapshotHistory history = new SnapshotHistory(new S3SnapshotStorage(amazonS3, "gearsetup"), "Equipment");}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class S3SnapshotStorage implements SnapshotStorage {
+    private static final int NOT_FOUND = 404;
+    private final AmazonS3 amazonS3;
+    private final String bucket;
+
+    /**
+     * Constructs a new {@link S3SnapshotStorage} storing objects in the specified {@link AmazonS3} bucket.
+     *
+     * @param amazonS3 the client to access the bucket with
+     * @param bucket   the bucket of the objects
+     */
+    public S3SnapshotStorage(@NonNull AmazonS3 amazonS3, @NonNull String bucket) {
+        this.amazonS3 = amazonS3;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public Optional<byte[]> read(@NonNull String key) {
+        try (S3Object object = amazonS3.getObject(bucket, key)) {
+            return Optional.of(IOUtils.toByteArray(object.getObjectContent()));
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == NOT_FOUND) {
+                return Optional.empty();
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void write(@NonNull String key, @NonNull byte[] bytes) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(bytes.length);
+        amazonS3.putObject(bucket, key, new ByteArrayInputStream(bytes), metadata);
+    }
+
+    @Override
+    public boolean exists(@NonNull String key) {
+        return amazonS3.doesObjectExist(bucket, key);
+    }
+
+    @Override
+    public List<String> list(@NonNull String prefix) {
+        //S3 lists keys in lexicographical order, one page at a time
+        List<String> keys = new ArrayList<>();
+        ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucket).withPrefix(prefix);
+        ListObjectsV2Result result;
+        do {
+            result = amazonS3.listObjectsV2(request);
+            for (S3ObjectSummary summary : result.getObjectSummaries()) {
+                keys.add(summary.getKey());
+            }
+            request.setContinuationToken(result.getNextContinuationToken());
+        } while (result.isTruncated());
+        return keys;
+    }
+}
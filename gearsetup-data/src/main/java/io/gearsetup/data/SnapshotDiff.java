@@ -0,0 +1,61 @@
+package io.gearsetup.data;
+
+import io.gearsetup.Equipment;
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.value.Value.Immutable;
+
+import java.util.List;
+
+/**
+ * A representation of the difference between two snapshots of a {@link SnapshotHistory}, computed from their
+ * {@link SnapshotManifest} without reading any {@link Equipment} records.
+ * <p>
+ * Each list holds ids of {@link Equipment} in ascending order, where a piece of equipment has changed when its record
+ * hash differs between the two snapshots.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@Immutable
+@ImmutableGearSetupStyle
+public interface SnapshotDiff {
+    //Immutables factory stub to hide immutable class dependency
+    static SnapshotDiff of(long from, long to, Iterable<Integer> added, Iterable<Integer> removed, Iterable<Integer> changed) {
+        return ImmutableSnapshotDiff.of(from, to, added, removed, changed);
+    }
+
+    /**
+     * Represents the time the difference is computed from.
+     *
+     * @return the time of the older snapshot
+     */
+    long getFrom();
+
+    /**
+     * Represents the time the difference is computed to.
+     *
+     * @return the time of the newer snapshot
+     */
+    long getTo();
+
+    /**
+     * Represents the ids of {@link Equipment} present only in the newer snapshot.
+     *
+     * @return the ids of added equipment
+     */
+    List<Integer> getAdded();
+
+    /**
+     * Represents the ids of {@link Equipment} present only in the older snapshot.
+     *
+     * @return the ids of removed equipment
+     */
+    List<Integer> getRemoved();
+
+    /**
+     * Represents the ids of {@link Equipment} present in both snapshots with different records.
+     *
+     * @return the ids of changed equipment
+     */
+    List<Integer> getChanged();
+}
@@ -0,0 +1,341 @@
+package io.gearsetup.data;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.gson.Gson;
+import io.gearsetup.Equipment;
+import io.gearsetup.gson.GearSetupGsonFactory;
+import lombok.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A representation of the content-addressed history of the snapshots of a table, stored in a {@link SnapshotStorage}.
+ * <p>
+ * Every distinct {@link Equipment} record is stored once as JSON under the SHA-256 hash of its JSON in
+ * {@code {{table}}/records/{{hash prefix}}/{{hash}}.json}, and every snapshot is stored as a {@link SnapshotManifest}
+ * of the record hash of each id in {@code {{table}}/manifests/{{time}}.manifest}. Consecutive snapshots only add the
+ * records that changed between them, so keeping every snapshot costs a manifest per snapshot plus the changes.
+ * <p>
+ * Snapshots are looked up "as of" a time, which selects the latest snapshot taken at or before the time. Looking up a
+ * single {@link Equipment} at a time reads one manifest and one record, and diffing two snapshots reads only their two
+ * manifests. Manifests and records are immutable once written, so recently read manifests and records are cached.
+ * <p>
+ * The times of the snapshots are listed from the {@link SnapshotStorage} once and kept in memory, so looking up a
+ * snapshot as of a time does not list every manifest again. Snapshots written through the {@link SnapshotHistory} are
+ * added to the times as they are written, while snapshots written by other processes become visible after
+ * {@link SnapshotHistory#refresh()}. The time of the latest snapshot is also stored in {@code {{table}}/latest}, so
+ * writing a snapshot never needs to list the manifests.
+ * <p>
+ * {@link SnapshotHistory} is thread-safe as long as snapshots are not written concurrently with the same time.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code history.write(System.currentTimeMillis(), repository.load());}
+ * <p>
+ * {@code Optional<Equipment> equipment = history.lookup(id, date.getTime());}
+ * <p>
+ * {@code SnapshotDiff diff = history.diff(lastWeek, now);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class SnapshotHistory {
+    private static final Gson GSON = GearSetupGsonFactory.create();
+    private static final int MANIFEST_CACHE_SIZE = 16;
+    private static final int RECORD_CACHE_SIZE = 8192;
+    private static final String MANIFEST_EXTENSION = ".manifest";
+    private static final String LATEST = "/latest";
+    private final SnapshotStorage storage;
+    private final String table;
+    private final Cache<Long, SnapshotManifest> manifests = CacheBuilder.newBuilder().maximumSize(MANIFEST_CACHE_SIZE).build();
+    private final Cache<String, Equipment> records = CacheBuilder.newBuilder().maximumSize(RECORD_CACHE_SIZE).build();
+    //times of the snapshots, listed from the storage on first use
+    private volatile NavigableSet<Long> times;
+
+    /**
+     * Constructs a new {@link SnapshotHistory} of the specified table stored in the {@link SnapshotStorage}.
+     *
+     * @param storage the storage of the history
+     * @param table   the table the snapshots are taken of, which prefixes every key of the history
+     */
+    public SnapshotHistory(@NonNull SnapshotStorage storage, @NonNull String table) {
+        this.storage = storage;
+        this.table = table;
+    }
+
+    /**
+     * Writes a snapshot of the specified {@link Equipment} taken at the specified time.
+     * <p>
+     * Only records that are not already stored are written. Records referenced by the latest snapshot are known to
+     * be stored without asking the {@link SnapshotStorage}, so an unchanged catalog writes just its manifest and the
+     * pointer to the latest snapshot.
+     *
+     * @param time      the time of the snapshot in milliseconds since the epoch
+     * @param equipment the equipment of the snapshot
+     * @return the manifest of the snapshot
+     * @throws IllegalArgumentException indicating a snapshot already exists at the time or two pieces of equipment share the same id
+     */
+    public SnapshotManifest write(long time, @NonNull Collection<Equipment> equipment) {
+        String manifestKey = getManifestKey(time);
+        if (storage.exists(manifestKey)) {
+            throw new IllegalArgumentException("Snapshot already exists at " + time + ".");
+        }
+        TreeMap<Integer, Equipment> sorted = new TreeMap<>();
+        for (Equipment value : equipment) {
+            if (sorted.put(value.getId(), value) != null) {
+                throw new IllegalArgumentException("Duplicate equipment id " + value.getId() + ".");
+            }
+        }
+        Set<String> stored = new HashSet<>();
+        Optional<Long> latestTime = getLatestTime();
+        latestTime.map(this::readManifest).ifPresent(latest -> {
+            for (int i = 0; i < latest.size(); i++) {
+                stored.add(latest.getHash(i));
+            }
+        });
+        int[] ids = new int[sorted.size()];
+        String[] hashes = new String[ids.length];
+        int index = 0;
+        for (Equipment value : sorted.values()) {
+            byte[] json = GSON.toJson(value, Equipment.class).getBytes(StandardCharsets.UTF_8);
+            String hash = Hashing.sha256().hashBytes(json).toString();
+            if (stored.add(hash)) {
+                String key = getRecordKey(hash);
+                if (!storage.exists(key)) {
+                    storage.write(key, json);
+                }
+            }
+            ids[index] = value.getId();
+            hashes[index++] = hash;
+        }
+        SnapshotManifest manifest = new SnapshotManifest(time, ids, hashes);
+        //the manifest is written last, so a snapshot is never visible before all of its records
+        storage.write(manifestKey, manifest.encode());
+        manifests.put(time, manifest);
+        //backfilled snapshots older than the latest snapshot do not move the pointer
+        if (!latestTime.isPresent() || latestTime.get() < time) {
+            storage.write(table + LATEST, Long.toString(time).getBytes(StandardCharsets.UTF_8));
+        }
+        NavigableSet<Long> snapshotTimes = times;
+        if (snapshotTimes != null) {
+            snapshotTimes.add(time);
+        }
+        return manifest;
+    }
+
+    /**
+     * Represents the time of every snapshot of the history in ascending order.
+     *
+     * @return the times of the snapshots
+     */
+    public List<Long> getTimes() {
+        return ImmutableList.copyOf(getTimeIndex());
+    }
+
+    /**
+     * Lists the times of the snapshots from the {@link SnapshotStorage} again, so snapshots written by other processes
+     * become visible to lookups.
+     */
+    public void refresh() {
+        times = listTimes();
+    }
+
+    /**
+     * Reads the {@link SnapshotManifest} of the latest snapshot taken at or before the specified time.
+     *
+     * @param time the time in milliseconds since the epoch
+     * @return the manifest as of the time or {@link Optional#empty()} if there is no snapshot at or before the time
+     */
+    public Optional<SnapshotManifest> getManifest(long time) {
+        return Optional.ofNullable(getTimeIndex().floor(time)).map(this::readManifest);
+    }
+
+    /**
+     * Reads the {@link Equipment} record with the specified hash.
+     *
+     * @param hash the hash of the record
+     * @return the equipment of the record
+     * @throws IllegalStateException indicating the history has no record with the hash
+     */
+    public Equipment getRecord(@NonNull String hash) {
+        try {
+            return records.get(hash, () -> {
+                byte[] json = storage.read(getRecordKey(hash))
+                        .orElseThrow(() -> new IllegalStateException("Missing snapshot record " + hash + "."));
+                return GSON.fromJson(new String(json, StandardCharsets.UTF_8), Equipment.class);
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException("Unable to read snapshot record " + hash + ".", e.getCause());
+        }
+    }
+
+    /**
+     * Looks up the {@link Equipment} with the specified id as of the specified time.
+     *
+     * @param id   the id of the equipment
+     * @param time the time in milliseconds since the epoch
+     * @return the equipment as of the time or {@link Optional#empty()} if it was not present in the snapshot as of the time
+     */
+    public Optional<Equipment> lookup(int id, long time) {
+        return getManifest(time).flatMap(manifest -> manifest.find(id)).map(this::getRecord);
+    }
+
+    /**
+     * Loads every {@link Equipment} of the snapshot as of the specified time.
+     *
+     * @param time the time in milliseconds since the epoch
+     * @return the equipment of the snapshot as of the time, which is empty if there is no snapshot at or before the time
+     */
+    public Set<Equipment> load(long time) {
+        Set<Equipment> equipment = new HashSet<>();
+        getManifest(time).ifPresent(manifest -> {
+            for (int i = 0; i < manifest.size(); i++) {
+                equipment.add(getRecord(manifest.getHash(i)));
+            }
+        });
+        return equipment;
+    }
+
+    /**
+     * Computes the {@link SnapshotDiff} between the snapshots as of the specified times.
+     * <p>
+     * The diff is a single merge of the two manifests by ascending id, so no {@link Equipment} record is read. Every
+     * piece of equipment is added if there is no snapshot as of the older time.
+     *
+     * @param from the older time in milliseconds since the epoch
+     * @param to   the newer time in milliseconds since the epoch
+     * @return the diff between the snapshots
+     */
+    public SnapshotDiff diff(long from, long to) {
+        SnapshotManifest empty = new SnapshotManifest(from, new int[0], new String[0]);
+        SnapshotManifest older = getManifest(from).orElse(empty);
+        SnapshotManifest newer = getManifest(to).orElse(empty);
+        List<Integer> added = new ArrayList<>();
+        List<Integer> removed = new ArrayList<>();
+        List<Integer> changed = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < older.size() || j < newer.size()) {
+            if (j == newer.size() || (i < older.size() && older.getId(i) < newer.getId(j))) {
+                removed.add(older.getId(i++));
+            } else if (i == older.size() || newer.getId(j) < older.getId(i)) {
+                added.add(newer.getId(j++));
+            } else {
+                if (!older.getHash(i).equals(newer.getHash(j))) {
+                    changed.add(newer.getId(j));
+                }
+                i++;
+                j++;
+            }
+        }
+        return SnapshotDiff.of(from, to, added, removed, changed);
+    }
+
+    /**
+     * Represents the times of the snapshots, listing them from the {@link SnapshotStorage} on first use.
+     *
+     * @return the times of the snapshots
+     */
+    private NavigableSet<Long> getTimeIndex() {
+        NavigableSet<Long> index = times;
+        if (index == null) {
+            synchronized (this) {
+                index = times;
+                if (index == null) {
+                    index = listTimes();
+                    times = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Lists the times of every manifest of the history in the {@link SnapshotStorage}.
+     *
+     * @return the times of the snapshots
+     */
+    private NavigableSet<Long> listTimes() {
+        String prefix = table + "/manifests/";
+        NavigableSet<Long> times = new ConcurrentSkipListSet<>();
+        for (String key : storage.list(prefix)) {
+            if (key.endsWith(MANIFEST_EXTENSION)) {
+                times.add(Long.parseLong(key.substring(prefix.length(), key.length() - MANIFEST_EXTENSION.length())));
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Represents the time of the latest snapshot, read from the pointer to the latest snapshot when it is stored and from
+     * the times of the snapshots otherwise.
+     * <p>
+     * The pointer is read even when the times of the snapshots are known, as another process may have written a later
+     * snapshot since they were listed, which must neither be moved back by a backfilled snapshot nor hide its records.
+     *
+     * @return the time of the latest snapshot or {@link Optional#empty()} if the history has no snapshot
+     */
+    private Optional<Long> getLatestTime() {
+        Optional<byte[]> latest = storage.read(table + LATEST);
+        if (latest.isPresent()) {
+            return Optional.of(Long.parseLong(new String(latest.get(), StandardCharsets.UTF_8)));
+        }
+        //histories written before the pointer was stored
+        NavigableSet<Long> index = getTimeIndex();
+        return index.isEmpty() ? Optional.empty() : Optional.of(index.last());
+    }
+
+    /**
+     * Reads the {@link SnapshotManifest} of the snapshot taken at exactly the specified time.
+     *
+     * @param time the time of the snapshot
+     * @return the manifest of the snapshot
+     * @throws IllegalStateException indicating the history has no snapshot at the time
+     */
+    private SnapshotManifest readManifest(long time) {
+        try {
+            return manifests.get(time, () -> SnapshotManifest.decode(storage.read(getManifestKey(time))
+                    .orElseThrow(() -> new IllegalStateException("Missing snapshot manifest " + time + "."))));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException("Unable to read snapshot manifest " + time + ".", e.getCause());
+        }
+    }
+
+    /**
+     * Represents the key of the {@link SnapshotManifest} of the snapshot taken at the specified time.
+     *
+     * @param time the time of the snapshot
+     * @return the key of the manifest
+     */
+    private String getManifestKey(long time) {
+        return table + "/manifests/" + time + MANIFEST_EXTENSION;
+    }
+
+    /**
+     * Represents the key of the record with the specified hash, where the first byte of the hash spreads records
+     * over directories of the local file system and key prefixes of S3.
+     *
+     * @param hash the hash of the record
+     * @return the key of the record
+     */
+    private String getRecordKey(String hash) {
+        return table + "/records/" + hash.substring(0, 2) + "/" + hash + ".json";
+    }
+}
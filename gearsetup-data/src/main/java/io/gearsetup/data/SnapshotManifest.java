@@ -0,0 +1,136 @@
+package io.gearsetup.data;
+
+import io.gearsetup.Equipment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * A representation of the manifest of a single snapshot of a {@link SnapshotHistory}, which maps the id of every
+ * {@link Equipment} of the snapshot to the content hash of its record.
+ * <p>
+ * Entries of the manifest are ordered by ascending {@link Equipment#getId()}, so an id is found by binary search and
+ * two manifests are compared in a single merge pass. The manifest holds no records, so it stays small enough to read
+ * whole even when the snapshot it describes is not.
+ * <p>
+ * A manifest is encoded as UTF-8 text of the snapshot time on the first line followed by one line of the id and hash
+ * of each entry separated by a space.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code Optional<String> hash = history.getManifest(time).flatMap(manifest -> manifest.find(id));}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class SnapshotManifest {
+    private final long time;
+    private final int[] ids;
+    private final String[] hashes;
+
+    /**
+     * Constructs a new {@link SnapshotManifest} of the specified entries.
+     *
+     * @param time   the time of the snapshot
+     * @param ids    the ids of every entry in ascending order
+     * @param hashes the record hash of every entry
+     */
+    SnapshotManifest(long time, int[] ids, String[] hashes) {
+        this.time = time;
+        this.ids = ids;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Represents the time of the snapshot in milliseconds since the epoch.
+     *
+     * @return the time of the snapshot
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Represents the number of entries of the manifest, which is the number of {@link Equipment} of the snapshot.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Represents the id of the entry at the specified index.
+     *
+     * @param index the index of the entry, where entries are ordered by ascending id
+     * @return the id of the entry
+     * @throws IndexOutOfBoundsException indicating the index is outside of {@code [0, size)}
+     */
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Represents the record hash of the entry at the specified index.
+     *
+     * @param index the index of the entry, where entries are ordered by ascending id
+     * @return the record hash of the entry
+     * @throws IndexOutOfBoundsException indicating the index is outside of {@code [0, size)}
+     */
+    public String getHash(int index) {
+        return hashes[index];
+    }
+
+    /**
+     * Finds the record hash of the {@link Equipment} with the specified id.
+     *
+     * @param id the id of the equipment
+     * @return the record hash or {@link Optional#empty()} if the snapshot has no equipment with the id
+     */
+    public Optional<String> find(int id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index < 0 ? Optional.empty() : Optional.of(hashes[index]);
+    }
+
+    /**
+     * Encodes the manifest as UTF-8 text.
+     *
+     * @return the encoded manifest
+     */
+    byte[] encode() {
+        StringBuilder builder = new StringBuilder(ids.length * 72).append(time).append('\n');
+        for (int i = 0; i < ids.length; i++) {
+            builder.append(ids[i]).append(' ').append(hashes[i]).append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a manifest encoded by {@link SnapshotManifest#encode()}.
+     *
+     * @param bytes the encoded manifest
+     * @return the decoded manifest
+     * @throws IllegalArgumentException indicating the bytes are not an encoded manifest
+     */
+    static SnapshotManifest decode(byte[] bytes) {
+        String[] lines = new String(bytes, StandardCharsets.UTF_8).split("\n");
+        try {
+            long time = Long.parseLong(lines[0]);
+            int[] ids = new int[lines.length - 1];
+            String[] hashes = new String[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                String line = lines[i + 1];
+                int separator = line.indexOf(' ');
+                ids[i] = Integer.parseInt(line.substring(0, separator));
+                hashes[i] = line.substring(separator + 1);
+                if (i > 0 && ids[i] <= ids[i - 1]) {
+                    throw new IllegalArgumentException("Snapshot manifest ids are not in ascending order.");
+                }
+            }
+            return new SnapshotManifest(time, ids, hashes);
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed snapshot manifest.", e);
+        }
+    }
+}
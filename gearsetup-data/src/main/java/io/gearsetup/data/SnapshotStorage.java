@@ -0,0 +1,53 @@
+package io.gearsetup.data;
+
+import com.amazonaws.services.s3.AmazonS3;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A representation of a flat key-value store of objects backing a {@link SnapshotHistory}.
+ * <p>
+ * Keys are {@code /} separated paths (e.g. {@code Equipment/manifests/1536000000000.manifest}) and objects are opaque
+ * bytes. {@link S3SnapshotStorage} stores objects in {@link AmazonS3} and {@link FileSystemSnapshotStorage} stores
+ * objects as files of a local directory for testing and offline use.
+ * <p>
+ * Failures of the underlying store are thrown as unchecked exceptions of the store, such as
+ * {@link java.io.UncheckedIOException} for the local file system.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public interface SnapshotStorage {
+    /**
+     * Reads the object with the specified key.
+     *
+     * @param key the key of the object
+     * @return the bytes of the object or {@link Optional#empty()} if there is no object with the key
+     */
+    Optional<byte[]> read(String key);
+
+    /**
+     * Writes the object with the specified key, replacing any existing object with the key.
+     *
+     * @param key   the key of the object
+     * @param bytes the bytes of the object
+     */
+    void write(String key, byte[] bytes);
+
+    /**
+     * Determines whether there is an object with the specified key.
+     *
+     * @param key the key of the object
+     * @return {@code true} if there is an object with the key
+     */
+    boolean exists(String key);
+
+    /**
+     * Lists the keys of every object starting with the specified prefix in lexicographical order.
+     *
+     * @param prefix the prefix of the keys
+     * @return the keys of the objects starting with the prefix
+     */
+    List<String> list(String prefix);
+}
@@ -0,0 +1,206 @@
+package io.gearsetup.data;
+
+import com.google.common.collect.ImmutableSet;
+import io.gearsetup.AttackTypeBonuses;
+import io.gearsetup.CombatBonuses;
+import io.gearsetup.Equipment;
+import io.gearsetup.EquipmentSlot;
+import io.gearsetup.FixedAttackSpeed;
+import io.gearsetup.Skill;
+import io.gearsetup.SkillRequirement;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SnapshotHistory} stored in a {@link FileSystemSnapshotStorage} writes, looks up and diffs snapshots as
+ * of a time, only writes the manifest of an unchanged catalog, and sees snapshots written by another history once
+ * refreshed.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class SnapshotHistoryTest {
+    private static final String TABLE = "equipment";
+    private static final Equipment WHIP = equipment(4151, "Abyssal whip", 82, 0.453);
+    private static final Equipment BUFFED_WHIP = equipment(4151, "Abyssal whip", 86, 0.453);
+    private static final Equipment SCIMITAR = equipment(4587, "Dragon scimitar", 66, 1.814);
+    private static final Equipment TENTACLE = equipment(12006, "Abyssal tentacle", 86, 0.453);
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+    private CountingStorage storage;
+    private SnapshotHistory history;
+
+    @Before
+    public void createHistory() {
+        storage = new CountingStorage(new FileSystemSnapshotStorage(folder.getRoot().toPath()));
+        history = new SnapshotHistory(storage, TABLE);
+    }
+
+    @Test
+    public void looksUpTheLatestSnapshotAtOrBeforeATime() {
+        history.write(100, Arrays.asList(WHIP, SCIMITAR));
+        history.write(200, Arrays.asList(BUFFED_WHIP, TENTACLE));
+        assertEquals(Arrays.asList(100L, 200L), history.getTimes());
+        assertFalse(history.getManifest(99).isPresent());
+        assertEquals(100, history.getManifest(100).get().getTime());
+        assertEquals(100, history.getManifest(199).get().getTime());
+        assertEquals(200, history.getManifest(Long.MAX_VALUE).get().getTime());
+        assertEquals(Optional.empty(), history.lookup(4151, 99));
+        assertEquals(Optional.of(WHIP), history.lookup(4151, 150));
+        assertEquals(Optional.of(BUFFED_WHIP), history.lookup(4151, 200));
+        assertEquals(Optional.of(SCIMITAR), history.lookup(4587, 199));
+        assertEquals(Optional.empty(), history.lookup(4587, 200));
+        assertEquals(Optional.empty(), history.lookup(12006, 150));
+        assertEquals(ImmutableSet.of(WHIP, SCIMITAR), history.load(150));
+        assertEquals(ImmutableSet.of(BUFFED_WHIP, TENTACLE), history.load(250));
+        assertEquals(Collections.emptySet(), history.load(50));
+    }
+
+    @Test
+    public void readsSnapshotsWrittenByAnEarlierHistory() {
+        history.write(100, Arrays.asList(WHIP, SCIMITAR));
+        SnapshotHistory reopened = new SnapshotHistory(storage, TABLE);
+        assertEquals(Collections.singletonList(100L), reopened.getTimes());
+        assertEquals(Optional.of(WHIP), reopened.lookup(4151, 100));
+        assertEquals(ImmutableSet.of(WHIP, SCIMITAR), reopened.load(100));
+    }
+
+    @Test
+    public void diffsSnapshotsByManifest() {
+        history.write(100, Arrays.asList(WHIP, SCIMITAR));
+        history.write(200, Arrays.asList(BUFFED_WHIP, TENTACLE));
+        int reads = storage.reads;
+        SnapshotDiff diff = history.diff(100, 200);
+        assertEquals(100, diff.getFrom());
+        assertEquals(200, diff.getTo());
+        assertEquals(Collections.singletonList(12006), diff.getAdded());
+        assertEquals(Collections.singletonList(4587), diff.getRemoved());
+        assertEquals(Collections.singletonList(4151), diff.getChanged());
+        //both manifests are cached from their writes, so no record is read
+        assertEquals(reads, storage.reads);
+        SnapshotDiff unchanged = history.diff(150, 199);
+        assertTrue(unchanged.getAdded().isEmpty() && unchanged.getRemoved().isEmpty() && unchanged.getChanged().isEmpty());
+        //every piece of equipment is added when there is no snapshot as of the older time
+        assertEquals(Arrays.asList(4151, 4587), history.diff(50, 100).getAdded());
+    }
+
+    @Test
+    public void unchangedCatalogsOnlyWriteTheManifest() {
+        history.write(100, Arrays.asList(WHIP, SCIMITAR));
+        int records = recordCount();
+        assertEquals(2, records);
+        int writes = storage.writes;
+        int exists = storage.exists;
+        history.write(200, Arrays.asList(SCIMITAR, WHIP));
+        //the manifest and the pointer to the latest snapshot
+        assertEquals(writes + 2, storage.writes);
+        //only the manifest is checked, the records of the latest snapshot are known to be stored
+        assertEquals(exists + 1, storage.exists);
+        assertEquals(records, recordCount());
+        assertEquals(history.getManifest(100).get().getHash(0), history.getManifest(200).get().getHash(0));
+        //a single changed record is the only record written
+        history.write(300, Arrays.asList(BUFFED_WHIP, SCIMITAR));
+        assertEquals(records + 1, recordCount());
+    }
+
+    @Test
+    public void refreshSeesSnapshotsOfAnotherHistory() {
+        history.write(100, Arrays.asList(WHIP, SCIMITAR));
+        SnapshotHistory other = new SnapshotHistory(storage, TABLE);
+        other.write(200, Arrays.asList(BUFFED_WHIP, TENTACLE));
+        //the times are kept in memory until refreshed
+        assertEquals(Collections.singletonList(100L), history.getTimes());
+        assertEquals(Optional.of(WHIP), history.lookup(4151, 200));
+        history.refresh();
+        assertEquals(Arrays.asList(100L, 200L), history.getTimes());
+        assertEquals(Optional.of(BUFFED_WHIP), history.lookup(4151, 200));
+        assertEquals(Optional.of(TENTACLE), history.lookup(12006, 250));
+    }
+
+    @Test
+    public void backfilledSnapshotsDoNotMoveTheLatestSnapshotOfAnotherHistory() {
+        history.write(100, Arrays.asList(WHIP, SCIMITAR));
+        assertEquals(Collections.singletonList(100L), history.getTimes());
+        new SnapshotHistory(storage, TABLE).write(300, Arrays.asList(BUFFED_WHIP, TENTACLE));
+        //the times of this history are stale, but the snapshot is still older than the latest snapshot
+        history.write(200, Arrays.asList(WHIP, TENTACLE));
+        assertEquals("300", new String(storage.read(TABLE + "/latest").get(), StandardCharsets.UTF_8));
+        SnapshotHistory reopened = new SnapshotHistory(storage, TABLE);
+        assertEquals(Arrays.asList(100L, 200L, 300L), reopened.getTimes());
+        assertEquals(Optional.of(BUFFED_WHIP), reopened.lookup(4151, 300));
+        reopened.write(400, Arrays.asList(BUFFED_WHIP, TENTACLE));
+        assertEquals(ImmutableSet.of(BUFFED_WHIP, TENTACLE), new SnapshotHistory(storage, TABLE).load(400));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsASecondSnapshotAtTheSameTime() {
+        history.write(100, Collections.singletonList(WHIP));
+        history.write(100, Collections.singletonList(SCIMITAR));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDuplicateIds() {
+        history.write(100, Arrays.asList(WHIP, BUFFED_WHIP));
+    }
+
+    private int recordCount() {
+        return new HashSet<>(storage.list(TABLE + "/records/")).size();
+    }
+
+    private static Equipment equipment(int id, String name, int slashBonus, double weight) {
+        CombatBonuses bonuses = CombatBonuses.of(AttackTypeBonuses.of(0, slashBonus, 0, 0, 0), AttackTypeBonuses.of(0, 0, 0, 0, 0),
+                0, slashBonus, 0, 0);
+        return Equipment.of(id, name, EnumSet.of(EquipmentSlot.WEAPON), bonuses, FixedAttackSpeed.of(4),
+                ImmutableSet.of(SkillRequirement.of(Skill.ATTACK, 70)), weight);
+    }
+
+    /**
+     * A {@link SnapshotStorage} counting the calls made to the wrapped storage.
+     */
+    private static final class CountingStorage implements SnapshotStorage {
+        private final SnapshotStorage storage;
+        private int reads;
+        private int writes;
+        private int exists;
+
+        private CountingStorage(SnapshotStorage storage) {
+            this.storage = storage;
+        }
+
+        @Override
+        public Optional<byte[]> read(String key) {
+            reads++;
+            return storage.read(key);
+        }
+
+        @Override
+        public void write(String key, byte[] bytes) {
+            writes++;
+            storage.write(key, bytes);
+        }
+
+        @Override
+        public boolean exists(String key) {
+            exists++;
+            return storage.exists(key);
+        }
+
+        @Override
+        public List<String> list(String prefix) {
+            return new ArrayList<>(storage.list(prefix));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package io.gearsetup.gson;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.gearsetup.AttackSpeed;
+import io.gearsetup.AttackType;
+import io.gearsetup.FixedAttackSpeed;
+import io.gearsetup.TargetDependentAttackSpeed;
+import io.gearsetup.TypeDependentAttackSpeed;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A streaming {@link TypeAdapter} for the {@link AttackSpeed} class hierarchy.
+ * <p>
+ * Each implementation of {@link AttackSpeed} is written without a wrapper object, where {@link TypeDependentAttackSpeed}
+ * is written as the object of its attack speeds by {@link AttackType}. The implementation is written as the leading
+ * {@code type} discriminator of the object, so the object is read in a single pass without buffering it into a tree.
+ * <p>
+ * Objects without a discriminator, written before the discriminator was introduced, are read by the first name of the
+ * object instead, as the names of each implementation are disjoint. An empty object is a {@link TypeDependentAttackSpeed}
+ * without attack speeds. A discriminator after the first name must name the implementation chosen by the first name.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code {"type":"fixed","speed":4}}
+ * <p>
+ * {@code {"type":"typeDependent","MAGIC":{"type":"fixed","speed":5}}}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+final class AttackSpeedTypeAdapter extends TypeAdapter<AttackSpeed> {
+    private static final EnumTable<AttackType> ATTACK_TYPES = EnumTable.of(AttackType.class);
+    private static final String TYPE = "type";
+    private static final String FIXED = "fixed";
+    private static final String TARGET_DEPENDENT = "targetDependent";
+    private static final String TYPE_DEPENDENT = "typeDependent";
+
+    @Override
+    public void write(JsonWriter out, AttackSpeed value) throws IOException {
+        out.beginObject();
+        if (value instanceof FixedAttackSpeed) {
+            out.name(TYPE).value(FIXED);
+            out.name("speed").value(((FixedAttackSpeed) value).getSpeed());
+        } else if (value instanceof TargetDependentAttackSpeed) {
+            TargetDependentAttackSpeed speed = (TargetDependentAttackSpeed) value;
+            out.name(TYPE).value(TARGET_DEPENDENT);
+            out.name("playerAttackSpeed");
+            write(out, speed.getPlayerAttackSpeed());
+            out.name("monsterAttackSpeed");
+            write(out, speed.getMonsterAttackSpeed());
+        } else if (value instanceof TypeDependentAttackSpeed) {
+            out.name(TYPE).value(TYPE_DEPENDENT);
+            for (Map.Entry<AttackType, AttackSpeed> entry : ((TypeDependentAttackSpeed) value).getAttackSpeeds().entrySet()) {
+                out.name(entry.getKey().name());
+                write(out, entry.getValue());
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown attack speed implementation " + value.getClass().getName() + ".");
+        }
+        out.endObject();
+    }
+
+    @Override
+    public AttackSpeed read(JsonReader in) throws IOException {
+        in.beginObject();
+        String name = in.hasNext() ? in.nextName() : null;
+        AttackSpeed speed = TYPE.equals(name) ? readDiscriminated(in) : readUndiscriminated(in, name);
+        in.endObject();
+        return speed;
+    }
+
+    /**
+     * Reads the remaining names of an object starting with the {@code type} discriminator.
+     *
+     * @param in the reader positioned at the value of the discriminator
+     * @return the attack speed
+     * @throws IOException        indicating the reader failed to read the object
+     * @throws JsonParseException indicating the discriminator is not an attack speed implementation
+     */
+    private AttackSpeed readDiscriminated(JsonReader in) throws IOException {
+        String path = in.getPath();
+        String type = in.nextString();
+        String name = in.hasNext() ? in.nextName() : null;
+        switch (type) {
+            case FIXED:
+                return readFixed(in, name);
+            case TARGET_DEPENDENT:
+                return readTargetDependent(in, name);
+            case TYPE_DEPENDENT:
+                return readTypeDependent(in, name);
+            default:
+                throw new JsonParseException("Unknown attack speed type " + type + " at " + path + ".");
+        }
+    }
+
+    /**
+     * Reads the remaining names of an object without a discriminator, starting with the specified name.
+     *
+     * @param in   the reader positioned at the value of the first name
+     * @param name the first name of the object or {@code null} if the object is empty
+     * @return the attack speed
+     * @throws IOException indicating the reader failed to read the object
+     */
+    private AttackSpeed readUndiscriminated(JsonReader in, String name) throws IOException {
+        if (name == null) {
+            return TypeDependentAttackSpeed.of(new EnumMap<>(AttackType.class));
+        }
+        switch (name) {
+            case "speed":
+                return readFixed(in, name);
+            case "playerAttackSpeed":
+            case "monsterAttackSpeed":
+                return readTargetDependent(in, name);
+            default:
+                return readTypeDependent(in, name);
+        }
+    }
+
+    /**
+     * Reads the remaining names of a {@link FixedAttackSpeed} object, starting with the specified name.
+     *
+     * @param in   the reader positioned at the value of the first name
+     * @param name the first name of the object or {@code null} if the object has no more names
+     * @return the fixed attack speed
+     * @throws IOException indicating the reader failed to read the object
+     */
+    private FixedAttackSpeed readFixed(JsonReader in, String name) throws IOException {
+        FixedAttackSpeed.Builder builder = FixedAttackSpeed.builder();
+        for (; name != null; name = in.hasNext() ? in.nextName() : null) {
+            if (name.equals("speed")) {
+                builder.setSpeed(in.nextInt());
+            } else if (name.equals(TYPE)) {
+                readType(in, FIXED);
+            } else {
+                in.skipValue();
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads the remaining names of a {@link TargetDependentAttackSpeed} object, starting with the specified name.
+     *
+     * @param in   the reader positioned at the value of the first name
+     * @param name the first name of the object or {@code null} if the object has no more names
+     * @return the target dependent attack speed
+     * @throws IOException indicating the reader failed to read the object
+     */
+    private TargetDependentAttackSpeed readTargetDependent(JsonReader in, String name) throws IOException {
+        TargetDependentAttackSpeed.Builder builder = TargetDependentAttackSpeed.builder();
+        for (; name != null; name = in.hasNext() ? in.nextName() : null) {
+            switch (name) {
+                case "playerAttackSpeed":
+                    builder.setPlayerAttackSpeed(read(in));
+                    break;
+                case "monsterAttackSpeed":
+                    builder.setMonsterAttackSpeed(read(in));
+                    break;
+                case TYPE:
+                    readType(in, TARGET_DEPENDENT);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads the remaining names of a {@link TypeDependentAttackSpeed} object, starting with the specified name.
+     *
+     * @param in   the reader positioned at the value of the first name
+     * @param name the first name of the object or {@code null} if the object has no more names
+     * @return the type dependent attack speed
+     * @throws IOException        indicating the reader failed to read the object
+     * @throws JsonParseException indicating a name is not an attack type
+     */
+    private TypeDependentAttackSpeed readTypeDependent(JsonReader in, String name) throws IOException {
+        Map<AttackType, AttackSpeed> speeds = new EnumMap<>(AttackType.class);
+        for (; name != null; name = in.hasNext() ? in.nextName() : null) {
+            if (name.equals(TYPE)) {
+                readType(in, TYPE_DEPENDENT);
+                continue;
+            }
+            AttackType type = ATTACK_TYPES.find(name);
+            if (type == null) {
+                throw new JsonParseException("Unknown attack speed property " + name + " at " + in.getPath() + ".");
+            }
+            speeds.put(type, read(in));
+        }
+        return TypeDependentAttackSpeed.of(speeds);
+    }
+
+    /**
+     * Reads a {@code type} discriminator that follows other names of the object, which must name the implementation
+     * already chosen by the names before it.
+     *
+     * @param in       the reader positioned at the value of the discriminator
+     * @param expected the discriminator of the chosen implementation
+     * @throws IOException        indicating the reader failed to read the discriminator
+     * @throws JsonParseException indicating the discriminator is another implementation
+     */
+    private static void readType(JsonReader in, String expected) throws IOException {
+        String path = in.getPath();
+        String type = in.nextString();
+        if (!type.equals(expected)) {
+            throw new JsonParseException("Expected attack speed type " + expected + " but was " + type + " at " + path + ".");
+        }
+    }
+}
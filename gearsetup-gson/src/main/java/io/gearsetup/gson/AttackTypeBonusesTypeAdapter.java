@@ -0,0 +1,56 @@
+package io.gearsetup.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.gearsetup.AttackTypeBonuses;
+
+import java.io.IOException;
+
+/**
+ * A streaming {@link TypeAdapter} for {@link AttackTypeBonuses}.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+final class AttackTypeBonusesTypeAdapter extends TypeAdapter<AttackTypeBonuses> {
+    @Override
+    public void write(JsonWriter out, AttackTypeBonuses value) throws IOException {
+        out.beginObject();
+        out.name("stabBonus").value(value.getStabBonus());
+        out.name("slashBonus").value(value.getSlashBonus());
+        out.name("crushBonus").value(value.getCrushBonus());
+        out.name("magicBonus").value(value.getMagicBonus());
+        out.name("rangedBonus").value(value.getRangedBonus());
+        out.endObject();
+    }
+
+    @Override
+    public AttackTypeBonuses read(JsonReader in) throws IOException {
+        AttackTypeBonuses.Builder builder = AttackTypeBonuses.builder();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "stabBonus":
+                    builder.setStabBonus(in.nextInt());
+                    break;
+                case "slashBonus":
+                    builder.setSlashBonus(in.nextInt());
+                    break;
+                case "crushBonus":
+                    builder.setCrushBonus(in.nextInt());
+                    break;
+                case "magicBonus":
+                    builder.setMagicBonus(in.nextInt());
+                    break;
+                case "rangedBonus":
+                    builder.setRangedBonus(in.nextInt());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return builder.build();
+    }
+}
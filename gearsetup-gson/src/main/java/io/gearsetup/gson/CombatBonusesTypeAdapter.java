@@ -0,0 +1,69 @@
+package io.gearsetup.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.gearsetup.AttackTypeBonuses;
+import io.gearsetup.CombatBonuses;
+
+import java.io.IOException;
+
+/**
+ * A streaming {@link TypeAdapter} for {@link CombatBonuses}.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+final class CombatBonusesTypeAdapter extends TypeAdapter<CombatBonuses> {
+    private final TypeAdapter<AttackTypeBonuses> attackTypeBonuses;
+
+    CombatBonusesTypeAdapter(TypeAdapter<AttackTypeBonuses> attackTypeBonuses) {
+        this.attackTypeBonuses = attackTypeBonuses;
+    }
+
+    @Override
+    public void write(JsonWriter out, CombatBonuses value) throws IOException {
+        out.beginObject();
+        out.name("attackBonuses");
+        attackTypeBonuses.write(out, value.getAttackBonuses());
+        out.name("defenceBonuses");
+        attackTypeBonuses.write(out, value.getDefenceBonuses());
+        out.name("prayerBonus").value(value.getPrayerBonus());
+        out.name("meleeStrength").value(value.getMeleeStrength());
+        out.name("rangedStrength").value(value.getRangedStrength());
+        out.name("magicStrength").value(value.getMagicStrength());
+        out.endObject();
+    }
+
+    @Override
+    public CombatBonuses read(JsonReader in) throws IOException {
+        CombatBonuses.Builder builder = CombatBonuses.builder();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "attackBonuses":
+                    builder.setAttackBonuses(attackTypeBonuses.read(in));
+                    break;
+                case "defenceBonuses":
+                    builder.setDefenceBonuses(attackTypeBonuses.read(in));
+                    break;
+                case "prayerBonus":
+                    builder.setPrayerBonus(in.nextInt());
+                    break;
+                case "meleeStrength":
+                    builder.setMeleeStrength(in.nextInt());
+                    break;
+                case "rangedStrength":
+                    builder.setRangedStrength(in.nextInt());
+                    break;
+                case "magicStrength":
+                    builder.setMagicStrength(in.nextInt());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return builder.build();
+    }
+}
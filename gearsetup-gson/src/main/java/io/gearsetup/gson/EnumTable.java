@@ -0,0 +1,69 @@
+package io.gearsetup.gson;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A representation of the lookup table of the constants of an enumeration by name, which is built once for each
+ * enumeration so reading a constant is a single hash lookup of the name read by a {@link JsonReader}.
+ *
+ * @param <E> the type of the enumeration
+ * @author Ian Caffey
+ * @since 1.0
+ */
+final class EnumTable<E extends Enum<E>> {
+    private final Class<E> type;
+    private final Map<String, E> constants;
+
+    private EnumTable(Class<E> type, Map<String, E> constants) {
+        this.type = type;
+        this.constants = constants;
+    }
+
+    /**
+     * Constructs a new {@link EnumTable} of the constants of the specified enumeration.
+     *
+     * @param type the type of the enumeration
+     * @param <E>  the type of the enumeration
+     * @return a new lookup table of the enumeration
+     */
+    static <E extends Enum<E>> EnumTable<E> of(Class<E> type) {
+        E[] values = type.getEnumConstants();
+        Map<String, E> constants = new HashMap<>(values.length * 2);
+        for (E value : values) {
+            constants.put(value.name(), value);
+        }
+        return new EnumTable<>(type, constants);
+    }
+
+    /**
+     * Finds the constant with the specified name.
+     *
+     * @param name the name of the constant
+     * @return the constant with the name or {@code null} if the enumeration has no constant with the name
+     */
+    E find(String name) {
+        return constants.get(name);
+    }
+
+    /**
+     * Reads the name of a constant from the specified {@link JsonReader}.
+     *
+     * @param in the reader to read the name from
+     * @return the constant with the name
+     * @throws IOException        indicating the reader failed to read the name
+     * @throws JsonParseException indicating the enumeration has no constant with the name
+     */
+    E read(JsonReader in) throws IOException {
+        String name = in.nextString();
+        E value = constants.get(name);
+        if (value == null) {
+            throw new JsonParseException("Unknown " + type.getSimpleName() + " " + name + " at " + in.getPath() + ".");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,159 @@
+package io.gearsetup.gson;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.gearsetup.EquipmentRequirement;
+import io.gearsetup.QuestRequirement;
+import io.gearsetup.Skill;
+import io.gearsetup.SkillRequirement;
+
+import java.io.IOException;
+
+/**
+ * A streaming {@link TypeAdapter} for the {@link EquipmentRequirement} class hierarchy.
+ * <p>
+ * The implementation is written as the leading {@code type} discriminator of the object, so the object is read in a
+ * single pass without buffering it into a tree.
+ * <p>
+ * Objects without a discriminator, written before the discriminator was introduced, are read by the first name of the
+ * object instead, as the names of {@link QuestRequirement} and {@link SkillRequirement} are disjoint. A discriminator
+ * after the first name must name the implementation chosen by the first name.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code {"type":"skill","skill":"ATTACK","level":40}}
+ * <p>
+ * {@code {"type":"quest","questName":"Dragon Slayer"}}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+final class EquipmentRequirementTypeAdapter extends TypeAdapter<EquipmentRequirement> {
+    private static final EnumTable<Skill> SKILLS = EnumTable.of(Skill.class);
+    private static final String TYPE = "type";
+    private static final String QUEST = "quest";
+    private static final String SKILL = "skill";
+
+    @Override
+    public void write(JsonWriter out, EquipmentRequirement value) throws IOException {
+        out.beginObject();
+        if (value instanceof QuestRequirement) {
+            out.name(TYPE).value(QUEST);
+            out.name("questName").value(((QuestRequirement) value).getQuestName());
+        } else if (value instanceof SkillRequirement) {
+            SkillRequirement requirement = (SkillRequirement) value;
+            out.name(TYPE).value(SKILL);
+            out.name("skill").value(requirement.getSkill().name());
+            out.name("level").value(requirement.getLevel());
+        } else {
+            throw new IllegalArgumentException("Unknown equipment requirement implementation " + value.getClass().getName() + ".");
+        }
+        out.endObject();
+    }
+
+    @Override
+    public EquipmentRequirement read(JsonReader in) throws IOException {
+        in.beginObject();
+        String name = in.hasNext() ? in.nextName() : null;
+        EquipmentRequirement requirement;
+        if (TYPE.equals(name)) {
+            requirement = readDiscriminated(in);
+        } else {
+            //objects without a discriminator are a quest requirement only if they start with the quest name
+            requirement = "questName".equals(name) ? readQuest(in, name) : readSkill(in, name);
+        }
+        in.endObject();
+        return requirement;
+    }
+
+    /**
+     * Reads the remaining names of an object starting with the {@code type} discriminator.
+     *
+     * @param in the reader positioned at the value of the discriminator
+     * @return the equipment requirement
+     * @throws IOException        indicating the reader failed to read the object
+     * @throws JsonParseException indicating the discriminator is not an equipment requirement implementation
+     */
+    private EquipmentRequirement readDiscriminated(JsonReader in) throws IOException {
+        String path = in.getPath();
+        String type = in.nextString();
+        String name = in.hasNext() ? in.nextName() : null;
+        switch (type) {
+            case QUEST:
+                return readQuest(in, name);
+            case SKILL:
+                return readSkill(in, name);
+            default:
+                throw new JsonParseException("Unknown equipment requirement type " + type + " at " + path + ".");
+        }
+    }
+
+    /**
+     * Reads the remaining names of a {@link QuestRequirement} object, starting with the specified name.
+     *
+     * @param in   the reader positioned at the value of the first name
+     * @param name the first name of the object or {@code null} if the object has no more names
+     * @return the quest requirement
+     * @throws IOException indicating the reader failed to read the object
+     */
+    private QuestRequirement readQuest(JsonReader in, String name) throws IOException {
+        QuestRequirement.Builder builder = QuestRequirement.builder();
+        for (; name != null; name = in.hasNext() ? in.nextName() : null) {
+            if (name.equals("questName")) {
+                builder.setQuestName(in.nextString());
+            } else if (name.equals(TYPE)) {
+                readType(in, QUEST);
+            } else {
+                in.skipValue();
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads the remaining names of a {@link SkillRequirement} object, starting with the specified name.
+     *
+     * @param in   the reader positioned at the value of the first name
+     * @param name the first name of the object or {@code null} if the object has no more names
+     * @return the skill requirement
+     * @throws IOException indicating the reader failed to read the object
+     */
+    private SkillRequirement readSkill(JsonReader in, String name) throws IOException {
+        SkillRequirement.Builder builder = SkillRequirement.builder();
+        for (; name != null; name = in.hasNext() ? in.nextName() : null) {
+            switch (name) {
+                case "skill":
+                    builder.setSkill(SKILLS.read(in));
+                    break;
+                case "level":
+                    builder.setLevel(in.nextInt());
+                    break;
+                case TYPE:
+                    readType(in, SKILL);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads a {@code type} discriminator that follows other names of the object, which must name the implementation
+     * already chosen by the names before it.
+     *
+     * @param in       the reader positioned at the value of the discriminator
+     * @param expected the discriminator of the chosen implementation
+     * @throws IOException        indicating the reader failed to read the discriminator
+     * @throws JsonParseException indicating the discriminator is another implementation
+     */
+    private static void readType(JsonReader in, String expected) throws IOException {
+        String path = in.getPath();
+        String type = in.nextString();
+        if (!type.equals(expected)) {
+            throw new JsonParseException("Expected equipment requirement type " + expected + " but was " + type + " at " + path + ".");
+        }
+    }
+}
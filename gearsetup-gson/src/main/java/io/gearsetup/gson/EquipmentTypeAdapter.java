@@ -0,0 +1,109 @@
+package io.gearsetup.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import io.gearsetup.AttackSpeed;
+import io.gearsetup.CombatBonuses;
+import io.gearsetup.Equipment;
+import io.gearsetup.EquipmentRequirement;
+import io.gearsetup.EquipmentSlot;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * A streaming {@link TypeAdapter} for {@link Equipment}.
+ * <p>
+ * An absent {@link Equipment#getAttackSpeed()} is omitted when written and a {@code null} attack speed is read as absent.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+final class EquipmentTypeAdapter extends TypeAdapter<Equipment> {
+    private static final EnumTable<EquipmentSlot> SLOTS = EnumTable.of(EquipmentSlot.class);
+    private final TypeAdapter<CombatBonuses> combatBonuses;
+    private final TypeAdapter<AttackSpeed> attackSpeed;
+    private final TypeAdapter<EquipmentRequirement> requirement;
+
+    EquipmentTypeAdapter(TypeAdapter<CombatBonuses> combatBonuses, TypeAdapter<AttackSpeed> attackSpeed,
+                         TypeAdapter<EquipmentRequirement> requirement) {
+        this.combatBonuses = combatBonuses;
+        this.attackSpeed = attackSpeed;
+        this.requirement = requirement;
+    }
+
+    @Override
+    public void write(JsonWriter out, Equipment value) throws IOException {
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("name").value(value.getName());
+        out.name("occupiedSlots").beginArray();
+        for (EquipmentSlot slot : value.getOccupiedSlots()) {
+            out.value(slot.name());
+        }
+        out.endArray();
+        out.name("combatBonuses");
+        combatBonuses.write(out, value.getCombatBonuses());
+        Optional<AttackSpeed> speed = value.getAttackSpeed();
+        if (speed.isPresent()) {
+            out.name("attackSpeed");
+            attackSpeed.write(out, speed.get());
+        }
+        out.name("requirements").beginArray();
+        for (EquipmentRequirement requirement : value.getRequirements()) {
+            this.requirement.write(out, requirement);
+        }
+        out.endArray();
+        out.name("weight").value(value.getWeight());
+        out.endObject();
+    }
+
+    @Override
+    public Equipment read(JsonReader in) throws IOException {
+        Equipment.Builder builder = Equipment.builder();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    builder.setId(in.nextInt());
+                    break;
+                case "name":
+                    builder.setName(in.nextString());
+                    break;
+                case "occupiedSlots":
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        builder.addOccupiedSlot(SLOTS.read(in));
+                    }
+                    in.endArray();
+                    break;
+                case "combatBonuses":
+                    builder.setCombatBonuses(combatBonuses.read(in));
+                    break;
+                case "attackSpeed":
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        builder.setAttackSpeed(attackSpeed.read(in));
+                    }
+                    break;
+                case "requirements":
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        builder.addRequirement(requirement.read(in));
+                    }
+                    in.endArray();
+                    break;
+                case "weight":
+                    builder.setWeight(in.nextDouble());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return builder.build();
+    }
+}
@@ -1,13 +1,11 @@
 package io.gearsetup.gson;
 
-import com.google.gson.*;
-import com.google.gson.reflect.TypeToken;
-import io.gearsetup.AttackSpeed;
-import io.gearsetup.AttackType;
-import io.gearsetup.TypeDependentAttackSpeed;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
 import lombok.experimental.UtilityClass;
 
-import java.util.Map;
 import java.util.ServiceLoader;
 
 /**
@@ -16,8 +14,9 @@ import java.util.ServiceLoader;
  * <p>
  * <a href="https://github.com/gearsetup/gearsetup/tree/master/gearsetup-model">gearsetup-model</a> utilizes
  * <a href="https://github.com/gearsetup/gearsetup/tree/master/immutables">Immutables</a> for auto-generating {@link Gson}
- * {@link TypeAdapter} for all the model classes. These type adapters need to be found using {@link ServiceLoader} as well
- * as a few custom type adapters for wrapper classes to improve readability of the output JSON.
+ * {@link TypeAdapter} for all the model classes. These type adapters need to be found using {@link ServiceLoader} and are
+ * overridden by the streaming type adapters of {@link GearSetupTypeAdapterFactory}, which read and write the same JSON
+ * without reflection and write wrapper classes without a redundant nested JSON object.
  *
  * @author Ian Caffey
  * @since 1.0
@@ -29,8 +28,7 @@ public class GearSetupGsonFactory {
      * <a href="https://github.com/gearsetup/gearsetup/tree/master/gearsetup-model">gearsetup-model</a>.
      * <p>
      * All auto-generated {@link TypeAdapter} are found using {@code ServiceLoader.load(TypeAdapterFactory.class)}. And
-     * the serializer and deserializer override for {@link TypeDependentAttackSpeed} to remove the unnecessary nested
-     * JSON object is registered.
+     * the {@link GearSetupTypeAdapterFactory} is registered last so its type adapters take precedence.
      *
      * @return a new {@link Gson} with all necessary type adapters to serialize the gearsetup model
      */
@@ -39,14 +37,8 @@ public class GearSetupGsonFactory {
         for (TypeAdapterFactory factory : ServiceLoader.load(TypeAdapterFactory.class)) {
             gsonBuilder.registerTypeAdapterFactory(factory);
         }
-        //Custom serializer and deserializer required for wrapper objects, otherwise JSON looks redundant with extra JSON object for field being wrapped
-        gsonBuilder.registerTypeAdapter(TypeDependentAttackSpeed.class, (JsonSerializer<TypeDependentAttackSpeed>) (src, typeOfSrc, context) ->
-                context.serialize(src.getAttackSpeeds())
-        );
-        gsonBuilder.registerTypeAdapter(TypeDependentAttackSpeed.class, (JsonDeserializer<TypeDependentAttackSpeed>) (json, typeOfT, context) -> {
-            Map<AttackType, AttackSpeed> speeds = context.deserialize(json, TypeToken.getParameterized(Map.class, AttackType.class, AttackSpeed.class).getType());
-            return TypeDependentAttackSpeed.of(speeds);
-        });
+        //streaming type adapters take precedence over the auto-generated type adapters as the last registered factory
+        gsonBuilder.registerTypeAdapterFactory(new GearSetupTypeAdapterFactory());
         return gsonBuilder.create();
     }
 }
@@ -0,0 +1,95 @@
+package io.gearsetup.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.gearsetup.AttackSpeed;
+import io.gearsetup.AttackTypeBonuses;
+import io.gearsetup.CombatBonuses;
+import io.gearsetup.Equipment;
+import io.gearsetup.EquipmentRequirement;
+import io.gearsetup.SlotRanking;
+
+import java.io.IOException;
+
+/**
+ * A {@link TypeAdapterFactory} providing streaming {@link TypeAdapter} for all of
+ * <a href="https://github.com/gearsetup/gearsetup/tree/master/gearsetup-model">gearsetup-model</a> model classes.
+ * <p>
+ * Each {@link TypeAdapter} reads and writes the model directly with {@link JsonReader} and {@link JsonWriter}, without
+ * reflection, an intermediate JSON tree or a per-field delegate lookup, and reads enumerations using a lookup table
+ * built once for each enumeration. Apart from the discriminator of the polymorphic class hierarchies, the JSON is
+ * identical to the JSON of the auto-generated
+ * <a href="https://github.com/gearsetup/gearsetup/tree/master/immutables">Immutables</a> type adapters.
+ * <p>
+ * The adapters of the polymorphic {@link AttackSpeed} and {@link EquipmentRequirement} class hierarchies are shared by
+ * every implementation of the hierarchy, where reading an implementation fails if the JSON is another implementation.
+ * Each implementation is written with a leading {@code type} discriminator, so the implementation is chosen without
+ * trial parsing each expected subtype as the auto-generated type adapters do.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code Gson gson = new GsonBuilder().registerTypeAdapterFactory(new GearSetupTypeAdapterFactory()).create();}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class GearSetupTypeAdapterFactory implements TypeAdapterFactory {
+    private final TypeAdapter<AttackTypeBonuses> attackTypeBonuses = new AttackTypeBonusesTypeAdapter();
+    private final TypeAdapter<CombatBonuses> combatBonuses = new CombatBonusesTypeAdapter(attackTypeBonuses);
+    private final TypeAdapter<AttackSpeed> attackSpeed = new AttackSpeedTypeAdapter();
+    private final TypeAdapter<EquipmentRequirement> requirement = new EquipmentRequirementTypeAdapter();
+    private final TypeAdapter<Equipment> equipment = new EquipmentTypeAdapter(combatBonuses, attackSpeed, requirement);
+    private final TypeAdapter<SlotRanking> slotRanking = new SlotRankingTypeAdapter();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (Equipment.class.isAssignableFrom(rawType)) {
+            return (TypeAdapter<T>) equipment.nullSafe();
+        } else if (CombatBonuses.class.isAssignableFrom(rawType)) {
+            return (TypeAdapter<T>) combatBonuses.nullSafe();
+        } else if (AttackTypeBonuses.class.isAssignableFrom(rawType)) {
+            return (TypeAdapter<T>) attackTypeBonuses.nullSafe();
+        } else if (SlotRanking.class.isAssignableFrom(rawType)) {
+            return (TypeAdapter<T>) slotRanking.nullSafe();
+        } else if (AttackSpeed.class.isAssignableFrom(rawType)) {
+            return (TypeAdapter<T>) subtype(attackSpeed, rawType).nullSafe();
+        } else if (EquipmentRequirement.class.isAssignableFrom(rawType)) {
+            return (TypeAdapter<T>) subtype(requirement, rawType).nullSafe();
+        }
+        return null;
+    }
+
+    /**
+     * Narrows the {@link TypeAdapter} of a class hierarchy to the specified implementation of the hierarchy.
+     *
+     * @param adapter the type adapter of the class hierarchy
+     * @param type    the implementation of the class hierarchy
+     * @param <S>     the type of the class hierarchy
+     * @return the type adapter of the implementation, which fails to read JSON of any other implementation
+     */
+    private static <S> TypeAdapter<S> subtype(TypeAdapter<S> adapter, Class<?> type) {
+        return new TypeAdapter<S>() {
+            @Override
+            public void write(JsonWriter out, S value) throws IOException {
+                adapter.write(out, value);
+            }
+
+            @Override
+            public S read(JsonReader in) throws IOException {
+                String path = in.getPath();
+                S value = adapter.read(in);
+                if (!type.isInstance(value)) {
+                    throw new JsonParseException("Expected " + type.getSimpleName() + " at " + path + ".");
+                }
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package io.gearsetup.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.gearsetup.CombatBonus;
+import io.gearsetup.EquipmentSlot;
+import io.gearsetup.SlotRanking;
+
+import java.io.IOException;
+
+/**
+ * A streaming {@link TypeAdapter} for {@link SlotRanking}.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+final class SlotRankingTypeAdapter extends TypeAdapter<SlotRanking> {
+    private static final EnumTable<CombatBonus> BONUSES = EnumTable.of(CombatBonus.class);
+    private static final EnumTable<EquipmentSlot> SLOTS = EnumTable.of(EquipmentSlot.class);
+
+    @Override
+    public void write(JsonWriter out, SlotRanking value) throws IOException {
+        out.beginObject();
+        out.name("bonus").value(value.getBonus().name());
+        out.name("occupiedSlots").beginArray();
+        for (EquipmentSlot slot : value.getOccupiedSlots()) {
+            out.value(slot.name());
+        }
+        out.endArray();
+        out.name("equipmentIds").beginArray();
+        for (int id : value.getEquipmentIds()) {
+            out.value(id);
+        }
+        out.endArray();
+        out.name("scores").beginArray();
+        for (int score : value.getScores()) {
+            out.value(score);
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public SlotRanking read(JsonReader in) throws IOException {
+        SlotRanking.Builder builder = SlotRanking.builder();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "bonus":
+                    builder.setBonus(BONUSES.read(in));
+                    break;
+                case "occupiedSlots":
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        builder.addOccupiedSlot(SLOTS.read(in));
+                    }
+                    in.endArray();
+                    break;
+                case "equipmentIds":
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        builder.addEquipmentId(in.nextInt());
+                    }
+                    in.endArray();
+                    break;
+                case "scores":
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        builder.addScore(in.nextInt());
+                    }
+                    in.endArray();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return builder.build();
+    }
+}
@@ -0,0 +1,154 @@
+package io.gearsetup.gson;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import io.gearsetup.AttackSpeed;
+import io.gearsetup.AttackType;
+import io.gearsetup.AttackTypeBonuses;
+import io.gearsetup.CombatBonuses;
+import io.gearsetup.Equipment;
+import io.gearsetup.EquipmentRequirement;
+import io.gearsetup.EquipmentSlot;
+import io.gearsetup.FixedAttackSpeed;
+import io.gearsetup.QuestRequirement;
+import io.gearsetup.Skill;
+import io.gearsetup.SkillRequirement;
+import io.gearsetup.TargetDependentAttackSpeed;
+import io.gearsetup.TypeDependentAttackSpeed;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the streaming type adapters of {@link GearSetupTypeAdapterFactory} round trip every {@link AttackSpeed} and
+ * {@link EquipmentRequirement} implementation, and read the JSON written before the {@code type} discriminator was
+ * introduced by the first name of each object.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public class GearSetupTypeAdapterFactoryTest {
+    private static final Gson GSON = new GsonBuilder().registerTypeAdapterFactory(new GearSetupTypeAdapterFactory()).create();
+    private static final AttackSpeed FIXED = FixedAttackSpeed.of(4);
+    private static final AttackSpeed TARGET_DEPENDENT = TargetDependentAttackSpeed.of(FixedAttackSpeed.of(4), FixedAttackSpeed.of(6));
+    private static final AttackSpeed TYPE_DEPENDENT = typeDependent();
+
+    @Test
+    public void roundTripsAttackSpeeds() {
+        for (AttackSpeed speed : Arrays.asList(FIXED, TARGET_DEPENDENT, TYPE_DEPENDENT, TypeDependentAttackSpeed.of(new EnumMap<>(AttackType.class)))) {
+            String json = GSON.toJson(speed, AttackSpeed.class);
+            assertEquals(json, speed, GSON.fromJson(json, AttackSpeed.class));
+        }
+    }
+
+    @Test
+    public void roundTripsEquipmentRequirements() {
+        for (EquipmentRequirement requirement : Arrays.asList(QuestRequirement.of("Dragon Slayer"), SkillRequirement.of(Skill.ATTACK, 70))) {
+            String json = GSON.toJson(requirement, EquipmentRequirement.class);
+            assertEquals(json, requirement, GSON.fromJson(json, EquipmentRequirement.class));
+        }
+    }
+
+    @Test
+    public void roundTripsEquipment() {
+        Equipment equipment = Equipment.of(11907, "Trident of the seas", EnumSet.of(EquipmentSlot.WEAPON),
+                CombatBonuses.of(AttackTypeBonuses.of(0, 0, 0, 15, 0), AttackTypeBonuses.of(0, 0, 0, 15, 0), 0, 0, 0, 0),
+                TYPE_DEPENDENT, ImmutableSet.of(SkillRequirement.of(Skill.MAGIC, 75), QuestRequirement.of("Dragon Slayer")), 2.267);
+        assertEquals(equipment, GSON.fromJson(GSON.toJson(equipment), Equipment.class));
+    }
+
+    @Test
+    public void writesTheLeadingDiscriminator() {
+        assertEquals("{\"type\":\"fixed\",\"speed\":4}", GSON.toJson(FIXED, AttackSpeed.class));
+        assertEquals("{\"type\":\"quest\",\"questName\":\"Dragon Slayer\"}", GSON.toJson(QuestRequirement.of("Dragon Slayer"), EquipmentRequirement.class));
+    }
+
+    @Test
+    public void readsUndiscriminatedObjectsByTheFirstName() {
+        assertEquals(FIXED, GSON.fromJson("{\"speed\":4}", AttackSpeed.class));
+        assertEquals(TARGET_DEPENDENT, GSON.fromJson("{\"playerAttackSpeed\":{\"speed\":4},\"monsterAttackSpeed\":{\"speed\":6}}", AttackSpeed.class));
+        assertEquals(TARGET_DEPENDENT, GSON.fromJson("{\"monsterAttackSpeed\":{\"speed\":6},\"playerAttackSpeed\":{\"speed\":4}}", AttackSpeed.class));
+        assertEquals(TYPE_DEPENDENT, GSON.fromJson("{\"STAB\":{\"speed\":5},\"MAGIC\":{\"speed\":4}}", AttackSpeed.class));
+        assertEquals(TypeDependentAttackSpeed.of(new EnumMap<>(AttackType.class)), GSON.fromJson("{}", AttackSpeed.class));
+        assertEquals(QuestRequirement.of("Dragon Slayer"), GSON.fromJson("{\"questName\":\"Dragon Slayer\"}", EquipmentRequirement.class));
+        assertEquals(SkillRequirement.of(Skill.ATTACK, 70), GSON.fromJson("{\"skill\":\"ATTACK\",\"level\":70}", EquipmentRequirement.class));
+        assertEquals(SkillRequirement.of(Skill.ATTACK, 70), GSON.fromJson("{\"level\":70,\"skill\":\"ATTACK\"}", EquipmentRequirement.class));
+    }
+
+    @Test
+    public void readsTheDiscriminatorInAnyPosition() {
+        assertEquals(FIXED, GSON.fromJson("{\"speed\":4,\"type\":\"fixed\"}", AttackSpeed.class));
+        assertEquals(TARGET_DEPENDENT, GSON.fromJson("{\"playerAttackSpeed\":{\"speed\":4},\"type\":\"targetDependent\",\"monsterAttackSpeed\":{\"speed\":6}}", AttackSpeed.class));
+        assertEquals(TYPE_DEPENDENT, GSON.fromJson("{\"MAGIC\":{\"type\":\"fixed\",\"speed\":4},\"STAB\":{\"speed\":5},\"type\":\"typeDependent\"}", AttackSpeed.class));
+        assertEquals(TYPE_DEPENDENT, GSON.fromJson("{\"type\":\"typeDependent\",\"STAB\":{\"speed\":5,\"type\":\"fixed\"},\"MAGIC\":{\"speed\":4}}", AttackSpeed.class));
+        assertEquals(QuestRequirement.of("Dragon Slayer"), GSON.fromJson("{\"questName\":\"Dragon Slayer\",\"type\":\"quest\"}", EquipmentRequirement.class));
+        assertEquals(SkillRequirement.of(Skill.ATTACK, 70), GSON.fromJson("{\"skill\":\"ATTACK\",\"type\":\"skill\",\"level\":70}", EquipmentRequirement.class));
+    }
+
+    @Test
+    public void readsTheLegacyEquipmentFixture() throws IOException {
+        List<Equipment> expected = Arrays.asList(
+                Equipment.of(4151, "Abyssal whip", EnumSet.of(EquipmentSlot.WEAPON),
+                        CombatBonuses.of(AttackTypeBonuses.of(0, 82, 0, 0, 0), AttackTypeBonuses.of(0, 0, 0, 0, 0), 0, 82, 0, 0),
+                        FIXED, ImmutableSet.of(SkillRequirement.of(Skill.ATTACK, 70)), 0.453),
+                Equipment.of(11907, "Trident of the seas", EnumSet.of(EquipmentSlot.WEAPON),
+                        CombatBonuses.of(AttackTypeBonuses.of(0, 0, 0, 15, 0), AttackTypeBonuses.of(0, 0, 0, 15, 0), 0, 0, 0, 0),
+                        TYPE_DEPENDENT, ImmutableSet.of(SkillRequirement.of(Skill.MAGIC, 75)), 2.267),
+                Equipment.of(1540, "Anti-dragon shield", EnumSet.of(EquipmentSlot.SHIELD),
+                        CombatBonuses.of(AttackTypeBonuses.of(0, 0, 0, 0, 0), AttackTypeBonuses.of(7, 9, 8, 2, 7), 0, 0, 0, 0),
+                        TARGET_DEPENDENT, ImmutableSet.of(QuestRequirement.of("Dragon Slayer")), 3.628));
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("legacy-equipment.json"), StandardCharsets.UTF_8)) {
+            List<Equipment> equipment = GSON.fromJson(reader, new TypeToken<List<Equipment>>() {
+            }.getType());
+            assertEquals(expected, equipment);
+            //the legacy fixture is rewritten with the discriminator and read back to the same equipment
+            assertEquals(expected, GSON.fromJson(GSON.toJson(equipment), new TypeToken<List<Equipment>>() {
+            }.getType()));
+        }
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsAnUnknownAttackSpeedDiscriminator() {
+        GSON.fromJson("{\"type\":\"random\",\"speed\":4}", AttackSpeed.class);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsAnUnknownRequirementDiscriminator() {
+        GSON.fromJson("{\"type\":\"diary\",\"questName\":\"Dragon Slayer\"}", EquipmentRequirement.class);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsATrailingDiscriminatorOfAnotherImplementation() {
+        GSON.fromJson("{\"speed\":4,\"type\":\"typeDependent\"}", AttackSpeed.class);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsATrailingRequirementDiscriminatorOfAnotherImplementation() {
+        GSON.fromJson("{\"questName\":\"Dragon Slayer\",\"type\":\"skill\"}", EquipmentRequirement.class);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsAnotherImplementationOfTheRequestedSubtype() {
+        GSON.fromJson("{\"type\":\"fixed\",\"speed\":4}", TargetDependentAttackSpeed.class);
+    }
+
+    private static AttackSpeed typeDependent() {
+        Map<AttackType, AttackSpeed> speeds = new EnumMap<>(AttackType.class);
+        speeds.put(AttackType.MAGIC, FixedAttackSpeed.of(4));
+        speeds.put(AttackType.STAB, FixedAttackSpeed.of(5));
+        return TypeDependentAttackSpeed.of(speeds);
+    }
+}
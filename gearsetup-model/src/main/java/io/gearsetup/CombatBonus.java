@@ -0,0 +1,62 @@
+package io.gearsetup;
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * An enumeration of the individual bonuses of {@link CombatBonuses}, which are the standard objectives of a gear setup
+ * in <a href="https://oldschool.runescape.com/">Old School Runescape</a> (e.g. the highest slash attack bonus).
+ * <p>
+ * Each bonus is a weighting function for {@link Equipment}, which weighs each piece of {@link Equipment} by the value
+ * of the bonus in its {@link CombatBonuses}.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code int strength = CombatBonus.MELEE_STRENGTH.get(equipment.getCombatBonuses());}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public enum CombatBonus implements ToDoubleFunction<Equipment> {
+    STAB_ATTACK(bonuses -> bonuses.getAttackBonuses().getStabBonus()),
+    SLASH_ATTACK(bonuses -> bonuses.getAttackBonuses().getSlashBonus()),
+    CRUSH_ATTACK(bonuses -> bonuses.getAttackBonuses().getCrushBonus()),
+    MAGIC_ATTACK(bonuses -> bonuses.getAttackBonuses().getMagicBonus()),
+    RANGED_ATTACK(bonuses -> bonuses.getAttackBonuses().getRangedBonus()),
+    STAB_DEFENCE(bonuses -> bonuses.getDefenceBonuses().getStabBonus()),
+    SLASH_DEFENCE(bonuses -> bonuses.getDefenceBonuses().getSlashBonus()),
+    CRUSH_DEFENCE(bonuses -> bonuses.getDefenceBonuses().getCrushBonus()),
+    MAGIC_DEFENCE(bonuses -> bonuses.getDefenceBonuses().getMagicBonus()),
+    RANGED_DEFENCE(bonuses -> bonuses.getDefenceBonuses().getRangedBonus()),
+    MELEE_STRENGTH(CombatBonuses::getMeleeStrength),
+    RANGED_STRENGTH(CombatBonuses::getRangedStrength),
+    MAGIC_STRENGTH(CombatBonuses::getMagicStrength),
+    PRAYER(CombatBonuses::getPrayerBonus);
+
+    private final ToIntFunction<CombatBonuses> accessor;
+
+    CombatBonus(ToIntFunction<CombatBonuses> accessor) {
+        this.accessor = accessor;
+    }
+
+    /**
+     * Finds the value of the bonus in the specified {@link CombatBonuses}.
+     *
+     * @param bonuses the combat bonuses to read the bonus from
+     * @return the value of the bonus
+     */
+    public int get(CombatBonuses bonuses) {
+        return accessor.applyAsInt(bonuses);
+    }
+
+    /**
+     * Weighs the specified {@link Equipment} by the value of the bonus in its {@link CombatBonuses}.
+     *
+     * @param equipment the equipment to weigh
+     * @return the value of the bonus of the equipment
+     */
+    @Override
+    public double applyAsDouble(Equipment equipment) {
+        return get(equipment.getCombatBonuses());
+    }
+}
@@ -2,6 +2,8 @@ package io.gearsetup;
 
 import io.gearsetup.immutables.ImmutableGearSetupStyle;
 import org.immutables.gson.Gson;
+import org.immutables.value.Value.Auxiliary;
+import org.immutables.value.Value.Derived;
 import org.immutables.value.Value.Immutable;
 
 import java.util.Optional;
@@ -78,6 +80,23 @@ public interface Equipment {
      */
     Set<EquipmentSlot> getOccupiedSlots();
 
+    /**
+     * Represents the mask of the {@link EquipmentSlot} that are occupied by the equipment when equipped, where each slot
+     * is represented as the bit {@code 1 << slot.ordinal()}.
+     * <p>
+     * The mask is calculated once when the equipment is created, so two pieces of equipment occupy a common slot when the
+     * bitwise {@code AND} of their masks is non-zero. The mask is not serialized, as it is derived from the occupied slots.
+     *
+     * @return the mask of the occupied slots
+     * @see EquipmentSlot#mask(Iterable)
+     */
+    @Derived
+    @Auxiliary
+    @Gson.Ignore
+    default int getSlotMask() {
+        return EquipmentSlot.mask(getOccupiedSlots());
+    }
+
     /**
      * Represents the bonuses given by the equipment when equipped.
      * <p>
@@ -0,0 +1,412 @@
+package io.gearsetup;
+
+import com.google.common.collect.ImmutableList;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A representation of a columnar export of a set of {@link Equipment} for analytical scans, where each primitive
+ * attribute of the {@link Equipment} is stored as a contiguous column of values in a single binary file.
+ * <p>
+ * The file holds one row per piece of {@link Equipment} in iteration order of the exported equipment and the columns
+ * <ul>
+ * <li>{@code ID} holding {@link Equipment#getId()}.</li>
+ * <li>{@code WEIGHT} holding {@link Equipment#getWeight()}.</li>
+ * <li>{@code SLOT_MASK} holding {@link Equipment#getSlotMask()}.</li>
+ * <li>One column per {@link CombatBonus}, named by the {@link CombatBonus}, holding the value of the bonus of
+ * {@link Equipment#getCombatBonuses()}, which covers every field of {@link CombatBonuses} and its {@link AttackTypeBonuses}.</li>
+ * <li>{@code MONSTER_ATTACK_SPEED_{{type}}} and {@code PLAYER_ATTACK_SPEED_{{type}}} per {@link AttackType}, holding the
+ * {@link Equipment#getAttackSpeed()} resolved when attacking a monster or a player with the {@link AttackType}. The
+ * value is {@link EquipmentColumns#NO_ATTACK_SPEED} if the equipment has no attack speed for the attack type.</li>
+ * </ul>
+ * Names, requirements and the structure of the {@link AttackSpeed} are not exported, as analytical scans join the
+ * columns back to the JSON snapshot by {@code ID} when they need them.
+ * <p>
+ * The file starts with a header of the magic {@code GSC1}, the format version, the number of rows and the number of
+ * columns, followed by a directory of the offset, type and UTF-8 name of each column. The values of each column follow
+ * the directory as a little-endian array of {@code int} or {@code double}, where each column starts at a multiple of
+ * eight bytes. Readers may use the directory to find columns, so columns may be added in later versions without
+ * breaking readers looking up columns by name.
+ * <p>
+ * {@link EquipmentColumns#map(Path)} memory-maps an exported file, after which the columns are read-only views directly
+ * over the mapped file. Scanning a column reads a contiguous array of primitives without decoding the rest of the
+ * file or allocating per row. {@link EquipmentColumns} is immutable and thread-safe.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code EquipmentColumns.write(repository.load(), outputStream);}
+ * <p>
+ * {@code IntBuffer prayer = EquipmentColumns.map(path).getBonus(CombatBonus.PRAYER);}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class EquipmentColumns {
+    /**
+     * Represents the value of an attack speed column for {@link Equipment} without an attack speed for the attack type.
+     */
+    public static final int NO_ATTACK_SPEED = -1;
+    private static final CombatBonus[] BONUSES = CombatBonus.values();
+    private static final AttackType[] ATTACK_TYPES = AttackType.values();
+    private static final int MAGIC = 'G' | 'S' << 8 | 'C' << 16 | '1' << 24;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    //column value types
+    private static final byte INT32 = 0;
+    private static final byte FLOAT64 = 1;
+    private static final String ID = "ID";
+    private static final String WEIGHT = "WEIGHT";
+    private static final String SLOT_MASK = "SLOT_MASK";
+    private static final String MONSTER_ATTACK_SPEED = "MONSTER_ATTACK_SPEED_";
+    private static final String PLAYER_ATTACK_SPEED = "PLAYER_ATTACK_SPEED_";
+    private final ByteBuffer buffer;
+    private final int size;
+    private final List<String> names;
+    private final Map<String, Integer> offsets;
+    private final Map<String, Byte> types;
+
+    private EquipmentColumns(ByteBuffer buffer, int size, List<String> names, Map<String, Integer> offsets, Map<String, Byte> types) {
+        this.buffer = buffer;
+        this.size = size;
+        this.names = names;
+        this.offsets = offsets;
+        this.types = types;
+    }
+
+    /**
+     * Exports the specified {@link Equipment} in the columnar format to the {@link OutputStream}.
+     * <p>
+     * The stream is not closed after the export is written.
+     *
+     * @param equipment the equipment to export
+     * @param out       the stream to write the export to
+     * @throws IOException indicating the stream failed to write the export
+     */
+    public static void write(@NonNull Collection<Equipment> equipment, @NonNull OutputStream out) throws IOException {
+        out.write(encode(equipment));
+    }
+
+    /**
+     * Exports the specified {@link Equipment} in the columnar format.
+     *
+     * @param equipment the equipment to export
+     * @return the bytes of the export
+     */
+    public static byte[] encode(@NonNull Collection<Equipment> equipment) {
+        int size = equipment.size();
+        List<String> names = getWrittenColumnNames();
+        byte[][] encodedNames = new byte[names.size()][];
+        int directory = HEADER_BYTES;
+        for (int i = 0; i < encodedNames.length; i++) {
+            encodedNames[i] = names.get(i).getBytes(StandardCharsets.UTF_8);
+            directory += Integer.BYTES + 2 + encodedNames[i].length;
+        }
+        //every column is padded to a multiple of eight bytes, so each column stays aligned for its values
+        int intColumnBytes = align(size * Integer.BYTES);
+        int doubleColumnBytes = size * Double.BYTES;
+        int offset = align(directory);
+        ByteBuffer buffer = ByteBuffer.allocate(offset + doubleColumnBytes + (names.size() - 1) * intColumnBytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(names.size());
+        int[] offsets = new int[names.size()];
+        for (int i = 0; i < encodedNames.length; i++) {
+            offsets[i] = offset;
+            buffer.putInt(offset);
+            buffer.put(getType(names.get(i)));
+            buffer.put((byte) encodedNames[i].length);
+            buffer.put(encodedNames[i]);
+            offset += getType(names.get(i)) == FLOAT64 ? doubleColumnBytes : intColumnBytes;
+        }
+        int row = 0;
+        for (Equipment value : equipment) {
+            int column = 0;
+            buffer.putInt(offsets[column++] + row * Integer.BYTES, value.getId());
+            buffer.putDouble(offsets[column++] + row * Double.BYTES, value.getWeight());
+            buffer.putInt(offsets[column++] + row * Integer.BYTES, value.getSlotMask());
+            CombatBonuses bonuses = value.getCombatBonuses();
+            for (CombatBonus bonus : BONUSES) {
+                buffer.putInt(offsets[column++] + row * Integer.BYTES, bonus.get(bonuses));
+            }
+            AttackSpeed speed = value.getAttackSpeed().orElse(null);
+            for (AttackType type : ATTACK_TYPES) {
+                buffer.putInt(offsets[column++] + row * Integer.BYTES, resolve(speed, type, true));
+            }
+            for (AttackType type : ATTACK_TYPES) {
+                buffer.putInt(offsets[column++] + row * Integer.BYTES, resolve(speed, type, false));
+            }
+            row++;
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Memory-maps the columnar export at the specified {@link Path}.
+     * <p>
+     * The file is mapped read-only and stays mapped until the {@link EquipmentColumns} and every column read from it
+     * are garbage collected.
+     *
+     * @param path the path of the export
+     * @return the columns of the export
+     * @throws IOException              indicating the file failed to be mapped
+     * @throws IllegalArgumentException indicating the file is not a columnar export
+     */
+    public static EquipmentColumns map(@NonNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads the columnar export of the specified {@link ByteBuffer}, from its position to its limit.
+     * <p>
+     * The columns are views over the buffer, so the buffer must not be modified while the columns are in use.
+     *
+     * @param buffer the buffer of the export
+     * @return the columns of the export
+     * @throws IllegalArgumentException indicating the buffer is not a columnar export
+     */
+    public static EquipmentColumns of(@NonNull ByteBuffer buffer) {
+        ByteBuffer export = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (export.remaining() < HEADER_BYTES || export.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Buffer is not a columnar equipment export.");
+        }
+        int version = export.getInt(Integer.BYTES);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported columnar equipment export version " + version + ".");
+        }
+        int size = export.getInt(2 * Integer.BYTES);
+        int count = export.getInt(3 * Integer.BYTES);
+        if (size < 0 || count < 0) {
+            throw new IllegalArgumentException("Malformed header of columnar equipment export.");
+        }
+        ImmutableList.Builder<String> names = ImmutableList.builder();
+        Map<String, Integer> offsets = new HashMap<>();
+        Map<String, Byte> types = new HashMap<>();
+        export.position(HEADER_BYTES);
+        try {
+            for (int i = 0; i < count; i++) {
+                int offset = export.getInt();
+                byte type = export.get();
+                byte[] name = new byte[export.get() & 0xFF];
+                export.get(name);
+                String column = new String(name, StandardCharsets.UTF_8);
+                //a malformed row count can overflow the length of the column, so the bounds are checked in long arithmetic
+                long bytes = (long) size * (type == FLOAT64 ? Double.BYTES : Integer.BYTES);
+                if ((type != INT32 && type != FLOAT64) || offset < 0 || offset > export.limit() - bytes) {
+                    throw new IllegalArgumentException("Malformed column " + column + " of columnar equipment export.");
+                }
+                names.add(column);
+                offsets.put(column, offset);
+                types.put(column, type);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated columnar equipment export.", e);
+        }
+        export.position(0);
+        return new EquipmentColumns(export.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN), size, names.build(), offsets, types);
+    }
+
+    /**
+     * Represents the number of rows of the export, which is the number of exported {@link Equipment}.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Represents the names of every column of the export in file order.
+     *
+     * @return the names of the columns
+     */
+    public List<String> getColumnNames() {
+        return names;
+    }
+
+    /**
+     * Reads the {@code int} column with the specified name.
+     *
+     * @param name the name of the column
+     * @return a read-only view of the values of the column
+     * @throws IllegalArgumentException indicating the export has no {@code int} column with the name
+     */
+    public IntBuffer getIntColumn(@NonNull String name) {
+        return column(name, INT32, Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Reads the {@code double} column with the specified name.
+     *
+     * @param name the name of the column
+     * @return a read-only view of the values of the column
+     * @throws IllegalArgumentException indicating the export has no {@code double} column with the name
+     */
+    public DoubleBuffer getDoubleColumn(@NonNull String name) {
+        return column(name, FLOAT64, Double.BYTES).asDoubleBuffer();
+    }
+
+    /**
+     * Reads the {@link Equipment#getId()} column.
+     *
+     * @return a read-only view of the ids of each row
+     */
+    public IntBuffer getIds() {
+        return getIntColumn(ID);
+    }
+
+    /**
+     * Reads the {@link Equipment#getWeight()} column.
+     *
+     * @return a read-only view of the weights of each row
+     */
+    public DoubleBuffer getWeights() {
+        return getDoubleColumn(WEIGHT);
+    }
+
+    /**
+     * Reads the {@link Equipment#getSlotMask()} column.
+     *
+     * @return a read-only view of the slot masks of each row
+     */
+    public IntBuffer getSlotMasks() {
+        return getIntColumn(SLOT_MASK);
+    }
+
+    /**
+     * Reads the column of the specified {@link CombatBonus}.
+     *
+     * @param bonus the combat bonus
+     * @return a read-only view of the bonus of each row
+     */
+    public IntBuffer getBonus(@NonNull CombatBonus bonus) {
+        return getIntColumn(bonus.name());
+    }
+
+    /**
+     * Reads the column of the attack speed when attacking a monster with the specified {@link AttackType}.
+     *
+     * @param type the attack type
+     * @return a read-only view of the attack speed of each row or {@link EquipmentColumns#NO_ATTACK_SPEED}
+     */
+    public IntBuffer getMonsterAttackSpeeds(@NonNull AttackType type) {
+        return getIntColumn(MONSTER_ATTACK_SPEED + type.name());
+    }
+
+    /**
+     * Reads the column of the attack speed when attacking a player with the specified {@link AttackType}.
+     *
+     * @param type the attack type
+     * @return a read-only view of the attack speed of each row or {@link EquipmentColumns#NO_ATTACK_SPEED}
+     */
+    public IntBuffer getPlayerAttackSpeeds(@NonNull AttackType type) {
+        return getIntColumn(PLAYER_ATTACK_SPEED + type.name());
+    }
+
+    /**
+     * Slices the values of the column with the specified name out of the export.
+     *
+     * @param name  the name of the column
+     * @param type  the expected type of the column
+     * @param bytes the number of bytes of each value of the column
+     * @return a read-only little-endian view of the values of the column
+     * @throws IllegalArgumentException indicating the export has no column with the name and type
+     */
+    private ByteBuffer column(String name, byte type, int bytes) {
+        Integer offset = offsets.get(name);
+        if (offset == null || types.get(name) != type) {
+            throw new IllegalArgumentException("Unknown " + (type == INT32 ? "int" : "double") + " column " + name + ".");
+        }
+        ByteBuffer column = buffer.duplicate();
+        column.position(offset);
+        column.limit(offset + size * bytes);
+        return column.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Represents the names of every column written by the current version, in file order.
+     *
+     * @return the names of the columns
+     */
+    private static List<String> getWrittenColumnNames() {
+        ImmutableList.Builder<String> names = ImmutableList.builder();
+        names.add(ID, WEIGHT, SLOT_MASK);
+        for (CombatBonus bonus : BONUSES) {
+            names.add(bonus.name());
+        }
+        for (AttackType type : ATTACK_TYPES) {
+            names.add(MONSTER_ATTACK_SPEED + type.name());
+        }
+        for (AttackType type : ATTACK_TYPES) {
+            names.add(PLAYER_ATTACK_SPEED + type.name());
+        }
+        return names.build();
+    }
+
+    /**
+     * Represents the type of the column with the specified name written by the current version.
+     *
+     * @param name the name of the column
+     * @return the type of the column
+     */
+    private static byte getType(String name) {
+        return name.equals(WEIGHT) ? FLOAT64 : INT32;
+    }
+
+    /**
+     * Rounds the number of bytes up to the next multiple of eight bytes.
+     *
+     * @param bytes the number of bytes
+     * @return the aligned number of bytes
+     */
+    private static int align(int bytes) {
+        return (bytes + Double.BYTES - 1) & -Double.BYTES;
+    }
+
+    /**
+     * Resolves the {@link AttackSpeed} when attacking with the specified {@link AttackType}.
+     * <p>
+     * {@link TargetDependentAttackSpeed} resolves the attack speed of the target and {@link TypeDependentAttackSpeed}
+     * resolves the attack speed of the attack type, which is absent if the attack type has no attack speed.
+     *
+     * @param speed   the attack speed or {@code null} if absent
+     * @param type    the attack type
+     * @param monster {@code true} if attacking a monster and {@code false} if attacking a player
+     * @return the resolved attack speed or {@link EquipmentColumns#NO_ATTACK_SPEED} if absent
+     */
+    private static int resolve(AttackSpeed speed, AttackType type, boolean monster) {
+        if (speed == null) {
+            return NO_ATTACK_SPEED;
+        }
+        return speed.accept(new AttackSpeedVisitor<Integer>() {
+            @Override
+            public Integer visit(FixedAttackSpeed speed) {
+                return speed.getSpeed();
+            }
+
+            @Override
+            public Integer visit(TargetDependentAttackSpeed speed) {
+                return resolve(monster ? speed.getMonsterAttackSpeed() : speed.getPlayerAttackSpeed(), type, monster);
+            }
+
+            @Override
+            public Integer visit(TypeDependentAttackSpeed speed) {
+                return resolve(speed.getAttackSpeeds().get(type), type, monster);
+            }
+        });
+    }
+}
@@ -1,11 +1,21 @@
 package io.gearsetup;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * An enumeration of the <a href="http://oldschoolrunescape.wikia.com/wiki/Worn_Equipment">Worn Equipment</a> slots in
  * <a href="https://oldschool.runescape.com/">Old School Runescape</a>.
  * <p>
  * Equipment is a special type of item that can be equipped in the equipped inventory and will give a character equipment
  * bonuses. The equipped inventory is divided into 11 slots for each area of the body that some piece of equipment can be worn on.
+ * <p>
+ * Each slot is represented as the bit {@code 1 << slot.ordinal()} of an {@code int} mask, so a set of slots fits into a
+ * single {@code int} and two sets of slots are disjoint when the bitwise {@code AND} of their masks is {@code 0}.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code boolean disjoint = (EquipmentSlot.mask(one.getOccupiedSlots()) & EquipmentSlot.mask(two.getOccupiedSlots())) == 0;}
  *
  * @author Ian Caffey
  * @since 1.0
@@ -21,5 +31,53 @@ public enum EquipmentSlot {
     NECK,
     RING,
     SHIELD,
-    WEAPON
+    WEAPON;
+
+    /**
+     * Represents the number of slots, which is the number of bits used by a slot mask.
+     */
+    public static final int COUNT = values().length;
+    //cached as values() creates a new array each call
+    private static final EquipmentSlot[] SLOTS = values();
+
+    /**
+     * Represents the bit of the slot in a slot mask.
+     *
+     * @return {@code 1 << ordinal()}
+     */
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Calculates the mask of the specified slots.
+     *
+     * @param slots the slots to create a mask for
+     * @return the mask of the slots
+     */
+    public static int mask(Iterable<EquipmentSlot> slots) {
+        int mask = 0;
+        for (EquipmentSlot slot : slots) {
+            mask |= 1 << slot.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * Creates the set of slots represented by the specified mask.
+     *
+     * @param mask the mask of the slots
+     * @return the slots of the mask
+     * @throws IllegalArgumentException indicating the mask has bits that do not represent a slot
+     */
+    public static Set<EquipmentSlot> slots(int mask) {
+        if ((mask >>> COUNT) != 0) {
+            throw new IllegalArgumentException("Slot mask " + Integer.toBinaryString(mask) + " has bits that do not represent a slot.");
+        }
+        Set<EquipmentSlot> slots = EnumSet.noneOf(EquipmentSlot.class);
+        for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            slots.add(SLOTS[Integer.numberOfTrailingZeros(remaining)]);
+        }
+        return slots;
+    }
 }
@@ -0,0 +1,123 @@
+package io.gearsetup;
+
+import io.gearsetup.immutables.ImmutableGearSetupStyle;
+import org.immutables.gson.Gson;
+import org.immutables.value.Value.Auxiliary;
+import org.immutables.value.Value.Check;
+import org.immutables.value.Value.Derived;
+import org.immutables.value.Value.Immutable;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A representation of the ranking of every piece of {@link Equipment} occupying the same set of {@link EquipmentSlot}
+ * for a single {@link CombatBonus}, which is a precomputed entry of a best-in-slot table shipped with each
+ * {@link Equipment} snapshot.
+ * <p>
+ * The ranking lists the ids of the {@link Equipment} with a positive value of the bonus in descending order of the bonus,
+ * reduced to the skyline of {@link Equipment} that is never dominated. A piece of {@link Equipment} is dominated when an
+ * earlier piece of {@link Equipment} of the ranking can be equipped whenever it can, as the earlier piece is always at
+ * least as good. The first piece of {@link Equipment} of the ranking a character can equip is therefore the best piece
+ * of {@link Equipment} occupying the slots for the character.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@Immutable
+@Gson.TypeAdapters
+@ImmutableGearSetupStyle
+public interface SlotRanking {
+    //Immutables builder stub to hide immutable class dependency
+    static Builder builder() {
+        return ImmutableSlotRanking.builder();
+    }
+
+    //Immutables factory stub to hide immutable class dependency
+    static SlotRanking of(CombatBonus bonus, Iterable<EquipmentSlot> occupiedSlots, Iterable<Integer> equipmentIds,
+                          Iterable<Integer> scores) {
+        return ImmutableSlotRanking.of(bonus, occupiedSlots, equipmentIds, scores);
+    }
+
+    /**
+     * Represents the {@link CombatBonus} the {@link Equipment} is ranked by.
+     *
+     * @return the bonus of the ranking
+     */
+    CombatBonus getBonus();
+
+    /**
+     * Represents the set of {@link EquipmentSlot} occupied by every piece of {@link Equipment} of the ranking.
+     *
+     * @return the set of occupied slots
+     */
+    Set<EquipmentSlot> getOccupiedSlots();
+
+    /**
+     * Represents the mask of {@link SlotRanking#getOccupiedSlots()}. The mask is not serialized, as it is derived from
+     * the occupied slots.
+     *
+     * @return the mask of the occupied slots
+     * @see EquipmentSlot#mask(Iterable)
+     */
+    @Derived
+    @Auxiliary
+    @Gson.Ignore
+    default int getSlotMask() {
+        return EquipmentSlot.mask(getOccupiedSlots());
+    }
+
+    /**
+     * Represents the ids of the ranked {@link Equipment}, in descending order of the bonus.
+     *
+     * @return the ids of the ranked equipment
+     */
+    List<Integer> getEquipmentIds();
+
+    /**
+     * Represents the value of the bonus of each ranked {@link Equipment}, in the same order as
+     * {@link SlotRanking#getEquipmentIds()}.
+     *
+     * @return the bonus of the ranked equipment
+     */
+    List<Integer> getScores();
+
+    /**
+     * Validates the ranking occupies a slot and has a positive, non-increasing score for every ranked {@link Equipment}.
+     *
+     * @throws IllegalStateException indicating the ranking is invalid
+     */
+    @Check
+    default void validate() {
+        if (getOccupiedSlots().isEmpty()) {
+            throw new IllegalStateException("Ranking must occupy at least one slot.");
+        }
+        if (getEquipmentIds().size() != getScores().size()) {
+            throw new IllegalStateException("Ranking must have a score for every piece of equipment.");
+        }
+        for (int i = 0; i < getScores().size(); i++) {
+            if (getScores().get(i) <= 0 || (i > 0 && getScores().get(i) > getScores().get(i - 1))) {
+                throw new IllegalStateException("Ranking scores must be positive and in descending order.");
+            }
+        }
+    }
+
+    //Immutables builder stub to hide immutable class dependency
+    interface Builder {
+        Builder setBonus(CombatBonus bonus);
+
+        Builder addOccupiedSlot(EquipmentSlot slot);
+
+        Builder setOccupiedSlots(Iterable<EquipmentSlot> slots);
+
+        Builder addEquipmentId(int equipmentId);
+
+        Builder setEquipmentIds(Iterable<Integer> equipmentIds);
+
+        Builder addScore(int score);
+
+        Builder setScores(Iterable<Integer> scores);
+
+        SlotRanking build();
+    }
+}
@@ -0,0 +1,260 @@
+package io.gearsetup;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.util.IOUtils;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A benchmark of the time-to-first-response of {@link SnapshotHandler} in a fresh JVM, where the handler uses real
+ * {@link AmazonS3} and {@link AmazonDynamoDB} clients pointed at a local HTTP stand-in of both services. The benchmark
+ * measures class loading and initialization of the handler and its HTTP client stack rather than the network.
+ * <p>
+ * The stand-in serves paged {@code Scan} requests of a synthetic {@link Equipment} table and accepts every
+ * {@code PutObject} request. The benchmark reports the JVM uptime when the benchmark starts, the latency of
+ * constructing the handler and serving the first request, the JVM uptime when the first response is returned, and the
+ * mean latency of warm requests. Each request snapshots the table with best-in-slot rankings and a columnar export.
+ * <p>
+ * The benchmark is also the training run used to produce the class list of the class-data-sharing archive, as it loads
+ * the same classes as a real invocation.
+ * <p>
+ * Examples:
+ * <p>
+ * {@code gradle :gearsetup-snapshot:startupBenchmark}
+ * <p>
+ * {@code java -cp gearsetup-snapshot-all.jar:benchmark io.gearsetup.SnapshotStartupBenchmark 4000 20}
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+public final class SnapshotStartupBenchmark {
+    private static final int DEFAULT_ITEMS = 4000;
+    private static final int DEFAULT_INVOCATIONS = 20;
+    private static final int PAGE_SIZE = 500;
+    private static final String[] SLOTS = {"AMMUNITION", "BODY", "CAPE", "FEET", "HANDS", "HEAD", "LEGS", "NECK", "RING", "SHIELD", "WEAPON"};
+    private static final String[] BONUSES = {"stabBonus", "slashBonus", "crushBonus", "magicBonus", "rangedBonus"};
+
+    /**
+     * Runs the benchmark with the optional number of items of the table and number of warm requests as arguments.
+     *
+     * @param args the number of items and the number of warm requests
+     * @throws IOException indicating the local stand-in failed to start
+     */
+    public static void main(String[] args) throws IOException {
+        long startUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITEMS;
+        int invocations = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_INVOCATIONS;
+        LocalStandIn standIn = new LocalStandIn(items);
+        try {
+            EndpointConfiguration endpoint = new EndpointConfiguration(standIn.getEndpoint(), "us-east-1");
+            AWSStaticCredentialsProvider credentials = new AWSStaticCredentialsProvider(new BasicAWSCredentials("local", "local"));
+            SnapshotRequest request = new SnapshotRequest();
+            request.setTable("Equipment");
+            request.setBucket("gearsetup");
+            request.setBestInSlot(true);
+            request.setColumnar(true);
+            long start = System.nanoTime();
+            SnapshotHandler handler = new SnapshotHandler(
+                    () -> AmazonS3Client.builder()
+                            .withEndpointConfiguration(endpoint)
+                            .withCredentials(credentials)
+                            .withClientConfiguration(SnapshotHandler.clientConfiguration())
+                            .withPathStyleAccessEnabled(true)
+                            //uploads to the stand-in are not wrapped in signed aws-chunked payloads
+                            .disableChunkedEncoding()
+                            .build(),
+                    () -> AmazonDynamoDBClient.builder()
+                            .withEndpointConfiguration(endpoint)
+                            .withCredentials(credentials)
+                            .withClientConfiguration(SnapshotHandler.clientConfiguration())
+                            .build());
+            SnapshotResponse response = handler.handleRequest(request, null);
+            long firstResponse = System.nanoTime() - start;
+            long firstResponseUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+            long warm = System.nanoTime();
+            for (int i = 0; i < invocations; i++) {
+                handler.handleRequest(request, null);
+            }
+            long warmResponse = invocations == 0 ? 0 : (System.nanoTime() - warm) / invocations;
+            System.out.printf("items: %d, uploaded: %d objects (%d bytes)%n", response.getSnapshotSize(), standIn.objects.get(), standIn.bytes.get());
+            System.out.printf("jvm uptime at start: %d ms%n", startUptime);
+            System.out.printf("first response: %.1f ms%n", firstResponse / (double) TimeUnit.MILLISECONDS.toNanos(1));
+            System.out.printf("jvm uptime at first response: %d ms%n", firstResponseUptime);
+            System.out.printf("warm response: %.1f ms (mean of %d)%n", warmResponse / (double) TimeUnit.MILLISECONDS.toNanos(1), invocations);
+        } finally {
+            standIn.stop();
+        }
+    }
+
+    /**
+     * A local HTTP stand-in of DynamoDB and S3, serving paged scans of a synthetic {@link Equipment} table and accepting
+     * every uploaded object.
+     */
+    private static final class LocalStandIn {
+        private final List<String> items = new ArrayList<>();
+        private final AtomicInteger objects = new AtomicInteger();
+        private final AtomicLong bytes = new AtomicLong();
+        private final HttpServer server;
+
+        private LocalStandIn(int size) throws IOException {
+            Random random = new Random(size);
+            for (int id = 0; id < size; id++) {
+                items.add(item(id, random));
+            }
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        /**
+         * Represents the endpoint of the stand-in.
+         *
+         * @return the URL of the stand-in
+         */
+        private String getEndpoint() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        /**
+         * Stops the stand-in.
+         */
+        private void stop() {
+            server.stop(0);
+        }
+
+        /**
+         * Handles a DynamoDB {@code Scan} request or an S3 {@code PutObject} request.
+         *
+         * @param exchange the request and response
+         * @throws IOException indicating the request failed to be read or the response failed to be written
+         */
+        private void handle(HttpExchange exchange) throws IOException {
+            byte[] body = IOUtils.toByteArray(exchange.getRequestBody());
+            byte[] response;
+            if ("PUT".equals(exchange.getRequestMethod())) {
+                objects.incrementAndGet();
+                bytes.addAndGet(body.length);
+                //S3 clients validate the uploaded content against the MD5 ETag
+                exchange.getResponseHeaders().add("ETag", "\"" + md5(body) + "\"");
+                response = new byte[0];
+            } else {
+                exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.0");
+                response = scan(new JsonParser().parse(new String(body, StandardCharsets.UTF_8)).getAsJsonObject())
+                        .getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.sendResponseHeaders(200, response.length == 0 ? -1 : response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+
+        /**
+         * Renders the page of a DynamoDB {@code Scan} request starting after its exclusive start key.
+         *
+         * @param request the scan request
+         * @return the scan response
+         */
+        private String scan(JsonObject request) {
+            int from = request.has("ExclusiveStartKey")
+                    ? request.getAsJsonObject("ExclusiveStartKey").getAsJsonObject("id").get("N").getAsInt() + 1
+                    : 0;
+            int to = Math.min(items.size(), from + PAGE_SIZE);
+            StringBuilder response = new StringBuilder("{\"Count\":").append(to - from).append(",\"Items\":[");
+            response.append(String.join(",", items.subList(from, to))).append(']');
+            if (to < items.size()) {
+                response.append(",\"LastEvaluatedKey\":{\"id\":{\"N\":\"").append(to - 1).append("\"}}");
+            }
+            return response.append('}').toString();
+        }
+
+        /**
+         * Renders a synthetic {@link Equipment} item with the specified id in DynamoDB JSON.
+         *
+         * @param id     the id of the item
+         * @param random the source of the bonuses of the item
+         * @return the item in DynamoDB JSON
+         */
+        private static String item(int id, Random random) {
+            String slot = SLOTS[random.nextInt(SLOTS.length)];
+            StringBuilder item = new StringBuilder("{\"id\":").append(number(id))
+                    .append(",\"name\":{\"S\":\"Equipment ").append(id).append("\"}")
+                    .append(",\"occupiedSlots\":{\"L\":[{\"S\":\"").append(slot).append("\"}]}")
+                    .append(",\"combatBonuses\":{\"M\":{\"attackBonuses\":").append(attackTypeBonuses(random))
+                    .append(",\"defenceBonuses\":").append(attackTypeBonuses(random))
+                    .append(",\"prayerBonus\":").append(number(random.nextInt(6)))
+                    .append(",\"meleeStrength\":").append(number(random.nextInt(20)))
+                    .append(",\"rangedStrength\":").append(number(random.nextInt(20)))
+                    .append(",\"magicStrength\":").append(number(random.nextInt(5))).append("}}");
+            if (slot.equals("WEAPON")) {
+                item.append(",\"attackSpeed\":{\"M\":{\"type\":{\"S\":\"fixed\"},\"speed\":").append(number(4 + random.nextInt(3))).append("}}");
+            }
+            return item.append(",\"requirements\":{\"L\":[]}")
+                    .append(",\"weight\":{\"N\":\"").append(random.nextInt(100) / 10.0).append("\"}}")
+                    .toString();
+        }
+
+        /**
+         * Renders synthetic {@link AttackTypeBonuses} in DynamoDB JSON.
+         *
+         * @param random the source of the bonuses
+         * @return the bonuses in DynamoDB JSON
+         */
+        private static String attackTypeBonuses(Random random) {
+            StringBuilder bonuses = new StringBuilder("{\"M\":{");
+            for (int i = 0; i < BONUSES.length; i++) {
+                bonuses.append(i == 0 ? "" : ",").append('"').append(BONUSES[i]).append("\":").append(number(random.nextInt(100) - 10));
+            }
+            return bonuses.append("}}").toString();
+        }
+
+        /**
+         * Renders a number attribute in DynamoDB JSON.
+         *
+         * @param value the value of the attribute
+         * @return the number attribute in DynamoDB JSON
+         */
+        private static String number(int value) {
+            return "{\"N\":\"" + value + "\"}";
+        }
+
+        /**
+         * Calculates the hex MD5 digest of the specified bytes.
+         *
+         * @param bytes the bytes to digest
+         * @return the hex digest
+         */
+        private static String md5(byte[] bytes) {
+            try {
+                StringBuilder hex = new StringBuilder();
+                for (byte b : MessageDigest.getInstance("MD5").digest(bytes)) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
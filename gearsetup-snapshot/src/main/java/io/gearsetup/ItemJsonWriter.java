@@ -0,0 +1,132 @@
+package io.gearsetup;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import lombok.experimental.UtilityClass;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A utility class for writing the {@link Item} of a DynamoDB table snapshot as a JSON array with a streaming
+ * {@link JsonWriter}.
+ * <p>
+ * Each {@link Item} is written as a JSON object of its attributes in the same format as {@link Gson#toJson(Object)} of
+ * {@link Item#asMap()}, without copying the attributes or creating a reflective {@link Gson} instance. Attribute values
+ * are the simple values of the DynamoDB document API, where numbers are {@link Number}, binary values are
+ * {@code byte[]} written as an array of numbers, sets and lists are arrays, maps are objects and {@code null} attributes
+ * are omitted.
+ *
+ * @author Ian Caffey
+ * @since 1.0
+ */
+@UtilityClass
+class ItemJsonWriter {
+    /**
+     * Writes the specified {@link Item} as a UTF-8 JSON array.
+     *
+     * @param items the items to write
+     * @return the number of items written and the encoded JSON array
+     */
+    Snapshot write(Iterable<Item> items) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        int size = 0;
+        try (JsonWriter out = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            //matches the defaults of Gson#toJson
+            out.setHtmlSafe(true);
+            out.setSerializeNulls(false);
+            out.beginArray();
+            for (Item item : items) {
+                out.beginObject();
+                for (Map.Entry<String, Object> attribute : item.attributes()) {
+                    out.name(attribute.getKey());
+                    writeValue(out, attribute.getValue());
+                }
+                out.endObject();
+                size++;
+            }
+            out.endArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Snapshot(size, bytes.toByteArray());
+    }
+
+    /**
+     * Writes the specified simple value of the DynamoDB document API.
+     *
+     * @param out   the writer to write the value to
+     * @param value the value to write
+     * @throws IOException              indicating the writer failed to write the value
+     * @throws IllegalArgumentException indicating the value is not a simple value of the DynamoDB document API
+     */
+    private void writeValue(JsonWriter out, Object value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else if (value instanceof String) {
+            out.value((String) value);
+        } else if (value instanceof Number) {
+            out.value((Number) value);
+        } else if (value instanceof Boolean) {
+            out.value((Boolean) value);
+        } else if (value instanceof byte[]) {
+            out.beginArray();
+            for (byte element : (byte[]) value) {
+                out.value(element);
+            }
+            out.endArray();
+        } else if (value instanceof Collection) {
+            out.beginArray();
+            for (Object element : (Collection<?>) value) {
+                writeValue(out, element);
+            }
+            out.endArray();
+        } else if (value instanceof Map) {
+            out.beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                out.name(String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+            out.endObject();
+        } else {
+            throw new IllegalArgumentException("Unsupported DynamoDB attribute value " + value.getClass().getName() + ".");
+        }
+    }
+
+    /**
+     * A representation of a snapshot written by {@link ItemJsonWriter}.
+     */
+    static final class Snapshot {
+        private final int size;
+        private final byte[] json;
+
+        private Snapshot(int size, byte[] json) {
+            this.size = size;
+            this.json = json;
+        }
+
+        /**
+         * Represents the number of items of the snapshot.
+         *
+         * @return the number of items
+         */
+        int getSize() {
+            return size;
+        }
+
+        /**
+         * Represents the UTF-8 JSON array of the items of the snapshot.
+         *
+         * @return the encoded snapshot
+         */
+        byte[] getJson() {
+            return json;
+        }
+    }
+}
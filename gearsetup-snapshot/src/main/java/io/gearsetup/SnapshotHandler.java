@@ -1,5 +1,6 @@
 package io.gearsetup;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
 import com.amazonaws.services.dynamodbv2.document.Table;
@@ -7,11 +8,21 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.google.common.base.Suppliers;
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import lombok.NonNull;
+import io.gearsetup.data.S3SnapshotStorage;
+import io.gearsetup.data.SnapshotHistory;
+import io.gearsetup.gson.GearSetupGsonFactory;
 
-import java.util.HashSet;
-import java.util.Map;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * An implementation of an Amazon Lambda {@link RequestHandler} that takes snapshots of {@link AmazonDynamoDB} tables
@@ -21,14 +32,53 @@ import java.util.Set;
  * <p>
  * The snapshot file is stored in {@code s3://{{bucket}}/{{table}}/{{timestamp}}.json} as well as updating a "latest"
  * snapshot file {@code s3://{{bucket}}/{{table}}/latest.json}.
+ * <p>
+ * Snapshots of the {@link Equipment} table can also precompute the {@link BestInSlotTable} of the snapshot, which is
+ * stored as the JSON array of its {@link SlotRanking} in {@code s3://{{bucket}}/{{table}}/{{timestamp}}.bis.json} as well
+ * as {@code s3://{{bucket}}/{{table}}/latest.bis.json}.
+ * <p>
+ * Snapshots of the {@link Equipment} table can also be exported as {@link EquipmentColumns} for analytical scans, which
+ * is stored in {@code s3://{{bucket}}/{{table}}/{{timestamp}}.columns} as well as {@code s3://{{bucket}}/{{table}}/latest.columns}.
+ * <p>
+ * Snapshots of the {@link Equipment} table can also be recorded in the {@link SnapshotHistory} of the table in the same
+ * bucket, which stores each distinct record once and a manifest per snapshot for time-travel lookups and diffs.
+ * <p>
+ * The handler is built for fast cold starts. The {@link AmazonS3} and {@link AmazonDynamoDB} clients of the default
+ * handler are each created on first use and shared by every handler of the JVM, the table is written with a streaming
+ * {@link ItemJsonWriter} instead of a reflective {@link Gson}, and the {@link Gson} of {@link GearSetupGsonFactory} is
+ * only created for invocations that read the snapshot back as {@link Equipment}, which are the invocations requesting
+ * best-in-slot rankings, a columnar export or history.
  *
  * @author Ian Caffey
  * @since 1.0
  */
 public class SnapshotHandler implements RequestHandler<SnapshotRequest, SnapshotResponse> {
-    private final AmazonS3 amazonS3 = AmazonS3Client.builder().withRegion("us-east-1").build();
-    private final AmazonDynamoDB dynamoDb = AmazonDynamoDBClient.builder().withRegion("us-east-1").build();
-    private final Gson gson = new Gson();
+    private static final Type EQUIPMENT_TYPE = TypeToken.getParameterized(Set.class, Equipment.class).getType();
+    private static final Type RANKINGS_TYPE = TypeToken.getParameterized(Set.class, SlotRanking.class).getType();
+    private static final String REGION = "us-east-1";
+    private final Supplier<AmazonS3> amazonS3;
+    private final Supplier<AmazonDynamoDB> dynamoDb;
+
+    /**
+     * Constructs a new {@link SnapshotHandler} using the shared {@link AmazonS3} and {@link AmazonDynamoDB} clients of
+     * the {@code us-east-1} region, which are created on first use.
+     */
+    public SnapshotHandler() {
+        this(() -> SharedAmazonS3.INSTANCE, () -> SharedDynamoDb.INSTANCE);
+    }
+
+    /**
+     * Constructs a new {@link SnapshotHandler} using the specified {@link AmazonS3} and {@link AmazonDynamoDB} clients.
+     * <p>
+     * Each supplier is invoked at most once, the first time its client is used.
+     *
+     * @param amazonS3 the supplier of the client to upload snapshots with
+     * @param dynamoDb the supplier of the client to scan tables with
+     */
+    public SnapshotHandler(@NonNull Supplier<AmazonS3> amazonS3, @NonNull Supplier<AmazonDynamoDB> dynamoDb) {
+        this.amazonS3 = Suppliers.memoize(amazonS3::get)::get;
+        this.dynamoDb = Suppliers.memoize(dynamoDb::get)::get;
+    }
 
     /**
      * Accepts the {@link SnapshotRequest}, scans the entire {@link AmazonDynamoDB} table, serializes it to JSON,
@@ -36,6 +86,12 @@ public class SnapshotHandler implements RequestHandler<SnapshotRequest, Snapshot
      * <p>
      * The snapshot file is stored in {@code s3://{{bucket}}/{{table}}/{{timestamp}}.json} as well as updating a "latest"
      * snapshot file {@code s3://{{bucket}}/{{table}}/latest.json}.
+     * <p>
+     * If the request asks for best-in-slot rankings, the snapshot is read back as {@link Equipment} and the rankings of
+     * {@link BestInSlotTable#compute(java.util.Collection)} are uploaded next to the snapshot with the {@code .bis.json} extension.
+     * If the request asks for a columnar export, the {@link EquipmentColumns} of the snapshot are uploaded next to the
+     * snapshot with the {@code .columns} extension.
+     * If the request asks for history, the snapshot is written to the {@link SnapshotHistory} of the table.
      *
      * @param request the snapshot request
      * @param context the lambda context
@@ -48,15 +104,99 @@ public class SnapshotHandler implements RequestHandler<SnapshotRequest, Snapshot
         String bucket = request.getBucket();
         String key = table + "/" + time + ".json";
         String latestKey = table + "/latest.json";
-        Set<Map<String, Object>> items = new HashSet<>();
-        new Table(dynamoDb, table).scan().forEach(item -> items.add(item.asMap()));
-        String snapshot = gson.toJson(items);
-        amazonS3.putObject(bucket, key, snapshot);
-        amazonS3.putObject(bucket, latestKey, snapshot);
+        ItemJsonWriter.Snapshot snapshot = ItemJsonWriter.write(new Table(dynamoDb.get(), table).scan());
+        putObject(bucket, key, snapshot.getJson(), "application/json");
+        putObject(bucket, latestKey, snapshot.getJson(), "application/json");
+        Set<Equipment> equipment = request.isBestInSlot() || request.isColumnar() || request.isHistory() ? readEquipment(snapshot) : null;
+        if (request.isBestInSlot()) {
+            byte[] rankings = GearSetupGson.INSTANCE.toJson(BestInSlotTable.compute(equipment).getRankings(), RANKINGS_TYPE)
+                    .getBytes(StandardCharsets.UTF_8);
+            putObject(bucket, table + "/" + time + ".bis.json", rankings, "application/json");
+            putObject(bucket, table + "/latest.bis.json", rankings, "application/json");
+        }
+        if (request.isColumnar()) {
+            byte[] columns = EquipmentColumns.encode(equipment);
+            putObject(bucket, table + "/" + time + ".columns", columns, "application/octet-stream");
+            putObject(bucket, table + "/latest.columns", columns, "application/octet-stream");
+        }
+        if (request.isHistory()) {
+            new SnapshotHistory(new S3SnapshotStorage(amazonS3.get(), bucket), table).write(time, equipment);
+        }
         return SnapshotResponse.builder()
                 .time(time)
                 .destination(String.format("s3://%s/%s", bucket, key))
-                .snapshotSize(items.size())
+                .snapshotSize(snapshot.getSize())
                 .build();
     }
+
+    /**
+     * Reads the specified snapshot back as {@link Equipment}.
+     *
+     * @param snapshot the snapshot of the {@link Equipment} table
+     * @return the equipment of the snapshot
+     */
+    private Set<Equipment> readEquipment(ItemJsonWriter.Snapshot snapshot) {
+        InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(snapshot.getJson()), StandardCharsets.UTF_8);
+        return GearSetupGson.INSTANCE.fromJson(reader, EQUIPMENT_TYPE);
+    }
+
+    /**
+     * Uploads the specified object to {@link AmazonS3}.
+     *
+     * @param bucket      the bucket to upload to
+     * @param key         the key of the object
+     * @param bytes       the contents of the object
+     * @param contentType the content type of the object
+     */
+    private void putObject(String bucket, String key, byte[] bytes, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(bytes.length);
+        metadata.setContentType(contentType);
+        amazonS3.get().putObject(bucket, key, new ByteArrayInputStream(bytes), metadata);
+    }
+
+    /**
+     * Creates the {@link ClientConfiguration} of the shared clients.
+     * <p>
+     * An invocation makes a handful of sequential requests, so the connection pool is kept small and the idle
+     * connection reaper thread is not started. Uploads skip the {@code Expect: 100-continue} round trip.
+     *
+     * @return the client configuration
+     */
+    static ClientConfiguration clientConfiguration() {
+        return new ClientConfiguration()
+                .withMaxConnections(4)
+                .withReaper(false)
+                .withTcpKeepAlive(true)
+                .withUseExpectContinue(false);
+    }
+
+    /**
+     * The shared {@link AmazonS3} client of the default {@link SnapshotHandler}, which is created when the class is first
+     * initialized.
+     */
+    private static final class SharedAmazonS3 {
+        private static final AmazonS3 INSTANCE = AmazonS3Client.builder()
+                .withRegion(REGION)
+                .withClientConfiguration(clientConfiguration())
+                .build();
+    }
+
+    /**
+     * The shared {@link AmazonDynamoDB} client of the default {@link SnapshotHandler}, which is created when the class is
+     * first initialized.
+     */
+    private static final class SharedDynamoDb {
+        private static final AmazonDynamoDB INSTANCE = AmazonDynamoDBClient.builder()
+                .withRegion(REGION)
+                .withClientConfiguration(clientConfiguration())
+                .build();
+    }
+
+    /**
+     * The {@link Gson} of {@link GearSetupGsonFactory}, which is created when the class is first initialized.
+     */
+    private static final class GearSetupGson {
+        private static final Gson INSTANCE = GearSetupGsonFactory.create();
+    }
 }
@@ -1,10 +1,15 @@
 package io.gearsetup;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import io.gearsetup.data.SnapshotHistory;
 import lombok.Data;
 
 /**
  * A representation of the required parameters to the {@link SnapshotHandler} Lambda to complete {@link AmazonDynamoDB} snapshots.
+ * <p>
+ * Snapshots of the {@link Equipment} table set {@code bestInSlot} to also ship the precomputed {@link BestInSlotTable}
+ * and {@code columnar} to also ship the {@link EquipmentColumns} export of the snapshot. Setting {@code history} also
+ * records the snapshot in the content-addressed {@link SnapshotHistory} of the table.
  *
  * @author Ian Caffey
  * @since 1.0
@@ -13,4 +18,7 @@ import lombok.Data;
 public class SnapshotRequest {
     private String table;
     private String bucket;
+    private boolean bestInSlot;
+    private boolean columnar;
+    private boolean history;
 }